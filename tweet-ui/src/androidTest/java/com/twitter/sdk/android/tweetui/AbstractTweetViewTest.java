@@ -73,7 +73,7 @@ public abstract class AbstractTweetViewTest extends TweetUiTestCase {
     private void setUpMockDependencyProvider() {
         mockDependencyProvider = mock(TestDependencyProvider.class);
         when(mockDependencyProvider.getImageLoader())
-                .thenReturn(TweetUi.getInstance().getImageLoader());
+                .thenReturn(TweetUi.getInstance().getTweetImageLoader());
         when(mockDependencyProvider.getTweetUi()).thenReturn(TweetUi.getInstance());
     }
 
@@ -93,7 +93,7 @@ public abstract class BaseTweetViewTest extends TweetUiTestCase {
     private void setUpMockDependencyProvider() {
         mockDependencyProvider = mock(TestDependencyProvider.class);
         when(mockDependencyProvider.getImageLoader())
-                .thenReturn(TweetUi.getInstance().getImageLoader());
+                .thenReturn(TweetUi.getInstance().getTweetImageLoader());
         when(mockDependencyProvider.getTweetUi()).thenReturn(TweetUi.getInstance());
     }
 
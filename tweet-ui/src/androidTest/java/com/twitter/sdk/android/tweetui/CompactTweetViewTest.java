@@ -19,10 +19,11 @@ package com.twitter.sdk.android.tweetui;
 
 import android.content.Context;
 
-import com.squareup.picasso.Picasso;
-import com.squareup.picasso.RequestCreator;
 import com.twitter.sdk.android.core.models.Tweet;
 
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -94,15 +95,15 @@ public class CompactTweetViewTest extends BaseTweetViewTest {
     }
 
     public void testSetTweetPhoto() {
-        final Picasso mockPicasso = mock(Picasso.class);
-        final RequestCreator mockRequestCreator = mock(RequestCreator.class);
-        MockUtils.mockPicasso(mockPicasso, mockRequestCreator);
-        when(mockDependencyProvider.getImageLoader()).thenReturn(mockPicasso);
+        final ImageLoader mockImageLoader = mock(ImageLoader.class);
+        when(mockDependencyProvider.getImageLoader()).thenReturn(mockImageLoader);
 
         final CompactTweetView tv = createViewWithMocks(context, TestFixtures.TEST_PHOTO_TWEET,
                 R.style.tw__TweetLightStyle, mockDependencyProvider);
         // assert 1 load for profile photo, tweet photo loaded in TweetMediaView
-        verify(mockPicasso, times(1)).load(TestFixtures.TEST_PROFILE_IMAGE_URL);
+        verify(mockImageLoader, times(1)).load(
+                argThat(request -> TestFixtures.TEST_PROFILE_IMAGE_URL.equals(request.url)),
+                eq(tv.avatarView), isNull());
     }
 
     public void testGetAspectRatioForPhotoEntity() {
@@ -17,11 +17,6 @@
 
 package com.twitter.sdk.android.tweetui;
 
-import android.graphics.drawable.Drawable;
-import android.widget.ImageView;
-
-import com.squareup.picasso.Picasso;
-import com.squareup.picasso.RequestCreator;
 import com.twitter.sdk.android.core.Session;
 import com.twitter.sdk.android.core.TwitterApiClient;
 import com.twitter.sdk.android.core.services.StatusesService;
@@ -34,12 +29,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import retrofit2.Call;
 
-import static org.mockito.ArgumentMatchers.isNull;
-import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyObject;
-import static org.mockito.Matchers.anyString;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -47,19 +37,6 @@ final class MockUtils {
 
     private MockUtils() {}
 
-    static Picasso mockPicasso(Picasso picasso, RequestCreator requestCreator) {
-        when(picasso.load(anyString())).thenReturn(requestCreator);
-        when(picasso.load(anyInt())).thenReturn(requestCreator);
-        when(picasso.load(isNull(String.class))).thenReturn(requestCreator);
-        when(requestCreator.centerCrop()).thenReturn(requestCreator);
-        when(requestCreator.error(anyInt())).thenReturn(requestCreator);
-        when(requestCreator.fit()).thenReturn(requestCreator);
-        when(requestCreator.placeholder(any(Drawable.class)))
-                .thenReturn(requestCreator);
-        doNothing().when(requestCreator).into(any(ImageView.class));
-        return picasso;
-    }
-
     static void mockApiClient(TwitterApiClient apiClient) {
         final StatusesService statusesService = mock(StatusesService.class, new MockCallAnswer());
 
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.twitter.sdk.android.core.models.HashtagEntity;
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.models.TweetBuilder;
+import com.twitter.sdk.android.core.models.TweetEntities;
+import com.twitter.sdk.android.core.models.UrlEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times {@link TweetTextUtils#formatTweetText(Tweet)} on emoji and entity heavy Tweets. Results
+ * are written to logcat so they can be compared across devices.
+ */
+public class TweetTextUtilsBenchmarkTest extends AndroidTestCase {
+    private static final String TAG = "TweetTextUtilsBenchmark";
+    private static final int WARMUP_ITERATIONS = 1000;
+    private static final int ITERATIONS = 10000;
+    private static final int SEGMENTS = 12;
+
+    public void testFormatTweetText_emojiHeavy() {
+        final Tweet tweet = createEmojiHeavyTweet();
+
+        FormattedTweetText formatted = null;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            formatted = TweetTextUtils.formatTweetText(tweet);
+        }
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            formatted = TweetTextUtils.formatTweetText(tweet);
+        }
+        final long elapsed = System.nanoTime() - start;
+        Log.i(TAG, "formatTweetText: " + elapsed / ITERATIONS + " ns/op");
+
+        assertEquals(SEGMENTS, formatted.hashtagEntities.size());
+        final FormattedUrlEntity hashtag = formatted.hashtagEntities.get(SEGMENTS - 1);
+        assertEquals("#tag" + (SEGMENTS - 1),
+                formatted.text.substring(hashtag.start, hashtag.end));
+    }
+
+    private static Tweet createEmojiHeavyTweet() {
+        final StringBuilder text = new StringBuilder();
+        final List<HashtagEntity> hashtags = new ArrayList<>();
+        final List<UrlEntity> urls = new ArrayList<>();
+        for (int i = 0; i < SEGMENTS; i++) {
+            text.append("\ud83d\ude00\ud83d\udc93 &amp; ");
+            final int hashtagStart = text.codePointCount(0, text.length());
+            text.append("#tag").append(i).append(' ');
+            final int hashtagEnd = text.codePointCount(0, text.length()) - 1;
+            hashtags.add(new HashtagEntity("tag" + i, hashtagStart, hashtagEnd));
+        }
+        final int urlStart = text.codePointCount(0, text.length());
+        text.append("https://t.co/abc");
+        final int urlEnd = text.codePointCount(0, text.length());
+        urls.add(new UrlEntity("https://t.co/abc", "https://example.com", "example.com",
+                urlStart, urlEnd));
+
+        return new TweetBuilder()
+                .setText(text.toString())
+                .setEntities(new TweetEntities(urls, null, null, hashtags, null))
+                .build();
+    }
+}
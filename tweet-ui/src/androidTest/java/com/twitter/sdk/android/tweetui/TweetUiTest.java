@@ -60,6 +60,20 @@ public class TweetUiTest extends AndroidTestCase {
         assertEquals(identifier, tweetUi.getIdentifier());
     }
 
+    public void testGetImageLoader_defaultLoader() {
+        final ImageLoader imageLoader = tweetUi.getTweetImageLoader();
+        assertTrue(imageLoader instanceof PicassoImageLoader);
+        assertSame(((PicassoImageLoader) imageLoader).picasso, tweetUi.getImageLoader());
+    }
+
+    public void testGetImageLoader_customLoader() {
+        final ImageLoader imageLoader = mock(ImageLoader.class);
+        tweetUi.setImageLoader(imageLoader);
+
+        assertSame(imageLoader, tweetUi.getTweetImageLoader());
+        assertNull(tweetUi.getImageLoader());
+    }
+
     public void testGetInstance_tweeterStarted() {
         try {
             final TweetUi instance = TweetUi.getInstance();
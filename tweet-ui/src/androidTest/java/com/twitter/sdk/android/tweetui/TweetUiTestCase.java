@@ -21,8 +21,6 @@ import android.os.Handler;
 import android.test.AndroidTestCase;
 import android.util.Log;
 
-import com.squareup.picasso.Picasso;
-import com.squareup.picasso.RequestCreator;
 import com.twitter.sdk.android.core.DefaultLogger;
 import com.twitter.sdk.android.core.Session;
 import com.twitter.sdk.android.core.SessionManager;
@@ -44,7 +42,7 @@ public class TweetUiTestCase extends AndroidTestCase {
     protected TweetUi tweetUi;
 
     // mocks
-    protected Picasso picasso;
+    protected ImageLoader imageLoader;
     protected Handler mainHandler;
     private TwitterApiClient apiClient;
     private ConcurrentHashMap<Session, TwitterApiClient> clients;
@@ -70,7 +68,7 @@ public class TweetUiTestCase extends AndroidTestCase {
         final TweetRepository tweetRepository = new TweetRepository(mainHandler,
                 mock(SessionManager.class), twitterCore);
         tweetUi.setTweetRepository(tweetRepository);
-        tweetUi.setImageLoader(picasso);
+        tweetUi.setImageLoader(imageLoader);
     }
 
     @Override
@@ -85,7 +83,7 @@ public class TweetUiTestCase extends AndroidTestCase {
 
     private void createMocks() {
         mainHandler = mock(Handler.class);
-        picasso = MockUtils.mockPicasso(mock(Picasso.class), mock(RequestCreator.class));
+        imageLoader = mock(ImageLoader.class);
 
         apiClient = mock(TwitterApiClient.class);
         MockUtils.mockApiClient(apiClient);
@@ -76,6 +76,21 @@ public class TweetViewTest extends BaseTweetViewTest {
     }
 
     // Layout
+    public void testRender_usesOverriddenLinkifiedText() {
+        final TweetView view = new TweetView(context, TestFixtures.TEST_TWEET) {
+            @Override
+            protected CharSequence getLinkifiedText(Tweet displayTweet) {
+                return "overridden";
+            }
+        };
+        assertEquals("overridden", view.contentView.getText().toString());
+    }
+
+    public void testGetLinkifiedText_defaultsToRenderModelText() {
+        final TweetView view = createView(context, TestFixtures.TEST_TWEET);
+        assertSame(view.renderModel.text, view.getLinkifiedText(view.renderModel.displayTweet));
+    }
+
     public void testLayout() {
         final TweetView tweetView = new TweetView(context, TestFixtures.TEST_TWEET);
         assertEquals(R.layout.tw__tweet, tweetView.getLayout());
@@ -17,8 +17,6 @@
 
 package com.twitter.sdk.android.tweetui;
 
-import com.squareup.picasso.Picasso;
-
 public class TestDependencyProvider extends BaseTweetView.DependencyProvider {
     @Override
     public TweetUi getTweetUi() {
@@ -26,7 +24,7 @@ public class TestDependencyProvider extends BaseTweetView.DependencyProvider {
     }
 
     @Override
-    public Picasso getImageLoader() {
+    public ImageLoader getImageLoader() {
         return super.getImageLoader();
     }
 }
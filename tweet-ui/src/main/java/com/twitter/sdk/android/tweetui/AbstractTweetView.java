@@ -30,24 +30,16 @@ import android.widget.ImageView;
 import android.widget.RelativeLayout;
 import android.widget.TextView;
 
-import com.squareup.picasso.Picasso;
 import com.twitter.sdk.android.core.IntentUtils;
 import com.twitter.sdk.android.core.Twitter;
-import com.twitter.sdk.android.core.internal.UserUtils;
-import com.twitter.sdk.android.core.internal.VineCardUtils;
-import com.twitter.sdk.android.core.models.Card;
 import com.twitter.sdk.android.core.models.ImageValue;
 import com.twitter.sdk.android.core.models.MediaEntity;
 import com.twitter.sdk.android.core.models.Tweet;
 import com.twitter.sdk.android.tweetui.internal.AspectRatioFrameLayout;
 import com.twitter.sdk.android.tweetui.internal.MediaBadgeView;
 import com.twitter.sdk.android.tweetui.internal.SpanClickHandler;
-import com.twitter.sdk.android.tweetui.internal.TweetMediaUtils;
 import com.twitter.sdk.android.tweetui.internal.TweetMediaView;
 
-import java.text.DateFormat;
-import java.util.Collections;
-import java.util.Date;
 import java.util.List;
 
 
@@ -72,7 +64,12 @@ abstract class AbstractTweetView extends RelativeLayout{
     TweetLinkClickListener tweetLinkClickListener;
     TweetMediaClickListener tweetMediaClickListener;
     private Uri permalinkUri;
+    private boolean permalinkLauncherSet;
     Tweet tweet;
+    // display values of the Tweet, set by render
+    TweetRenderModel renderModel;
+    // tag of the image loads, or null
+    Object imageLoadTag;
 
     // for testing
     int styleResId;
@@ -85,6 +82,7 @@ abstract class AbstractTweetView extends RelativeLayout{
     TweetMediaView tweetMediaView;
     TextView contentView;
     MediaBadgeView mediaBadgeView;
+    private SpanClickHandler entityClickHandler;
 
     // color values
     int primaryTextColor;
@@ -205,28 +203,61 @@ abstract class AbstractTweetView extends RelativeLayout{
         this.tweetLinkClickListener = tweetLinkClickListener;
     }
 
+    /**
+     * Tags the image loads of the view so the prefetcher can pause them, and reports the width of
+     * the Tweet media to the prefetcher whenever the media is laid out at a new width, so images
+     * can be prefetched at the size they are shown at.
+     * @param imagePrefetcher the prefetcher shared by the views of a timeline
+     */
+    void setImagePrefetcher(final TweetImagePrefetcher imagePrefetcher) {
+        imageLoadTag = imagePrefetcher.tag;
+        tweetMediaView.setImageLoadTag(imagePrefetcher.tag);
+        imagePrefetcher.setSizingView(this);
+        tweetMediaView.addOnLayoutChangeListener((v, left, top, right, bottom, oldLeft, oldTop,
+                oldRight, oldBottom) -> {
+            if (right - left != oldRight - oldLeft) {
+                imagePrefetcher.setMediaWidth(right - left);
+            }
+        });
+    }
+
+    /**
+     * Adds requests for the images the view loads when bound to the model to requests, for media
+     * laid out at the given width.
+     * @param model the render model of the Tweet
+     * @param mediaWidth the width of the Tweet media, or 0 if unknown
+     * @param requests the list to add the requests to
+     */
+    void getImageRequests(TweetRenderModel model, int mediaWidth,
+            List<ImageRequest> requests) {
+        // Vine previews are loaded as they are, there is no variant to choose ahead of time
+        if (mediaWidth <= 0 || !model.hasMedia() || model.vineImage != null) return;
+
+        final int mediaHeight = (int) (mediaWidth / getMediaAspectRatio(model));
+        tweetMediaView.getImageRequests(model.mediaEntities, mediaWidth, mediaHeight, requests);
+    }
+
     /**
      * Render the Tweet by updating the subviews. For any data that is missing from the Tweet,
      * invalidate the subview value (e.g. text views set to empty string) for view recycling.
-     * Do not call with render true until inflation has completed.
+     * Do not call with render true until inflation has completed. The display values come from
+     * the render model of the Tweet, which is usually created before the Tweet is bound.
      */
     void render() {
-        final Tweet displayTweet = TweetUtils.getDisplayTweet(tweet);
-        setName(displayTweet);
-        setScreenName(displayTweet);
-        setTweetMedia(displayTweet);
-        setText(displayTweet);
-        setContentDescription(displayTweet);
-
-        // set permalink if tweet id and screen name are available
-        if (TweetUtils.isTweetResolvable(tweet)) {
-            setPermalinkUri(tweet.user.screenName, getTweetId());
-        } else {
-            permalinkUri = null;
+        renderModel = dependencyProvider.getTweetUi().getTweetRepository()
+                .getRenderModel(tweet, getResources());
+        fullNameView.setText(renderModel.name);
+        screenNameView.setText(renderModel.screenName);
+        setTweetMedia(renderModel);
+        setText(Utils.charSeqOrEmpty(getLinkifiedText(renderModel.displayTweet)));
+        setContentDescription(renderModel.contentDescription);
+        permalinkUri = renderModel.permalinkUri;
+
+        // the launcher reads the current permalinkUri, so it is only set once
+        if (!permalinkLauncherSet) {
+            setOnClickListener(new PermalinkClickListener());
+            permalinkLauncherSet = true;
         }
-
-        // set or update the permalink launcher with the current permalinkUri
-        setPermalinkLauncher();
     }
 
     Uri getPermalinkUri() {
@@ -238,12 +269,6 @@ abstract class AbstractTweetView extends RelativeLayout{
         permalinkUri = TweetUtils.getPermalink(screenName, tweetId);
     }
 
-    private void setPermalinkLauncher() {
-        final OnClickListener listener = new PermalinkClickListener();
-
-        this.setOnClickListener(listener);
-    }
-
     void launchPermalink() {
         final Intent intent = new Intent(Intent.ACTION_VIEW, getPermalinkUri());
         if (!IntentUtils.safeStartActivity(getContext(), intent)) {
@@ -252,39 +277,32 @@ abstract class AbstractTweetView extends RelativeLayout{
     }
 
     /**
-     * Sets the Tweet author name. If author name is unavailable, resets to empty string.
-     */
-    private void setName(Tweet displayTweet) {
-        if (displayTweet != null && displayTweet.user != null) {
-            fullNameView.setText(Utils.stringOrEmpty(displayTweet.user.name));
-        } else {
-            fullNameView.setText(EMPTY_STRING);
-        }
-    }
-
-    /**
-     * Sets the Tweet author screen name. If screen name is unavailable, resets to empty string.
+     * @param displayTweet The unformatted Tweet
+     * @return The linkified text with display url's subbed for t.co links
      */
-    private void setScreenName(Tweet displayTweet) {
-        if (displayTweet != null && displayTweet.user != null) {
-            screenNameView.setText(UserUtils.formatScreenName(
-                    Utils.stringOrEmpty(displayTweet.user.screenName)));
-        } else {
-            screenNameView.setText(EMPTY_STRING);
+    protected CharSequence getLinkifiedText(Tweet displayTweet) {
+        if (renderModel != null && renderModel.displayTweet == displayTweet) {
+            return renderModel.text;
         }
+        return dependencyProvider.getTweetUi().getTweetRepository()
+                .linkifyTweetText(displayTweet);
     }
 
     /**
      * Sets the Tweet text. If the Tweet text is unavailable, resets to empty string.
      */
     @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
-    private void setText(Tweet displayTweet) {
+    private void setText(CharSequence tweetText) {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
             contentView.setImportantForAccessibility(IMPORTANT_FOR_ACCESSIBILITY_NO);
         }
-        final CharSequence tweetText = Utils.charSeqOrEmpty(getLinkifiedText(displayTweet));
-        SpanClickHandler.enableClicksOnSpans(contentView);
+        if (entityClickHandler == null) {
+            entityClickHandler = SpanClickHandler.enableClicksOnEntities(contentView,
+                    this::onEntityClick);
+        }
+        entityClickHandler.setHighlightColor(actionHighlightColor);
         if (!TextUtils.isEmpty(tweetText)) {
+            // the shared text is set as is, pressing an entity makes a spannable copy
             contentView.setText(tweetText);
             contentView.setVisibility(VISIBLE);
         } else {
@@ -294,37 +312,44 @@ abstract class AbstractTweetView extends RelativeLayout{
     }
 
     final void setTweetMedia(Tweet displayTweet) {
+        setTweetMedia(dependencyProvider.getTweetUi().getTweetRepository()
+                .getRenderModel(displayTweet, getResources()));
+    }
+
+    final void setTweetMedia(TweetRenderModel model) {
         clearTweetMedia();
 
-        if (displayTweet == null) {
+        if (!model.hasMedia()) {
             return;
         }
 
-        if (displayTweet.card != null && VineCardUtils.isVine(displayTweet.card)) {
-            final Card card = displayTweet.card;
-            final ImageValue imageValue = VineCardUtils.getImageValue(card);
-            final String playerStreamUrl = VineCardUtils.getStreamUrl(card);
-            // Make sure we have required bindings for Vine card
-            if (imageValue != null && !TextUtils.isEmpty(playerStreamUrl)) {
-                setViewsForMedia(getAspectRatio(imageValue));
-                tweetMediaView.setVineCard(displayTweet);
-                mediaBadgeView.setVisibility(View.VISIBLE);
-                mediaBadgeView.setCard(card);
-            }
-        } else if (TweetMediaUtils.hasSupportedVideo(displayTweet)) {
-            final MediaEntity mediaEntity = TweetMediaUtils.getVideoEntity(displayTweet);
-            setViewsForMedia(getAspectRatio(mediaEntity));
-            tweetMediaView.setTweetMediaEntities(tweet, Collections.singletonList(mediaEntity));
+        setViewsForMedia(getMediaAspectRatio(model));
+        if (model.vineImage != null) {
+            tweetMediaView.setVineCard(model.displayTweet);
+            mediaBadgeView.setVisibility(View.VISIBLE);
+            mediaBadgeView.setCard(model.displayTweet.card);
+        } else if (model.viewType == TweetViewType.VIDEO) {
+            tweetMediaView.setTweetMediaEntities(model.tweet, model.mediaEntities);
             mediaBadgeView.setVisibility(View.VISIBLE);
-            mediaBadgeView.setMediaEntity(mediaEntity);
-        } else if (TweetMediaUtils.hasPhoto(displayTweet)) {
-            final List<MediaEntity> mediaEntities = TweetMediaUtils.getPhotoEntities(displayTweet);
-            setViewsForMedia(getAspectRatioForPhotoEntity(mediaEntities.size()));
-            tweetMediaView.setTweetMediaEntities(displayTweet, mediaEntities);
+            mediaBadgeView.setMediaEntity(model.mediaEntities.get(0));
+        } else {
+            tweetMediaView.setTweetMediaEntities(model.displayTweet, model.mediaEntities);
             mediaBadgeView.setVisibility(View.GONE);
         }
     }
 
+    /**
+     * @return the aspect ratio of the media container for the media of the model
+     */
+    double getMediaAspectRatio(TweetRenderModel model) {
+        if (model.vineImage != null) {
+            return getAspectRatio(model.vineImage);
+        } else if (model.viewType == TweetViewType.VIDEO) {
+            return getAspectRatio(model.mediaEntities.get(0));
+        }
+        return getAspectRatioForPhotoEntity(model.mediaEntities.size());
+    }
+
     void setViewsForMedia(double aspectRatio) {
         mediaContainer.setVisibility(ImageView.VISIBLE);
         mediaContainer.setAspectRatio(aspectRatio);
@@ -355,44 +380,18 @@ abstract class AbstractTweetView extends RelativeLayout{
     }
 
     /**
-     * @param displayTweet The unformatted Tweet
-     * @return The linkified text with display url's subbed for t.co links
+     * Opens the entity of the Tweet text whose span was clicked.
+     * @param entityIndex index of the entity in the sorted entities of the formatted text
      */
-    protected CharSequence getLinkifiedText(Tweet displayTweet) {
+    void onEntityClick(int entityIndex) {
         final FormattedTweetText formattedText = dependencyProvider.getTweetUi()
-                .getTweetRepository().formatTweetText(displayTweet);
-
-        if (formattedText == null) return null;
-
-        final boolean stripVineCard = displayTweet.card != null
-                && VineCardUtils.isVine(displayTweet.card);
-
-        final boolean stripQuoteTweet = TweetUtils.showQuoteTweet(displayTweet);
-
-        return TweetTextLinkifier.linkifyUrls(formattedText, getLinkClickListener(), actionColor,
-                actionHighlightColor, stripQuoteTweet, stripVineCard);
-    }
-
-    void setContentDescription(Tweet displayTweet) {
-        if (!TweetUtils.isTweetResolvable(displayTweet)) {
-            setContentDescription(getResources().getString(R.string.tw__loading_tweet));
-            return;
-        }
-
-        final FormattedTweetText formattedTweetText = dependencyProvider.getTweetUi()
-                .getTweetRepository().formatTweetText(displayTweet);
-        String tweetText = null;
-        if (formattedTweetText != null) tweetText = formattedTweetText.text;
+                .getTweetRepository().formatTweetText(TweetUtils.getDisplayTweet(tweet));
+        if (formattedText == null) return;
 
-        final long createdAt = TweetDateUtils.apiTimeToLong(displayTweet.createdAt);
-        String timestamp = null;
-        if (createdAt != TweetDateUtils.INVALID_DATE) {
-            timestamp = DateFormat.getDateInstance().format(new Date(createdAt));
+        final List<FormattedUrlEntity> entities = TweetTextLinkifier.getEntities(formattedText);
+        if (entityIndex >= 0 && entityIndex < entities.size()) {
+            getLinkClickListener().onUrlClicked(entities.get(entityIndex).url);
         }
-
-        setContentDescription(getResources().getString(R.string.tw__tweet_content_description,
-                Utils.stringOrEmpty(displayTweet.user.name), Utils.stringOrEmpty(tweetText),
-                Utils.stringOrEmpty(timestamp)));
     }
 
     protected LinkClickListener getLinkClickListener() {
@@ -437,8 +436,8 @@ abstract class AbstractTweetView extends RelativeLayout{
         /**
          * Can be null if run before TweetUi#doInBackground completes
          */
-        Picasso getImageLoader() {
-            return TweetUi.getInstance().getImageLoader();
+        ImageLoader getImageLoader() {
+            return TweetUi.getInstance().getTweetImageLoader();
         }
     }
 }
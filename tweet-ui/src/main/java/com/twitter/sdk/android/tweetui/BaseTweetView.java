@@ -20,7 +20,6 @@ package com.twitter.sdk.android.tweetui;
 import android.content.Context;
 import android.content.Intent;
 import android.content.res.TypedArray;
-import android.graphics.Color;
 import android.graphics.PorterDuff;
 import android.graphics.drawable.ColorDrawable;
 import android.net.Uri;
@@ -31,7 +30,6 @@ import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 
-import com.squareup.picasso.Picasso;
 import com.twitter.sdk.android.core.Callback;
 import com.twitter.sdk.android.core.IntentUtils;
 import com.twitter.sdk.android.core.Result;
@@ -40,7 +38,9 @@ import com.twitter.sdk.android.core.TwitterException;
 import com.twitter.sdk.android.core.internal.UserUtils;
 import com.twitter.sdk.android.core.models.Tweet;
 import com.twitter.sdk.android.core.models.TweetBuilder;
+import com.twitter.sdk.android.tweetui.internal.ImageVariants;
 
+import java.util.List;
 import java.util.Locale;
 
 public abstract class BaseTweetView extends AbstractTweetView {
@@ -61,6 +61,17 @@ public abstract class BaseTweetView extends AbstractTweetView {
     // styled drawables for images
     ColorDrawable avatarMediaBg;
 
+    // created at time of the display Tweet and its relative time shown by the timestamp view
+    long createdAtTimestamp = TweetDateUtils.INVALID_DATE;
+    String relativeTimestamp;
+    final TimestampTicker.Listener timestampListener = this::updateTimestamp;
+    boolean timestampTicking;
+    private boolean profilePhotoLinkified;
+    // load of the XML defined Tweet, null once it completed
+    TweetLoad tweetLoad;
+    // true if the load was cancelled on detach and restarts on attach
+    boolean reloadOnAttach;
+
     /**
      * Constructs a view from the given Tweet.
      * @param context the context of the view
@@ -132,13 +143,7 @@ public abstract class BaseTweetView extends AbstractTweetView {
      */
     private void initAttributes(int styleResId) {
         this.styleResId = styleResId;
-        final TypedArray a = getContext().getTheme().obtainStyledAttributes(styleResId,
-                R.styleable.tw__TweetView);
-        try {
-            setStyleAttributes(a);
-        } finally {
-            a.recycle();
-        }
+        setStyle(TweetViewStyle.get(getContext(), styleResId));
     }
 
     /**
@@ -155,7 +160,7 @@ public abstract class BaseTweetView extends AbstractTweetView {
                 R.styleable.tw__TweetView, 0, 0);
         try {
             setXmlDataAttributes(a);
-            setStyleAttributes(a);
+            setStyle(TweetViewStyle.from(a, getResources()));
         } finally {
             a.recycle();
         }
@@ -179,51 +184,20 @@ public abstract class BaseTweetView extends AbstractTweetView {
     }
 
     /**
-     * Parses and sets style attributes. Must be called before view inflation. Defaults style
-     * attributes to the light style values.
-     * @param a A TypedArray holding style-related attribute values.
-     */
-    private void setStyleAttributes(TypedArray a) {
-        // Styled via attributes
-        containerBgColor = a.getColor(R.styleable.tw__TweetView_tw__container_bg_color,
-                getResources().getColor(R.color.tw__tweet_light_container_bg_color));
-        primaryTextColor = a.getColor(R.styleable.tw__TweetView_tw__primary_text_color,
-                getResources().getColor(R.color.tw__tweet_light_primary_text_color));
-        actionColor = a.getColor(
-                R.styleable.tw__TweetView_tw__action_color,
-                getResources().getColor(R.color.tw__tweet_action_color));
-        actionHighlightColor = a.getColor(
-                R.styleable.tw__TweetView_tw__action_highlight_color,
-                getResources().getColor(R.color.tw__tweet_action_light_highlight_color));
-        tweetActionsEnabled =
-                a.getBoolean(R.styleable.tw__TweetView_tw__tweet_actions_enabled, false);
-
-        // Calculated colors
-        final boolean isLightBg = ColorUtils.isLightColor(containerBgColor);
-
-        if (isLightBg) {
-            photoErrorResId = R.drawable.tw__ic_tweet_photo_error_light;
-            birdLogoResId = R.drawable.tw__ic_logo_blue;
-            retweetIconResId = R.drawable.tw__ic_retweet_light;
-        } else {
-            photoErrorResId = R.drawable.tw__ic_tweet_photo_error_dark;
-            birdLogoResId = R.drawable.tw__ic_logo_white;
-            retweetIconResId = R.drawable.tw__ic_retweet_dark;
-        }
-
-        // offset from white when background is light
-        secondaryTextColor = ColorUtils.calculateOpacityTransform(
-                isLightBg ? SECONDARY_TEXT_COLOR_LIGHT_OPACITY : SECONDARY_TEXT_COLOR_DARK_OPACITY,
-                isLightBg ? Color.WHITE : Color.BLACK,
-                primaryTextColor
-        );
-
-        // offset from black when background is light
-        mediaBgColor = ColorUtils.calculateOpacityTransform(
-                isLightBg ? MEDIA_BG_LIGHT_OPACITY : MEDIA_BG_DARK_OPACITY,
-                isLightBg ? Color.BLACK : Color.WHITE,
-                containerBgColor
-        );
+     * Sets the style values, which are applied to the subviews by applyStyles.
+     * @param style the resolved Tweet view style, defaulting to the light style values
+     */
+    private void setStyle(TweetViewStyle style) {
+        containerBgColor = style.containerBgColor;
+        primaryTextColor = style.primaryTextColor;
+        secondaryTextColor = style.secondaryTextColor;
+        actionColor = style.actionColor;
+        actionHighlightColor = style.actionHighlightColor;
+        mediaBgColor = style.mediaBgColor;
+        tweetActionsEnabled = style.tweetActionsEnabled;
+        photoErrorResId = style.photoErrorResId;
+        birdLogoResId = style.birdLogoResId;
+        retweetIconResId = style.retweetIconResId;
 
         avatarMediaBg = new ColorDrawable(mediaBgColor);
     }
@@ -231,6 +205,8 @@ public abstract class BaseTweetView extends AbstractTweetView {
     /**
      * LoadTweet will trigger a request to the Twitter API and hydrate the view with the result.
      * In the event of an error it will call the listener that was provided to setOnTwitterApiError.
+     * The load is cancelled if the view is detached or given another Tweet before it completes.
+     * The Tweet is loaded in a batch with the Tweets of other views inflated in the same frame.
      */
     private void loadTweet() {
         final long tweetId = getTweetId();
@@ -238,16 +214,68 @@ public abstract class BaseTweetView extends AbstractTweetView {
         final Callback<Tweet> repoCb = new Callback<Tweet>() {
             @Override
             public void success(Result<Tweet> result) {
+                tweetLoad = null;
                 setTweet(result.data);
             }
 
             @Override
             public void failure(TwitterException exception) {
+                tweetLoad = null;
                 Twitter.getLogger().d(TAG,
                         String.format(Locale.ENGLISH, TweetUtils.LOAD_TWEET_DEBUG, tweetId));
             }
         };
-        dependencyProvider.getTweetUi().getTweetRepository().loadTweet(getTweetId(), repoCb);
+        tweetLoad = dependencyProvider.getTweetUi().getTweetRepository()
+                .loadTweetBatched(tweetId, repoCb);
+    }
+
+    /**
+     * Cancels the pending load of the XML defined Tweet, so its result is not set on the view.
+     */
+    private void cancelTweetLoad() {
+        reloadOnAttach = false;
+        if (tweetLoad != null) {
+            tweetLoad.cancel();
+            tweetLoad = null;
+        }
+    }
+
+    /**
+     * Set the Tweet to be displayed and update the subviews. A pending load of the XML defined
+     * Tweet is cancelled, since it would replace the given Tweet.
+     * @param tweet Tweet data
+     */
+    @Override
+    public void setTweet(Tweet tweet) {
+        cancelTweetLoad();
+        super.setTweet(tweet);
+    }
+
+    /**
+     * Restarts the load of the XML defined Tweet if it was cancelled on detach.
+     */
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        if (reloadOnAttach) {
+            reloadOnAttach = false;
+            loadTweet();
+        }
+    }
+
+    /**
+     * Cancels the pending load of the XML defined Tweet, its result would only be set on a view
+     * which is no longer shown. The Tweet is loaded again when the view is attached again.
+     */
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+
+        if (tweetLoad != null) {
+            cancelTweetLoad();
+            reloadOnAttach = true;
+        }
     }
 
     /**
@@ -309,27 +337,29 @@ public abstract class BaseTweetView extends AbstractTweetView {
     void render() {
         super.render();
 
-        final Tweet displayTweet = TweetUtils.getDisplayTweet(tweet);
-        setProfilePhotoView(displayTweet);
-        linkifyProfilePhotoView(displayTweet);
-        setTimestamp(displayTweet);
+        setProfilePhotoView(renderModel.displayTweet);
+        linkifyProfilePhotoView();
+        setTimestamp(renderModel.createdAt);
         setTweetActions(tweet);
-        showRetweetedBy(tweet);
+        showRetweetedBy(renderModel.retweetedBy);
         setQuoteTweet(tweet);
     }
 
+    /**
+     * Shows the quoted Tweet, reusing the quote view of the previously bound Tweet.
+     */
     void setQuoteTweet(Tweet tweet) {
-        quoteTweetView = null;
-        quoteTweetHolder.removeAllViews();
         if (tweet != null && TweetUtils.showQuoteTweet(tweet)) {
-            quoteTweetView = new QuoteTweetView(getContext());
-            quoteTweetView.setStyle(primaryTextColor, secondaryTextColor, actionColor,
-                    actionHighlightColor, mediaBgColor, photoErrorResId);
+            if (quoteTweetView == null) {
+                quoteTweetView = new QuoteTweetView(getContext());
+                quoteTweetView.setStyle(primaryTextColor, secondaryTextColor, actionColor,
+                        actionHighlightColor, mediaBgColor, photoErrorResId);
+                quoteTweetHolder.addView(quoteTweetView);
+            }
             quoteTweetView.setTweet(tweet.quotedStatus);
             quoteTweetView.setTweetLinkClickListener(tweetLinkClickListener);
             quoteTweetView.setTweetMediaClickListener(tweetMediaClickListener);
             quoteTweetHolder.setVisibility(View.VISIBLE);
-            quoteTweetHolder.addView(quoteTweetView);
         } else {
             quoteTweetHolder.setVisibility(View.GONE);
         }
@@ -337,14 +367,13 @@ public abstract class BaseTweetView extends AbstractTweetView {
 
     /**
      * Toggles display of "Retweeted by" text based on status from the API.
-     * @param tweet The status from the API, if it is a retweet show the "retweeted by" text
+     * @param retweetedBy the "retweeted by" text, or null if the Tweet is not a retweet
      */
-    void showRetweetedBy(Tweet tweet) {
-        if (tweet == null || tweet.retweetedStatus == null) {
+    void showRetweetedBy(String retweetedBy) {
+        if (retweetedBy == null) {
             retweetedByView.setVisibility(GONE);
         } else {
-            retweetedByView.setText(
-                    getResources().getString(R.string.tw__retweeted_by_format, tweet.user.name));
+            retweetedByView.setText(retweetedBy);
             retweetedByView.setVisibility(VISIBLE);
         }
     }
@@ -358,6 +387,7 @@ public abstract class BaseTweetView extends AbstractTweetView {
         fullNameView.setTextColor(primaryTextColor);
         screenNameView.setTextColor(secondaryTextColor);
         contentView.setTextColor(primaryTextColor);
+        contentView.setLinkTextColor(actionColor);
         tweetMediaView.setMediaBgColor(mediaBgColor);
         tweetMediaView.setPhotoErrorResId(photoErrorResId);
         avatarView.setImageDrawable(avatarMediaBg);
@@ -370,21 +400,58 @@ public abstract class BaseTweetView extends AbstractTweetView {
      * Set the timestamp if data from the Tweet is available. If timestamp cannot be determined,
      * set the timestamp to an empty string to handle view recycling.
      */
-    private void setTimestamp(Tweet displayTweet) {
-        final String formattedTimestamp;
-        if (displayTweet != null && displayTweet.createdAt != null &&
-                TweetDateUtils.isValidTimestamp(displayTweet.createdAt)) {
-            final Long createdAtTimestamp
-                    = TweetDateUtils.apiTimeToLong(displayTweet.createdAt);
-            final String timestamp = TweetDateUtils.getRelativeTimeString(getResources(),
-                    System.currentTimeMillis(),
-                    createdAtTimestamp);
-            formattedTimestamp = TweetDateUtils.dotPrefix(timestamp);
-        } else {
-            formattedTimestamp = EMPTY_STRING;
+    private void setTimestamp(long createdAt) {
+        createdAtTimestamp = createdAt;
+        relativeTimestamp = null;
+
+        final long now = System.currentTimeMillis();
+        final long changeTime = updateTimestamp(now);
+        if (timestampTicking) {
+            dependencyProvider.getTweetUi().getTimestampTicker().scheduleTick(now, changeTime);
+        }
+    }
+
+    /**
+     * Updates the timestamp view if the relative time of the display Tweet changed since it was
+     * last set. Called by the timestamp ticker while the view is visible.
+     * @return the time at which the relative time changes next
+     */
+    long updateTimestamp(long currentTimeMillis) {
+        if (createdAtTimestamp == TweetDateUtils.INVALID_DATE) {
+            if (!EMPTY_STRING.equals(relativeTimestamp)) {
+                relativeTimestamp = EMPTY_STRING;
+                timestampView.setText(EMPTY_STRING);
+            }
+            return Long.MAX_VALUE;
+        }
+
+        final String timestamp = TweetDateUtils.getRelativeTimeString(getResources(),
+                currentTimeMillis, createdAtTimestamp);
+        if (!timestamp.equals(relativeTimestamp)) {
+            relativeTimestamp = timestamp;
+            timestampView.setText(TweetDateUtils.dotPrefix(timestamp));
         }
+        return TweetDateUtils.getNextRelativeTimeChange(currentTimeMillis, createdAtTimestamp);
+    }
+
+    /**
+     * Registers with the timestamp ticker while the window is visible, so the timestamp stays
+     * current without rebinding the view. Detaching from the window also reports it as gone.
+     */
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
 
-        timestampView.setText(formattedTimestamp);
+        final boolean ticking = visibility == VISIBLE;
+        if (ticking == timestampTicking || !isTweetUiEnabled()) return;
+
+        timestampTicking = ticking;
+        final TimestampTicker ticker = dependencyProvider.getTweetUi().getTimestampTicker();
+        if (ticking) {
+            ticker.register(timestampListener);
+        } else {
+            ticker.unregister(timestampListener);
+        }
     }
 
     /**
@@ -394,7 +461,7 @@ public abstract class BaseTweetView extends AbstractTweetView {
      * recycling.
      */
     void setProfilePhotoView(Tweet displayTweet) {
-        final Picasso imageLoader = dependencyProvider.getImageLoader();
+        final ImageLoader imageLoader = dependencyProvider.getImageLoader();
 
         if (imageLoader == null) return;
 
@@ -402,59 +469,99 @@ public abstract class BaseTweetView extends AbstractTweetView {
         if (displayTweet == null || displayTweet.user == null) {
             url = null;
         } else {
-            url = UserUtils.getProfileImageUrlHttps(displayTweet.user,
-                    UserUtils.AvatarSize.REASONABLY_SMALL);
+            url = UserUtils.getProfileImageUrlHttps(displayTweet.user, getAvatarSize());
+        }
+
+        imageLoader.load(new ImageRequest.Builder(url).placeholder(avatarMediaBg)
+                .tag(imageLoadTag).build(), avatarView, null);
+    }
+
+    @Override
+    void getImageRequests(TweetRenderModel model, int mediaWidth,
+            List<ImageRequest> requests) {
+        final Tweet displayTweet = model.displayTweet;
+        if (displayTweet != null && displayTweet.user != null) {
+            final String url = UserUtils.getProfileImageUrlHttps(displayTweet.user,
+                    getAvatarSize());
+            if (url != null) {
+                requests.add(new ImageRequest.Builder(url).tag(imageLoadTag).build());
+            }
         }
+        super.getImageRequests(model, mediaWidth, requests);
+    }
 
-        imageLoader.load(url).placeholder(avatarMediaBg).into(avatarView);
+    /**
+     * @return the smallest avatar variant large enough for the avatar view
+     */
+    UserUtils.AvatarSize getAvatarSize() {
+        final ViewGroup.LayoutParams params = avatarView.getLayoutParams();
+        final int size = params != null && params.width > 0 ? params.width
+                : getResources().getDimensionPixelSize(R.dimen.tw__tweet_avatar_size);
+        return ImageVariants.getAvatarSize(size,
+                dependencyProvider.getTweetUi().getImageSizeBias());
     }
 
     /**
-     * Linkify the profile photo
-     * @param displayTweet The tweet from which to linkify the profile photo
+     * Linkify the profile photo. The listeners read the profile of the current render model, so
+     * they are only set once.
      */
-    void linkifyProfilePhotoView(final Tweet displayTweet) {
-        if (displayTweet != null && displayTweet.user != null) {
-            avatarView.setOnClickListener(v -> {
-                if (tweetLinkClickListener != null) {
-                    tweetLinkClickListener.onLinkClick(displayTweet,
-                            TweetUtils.getProfilePermalink(displayTweet.user.screenName));
-                } else {
-                    final Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(
-                            TweetUtils.getProfilePermalink(displayTweet.user.screenName)));
-                    if (!IntentUtils.safeStartActivity(getContext(), intent)) {
-                        Twitter.getLogger().e(TweetUi.LOGTAG,
-                                "Activity cannot be found to open URL");
-                    }
+    void linkifyProfilePhotoView() {
+        if (profilePhotoLinkified) return;
+        profilePhotoLinkified = true;
+
+        avatarView.setOnClickListener(v -> {
+            final String profilePermalink = renderModel.profilePermalink;
+            if (profilePermalink == null) return;
+
+            if (tweetLinkClickListener != null) {
+                tweetLinkClickListener.onLinkClick(renderModel.displayTweet, profilePermalink);
+            } else {
+                final Intent intent = new Intent(Intent.ACTION_VIEW, Uri.parse(profilePermalink));
+                if (!IntentUtils.safeStartActivity(getContext(), intent)) {
+                    Twitter.getLogger().e(TweetUi.LOGTAG,
+                            "Activity cannot be found to open URL");
                 }
+            }
 
-            });
-            avatarView.setOnTouchListener((v, event) -> {
-                final ImageView imageView = (ImageView) v;
-                switch (event.getAction()) {
-                    case MotionEvent.ACTION_DOWN:
-                        imageView.getDrawable().setColorFilter(getResources().getColor(
-                                R.color.tw__black_opacity_10), PorterDuff.Mode.SRC_ATOP);
-                        imageView.invalidate();
-                        break;
-                    case MotionEvent.ACTION_UP:
-                        v.performClick();
-                    case MotionEvent.ACTION_CANCEL: {
-                        imageView.getDrawable().clearColorFilter();
-                        imageView.invalidate();
-                        break;
-                    }
-                    default: break;
+        });
+        avatarView.setOnTouchListener((v, event) -> {
+            if (renderModel.profilePermalink == null) return false;
+
+            final ImageView imageView = (ImageView) v;
+            switch (event.getAction()) {
+                case MotionEvent.ACTION_DOWN:
+                    imageView.getDrawable().setColorFilter(getResources().getColor(
+                            R.color.tw__black_opacity_10), PorterDuff.Mode.SRC_ATOP);
+                    imageView.invalidate();
+                    break;
+                case MotionEvent.ACTION_UP:
+                    v.performClick();
+                case MotionEvent.ACTION_CANCEL: {
+                    imageView.getDrawable().clearColorFilter();
+                    imageView.invalidate();
+                    break;
                 }
-                return false;
-            });
-        }
+                default: break;
+            }
+            return false;
+        });
     }
 
     void setTweetActions(Tweet tweet) {
         tweetActionBarView.setTweet(tweet);
     }
 
+    /**
+     * Sets an updated copy of the shown Tweet which has the same content, as the response of a
+     * Tweet action does, and only updates the Tweet actions. The text, media and images of the
+     * Tweet are not bound again.
+     * @param tweet the updated Tweet
+     */
+    void setTweetActionState(Tweet tweet) {
+        this.tweet = tweet;
+        setTweetActions(tweet);
+    }
+
     /**
      * Override the default action when media is clicked.
      * @param tweetMediaClickListener called when media is clicked.
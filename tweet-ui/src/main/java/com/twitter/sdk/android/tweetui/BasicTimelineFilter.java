@@ -24,9 +24,11 @@ import com.twitter.sdk.android.core.models.MentionEntity;
 import com.twitter.sdk.android.core.models.SymbolEntity;
 import com.twitter.sdk.android.core.models.Tweet;
 import com.twitter.sdk.android.core.models.UrlEntity;
+import com.twitter.sdk.android.core.models.User;
+import com.twitter.sdk.android.tweetui.internal.util.LongBloomFilter;
+import com.twitter.sdk.android.tweetui.internal.util.LongHashSet;
 
 import java.net.IDN;
-import java.text.BreakIterator;
 import java.text.Collator;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -39,12 +41,21 @@ import java.util.TreeSet;
 
 import okhttp3.HttpUrl;
 
+/**
+ * BasicTimelineFilter removes Tweets matching any of the given FilterValues. It is thread safe, so
+ * timelines may filter large pages in parallel.
+ */
 public class BasicTimelineFilter implements TimelineFilter {
-    private final BreakIterator wordIterator;
-    private final Set<String> keywordConstraints;
+    private final KeywordMatcher keywordMatcher;
     private final Set<String> hashTagConstraints;
     private final Set<String> urlConstraints;
     private final Set<String> handleConstraints;
+    private final LongHashSet userIdConstraints;
+    // rejects most ids without probing userIdConstraints, only built for large id lists
+    private final LongBloomFilter userIdBloomFilter;
+
+    static final int BLOOM_FILTER_MIN_USER_IDS = 10000;
+    static final double BLOOM_FILTER_FALSE_POSITIVE_RATE = 0.01;
 
     public BasicTimelineFilter(FilterValues filterValues) {
         this(filterValues, Locale.getDefault());
@@ -53,9 +64,7 @@ public class BasicTimelineFilter implements TimelineFilter {
     public BasicTimelineFilter(FilterValues filterValues, Locale locale) {
         final Comparator<String> comparator = new IgnoreCaseComparator(locale);
 
-        wordIterator = BreakIterator.getWordInstance(locale);
-        keywordConstraints = new TreeSet<>(comparator);
-        keywordConstraints.addAll(filterValues.keywords);
+        keywordMatcher = new KeywordMatcher(filterValues.keywords, locale);
 
         hashTagConstraints = new TreeSet<>(comparator);
         for (String hashtag : filterValues.hashtags) {
@@ -74,6 +83,24 @@ public class BasicTimelineFilter implements TimelineFilter {
             final String sanitizedUrl = normalizeUrl(url);
             urlConstraints.add(sanitizedUrl);
         }
+
+        userIdConstraints = new LongHashSet(filterValues.userIds.size());
+        for (Long userId : filterValues.userIds) {
+            if (userId != null) {
+                userIdConstraints.add(userId);
+            }
+        }
+        if (userIdConstraints.size() >= BLOOM_FILTER_MIN_USER_IDS) {
+            userIdBloomFilter = new LongBloomFilter(userIdConstraints.size(),
+                    BLOOM_FILTER_FALSE_POSITIVE_RATE);
+            for (Long userId : filterValues.userIds) {
+                if (userId != null) {
+                    userIdBloomFilter.put(userId);
+                }
+            }
+        } else {
+            userIdBloomFilter = null;
+        }
     }
 
     @Override
@@ -91,11 +118,15 @@ public class BasicTimelineFilter implements TimelineFilter {
 
     @Override
     public int totalFilters() {
-        return keywordConstraints.size() + hashTagConstraints.size()
-                + urlConstraints.size() + handleConstraints.size();
+        return keywordMatcher.size() + hashTagConstraints.size()
+                + urlConstraints.size() + handleConstraints.size() + userIdConstraints.size();
     }
 
     boolean shouldFilterTweet(Tweet tweet) {
+        if (!userIdConstraints.isEmpty() && containsMatchingUserId(tweet)) {
+            return true;
+        }
+
         if (tweet.user != null &&
                 containsMatchingScreenName(tweet.user.screenName)) {
             return true;
@@ -113,19 +144,7 @@ public class BasicTimelineFilter implements TimelineFilter {
     }
 
     boolean containsMatchingText(Tweet tweet) {
-        wordIterator.setText(tweet.text);
-        int start = wordIterator.first();
-        for (int end = wordIterator.next();
-             end != BreakIterator.DONE;
-             start = end, end = wordIterator.next()) {
-            final String word = tweet.text.substring(start, end);
-
-            if (keywordConstraints.contains(word)) {
-                return true;
-            }
-        }
-
-        return false;
+        return keywordMatcher.matches(tweet.text);
     }
 
     boolean containsMatchingHashtag(List<HashtagEntity> hashtags) {
@@ -175,6 +194,38 @@ public class BasicTimelineFilter implements TimelineFilter {
         return handleConstraints.contains(name);
     }
 
+    /**
+     * Returns true if the author, a mentioned user, or the author of the retweeted or quoted Tweet
+     * is filtered by id. Does not allocate.
+     */
+    boolean containsMatchingUserId(Tweet tweet) {
+        if (containsMatchingAuthorId(tweet)) {
+            return true;
+        }
+        if (tweet.entities != null) {
+            final List<MentionEntity> mentions = tweet.entities.userMentions;
+            for (int i = 0; i < mentions.size(); i++) {
+                if (isFilteredUserId(mentions.get(i).id)) {
+                    return true;
+                }
+            }
+        }
+        return (tweet.retweetedStatus != null && containsMatchingAuthorId(tweet.retweetedStatus))
+                || (tweet.quotedStatus != null && containsMatchingAuthorId(tweet.quotedStatus));
+    }
+
+    boolean containsMatchingAuthorId(Tweet tweet) {
+        final User user = tweet.user;
+        return user != null && isFilteredUserId(user.id);
+    }
+
+    boolean isFilteredUserId(long userId) {
+        if (userIdBloomFilter != null && !userIdBloomFilter.mightContain(userId)) {
+            return false;
+        }
+        return userIdConstraints.contains(userId);
+    }
+
     static String normalizeUrl(String url) {
         try {
             final HttpUrl parsedUrl = HttpUrl.parse(url);
@@ -215,15 +266,23 @@ public class BasicTimelineFilter implements TimelineFilter {
     }
 
     static class IgnoreCaseComparator implements Comparator<String> {
-        private final Collator collator;
+        // Collators are not thread safe, so each thread filtering Tweets compares with its own
+        // copy of the collator instead of waiting on a shared one
+        private final ThreadLocal<Collator> collators;
 
         IgnoreCaseComparator(Locale locale) {
-            collator = Collator.getInstance(locale);
+            final Collator collator = Collator.getInstance(locale);
             collator.setStrength(Collator.PRIMARY);
+            collators = new ThreadLocal<Collator>() {
+                @Override
+                protected Collator initialValue() {
+                    return (Collator) collator.clone();
+                }
+            };
         }
 
         public int compare(String string1, String string2) {
-            return collator.compare(string1, string2);
+            return collators.get().compare(string1, string2);
         }
     }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+/**
+ * Counts and times the Tweet rows a timeline adapter creates and binds, per
+ * {@link TweetViewType}. Must be used on the main thread.
+ */
+class BindMetrics {
+    final int[] createCounts = new int[TweetViewType.COUNT];
+    final long[] createNanos = new long[TweetViewType.COUNT];
+    final int[] bindCounts = new int[TweetViewType.COUNT];
+    final long[] bindNanos = new long[TweetViewType.COUNT];
+
+    void onCreate(int viewType, long nanos) {
+        if (!isTweetViewType(viewType)) return;
+        createCounts[viewType]++;
+        createNanos[viewType] += nanos;
+    }
+
+    void onBind(int viewType, long nanos) {
+        if (!isTweetViewType(viewType)) return;
+        bindCounts[viewType]++;
+        bindNanos[viewType] += nanos;
+    }
+
+    /**
+     * Returns a snapshot of the rows created and bound so far.
+     */
+    TimelineBindStats getStats() {
+        return new TimelineBindStats(getTypeStats(TweetViewType.TEXT),
+                getTypeStats(TweetViewType.PHOTO), getTypeStats(TweetViewType.MULTI_PHOTO),
+                getTypeStats(TweetViewType.VIDEO), getTypeStats(TweetViewType.QUOTE));
+    }
+
+    /**
+     * Adapter subclasses may add view types of their own, which are not counted.
+     */
+    private static boolean isTweetViewType(int viewType) {
+        return viewType >= 0 && viewType < TweetViewType.COUNT;
+    }
+
+    private TimelineBindStats.TypeStats getTypeStats(int viewType) {
+        return new TimelineBindStats.TypeStats(createCounts[viewType], createNanos[viewType],
+                bindCounts[viewType], bindNanos[viewType]);
+    }
+}
@@ -142,11 +142,16 @@ public class CollectionTimeline extends BaseTimeline implements Timeline<Tweet>
         final Long userId = trimmedTweet.user.id;
         // lookup User in the collection response's UserMap
         final User user = userMap.get(userId);
+        // Repeat process for any quote tweets
+        final Tweet quoteStatus = trimmedTweet.quotedStatus == null ? null
+                : mapTweetToUsers(trimmedTweet.quotedStatus, userMap);
+        // Users resolved while parsing (see CollectionContentAdapter) need no copy of the Tweet
+        if (trimmedTweet.user == user && trimmedTweet.quotedStatus == quoteStatus) {
+            return trimmedTweet;
+        }
         // build the Tweet with the User
         final TweetBuilder builder = new TweetBuilder().copy(trimmedTweet).setUser(user);
-        // Repeat process for any quote tweets
-        if (trimmedTweet.quotedStatus != null) {
-            final Tweet quoteStatus = mapTweetToUsers(trimmedTweet.quotedStatus, userMap);
+        if (quoteStatus != null) {
             builder.setQuotedStatus(quoteStatus);
         }
 
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.support.v4.util.LruCache;
+
+import com.twitter.sdk.android.core.models.Tweet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FilterPipeline applies a TimelineFilter to pages of Tweets. Verdicts are cached by Tweet id so
+ * refreshed and re-fetched Tweets are not evaluated again, and large pages are split into chunks
+ * which are evaluated in parallel when the filter is thread safe.
+ */
+class FilterPipeline {
+    // pages with more uncached Tweets than this are split into chunks of this size
+    static final int CHUNK_SIZE = 25;
+    // verdicts of twice the timeline capacity are kept, enough to cover a full refresh
+    static final int CACHE_SIZE = (int) (2 * TimelineDelegate.CAPACITY);
+
+    final TimelineFilter timelineFilter;
+    final ExecutorService executorService;
+    // true if the Tweet with the id is filtered, only valid for timelineFilter
+    final LruCache<Long, Boolean> verdictCache;
+    final AtomicInteger tweetCount = new AtomicInteger();
+    final AtomicInteger tweetsFiltered = new AtomicInteger();
+    final AtomicInteger cacheHits = new AtomicInteger();
+
+    FilterPipeline(TimelineFilter timelineFilter, ExecutorService executorService) {
+        this.timelineFilter = timelineFilter;
+        this.executorService = executorService;
+        this.verdictCache = new LruCache<>(CACHE_SIZE);
+    }
+
+    /**
+     * Returns the Tweets which are not filtered, in their original order. Must not be called on
+     * the main thread, since it waits for the chunks evaluated on the executor.
+     */
+    List<Tweet> filter(List<Tweet> tweets) {
+        final boolean[] filtered = new boolean[tweets.size()];
+        // positions of the Tweets without a cached verdict
+        final int[] uncached = new int[tweets.size()];
+        int uncachedCount = 0;
+        for (int i = 0; i < tweets.size(); i++) {
+            final Tweet tweet = tweets.get(i);
+            // Tweets without an id are always evaluated
+            final Boolean verdict = tweet.id > 0 ? verdictCache.get(tweet.id) : null;
+            if (verdict == null) {
+                uncached[uncachedCount++] = i;
+            } else {
+                filtered[i] = verdict;
+                cacheHits.incrementAndGet();
+            }
+        }
+
+        if (uncachedCount > CHUNK_SIZE && isThreadSafe(timelineFilter)) {
+            evaluateInParallel(tweets, uncached, uncachedCount, filtered);
+        } else if (uncachedCount > 0) {
+            evaluate(tweets, uncached, 0, uncachedCount, filtered);
+        }
+
+        final List<Tweet> filteredTweets = new ArrayList<>(tweets.size());
+        for (int i = 0; i < tweets.size(); i++) {
+            if (!filtered[i]) {
+                filteredTweets.add(tweets.get(i));
+            }
+        }
+        tweetCount.addAndGet(tweets.size());
+        tweetsFiltered.addAndGet(tweets.size() - filteredTweets.size());
+        return Collections.unmodifiableList(filteredTweets);
+    }
+
+    /**
+     * Evaluates the first chunk on the calling thread and the others on the executor. Chunks not
+     * yet started by the executor are run by the calling thread while joining, so a saturated
+     * executor cannot deadlock the pipeline.
+     */
+    void evaluateInParallel(List<Tweet> tweets, int[] uncached, int uncachedCount,
+            boolean[] filtered) {
+        final List<FutureTask<Void>> tasks = new ArrayList<>();
+        for (int start = CHUNK_SIZE; start < uncachedCount; start += CHUNK_SIZE) {
+            final int chunkStart = start;
+            final int chunkEnd = Math.min(start + CHUNK_SIZE, uncachedCount);
+            final FutureTask<Void> task = new FutureTask<>(
+                    () -> evaluate(tweets, uncached, chunkStart, chunkEnd, filtered), null);
+            tasks.add(task);
+            executorService.execute(task);
+        }
+        evaluate(tweets, uncached, 0, CHUNK_SIZE, filtered);
+
+        for (FutureTask<Void> task : tasks) {
+            // does nothing if the executor already ran or is running the task
+            task.run();
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while filtering Tweets", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Filters the Tweets at uncached[start] to uncached[end - 1] and records their verdicts.
+     */
+    void evaluate(List<Tweet> tweets, int[] uncached, int start, int end, boolean[] filtered) {
+        final List<Tweet> chunk = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            chunk.add(tweets.get(uncached[i]));
+        }
+        final Set<Tweet> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        kept.addAll(timelineFilter.filter(chunk));
+
+        for (int i = start; i < end; i++) {
+            final Tweet tweet = tweets.get(uncached[i]);
+            final boolean verdict = !kept.contains(tweet);
+            filtered[uncached[i]] = verdict;
+            if (tweet.id > 0) {
+                verdictCache.put(tweet.id, verdict);
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the Tweet counts seen by this pipeline.
+     */
+    TimelineFilterStats getStats() {
+        return new TimelineFilterStats(tweetCount.get(), tweetsFiltered.get(),
+                timelineFilter.totalFilters(), cacheHits.get());
+    }
+
+    /**
+     * Developer provided filters may keep state which is not safe to share between threads, so
+     * only the filters of this package are evaluated in parallel.
+     */
+    static boolean isThreadSafe(TimelineFilter timelineFilter) {
+        return timelineFilter instanceof BasicTimelineFilter
+                || timelineFilter instanceof RuleTimelineFilter;
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled node of a filter rule. Rules are immutable trees evaluated against the shared
+ * TweetFeatures of a Tweet, so they may be evaluated on several threads.
+ */
+abstract class FilterRule {
+    // relative evaluation costs, conjunctions and disjunctions evaluate cheaper rules first
+    static final int COST_LOOKUP = 1;
+    static final int COST_TEXT = 4;
+    static final int COST_REGEX = 16;
+
+    abstract boolean matches(TweetFeatures features);
+
+    abstract int cost();
+
+    static final Comparator<FilterRule> CHEAPEST_FIRST = new Comparator<FilterRule>() {
+        @Override
+        public int compare(FilterRule rule1, FilterRule rule2) {
+            return rule1.cost() - rule2.cost();
+        }
+    };
+
+    /**
+     * Matches a word or phrase of the normalized text, bounded by non word characters.
+     */
+    static class TextRule extends FilterRule {
+        final String text;
+
+        TextRule(String text) {
+            this.text = text;
+        }
+
+        @Override
+        boolean matches(TweetFeatures features) {
+            final String tweetText = features.text();
+            int index = tweetText.indexOf(text);
+            while (index >= 0) {
+                final int end = index + text.length();
+                if ((index == 0 || !isWordChar(tweetText.charAt(index - 1)))
+                        && (end == tweetText.length() || !isWordChar(tweetText.charAt(end)))) {
+                    return true;
+                }
+                index = tweetText.indexOf(text, index + 1);
+            }
+            return false;
+        }
+
+        @Override
+        int cost() {
+            return COST_TEXT;
+        }
+
+        static boolean isWordChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '_';
+        }
+    }
+
+    /**
+     * Matches the original Tweet text against a regular expression.
+     */
+    static class RegexRule extends FilterRule {
+        final Pattern pattern;
+
+        RegexRule(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        boolean matches(TweetFeatures features) {
+            return features.tweet.text != null && pattern.matcher(features.tweet.text).find();
+        }
+
+        @Override
+        int cost() {
+            return COST_REGEX;
+        }
+    }
+
+    static class AuthorRule extends FilterRule {
+        final String screenName;
+
+        AuthorRule(String screenName) {
+            this.screenName = screenName;
+        }
+
+        @Override
+        boolean matches(TweetFeatures features) {
+            return screenName.equals(features.screenName());
+        }
+
+        @Override
+        int cost() {
+            return COST_LOOKUP;
+        }
+    }
+
+    static class MentionRule extends FilterRule {
+        final String screenName;
+
+        MentionRule(String screenName) {
+            this.screenName = screenName;
+        }
+
+        @Override
+        boolean matches(TweetFeatures features) {
+            return features.mentions().contains(screenName);
+        }
+
+        @Override
+        int cost() {
+            return COST_LOOKUP;
+        }
+    }
+
+    static class HashtagRule extends FilterRule {
+        final String hashtag;
+
+        HashtagRule(String hashtag) {
+            this.hashtag = hashtag;
+        }
+
+        @Override
+        boolean matches(TweetFeatures features) {
+            return features.hashtags().contains(hashtag);
+        }
+
+        @Override
+        int cost() {
+            return COST_LOOKUP;
+        }
+    }
+
+    static class SymbolRule extends FilterRule {
+        final String symbol;
+
+        SymbolRule(String symbol) {
+            this.symbol = symbol;
+        }
+
+        @Override
+        boolean matches(TweetFeatures features) {
+            return features.symbols().contains(symbol);
+        }
+
+        @Override
+        int cost() {
+            return COST_LOOKUP;
+        }
+    }
+
+    static class HostRule extends FilterRule {
+        final String host;
+
+        HostRule(String host) {
+            this.host = host;
+        }
+
+        @Override
+        boolean matches(TweetFeatures features) {
+            return features.hosts().contains(host);
+        }
+
+        @Override
+        int cost() {
+            return COST_LOOKUP;
+        }
+    }
+
+    static class NotRule extends FilterRule {
+        final FilterRule rule;
+
+        NotRule(FilterRule rule) {
+            this.rule = rule;
+        }
+
+        @Override
+        boolean matches(TweetFeatures features) {
+            return !rule.matches(features);
+        }
+
+        @Override
+        int cost() {
+            return rule.cost();
+        }
+    }
+
+    static class AndRule extends FilterRule {
+        final FilterRule[] rules;
+        final int cost;
+
+        AndRule(List<FilterRule> rules) {
+            this.rules = sortByCost(rules);
+            this.cost = totalCost(this.rules);
+        }
+
+        @Override
+        boolean matches(TweetFeatures features) {
+            for (FilterRule rule : rules) {
+                if (!rule.matches(features)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int cost() {
+            return cost;
+        }
+    }
+
+    static class OrRule extends FilterRule {
+        final FilterRule[] rules;
+        final int cost;
+
+        OrRule(List<FilterRule> rules) {
+            this.rules = sortByCost(rules);
+            this.cost = totalCost(this.rules);
+        }
+
+        @Override
+        boolean matches(TweetFeatures features) {
+            for (FilterRule rule : rules) {
+                if (rule.matches(features)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        int cost() {
+            return cost;
+        }
+    }
+
+    static FilterRule[] sortByCost(List<FilterRule> rules) {
+        final List<FilterRule> sorted = new ArrayList<>(rules);
+        Collections.sort(sorted, CHEAPEST_FIRST);
+        return sorted.toArray(new FilterRule[sorted.size()]);
+    }
+
+    static int totalCost(FilterRule[] rules) {
+        int cost = 0;
+        for (FilterRule rule : rules) {
+            cost += rule.cost();
+        }
+        return cost;
+    }
+}
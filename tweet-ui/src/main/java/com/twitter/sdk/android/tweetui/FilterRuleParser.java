@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles filter rules, written in a syntax close to Twitter search operators, to FilterRule
+ * trees.
+ *
+ * <pre>
+ *   rule    = and { "OR" and }
+ *   and     = unary { [ "AND" ] unary }
+ *   unary   = ( "-" | "NOT" ) unary | primary
+ *   primary = "(" rule ")" | "\"" phrase "\"" | "/" regex "/" [ "i" ]
+ *           | "from:" handle | "@" handle | "#" hashtag | "$" symbol | "url:" host | word
+ * </pre>
+ */
+class FilterRuleParser {
+    private static final String FROM = "from:";
+    private static final String URL = "url:";
+
+    private final String rule;
+    private final Locale locale;
+    private int index;
+
+    FilterRuleParser(String rule, Locale locale) {
+        this.rule = rule;
+        this.locale = locale;
+    }
+
+    /**
+     * Parses the rule.
+     * @throws java.lang.IllegalArgumentException if the rule is empty or malformed.
+     */
+    FilterRule parse() {
+        final FilterRule parsed = parseOr();
+        skipWhitespace();
+        if (index < rule.length()) {
+            throw error("unexpected '" + rule.charAt(index) + "'");
+        }
+        return parsed;
+    }
+
+    private FilterRule parseOr() {
+        final List<FilterRule> rules = new ArrayList<>();
+        rules.add(parseAnd());
+        while (consumeKeyword("OR")) {
+            rules.add(parseAnd());
+        }
+        return rules.size() == 1 ? rules.get(0) : new FilterRule.OrRule(rules);
+    }
+
+    private FilterRule parseAnd() {
+        final List<FilterRule> rules = new ArrayList<>();
+        rules.add(parseUnary());
+        while (hasOperand()) {
+            consumeKeyword("AND");
+            rules.add(parseUnary());
+        }
+        return rules.size() == 1 ? rules.get(0) : new FilterRule.AndRule(rules);
+    }
+
+    private boolean hasOperand() {
+        skipWhitespace();
+        return index < rule.length() && rule.charAt(index) != ')' && !peekKeyword("OR");
+    }
+
+    private FilterRule parseUnary() {
+        skipWhitespace();
+        if (index + 1 < rule.length() && rule.charAt(index) == '-'
+                && !Character.isWhitespace(rule.charAt(index + 1))) {
+            index++;
+            return new FilterRule.NotRule(parseUnary());
+        }
+        if (consumeKeyword("NOT")) {
+            return new FilterRule.NotRule(parseUnary());
+        }
+        return parsePrimary();
+    }
+
+    private FilterRule parsePrimary() {
+        skipWhitespace();
+        if (index == rule.length()) {
+            throw error("unexpected end of rule");
+        }
+
+        final char c = rule.charAt(index);
+        if (c == '(') {
+            index++;
+            final FilterRule group = parseOr();
+            skipWhitespace();
+            if (index == rule.length() || rule.charAt(index) != ')') {
+                throw error("missing ')'");
+            }
+            index++;
+            return group;
+        } else if (c == ')') {
+            throw error("unexpected ')'");
+        } else if (c == '"') {
+            return new FilterRule.TextRule(phrase(readQuoted('"')));
+        } else if (c == '/') {
+            return regex();
+        }
+        return term(readWord());
+    }
+
+    private FilterRule term(String word) {
+        final char first = word.charAt(0);
+        if (word.regionMatches(true, 0, FROM, 0, FROM.length())) {
+            return new FilterRule.AuthorRule(
+                    BasicTimelineFilter.normalizeHandle(operand(word, FROM.length())));
+        } else if (word.regionMatches(true, 0, URL, 0, URL.length())) {
+            return new FilterRule.HostRule(
+                    BasicTimelineFilter.normalizeUrl(operand(word, URL.length())));
+        } else if (first == '@' || first == '＠') {
+            return new FilterRule.MentionRule(
+                    BasicTimelineFilter.normalizeHandle(operand(word, 1)));
+        } else if (first == '#' || first == '＃') {
+            return new FilterRule.HashtagRule(operand(word, 1).toLowerCase(locale));
+        } else if (first == '$') {
+            return new FilterRule.SymbolRule(operand(word, 1).toLowerCase(locale));
+        }
+        return new FilterRule.TextRule(phrase(word));
+    }
+
+    private String operand(String word, int prefixLength) {
+        if (word.length() == prefixLength) {
+            throw error("missing value for " + word);
+        }
+        return word.substring(prefixLength);
+    }
+
+    private String phrase(String text) {
+        final String phrase = TweetFeatures.normalizeText(text, locale);
+        if (phrase.isEmpty()) {
+            throw error("empty phrase");
+        }
+        return phrase;
+    }
+
+    private FilterRule regex() {
+        final String expression = readQuoted('/');
+        int flags = 0;
+        if (index < rule.length() && rule.charAt(index) == 'i') {
+            flags = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+            index++;
+        }
+        try {
+            return new FilterRule.RegexRule(Pattern.compile(expression, flags));
+        } catch (PatternSyntaxException e) {
+            throw error("invalid regex " + expression);
+        }
+    }
+
+    /**
+     * Reads up to the closing delimiter, a backslash escapes the delimiter.
+     */
+    private String readQuoted(char delimiter) {
+        final StringBuilder quoted = new StringBuilder();
+        index++;
+        while (index < rule.length()) {
+            final char c = rule.charAt(index++);
+            if (c == delimiter) {
+                return quoted.toString();
+            } else if (c == '\\' && index < rule.length() && rule.charAt(index) == delimiter) {
+                quoted.append(delimiter);
+                index++;
+            } else {
+                quoted.append(c);
+            }
+        }
+        throw error("missing closing " + delimiter);
+    }
+
+    private String readWord() {
+        final int start = index;
+        while (index < rule.length() && isWordChar(rule.charAt(index))) {
+            index++;
+        }
+        return rule.substring(start, index);
+    }
+
+    private boolean peekKeyword(String keyword) {
+        skipWhitespace();
+        final int end = index + keyword.length();
+        return rule.startsWith(keyword, index)
+                && (end == rule.length() || !isWordChar(rule.charAt(end)));
+    }
+
+    private boolean consumeKeyword(String keyword) {
+        if (peekKeyword(keyword)) {
+            index += keyword.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (index < rule.length() && Character.isWhitespace(rule.charAt(index))) {
+            index++;
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        return !Character.isWhitespace(c) && c != '(' && c != ')';
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid filter rule \"" + rule + "\": " + message);
+    }
+}
@@ -25,9 +25,12 @@ import com.google.gson.JsonObject;
 import com.twitter.sdk.android.core.Callback;
 import com.twitter.sdk.android.core.Result;
 import com.twitter.sdk.android.core.Twitter;
+import com.twitter.sdk.android.core.TwitterApiException;
 import com.twitter.sdk.android.core.TwitterException;
+import com.twitter.sdk.android.core.TwitterRateLimit;
 import com.twitter.sdk.android.core.models.Tweet;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 
@@ -36,7 +39,18 @@ import java.util.concurrent.ExecutorService;
  */
 class FilterTimelineDelegate extends TimelineDelegate<Tweet> {
     final TimelineFilter timelineFilter;
+    final FilterPipeline filterPipeline;
     final TweetUi tweetUi;
+    // sparse filtered pages are refilled with older pages until targetItemCount Tweets are shown
+    final int refillTargetItemCount;
+    final int refillPageBudget;
+    // incremented to cancel refills in progress
+    int refillGeneration;
+
+    static final int DEFAULT_REFILL_TARGET_ITEM_COUNT = 10;
+    static final int DEFAULT_REFILL_PAGE_BUDGET = 3;
+    // requests left in the rate limit window for the user's own scrolling and refreshing
+    static final int REFILL_RATE_LIMIT_RESERVE = 2;
 
     static final String TWEETS_COUNT_JSON_PROP = "tweet_count";
     static final String TWEETS_FILTERED_JSON_PROP = "tweets_filtered";
@@ -51,11 +65,45 @@ class FilterTimelineDelegate extends TimelineDelegate<Tweet> {
      * @throws java.lang.IllegalArgumentException if timeline is null
      */
     FilterTimelineDelegate(Timeline<Tweet> timeline, TimelineFilter timelineFilter) {
+        this(timeline, timelineFilter, DEFAULT_REFILL_TARGET_ITEM_COUNT,
+                DEFAULT_REFILL_PAGE_BUDGET);
+    }
+
+    /**
+     * Constructs a FilterTimelineDelegate which refills sparse filtered pages.
+     * @param timeline Timeline source
+     * @param timelineFilter a timelineFilter for filtering tweets from timeline
+     * @param refillTargetItemCount the number of Tweets a filtered page is refilled to
+     * @param refillPageBudget the maximum number of older pages loaded to refill a page, 0 to
+     *                         disable refilling
+     * @throws java.lang.IllegalArgumentException if timeline is null
+     */
+    FilterTimelineDelegate(Timeline<Tweet> timeline, TimelineFilter timelineFilter,
+                           int refillTargetItemCount, int refillPageBudget) {
         super(timeline);
         this.timelineFilter = timelineFilter;
+        this.refillTargetItemCount = refillTargetItemCount;
+        this.refillPageBudget = refillPageBudget;
+        this.filterPipeline = new FilterPipeline(timelineFilter,
+                Twitter.getInstance().getExecutorService());
         this.tweetUi = TweetUi.getInstance();
     }
 
+    /**
+     * Returns a snapshot of the Tweets seen and removed by the TimelineFilter.
+     */
+    TimelineFilterStats getFilterStats() {
+        return filterPipeline.getStats();
+    }
+
+    /**
+     * Stops refilling sparse pages. Refills in progress deliver the Tweets loaded so far once
+     * their current request completes.
+     */
+    void cancelRefill() {
+        refillGeneration++;
+    }
+
     @Override
     public void refresh(Callback<TimelineResult<Tweet>> developerCb) {
         // reset scrollStateHolder cursors to be null, loadNext will get latest items
@@ -63,47 +111,71 @@ class FilterTimelineDelegate extends TimelineDelegate<Tweet> {
         // load latest timeline items and replace existing items
         loadNext(timelineStateHolder.positionForNext(),
                 new TimelineFilterCallback(new RefreshCallback(developerCb, timelineStateHolder),
-                timelineFilter));
+                filterPipeline, true));
     }
 
     @Override
     public void next(Callback<TimelineResult<Tweet>> developerCb) {
-        loadNext(timelineStateHolder.positionForNext(),
+        // refilling newer pages with older Tweets could load Tweets which are already shown, so
+        // only the first page is refilled
+        final Long minPosition = timelineStateHolder.positionForNext();
+        loadNext(minPosition,
             new TimelineFilterCallback(new NextCallback(developerCb, timelineStateHolder),
-                    timelineFilter));
+                    filterPipeline, minPosition == null));
+    }
+
+    @Override
+    public void poll(Callback<TimelineResult<Tweet>> developerCb) {
+        loadNext(timelineStateHolder.positionForNext(),
+                new TimelineFilterCallback(new PollCallback(developerCb, timelineStateHolder),
+                        filterPipeline, false));
     }
 
     @Override
     public void previous() {
         loadPrevious(timelineStateHolder.positionForPrevious(),
                 new TimelineFilterCallback(new PreviousCallback(timelineStateHolder),
-                        timelineFilter));
+                        filterPipeline, true));
     }
 
     /**
-     * Handles filtering of tweets from the timeline, provided a given TimelineFilter
+     * Handles filtering of tweets from the timeline, provided a given FilterPipeline. If refill is
+     * true and the filtered Tweets are fewer than the refill target, older pages are loaded and
+     * filtered into the same result, within the page budget and rate limit.
      */
     class TimelineFilterCallback extends Callback<TimelineResult<Tweet>> {
         final DefaultCallback callback;
-        final TimelineFilter timelineFilter;
+        final FilterPipeline filterPipeline;
         final Handler handler;
         final ExecutorService executorService;
-
-        TimelineFilterCallback(DefaultCallback callback, TimelineFilter timelineFilter) {
+        final boolean refill;
+        final int generation;
+        final List<Tweet> filteredTweets = new ArrayList<>();
+        Long maxPosition;
+        Long minPosition;
+        int refillPages;
+        Result<TimelineResult<Tweet>> lastResult;
+
+        TimelineFilterCallback(DefaultCallback callback, FilterPipeline filterPipeline,
+                               boolean refill) {
             this.callback = callback;
-            this.timelineFilter = timelineFilter;
+            this.filterPipeline = filterPipeline;
             this.handler = new Handler(Looper.getMainLooper());
             this.executorService = Twitter.getInstance().getExecutorService();
+            this.refill = refill;
+            this.generation = refillGeneration;
         }
 
         @Override
         public void success(final Result<TimelineResult<Tweet>> result) {
             final Runnable timelineFilterRunnable = () -> {
-                final List<Tweet> filteredTweets = timelineFilter.filter(result.data.items);
-                final TimelineResult<Tweet> filteredTimelineResult =
-                        buildTimelineResult(result.data.timelineCursor, filteredTweets);
+                final List<Tweet> filteredTweets = filterPipeline.filter(result.data.items);
+                if (Twitter.isDebug()) {
+                    Twitter.getLogger().d(TweetUi.LOGTAG, getJsonMessage(result.data.items.size(),
+                            filteredTweets.size(), filterPipeline.timelineFilter.totalFilters()));
+                }
 
-                handler.post(() -> callback.success(new Result<>(filteredTimelineResult, result.response)));
+                handler.post(() -> onFiltered(result, filteredTweets));
             };
 
             executorService.execute(timelineFilterRunnable);
@@ -111,17 +183,66 @@ class FilterTimelineDelegate extends TimelineDelegate<Tweet> {
 
         @Override
         public void failure(final TwitterException ex) {
-            if (callback != null) {
+            if (lastResult != null) {
+                // keep the Tweets of the pages loaded before the refill failed
+                deliver();
+            } else if (callback != null) {
                 callback.failure(ex);
             }
         }
 
+        void onFiltered(Result<TimelineResult<Tweet>> result, List<Tweet> filtered) {
+            final TimelineCursor timelineCursor = result.data.timelineCursor;
+            if (lastResult == null && timelineCursor != null) {
+                maxPosition = timelineCursor.maxPosition;
+            }
+            final boolean received = !result.data.items.isEmpty() && timelineCursor != null
+                    && timelineCursor.minPosition != null;
+            if (received) {
+                minPosition = timelineCursor.minPosition;
+            }
+            lastResult = result;
+            filteredTweets.addAll(filtered);
+
+            if (received && shouldRefill(result)) {
+                refillPages++;
+                timeline.previous(minPosition, this);
+            } else {
+                deliver();
+            }
+        }
+
+        boolean shouldRefill(Result<TimelineResult<Tweet>> result) {
+            return refill && filteredTweets.size() < refillTargetItemCount
+                    && refillPages < refillPageBudget && generation == refillGeneration
+                    && hasRemainingRequests(result);
+        }
+
+        void deliver() {
+            // refilled results span from the newest Tweet of the first page to the oldest of the
+            // last page
+            final TimelineCursor timelineCursor = refillPages == 0
+                    ? lastResult.data.timelineCursor : new TimelineCursor(minPosition, maxPosition);
+            final TimelineResult<Tweet> filteredTimelineResult =
+                    buildTimelineResult(timelineCursor, filteredTweets);
+            callback.success(new Result<>(filteredTimelineResult, lastResult.response));
+        }
+
         TimelineResult<Tweet> buildTimelineResult(TimelineCursor timelineCursor,
                                                   List<Tweet> filteredTweets) {
             return new TimelineResult<>(timelineCursor, filteredTweets);
         }
     }
 
+    static boolean hasRemainingRequests(Result<?> result) {
+        if (result.response == null) {
+            return true;
+        }
+        final TwitterRateLimit rateLimit = TwitterApiException.readApiRateLimit(result.response);
+        return rateLimit.getLimit() == 0
+                || rateLimit.getRemaining() > REFILL_RATE_LIMIT_RESERVE;
+    }
+
     private String getJsonMessage(int totalTweetsSize, int filteredTweetsSize, int totalFilters) {
         final JsonObject message = new JsonObject();
         message.addProperty(TWEETS_COUNT_JSON_PROP, totalTweetsSize);
@@ -36,15 +36,24 @@ public class FilterValues {
     @SerializedName("urls")
     public final List<String> urls;
 
+    @SerializedName("user_ids")
+    public final List<Long> userIds;
+
     private FilterValues() {
-        this(null, null, null, null);
+        this(null, null, null, null, null);
     }
 
     public FilterValues(List<String> keywords, List<String> hashtags,
                         List<String> handles, List<String> urls) {
+        this(keywords, hashtags, handles, urls, null);
+    }
+
+    public FilterValues(List<String> keywords, List<String> hashtags,
+                        List<String> handles, List<String> urls, List<Long> userIds) {
         this.keywords = ModelUtils.getSafeList(keywords);
         this.hashtags = ModelUtils.getSafeList(hashtags);
         this.handles = ModelUtils.getSafeList(handles);
         this.urls = ModelUtils.getSafeList(urls);
+        this.userIds = ModelUtils.getSafeList(userIds);
     }
 }
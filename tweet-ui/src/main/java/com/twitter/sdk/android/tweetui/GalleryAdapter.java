@@ -22,7 +22,6 @@ import android.support.v4.view.PagerAdapter;
 import android.view.View;
 import android.view.ViewGroup;
 
-import com.squareup.picasso.Picasso;
 import com.twitter.sdk.android.core.models.MediaEntity;
 import com.twitter.sdk.android.tweetui.internal.GalleryImageView;
 import com.twitter.sdk.android.tweetui.internal.SwipeToDismissTouchListener;
@@ -34,10 +33,17 @@ class GalleryAdapter extends PagerAdapter {
     final List<MediaEntity> items = new ArrayList<>();
     final Context context;
     final SwipeToDismissTouchListener.Callback callback;
+    final ImageLoader imageLoader;
 
     GalleryAdapter(Context context, SwipeToDismissTouchListener.Callback callback) {
+        this(context, callback, TweetUi.getInstance().getTweetImageLoader());
+    }
+
+    GalleryAdapter(Context context, SwipeToDismissTouchListener.Callback callback,
+            ImageLoader imageLoader) {
         this.context = context;
         this.callback = callback;
+        this.imageLoader = imageLoader;
     }
 
     void addAll(List<MediaEntity> entities) {
@@ -63,7 +69,7 @@ class GalleryAdapter extends PagerAdapter {
         container.addView(root);
 
         final MediaEntity entity = items.get(position);
-        Picasso.with(context).load(entity.mediaUrlHttps).into(root);
+        imageLoader.load(new ImageRequest.Builder(entity.mediaUrlHttps).build(), root);
 
         return root;
     }
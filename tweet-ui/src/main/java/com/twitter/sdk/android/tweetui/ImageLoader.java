@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.twitter.sdk.android.tweetui;
+
+import android.graphics.Bitmap;
+import android.graphics.drawable.Drawable;
+import android.widget.ImageView;
+
+/**
+ * Loads the images shown by Tweet UI, e.g. avatars, Tweet media and the photo gallery. The default
+ * implementation is a {@link PicassoImageLoader}. Apps which already run an image pipeline can set
+ * an implementation backed by it with {@link TweetUi#setImageLoader(ImageLoader)}, so Tweet images
+ * share its memory budget instead of competing with it for the heap. Methods are called on the
+ * main thread.
+ */
+public interface ImageLoader {
+    /**
+     * Loads the image into the image view, replacing the image and any load in progress for the
+     * image view. A request without url only shows the placeholder.
+     * @param request the image to load
+     * @param imageView the image view to show the image in
+     * @param callback notified when the image is shown or failed to load, may be null
+     */
+    void load(ImageRequest request, ImageView imageView, Callback callback);
+
+    /**
+     * Loads the image into the target, replacing any load in progress for the target.
+     * @param request the image to load
+     * @param target the target to deliver the image to
+     */
+    void load(ImageRequest request, Target target);
+
+    /**
+     * Loads the image into the caches of the loader without showing it, so it can be shown
+     * without delay once it is loaded for the same request.
+     * @param request the image to load
+     * @param callback notified when the image is cached or failed to load, may be null
+     */
+    void prefetch(ImageRequest request, Callback callback);
+
+    /**
+     * Cancels the load in progress for the image view, if any.
+     */
+    void cancel(ImageView imageView);
+
+    /**
+     * Holds back the loads with the tag until the tag is resumed, e.g. while a list flings.
+     */
+    void pauseTag(Object tag);
+
+    /**
+     * Resumes the loads with the tag.
+     */
+    void resumeTag(Object tag);
+
+    /**
+     * Releases memory held by the loader, as requested by
+     * {@link android.content.ComponentCallbacks2#onTrimMemory(int)}.
+     * @param level the trim memory level
+     */
+    void trimMemory(int level);
+
+    /**
+     * Notified when an image is loaded or fails to load.
+     */
+    interface Callback {
+        void onSuccess();
+
+        void onError();
+    }
+
+    /**
+     * Receives the image of a load which is not shown in an image view.
+     */
+    interface Target {
+        void onImageLoaded(Bitmap bitmap);
+
+        void onImageFailed(Drawable errorDrawable);
+
+        void onPrepareLoad(Drawable placeholder);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.twitter.sdk.android.tweetui;
+
+import android.graphics.drawable.Drawable;
+
+/**
+ * An image to load with an {@link ImageLoader}. Requests are equal if they load the same image
+ * the same way, so views can skip loading an image they already show.
+ */
+public final class ImageRequest {
+    /**
+     * The url of the image, or null to only show the placeholder.
+     */
+    public final String url;
+
+    /**
+     * The size the image is resized and center cropped to, or 0 to load it at its size.
+     */
+    public final int targetWidth;
+    public final int targetHeight;
+
+    /**
+     * The drawable shown while the image loads, or null.
+     */
+    public final Drawable placeholder;
+
+    /**
+     * The resource id of the drawable shown if the image fails to load, or 0.
+     */
+    public final int errorResId;
+
+    /**
+     * The tag of the load, used to pause and resume loads together, or null.
+     */
+    public final Object tag;
+
+    ImageRequest(Builder builder) {
+        this.url = builder.url;
+        this.targetWidth = builder.targetWidth;
+        this.targetHeight = builder.targetHeight;
+        this.placeholder = builder.placeholder;
+        this.errorResId = builder.errorResId;
+        this.tag = builder.tag;
+    }
+
+    public boolean isResized() {
+        return targetWidth > 0 && targetHeight > 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        final ImageRequest request = (ImageRequest) o;
+        return targetWidth == request.targetWidth
+                && targetHeight == request.targetHeight
+                && errorResId == request.errorResId
+                && (url == null ? request.url == null : url.equals(request.url))
+                && placeholder == request.placeholder
+                && tag == request.tag;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = url != null ? url.hashCode() : 0;
+        result = 31 * result + targetWidth;
+        result = 31 * result + targetHeight;
+        result = 31 * result + errorResId;
+        return result;
+    }
+
+    /**
+     * ImageRequest Builder
+     */
+    public static class Builder {
+        private final String url;
+        private int targetWidth;
+        private int targetHeight;
+        private Drawable placeholder;
+        private int errorResId;
+        private Object tag;
+
+        /**
+         * Constructs a Builder.
+         * @param url the url of the image, or null to only show the placeholder
+         */
+        public Builder(String url) {
+            this.url = url;
+        }
+
+        /**
+         * Resizes the image to the size and center crops it.
+         * @throws IllegalArgumentException if the width or height is not positive
+         */
+        public Builder resize(int targetWidth, int targetHeight) {
+            if (targetWidth <= 0 || targetHeight <= 0) {
+                throw new IllegalArgumentException("Target size must be positive");
+            }
+            this.targetWidth = targetWidth;
+            this.targetHeight = targetHeight;
+            return this;
+        }
+
+        /**
+         * Sets the drawable shown while the image loads.
+         */
+        public Builder placeholder(Drawable placeholder) {
+            this.placeholder = placeholder;
+            return this;
+        }
+
+        /**
+         * Sets the resource id of the drawable shown if the image fails to load.
+         */
+        public Builder error(int errorResId) {
+            this.errorResId = errorResId;
+            return this;
+        }
+
+        /**
+         * Sets the tag of the load, used to pause and resume loads together.
+         */
+        public Builder tag(Object tag) {
+            this.tag = tag;
+            return this;
+        }
+
+        public ImageRequest build() {
+            return new ImageRequest(this);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import java.text.BreakIterator;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * KeywordMatcher finds whether a text contains any keyword as a whole word, using an Aho-Corasick
+ * automaton precompiled from the keywords. Texts are scanned once, independent of the number of
+ * keywords, and word boundaries are only computed for candidate matches.
+ *
+ * Keywords and texts are folded by locale aware case mapping and removal of diacritics, which
+ * approximates comparing words with a Collator of primary strength. A match must span exactly
+ * one word of the locale's word BreakIterator.
+ *
+ * KeywordMatcher is thread safe. Its keywords are immutable, the folds of code points are cached
+ * as texts are matched.
+ */
+class KeywordMatcher {
+    private static final int ROOT = 0;
+    private static final int NO_STATE = -1;
+    private static final int FOLD_BLOCK_SHIFT = 8;
+    private static final int FOLD_BLOCK_MASK = (1 << FOLD_BLOCK_SHIFT) - 1;
+    private static final String[] ASCII_FOLDS = new String[0x80];
+
+    static {
+        for (int c = 0; c < ASCII_FOLDS.length; c++) {
+            ASCII_FOLDS[c] =
+                    String.valueOf(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : (char) c);
+        }
+    }
+
+    private final Locale locale;
+    // true if ASCII 'I' and 'i' need locale aware case mapping
+    private final boolean dottedI;
+    // cloned for each text, BreakIterators are stateful
+    private final BreakIterator wordIterator;
+    private final int keywordCount;
+
+    // goto function as an open addressing table keyed by state and char
+    private final long[] transitionKeys;
+    private final int[] transitionStates;
+    private final int transitionMask;
+    // failure function of each state
+    private final int[] failure;
+    // length of the keyword ending at each state, 0 if none
+    private final int[] keywordLength;
+    // nearest state on the failure chain which ends a keyword, NO_STATE if none
+    private final int[] outputLink;
+
+    // folded text of each code point, in blocks which are filled as texts are matched. Threads
+    // racing on a block may fold a code point twice, but always store equal Strings.
+    private final String[][] foldBlocks =
+            new String[(Character.MAX_CODE_POINT >> FOLD_BLOCK_SHIFT) + 1][];
+    // index in text of the code point each folded char was produced from, reused for each text
+    // matched on a thread
+    private final ThreadLocal<int[]> sourcesBuffer = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[256];
+        }
+    };
+
+    KeywordMatcher(Collection<String> keywords, Locale locale) {
+        this.locale = locale;
+        final String language = locale.getLanguage();
+        this.dottedI = "tr".equals(language) || "az".equals(language);
+        this.wordIterator = BreakIterator.getWordInstance(locale);
+
+        final Set<String> folded = new HashSet<>(keywords.size());
+        int maxStates = 1;
+        for (String keyword : keywords) {
+            final String foldedKeyword = fold(keyword);
+            if (!foldedKeyword.isEmpty() && folded.add(foldedKeyword)) {
+                maxStates += foldedKeyword.length();
+            }
+        }
+        keywordCount = folded.size();
+
+        int capacity = 16;
+        while (capacity < maxStates * 2) {
+            capacity <<= 1;
+        }
+        transitionKeys = new long[capacity];
+        Arrays.fill(transitionKeys, -1L);
+        transitionStates = new int[capacity];
+        transitionMask = capacity - 1;
+        final int[] parent = new int[maxStates];
+        final char[] parentChar = new char[maxStates];
+        keywordLength = new int[maxStates];
+
+        // build the trie
+        int stateCount = 1;
+        for (String keyword : folded) {
+            int state = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                final char c = keyword.charAt(i);
+                int next = transition(state, c);
+                if (next == NO_STATE) {
+                    next = stateCount++;
+                    parent[next] = state;
+                    parentChar[next] = c;
+                    putTransition(state, c, next);
+                }
+                state = next;
+            }
+            keywordLength[state] = keyword.length();
+        }
+
+        // states are numbered in creation order, so sort them breadth first by depth
+        final int[] depth = new int[stateCount];
+        final int[] order = new int[stateCount];
+        final int[] byDepth = new int[stateCount + 1];
+        for (int state = 1; state < stateCount; state++) {
+            depth[state] = depth[parent[state]] + 1;
+        }
+        for (int state = 0; state < stateCount; state++) {
+            byDepth[depth[state] + 1]++;
+        }
+        for (int d = 1; d <= stateCount; d++) {
+            byDepth[d] += byDepth[d - 1];
+        }
+        for (int state = 0; state < stateCount; state++) {
+            order[byDepth[depth[state]]++] = state;
+        }
+
+        // failure and output links, parents are always resolved before their children
+        failure = new int[stateCount];
+        outputLink = new int[stateCount];
+        outputLink[ROOT] = NO_STATE;
+        for (int i = 1; i < stateCount; i++) {
+            final int state = order[i];
+            final int parentState = parent[state];
+            if (parentState == ROOT) {
+                failure[state] = ROOT;
+            } else {
+                int fallback = failure[parentState];
+                int next = transition(fallback, parentChar[state]);
+                while (next == NO_STATE && fallback != ROOT) {
+                    fallback = failure[fallback];
+                    next = transition(fallback, parentChar[state]);
+                }
+                failure[state] = next == NO_STATE ? ROOT : next;
+            }
+            final int fail = failure[state];
+            outputLink[state] = keywordLength[fail] > 0 ? fail : outputLink[fail];
+        }
+    }
+
+    /**
+     * Returns the number of distinct keywords after folding.
+     */
+    int size() {
+        return keywordCount;
+    }
+
+    /**
+     * Returns true if any keyword matches a word of the text.
+     */
+    boolean matches(String text) {
+        if (text == null || keywordCount == 0) {
+            return false;
+        }
+        BreakIterator iterator = null;
+        int[] sources = sourcesBuffer.get();
+        int foldedLength = 0;
+        int state = ROOT;
+
+        int index = 0;
+        while (index < text.length()) {
+            final int codePoint = text.codePointAt(index);
+            final int next = index + Character.charCount(codePoint);
+            final String folded = foldCodePoint(codePoint);
+            for (int k = 0; k < folded.length(); k++) {
+                if (foldedLength == sources.length) {
+                    sources = Arrays.copyOf(sources, sources.length * 2);
+                    sourcesBuffer.set(sources);
+                }
+                sources[foldedLength++] = index;
+                state = step(state, folded.charAt(k));
+            }
+
+            // matches can only end once the whole code point is folded, including marks which
+            // fold to nothing and are part of the preceding word
+            for (int output = keywordLength[state] > 0 ? state : outputLink[state];
+                 output != NO_STATE; output = outputLink[output]) {
+                final int start = foldedLength - keywordLength[output];
+                if (start > 0 && sources[start - 1] == sources[start]) {
+                    // starts within the folded text of a code point
+                    continue;
+                }
+                if (iterator == null) {
+                    iterator = (BreakIterator) wordIterator.clone();
+                    iterator.setText(text);
+                }
+                if (isWord(iterator, sources[start], next)) {
+                    return true;
+                }
+            }
+            index = next;
+        }
+        return false;
+    }
+
+    static boolean isWord(BreakIterator iterator, int start, int end) {
+        return iterator.isBoundary(start) && iterator.following(start) == end;
+    }
+
+    int step(int state, char c) {
+        int next = transition(state, c);
+        while (next == NO_STATE && state != ROOT) {
+            state = failure[state];
+            next = transition(state, c);
+        }
+        return next == NO_STATE ? ROOT : next;
+    }
+
+    int transition(int state, char c) {
+        final long key = ((long) state << 16) | c;
+        int slot = hash(key) & transitionMask;
+        while (transitionKeys[slot] != -1L) {
+            if (transitionKeys[slot] == key) {
+                return transitionStates[slot];
+            }
+            slot = (slot + 1) & transitionMask;
+        }
+        return NO_STATE;
+    }
+
+    private void putTransition(int state, char c, int next) {
+        final long key = ((long) state << 16) | c;
+        int slot = hash(key) & transitionMask;
+        while (transitionKeys[slot] != -1L) {
+            slot = (slot + 1) & transitionMask;
+        }
+        transitionKeys[slot] = key;
+        transitionStates[slot] = next;
+    }
+
+    private static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    String fold(String text) {
+        final StringBuilder folded = new StringBuilder(text.length());
+        int index = 0;
+        while (index < text.length()) {
+            final int codePoint = text.codePointAt(index);
+            folded.append(foldCodePoint(codePoint));
+            index += Character.charCount(codePoint);
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Returns the case folded code point without diacritics, which is empty for marks. ASCII other
+     * than dotted and dotless i sensitive letters is folded by table, other code points are folded
+     * once and cached.
+     */
+    String foldCodePoint(int codePoint) {
+        if (codePoint < 0x80 && !(dottedI && (codePoint == 'I' || codePoint == 'i'))) {
+            return ASCII_FOLDS[codePoint];
+        }
+        final int blockIndex = codePoint >> FOLD_BLOCK_SHIFT;
+        String[] block = foldBlocks[blockIndex];
+        if (block == null) {
+            block = new String[FOLD_BLOCK_MASK + 1];
+            foldBlocks[blockIndex] = block;
+        }
+        String folded = block[codePoint & FOLD_BLOCK_MASK];
+        if (folded == null) {
+            folded = foldUncached(codePoint);
+            block[codePoint & FOLD_BLOCK_MASK] = folded;
+        }
+        return folded;
+    }
+
+    private String foldUncached(int codePoint) {
+        final String cased = new String(Character.toChars(codePoint))
+                .toUpperCase(locale).toLowerCase(locale);
+        final String decomposed = Normalizer.normalize(cased, Normalizer.Form.NFD);
+        final StringBuilder out = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            final char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,388 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.Callback;
+import com.twitter.sdk.android.core.Result;
+import com.twitter.sdk.android.core.TwitterException;
+import com.twitter.sdk.android.core.models.Tweet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * MergedTimeline provides a timeline of Tweets merged from several source timelines, ordered by
+ * descending Tweet id with duplicate Tweets removed. Sources are requested in parallel.
+ *
+ * Each source keeps its own cursor and at most one page of not yet returned Tweets, so memory
+ * stays bounded by the number of sources times their page size. Requests for newer Tweets load at
+ * most two pages per source.
+ */
+public class MergedTimeline extends BaseTimeline implements Timeline<Tweet> {
+    // orders sources by their newest buffered Tweet, newest first
+    static final Comparator<Source> NEWEST_FIRST =
+            (lhs, rhs) -> compareIds(rhs.buffer.peekFirst().id, lhs.buffer.peekFirst().id);
+
+    final List<Timeline<Tweet>> timelines;
+    final int maxItemsPerRequest;
+    // state for paging to older Tweets, one per timeline
+    List<Source> sources;
+    // id of the oldest Tweet returned so far, sources are only valid when continuing from it
+    Long position;
+
+    MergedTimeline(List<Timeline<Tweet>> timelines, int maxItemsPerRequest) {
+        this.timelines = timelines;
+        this.maxItemsPerRequest = maxItemsPerRequest;
+        resetSources(null);
+    }
+
+    /**
+     * Loads Tweets with id greater than (newer than) sinceId from every source. If sinceId is null,
+     * loads the newest Tweets. Only Tweets newer than the oldest Tweet of every source page are
+     * returned, so the merged Tweets have no gaps. With a sinceId, sources whose page ends before
+     * Tweets loaded from other sources are paged once more, so a sparse source does not cut off
+     * the Tweets of busier sources after their first page. Older Tweets are left out, like the
+     * Tweets beyond the page of a single timeline.
+     * @param sinceId minimum id of the Tweets to load (exclusive).
+     * @param cb callback.
+     */
+    @Override
+    public void next(Long sinceId, Callback<TimelineResult<Tweet>> cb) {
+        final List<Source> newer = new ArrayList<>(timelines.size());
+        for (Timeline<Tweet> timeline : timelines) {
+            newer.add(new Source(timeline, sinceId, sinceId));
+        }
+        loadNext(newer, newer, sinceId, sinceId != null, cb);
+    }
+
+    /**
+     * Loads the pending sources of a next request. The first load of a source requests its
+     * newest page, a refill loads its next older page.
+     * @param refill true to load one more page of the sources behind once the pending sources
+     *               are loaded
+     */
+    void loadNext(List<Source> newer, List<Source> pending, Long sinceId, boolean refill,
+            Callback<TimelineResult<Tweet>> cb) {
+        final MergeRequest request = new MergeRequest(pending, cb) {
+            @Override
+            void onSourcesLoaded() {
+                if (refill) {
+                    final List<Source> behind = getSourcesBehind(newer);
+                    if (!behind.isEmpty()) {
+                        loadNext(newer, behind, sinceId, false, cb);
+                        return;
+                    }
+                }
+                // merging stops at the first drained source which may have older Tweets
+                final List<Tweet> merged = merge(newer, Integer.MAX_VALUE, null);
+                if (sinceId == null) {
+                    // latest Tweets start the timeline over, keep the leftovers for previous
+                    sources = newer;
+                    position = merged.isEmpty() ? null : merged.get(merged.size() - 1).id;
+                }
+                deliver(merged);
+            }
+        };
+        for (Source source : pending) {
+            if (source.loaded) {
+                source.timeline.previous(source.cursor, request.newSourceCallback(source));
+            } else {
+                source.timeline.next(sinceId, request.newSourceCallback(source));
+            }
+        }
+    }
+
+    /**
+     * Finds the sources which may have Tweets newer than the oldest Tweet loaded from another
+     * source. Merging would stop once their buffers drain and leave the older Tweets out.
+     * @param sources loaded sources of a next request
+     * @return sources which are not exhausted and whose oldest Tweet is not the oldest loaded
+     */
+    static List<Source> getSourcesBehind(List<Source> sources) {
+        Long oldestId = null;
+        for (Source source : sources) {
+            if (!source.buffer.isEmpty()
+                    && (oldestId == null || source.buffer.peekLast().id < oldestId)) {
+                oldestId = source.buffer.peekLast().id;
+            }
+        }
+        final List<Source> behind = new ArrayList<>();
+        for (Source source : sources) {
+            if (!source.exhausted && !source.buffer.isEmpty()
+                    && source.buffer.peekLast().id > oldestId) {
+                behind.add(source);
+            }
+        }
+        return behind;
+    }
+
+    /**
+     * Loads Tweets with id less than (older than) maxId. Only sources without buffered Tweets are
+     * requested.
+     * @param maxId maximum id of the Tweets to load (exclusive).
+     * @param cb callback.
+     */
+    @Override
+    public void previous(Long maxId, Callback<TimelineResult<Tweet>> cb) {
+        if (maxId == null ? position != null : !maxId.equals(position)) {
+            resetSources(maxId);
+        }
+        loadPrevious(cb);
+    }
+
+    void loadPrevious(Callback<TimelineResult<Tweet>> cb) {
+        final List<Source> drained = new ArrayList<>();
+        for (Source source : sources) {
+            if (source.buffer.isEmpty() && !source.exhausted) {
+                drained.add(source);
+            }
+        }
+        final MergeRequest request = new MergeRequest(drained, cb) {
+            @Override
+            void onSourcesLoaded() {
+                final List<Tweet> merged = merge(sources, maxItemsPerRequest, position);
+                if (merged.isEmpty() && hasDrainedSource()) {
+                    // every buffered Tweet was a duplicate, page further into the sources
+                    loadPrevious(cb);
+                    return;
+                }
+                if (!merged.isEmpty()) {
+                    position = merged.get(merged.size() - 1).id;
+                }
+                deliver(merged);
+            }
+        };
+        if (drained.isEmpty()) {
+            request.onSourcesLoaded();
+        }
+        for (Source source : drained) {
+            source.timeline.previous(source.cursor, request.newSourceCallback(source));
+        }
+    }
+
+    void resetSources(Long maxId) {
+        sources = new ArrayList<>(timelines.size());
+        for (Timeline<Tweet> timeline : timelines) {
+            sources.add(new Source(timeline, maxId));
+        }
+        position = maxId;
+    }
+
+    boolean hasDrainedSource() {
+        for (Source source : sources) {
+            if (source.buffer.isEmpty() && !source.exhausted) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * K-way merges the buffered Tweets of the given sources by descending id. Stops at the limit
+     * or once a source which may have older Tweets runs dry, since its next page could hold
+     * Tweets newer than the remaining buffered ones.
+     * @param sources sources with buffers ordered by descending id
+     * @param limit maximum number of Tweets to merge
+     * @param maxId maximum id of the Tweets to merge (exclusive) or null
+     * @return merged Tweets, consumed from the source buffers
+     */
+    static List<Tweet> merge(List<Source> sources, int limit, Long maxId) {
+        final List<Tweet> merged = new ArrayList<>();
+        final PriorityQueue<Source> heads = new PriorityQueue<>(Math.max(1, sources.size()),
+                NEWEST_FIRST);
+        for (Source source : sources) {
+            if (!source.buffer.isEmpty()) {
+                heads.add(source);
+            }
+        }
+        Long lastId = maxId;
+        while (merged.size() < limit && !heads.isEmpty()) {
+            final Source source = heads.poll();
+            final Tweet tweet = source.buffer.pollFirst();
+            // duplicates are adjacent in id order, so comparing to the last id removes them
+            if (lastId == null || tweet.id < lastId) {
+                merged.add(tweet);
+                lastId = tweet.id;
+            }
+            if (!source.buffer.isEmpty()) {
+                heads.add(source);
+            } else if (!source.exhausted) {
+                break;
+            }
+        }
+        return merged;
+    }
+
+    static int compareIds(long lhs, long rhs) {
+        return lhs < rhs ? -1 : lhs == rhs ? 0 : 1;
+    }
+
+    /**
+     * Paging state of a source timeline.
+     */
+    static class Source {
+        final Timeline<Tweet> timeline;
+        // Tweets loaded from the timeline but not yet returned, ordered by descending id
+        final ArrayDeque<Tweet> buffer = new ArrayDeque<>();
+        // position to load older Tweets from
+        Long cursor;
+        // minimum id of the Tweets to page to (exclusive), or null
+        final Long sinceId;
+        // true once the timeline returned a page
+        boolean loaded;
+        // true once the timeline returned no older Tweets, or reached sinceId
+        boolean exhausted;
+
+        Source(Timeline<Tweet> timeline, Long cursor) {
+            this(timeline, cursor, null);
+        }
+
+        Source(Timeline<Tweet> timeline, Long cursor, Long sinceId) {
+            this.timeline = timeline;
+            this.cursor = cursor;
+            this.sinceId = sinceId;
+        }
+
+        void onLoaded(TimelineResult<Tweet> result) {
+            loaded = true;
+            if (result.items.isEmpty()) {
+                exhausted = true;
+                return;
+            }
+            for (Tweet tweet : result.items) {
+                if (sinceId != null && tweet.id <= sinceId) {
+                    exhausted = true;
+                    break;
+                }
+                buffer.add(tweet);
+            }
+            if (result.timelineCursor != null && result.timelineCursor.minPosition != null) {
+                cursor = result.timelineCursor.minPosition;
+            } else {
+                cursor = result.items.get(result.items.size() - 1).id;
+            }
+        }
+    }
+
+    /**
+     * Joins the parallel requests to a set of sources. Source callbacks are delivered on the main
+     * thread, so the join needs no synchronization. Sources which loaded successfully keep their
+     * Tweets when another source fails, so a retry only reloads the failed sources.
+     */
+    abstract static class MergeRequest {
+        final Callback<TimelineResult<Tweet>> cb;
+        int remaining;
+        TwitterException failure;
+
+        MergeRequest(List<Source> pending, Callback<TimelineResult<Tweet>> cb) {
+            this.cb = cb;
+            this.remaining = pending.size();
+        }
+
+        abstract void onSourcesLoaded();
+
+        void deliver(List<Tweet> tweets) {
+            if (cb != null) {
+                final TimelineResult<Tweet> timelineResult =
+                        new TimelineResult<>(new TimelineCursor(tweets), tweets);
+                cb.success(new Result<>(timelineResult, null));
+            }
+        }
+
+        void onSourceFinished() {
+            remaining--;
+            if (remaining == 0) {
+                if (failure != null) {
+                    if (cb != null) {
+                        cb.failure(failure);
+                    }
+                } else {
+                    onSourcesLoaded();
+                }
+            }
+        }
+
+        Callback<TimelineResult<Tweet>> newSourceCallback(final Source source) {
+            return new Callback<TimelineResult<Tweet>>() {
+                @Override
+                public void success(Result<TimelineResult<Tweet>> result) {
+                    source.onLoaded(result.data);
+                    onSourceFinished();
+                }
+
+                @Override
+                public void failure(TwitterException exception) {
+                    if (failure == null) {
+                        failure = exception;
+                    }
+                    onSourceFinished();
+                }
+            };
+        }
+    }
+
+    /**
+     * MergedTimeline Builder.
+     */
+    public static class Builder {
+        private final List<Timeline<Tweet>> timelines = new ArrayList<>();
+        private Integer maxItemsPerRequest = 30;
+
+        /**
+         * Constructs a Builder.
+         */
+        public Builder() {}
+
+        /**
+         * Adds a source timeline, such as a UserTimeline or TwitterListTimeline.
+         * @param timeline source timeline of Tweets.
+         */
+        public Builder addTimeline(Timeline<Tweet> timeline) {
+            if (timeline != null) {
+                timelines.add(timeline);
+            }
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of merged Tweets returned per previous request.
+         * @param maxItemsPerRequest The number of Tweets to return per request.
+         */
+        public Builder maxItemsPerRequest(Integer maxItemsPerRequest) {
+            this.maxItemsPerRequest = maxItemsPerRequest;
+            return this;
+        }
+
+        /**
+         * Builds a MergedTimeline from the Builder parameters.
+         * @return a MergedTimeline.
+         * @throws java.lang.IllegalStateException if no source timeline was added
+         */
+        public MergedTimeline build() {
+            if (timelines.isEmpty()) {
+                throw new IllegalStateException("must add at least one timeline");
+            }
+            return new MergedTimeline(Collections.unmodifiableList(new ArrayList<>(timelines)),
+                    maxItemsPerRequest);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.twitter.sdk.android.tweetui;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.drawable.Drawable;
+import android.widget.ImageView;
+
+import com.squareup.picasso.Cache;
+import com.squareup.picasso.LruCache;
+import com.squareup.picasso.Picasso;
+import com.squareup.picasso.RequestCreator;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The default {@link ImageLoader}, backed by Picasso. By default Tweet UI shares the Picasso
+ * singleton of the app, use {@link #create(Context, int)} to give Tweet images a memory budget of
+ * their own.
+ */
+public class PicassoImageLoader implements ImageLoader {
+    final Picasso picasso;
+    // memory cache of the Picasso instance created by the loader, or null if the app owns it
+    final Cache memoryCache;
+    // Picasso holds targets weakly, so the adapters live as long as the targets they deliver to
+    final Map<Target, PicassoTarget> targets = new WeakHashMap<>();
+
+    /**
+     * Constructs a loader backed by the Picasso instance. The app owns the memory cache of the
+     * instance, so {@link #trimMemory(int)} leaves it to the app.
+     * @param picasso the Picasso instance to load images with
+     * @throws IllegalArgumentException if picasso is null
+     */
+    public PicassoImageLoader(Picasso picasso) {
+        this(picasso, null);
+    }
+
+    PicassoImageLoader(Picasso picasso, Cache memoryCache) {
+        if (picasso == null) {
+            throw new IllegalArgumentException("Picasso must not be null");
+        }
+        this.picasso = picasso;
+        this.memoryCache = memoryCache;
+    }
+
+    /**
+     * Creates a loader backed by a Picasso instance of its own, whose memory cache holds at most
+     * memoryBudget bytes of images. The cache is cleared when the system runs low on memory or
+     * the app's UI is hidden.
+     * @param context the context to create the Picasso instance with
+     * @param memoryBudget the size of the memory cache in bytes
+     * @throws IllegalArgumentException if memoryBudget is not positive
+     */
+    public static PicassoImageLoader create(Context context, int memoryBudget) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("memoryBudget must be positive");
+        }
+        final LruCache memoryCache = new LruCache(memoryBudget);
+        return new PicassoImageLoader(new Picasso.Builder(context).memoryCache(memoryCache)
+                .build(), memoryCache);
+    }
+
+    @Override
+    public void load(ImageRequest request, ImageView imageView, Callback callback) {
+        createRequest(request).into(imageView,
+                callback == null ? null : new PicassoCallback(callback));
+    }
+
+    @Override
+    public void load(ImageRequest request, Target target) {
+        PicassoTarget picassoTarget = targets.get(target);
+        if (picassoTarget == null) {
+            picassoTarget = new PicassoTarget(target);
+            targets.put(target, picassoTarget);
+        }
+        createRequest(request).into(picassoTarget);
+    }
+
+    @Override
+    public void prefetch(ImageRequest request, Callback callback) {
+        // Picasso completes no fetch for requests without image
+        if (request.url == null) {
+            if (callback != null) {
+                callback.onError();
+            }
+            return;
+        }
+        createRequest(request).fetch(callback == null ? null : new PicassoCallback(callback));
+    }
+
+    @Override
+    public void cancel(ImageView imageView) {
+        picasso.cancelRequest(imageView);
+    }
+
+    @Override
+    public void pauseTag(Object tag) {
+        picasso.pauseTag(tag);
+    }
+
+    @Override
+    public void resumeTag(Object tag) {
+        picasso.resumeTag(tag);
+    }
+
+    @Override
+    public void trimMemory(int level) {
+        if (memoryCache != null && level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            memoryCache.clear();
+        }
+    }
+
+    RequestCreator createRequest(ImageRequest request) {
+        final RequestCreator creator = picasso.load(request.url);
+        if (request.isResized()) {
+            creator.resize(request.targetWidth, request.targetHeight).centerCrop();
+        }
+        if (request.placeholder != null) {
+            creator.placeholder(request.placeholder);
+        }
+        if (request.errorResId != 0) {
+            creator.error(request.errorResId);
+        }
+        if (request.tag != null) {
+            creator.tag(request.tag);
+        }
+        return creator;
+    }
+
+    static class PicassoCallback implements com.squareup.picasso.Callback {
+        final Callback callback;
+
+        PicassoCallback(Callback callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void onSuccess() {
+            callback.onSuccess();
+        }
+
+        @Override
+        public void onError() {
+            callback.onError();
+        }
+    }
+
+    static class PicassoTarget implements com.squareup.picasso.Target {
+        final WeakReference<Target> targetWeakReference;
+
+        PicassoTarget(Target target) {
+            targetWeakReference = new WeakReference<>(target);
+        }
+
+        @Override
+        public void onBitmapLoaded(Bitmap bitmap, Picasso.LoadedFrom from) {
+            final Target target = targetWeakReference.get();
+            if (target != null) {
+                target.onImageLoaded(bitmap);
+            }
+        }
+
+        @Override
+        public void onBitmapFailed(Drawable errorDrawable) {
+            final Target target = targetWeakReference.get();
+            if (target != null) {
+                target.onImageFailed(errorDrawable);
+            }
+        }
+
+        @Override
+        public void onPrepareLoad(Drawable placeHolderDrawable) {
+            final Target target = targetWeakReference.get();
+            if (target != null) {
+                target.onPrepareLoad(placeHolderDrawable);
+            }
+        }
+    }
+}
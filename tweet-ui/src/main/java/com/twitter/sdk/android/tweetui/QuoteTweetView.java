@@ -68,6 +68,7 @@ public class QuoteTweetView extends AbstractTweetView {
         fullNameView.setTextColor(primaryTextColor);
         screenNameView.setTextColor(secondaryTextColor);
         contentView.setTextColor(primaryTextColor);
+        contentView.setLinkTextColor(actionColor);
         tweetMediaView.setMediaBgColor(mediaBgColor);
         tweetMediaView.setPhotoErrorResId(photoErrorResId);
     }
@@ -24,7 +24,8 @@ import com.twitter.sdk.android.core.models.Tweet;
 
 /**
  * Handles Tweet successes and failures by setting the new Tweet on the given TweetView and
- * clearing the single Tweet cache. Calls through to the given Callback.
+ * clearing the single Tweet cache. Calls through to the given Callback. If the new Tweet only
+ * changed its action state, the TweetView only updates its Tweet actions.
  */
 class ResetTweetCallback extends Callback<Tweet> {
     final BaseTweetView baseTweetView;
@@ -41,7 +42,11 @@ class ResetTweetCallback extends Callback<Tweet> {
     @Override
     public void success(Result<Tweet> result) {
         tweetRepository.updateCache(result.data);
-        baseTweetView.setTweet(result.data);
+        if (TweetUtils.hasSameContent(baseTweetView.getTweet(), result.data)) {
+            baseTweetView.setTweetActionState(result.data);
+        } else {
+            baseTweetView.setTweet(result.data);
+        }
         if (cb != null) {
             cb.success(result);
         }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.models.Tweet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * RuleTimelineFilter removes Tweets matching any of its rules. Rules are written in a syntax close
+ * to Twitter search operators and are compiled once, when the filter is built.
+ *
+ * <ul>
+ *   <li>{@code spoiler} matches the word spoiler, ignoring case</li>
+ *   <li>{@code "season finale"} matches the phrase</li>
+ *   <li>{@code /\bs\d+e\d+\b/i} matches a regular expression, i ignores case</li>
+ *   <li>{@code from:handle}, {@code @handle}, {@code #hashtag}, {@code $symbol} and
+ *   {@code url:host} match the author, mentions, hashtags, symbols and link hosts</li>
+ *   <li>terms are combined with {@code AND}, which may be omitted, {@code OR} and parentheses,
+ *   and negated with {@code -} or {@code NOT}</li>
+ * </ul>
+ *
+ * For example {@code (spoiler OR "season finale") -from:hbo} removes spoilers, except those
+ * Tweeted by hbo. It is thread safe, so timelines may filter large pages in parallel.
+ */
+public class RuleTimelineFilter implements TimelineFilter {
+    private final FilterRule rule;
+    private final Locale locale;
+    private final int ruleCount;
+
+    RuleTimelineFilter(List<FilterRule> rules, Locale locale) {
+        this.rule = new FilterRule.OrRule(rules);
+        this.locale = locale;
+        this.ruleCount = rules.size();
+    }
+
+    @Override
+    public List<Tweet> filter(List<Tweet> tweets) {
+        final List<Tweet> filteredTweets = new ArrayList<>();
+        for (int idx = 0; idx < tweets.size(); idx++) {
+            final Tweet tweet = tweets.get(idx);
+            if (!shouldFilterTweet(tweet)) {
+                filteredTweets.add(tweet);
+            }
+        }
+
+        return Collections.unmodifiableList(filteredTweets);
+    }
+
+    @Override
+    public int totalFilters() {
+        return ruleCount;
+    }
+
+    boolean shouldFilterTweet(Tweet tweet) {
+        return rule.matches(new TweetFeatures(tweet, locale));
+    }
+
+    /**
+     * RuleTimelineFilter Builder
+     */
+    public static class Builder {
+        private final List<String> rules = new ArrayList<>();
+        private Locale locale = Locale.getDefault();
+
+        /**
+         * Adds a rule, Tweets matching any rule are removed.
+         * @param rule the rule, see {@link RuleTimelineFilter} for the syntax.
+         */
+        public Builder addRule(String rule) {
+            if (rule == null) {
+                throw new IllegalArgumentException("rule must not be null");
+            }
+            rules.add(rule);
+            return this;
+        }
+
+        /**
+         * Sets the locale used to ignore case, defaults to the default locale.
+         * @param locale the locale of the Tweets.
+         */
+        public Builder locale(Locale locale) {
+            this.locale = locale;
+            return this;
+        }
+
+        /**
+         * Builds a RuleTimelineFilter from the Builder parameters.
+         * @return a RuleTimelineFilter.
+         * @throws java.lang.IllegalArgumentException if a rule is malformed.
+         */
+        public RuleTimelineFilter build() {
+            final List<FilterRule> compiled = new ArrayList<>(rules.size());
+            for (String rule : rules) {
+                compiled.add(new FilterRuleParser(rule, locale).parse());
+            }
+            return new RuleTimelineFilter(compiled, locale);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Translates FilterValues into search query operators, so the search API leaves out muted Tweets
+ * instead of the client downloading and discarding them. Values which cannot be expressed as an
+ * operator, or which no longer fit the query, are kept in clientFilterValues.
+ */
+class SearchQueryFilter {
+    // search queries are limited to 500 characters once URL encoded, including operators
+    static final int MAX_QUERY_LENGTH = 500;
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}_]+");
+    private static final Pattern HANDLE = Pattern.compile("[a-z0-9_]{1,15}");
+    private static final Pattern HOST = Pattern.compile("[a-z0-9-]+(\\.[a-z0-9-]+)+");
+    private static final String OR = "OR";
+
+    // operators to append to the query, with leading whitespace
+    final String operators;
+    final FilterValues clientFilterValues;
+
+    SearchQueryFilter(String operators, FilterValues clientFilterValues) {
+        this.operators = operators;
+        this.clientFilterValues = clientFilterValues;
+    }
+
+    /**
+     * @param query the query, including any modifiers already appended.
+     * @param filterValues the values to translate.
+     */
+    static SearchQueryFilter create(String query, FilterValues filterValues) {
+        final Operators operators = new Operators(MAX_QUERY_LENGTH - encodedLength(query));
+
+        final List<String> keywords = new ArrayList<>();
+        for (String keyword : filterValues.keywords) {
+            if (!WORD.matcher(keyword).matches() || OR.equals(keyword)
+                    || !operators.append(" -" + keyword)) {
+                keywords.add(keyword);
+            }
+        }
+
+        // hashtag values also match symbols, which are always filtered on the client
+        final List<String> hashtags = new ArrayList<>(filterValues.hashtags);
+        for (String hashtag : filterValues.hashtags) {
+            final String normalized = BasicTimelineFilter.normalizeHashtag(hashtag);
+            if (normalized != null && WORD.matcher(normalized).matches()) {
+                operators.append(" -#" + normalized);
+            }
+        }
+
+        final List<String> handles = new ArrayList<>();
+        for (String handle : filterValues.handles) {
+            final String normalized = BasicTimelineFilter.normalizeHandle(handle);
+            // the filter matches both the author and mentions
+            if (normalized == null || !HANDLE.matcher(normalized).matches()
+                    || !operators.append(" -from:" + normalized + " -@" + normalized)) {
+                handles.add(handle);
+            }
+        }
+
+        final List<String> urls = new ArrayList<>();
+        for (String url : filterValues.urls) {
+            final String host = BasicTimelineFilter.normalizeUrl(url);
+            if (host == null || !HOST.matcher(host).matches()
+                    || !operators.append(" -url:" + host)) {
+                urls.add(url);
+            }
+        }
+
+        // user ids have no search operator
+        return new SearchQueryFilter(operators.toString(),
+                new FilterValues(keywords, hashtags, handles, urls, filterValues.userIds));
+    }
+
+    /**
+     * @return the length of the value once URL encoded, as it is sent in the query string.
+     */
+    static int encodedLength(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8").length();
+        } catch (UnsupportedEncodingException unlikely) {
+            throw new RuntimeException(unlikely.getMessage(), unlikely);
+        }
+    }
+
+    /**
+     * Operators appended as long as their encoded length fits the budget. Values are encoded char
+     * by char, so the encoded length of the operators is the sum of their encoded lengths.
+     */
+    private static final class Operators {
+        private final StringBuilder operators = new StringBuilder();
+        private final int budget;
+        private int encodedLength;
+
+        Operators(int budget) {
+            this.budget = budget;
+        }
+
+        boolean append(String operator) {
+            final int length = encodedLength(operator);
+            if (encodedLength + length > budget) {
+                return false;
+            }
+            operators.append(operator);
+            encodedLength += length;
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return operators.toString();
+        }
+    }
+}
@@ -47,17 +47,46 @@ public class SearchTimeline extends BaseTimeline implements Timeline<Tweet> {
     final String languageCode;
     final Integer maxItemsPerRequest;
     final String untilDate;
+    final FilterValues clientFilterValues;
 
     SearchTimeline(TwitterCore twitterCore, String query, Geocode geocode, String resultType,
                    String languageCode, Integer maxItemsPerRequest, String untilDate) {
+        this(twitterCore, query, geocode, resultType, languageCode, maxItemsPerRequest, untilDate,
+                null);
+    }
+
+    SearchTimeline(TwitterCore twitterCore, String query, Geocode geocode, String resultType,
+                   String languageCode, Integer maxItemsPerRequest, String untilDate,
+                   FilterValues filterValues) {
         this.twitterCore = twitterCore;
         this.languageCode = languageCode;
         this.maxItemsPerRequest = maxItemsPerRequest;
         this.untilDate = untilDate;
         this.resultType = resultType;
-        // if the query is non-null append the filter Retweets modifier
-        this.query = query == null ? null : query + FILTER_RETWEETS;
         this.geocode = geocode;
+        if (query == null) {
+            this.query = null;
+            this.clientFilterValues = filterValues;
+        } else if (filterValues == null) {
+            // if the query is non-null append the filter Retweets modifier
+            this.query = query + FILTER_RETWEETS;
+            this.clientFilterValues = null;
+        } else {
+            // followed by the operators leaving out filtered Tweets
+            final SearchQueryFilter queryFilter =
+                    SearchQueryFilter.create(query + FILTER_RETWEETS, filterValues);
+            this.query = query + FILTER_RETWEETS + queryFilter.operators;
+            this.clientFilterValues = queryFilter.clientFilterValues;
+        }
+    }
+
+    /**
+     * Returns the FilterValues which could not be added to the query, to be filtered on the
+     * client, for example with a BasicTimelineFilter.
+     * @return the remaining FilterValues, or null if no FilterValues were set.
+     */
+    public FilterValues getClientFilterValues() {
+        return clientFilterValues;
     }
 
     /**
@@ -146,6 +175,7 @@ public class SearchTimeline extends BaseTimeline implements Timeline<Tweet> {
         private Integer maxItemsPerRequest = 30;
         private String untilDate;
         private Geocode geocode;
+        private FilterValues filterValues;
 
         /**
          * Constructs a Builder.
@@ -221,6 +251,18 @@ public class SearchTimeline extends BaseTimeline implements Timeline<Tweet> {
             return this;
         }
 
+        /**
+         * Leaves out Tweets matching the FilterValues by adding operators such as -keyword,
+         * -from:handle and -url:host to the query. Values which cannot be added to the query are
+         * returned by {@link SearchTimeline#getClientFilterValues()}.
+         *
+         * @param filterValues the values to filter.
+         */
+        public Builder filterValues(FilterValues filterValues) {
+            this.filterValues = filterValues;
+            return this;
+        }
+
         /**
          * Builds a SearchTimeline from the Builder parameters.
          * @return a SearchTimeline.
@@ -231,7 +273,7 @@ public class SearchTimeline extends BaseTimeline implements Timeline<Tweet> {
                 throw new IllegalStateException("query must not be null");
             }
             return new SearchTimeline(twitterCore, query, geocode, resultType, lang,
-                    maxItemsPerRequest, untilDate);
+                    maxItemsPerRequest, untilDate, filterValues);
         }
     }
 }
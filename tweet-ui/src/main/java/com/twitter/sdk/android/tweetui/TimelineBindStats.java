@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+/**
+ * TimelineBindStats is a snapshot of the Tweet rows a timeline adapter created and bound, by the
+ * shape of the row.
+ */
+public class TimelineBindStats {
+    /**
+     * Rows showing only text.
+     */
+    public final TypeStats text;
+
+    /**
+     * Rows showing a single photo.
+     */
+    public final TypeStats photo;
+
+    /**
+     * Rows showing several photos.
+     */
+    public final TypeStats multiPhoto;
+
+    /**
+     * Rows showing a video, animated GIF or Vine.
+     */
+    public final TypeStats video;
+
+    /**
+     * Rows showing a quoted Tweet.
+     */
+    public final TypeStats quote;
+
+    TimelineBindStats(TypeStats text, TypeStats photo, TypeStats multiPhoto, TypeStats video,
+            TypeStats quote) {
+        this.text = text;
+        this.photo = photo;
+        this.multiPhoto = multiPhoto;
+        this.video = video;
+        this.quote = quote;
+    }
+
+    /**
+     * The rows of one shape created and bound.
+     */
+    public static class TypeStats {
+        /**
+         * Number of rows created.
+         */
+        public final int createCount;
+
+        /**
+         * Total time spent creating rows, in nanoseconds.
+         */
+        public final long createNanos;
+
+        /**
+         * Number of times a row was bound to a Tweet. Whether binding a newly created row counts
+         * depends on the adapter, see its getBindStats.
+         */
+        public final int bindCount;
+
+        /**
+         * Total time spent binding rows, in nanoseconds.
+         */
+        public final long bindNanos;
+
+        TypeStats(int createCount, long createNanos, int bindCount, long bindNanos) {
+            this.createCount = createCount;
+            this.createNanos = createNanos;
+            this.bindCount = bindCount;
+            this.bindNanos = bindNanos;
+        }
+    }
+}
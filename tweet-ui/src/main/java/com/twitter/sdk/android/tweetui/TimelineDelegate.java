@@ -41,6 +41,8 @@ class TimelineDelegate<T extends Identifiable> {
     final DataSetObservable listAdapterObservable;
     final TimelineStateHolder timelineStateHolder;
     List<T> itemList;
+    // newer items received by poll, held back until showNewItems is called
+    List<T> pendingItems = new ArrayList<>();
 
     /**
      * Constructs a TimelineDelegate with a timeline for requesting data.
@@ -90,6 +92,35 @@ class TimelineDelegate<T extends Identifiable> {
                 new NextCallback(developerCb, timelineStateHolder));
     }
 
+    /**
+     * Triggers loading next items into the pending buffer instead of the visible items and calls
+     * through to the developer callback. Buffered items are shown by showNewItems.
+     */
+    public void poll(Callback<TimelineResult<T>> developerCb) {
+        loadNext(timelineStateHolder.positionForNext(),
+                new PollCallback(developerCb, timelineStateHolder));
+    }
+
+    /**
+     * Prepends any items buffered by poll to the visible items and calls notifyDataSetChanged.
+     */
+    public void showNewItems() {
+        if (!pendingItems.isEmpty()) {
+            final ArrayList<T> receivedItems = new ArrayList<>(pendingItems);
+            receivedItems.addAll(itemList);
+            itemList = receivedItems;
+            pendingItems.clear();
+            notifyDataSetChanged();
+        }
+    }
+
+    /**
+     * Returns the number of items buffered by poll which are not yet shown.
+     */
+    public int getPendingCount() {
+        return pendingItems.size();
+    }
+
     /**
      * Triggers loading previous items.
      */
@@ -148,10 +179,11 @@ class TimelineDelegate<T extends Identifiable> {
     }
 
     /**
-     * Returns true if the itemList size is below the MAX_ITEMS capacity, false otherwise.
+     * Returns true if the itemList and pendingItems sizes are below the MAX_ITEMS capacity, false
+     * otherwise.
      */
     boolean withinMaxCapacity() {
-        return itemList.size() < CAPACITY;
+        return itemList.size() + pendingItems.size() < CAPACITY;
     }
 
     /**
@@ -238,6 +270,9 @@ class TimelineDelegate<T extends Identifiable> {
         public void success(Result<TimelineResult<T>> result) {
             if (result.data.items.size() > 0) {
                 final ArrayList<T> receivedItems = new ArrayList<>(result.data.items);
+                // buffered items sit between the received items and the shown items
+                receivedItems.addAll(pendingItems);
+                pendingItems.clear();
                 receivedItems.addAll(itemList);
                 itemList = receivedItems;
                 notifyDataSetChanged();
@@ -264,7 +299,37 @@ class TimelineDelegate<T extends Identifiable> {
         public void success(Result<TimelineResult<T>> result) {
             if (result.data.items.size() > 0) {
                 itemList.clear();
+                pendingItems.clear();
+            }
+            super.success(result);
+        }
+    }
+
+    /**
+     * Handles receiving polled timeline items. Prepends received items to pendingItems and updates
+     * the scrollStateHolder nextCursor without changing the shown items. If no items are shown
+     * yet, received items are shown directly.
+     */
+    class PollCallback extends DefaultCallback {
+
+        PollCallback(Callback<TimelineResult<T>> developerCb,
+                TimelineStateHolder timelineStateHolder) {
+            super(developerCb, timelineStateHolder);
+        }
+
+        @Override
+        public void success(Result<TimelineResult<T>> result) {
+            if (result.data.items.size() > 0) {
+                final ArrayList<T> receivedItems = new ArrayList<>(result.data.items);
+                receivedItems.addAll(pendingItems);
+                pendingItems = receivedItems;
+                timelineStateHolder.setNextCursor(result.data.timelineCursor);
+                if (itemList.isEmpty()) {
+                    // nothing is shown yet, so there is no scroll position to preserve
+                    showNewItems();
+                }
             }
+            // do nothing when zero items are received. Subsequent 'poll' call does not change.
             super.success(result);
         }
     }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+/**
+ * TimelineFilterStats is a snapshot of the Tweets seen and removed by a timeline's TimelineFilter.
+ */
+public class TimelineFilterStats {
+    /**
+     * Number of Tweets passed through the filter, including Tweets seen again on refresh.
+     */
+    public final int tweetCount;
+
+    /**
+     * Number of Tweets removed by the filter.
+     */
+    public final int tweetsFiltered;
+
+    /**
+     * Total count of constraints applied by the filter.
+     */
+    public final int totalFilters;
+
+    /**
+     * Number of Tweets whose verdict was reused from an earlier page instead of evaluated.
+     */
+    public final int cacheHits;
+
+    TimelineFilterStats(int tweetCount, int tweetsFiltered, int totalFilters, int cacheHits) {
+        this.tweetCount = tweetCount;
+        this.tweetsFiltered = tweetsFiltered;
+        this.totalFilters = totalFilters;
+        this.cacheHits = cacheHits;
+    }
+}
@@ -31,6 +31,7 @@ import com.twitter.sdk.android.core.models.Identifiable;
 abstract class TimelineListAdapter<T extends Identifiable> extends BaseAdapter {
     protected final Context context;
     protected final TimelineDelegate<T> delegate;
+    TimelinePoller<T> poller;
 
     /**
      * Constructs a TimelineListAdapter for the given Timeline.
@@ -58,6 +59,41 @@ abstract class TimelineListAdapter<T extends Identifiable> extends BaseAdapter {
         delegate.refresh(cb);
     }
 
+    /**
+     * Starts polling for newer Timeline items on an adaptive interval. Newer items are buffered
+     * instead of shifting the list until showNewItems is called.
+     * @param listener notified with the buffered item count when newer items are buffered.
+     */
+    public void startPolling(NewItemsListener listener) {
+        if (poller == null) {
+            poller = new TimelinePoller<>(delegate);
+        }
+        poller.start(listener);
+    }
+
+    /**
+     * Stops polling for newer Timeline items.
+     */
+    public void stopPolling() {
+        if (poller != null) {
+            poller.stop();
+        }
+    }
+
+    /**
+     * Shows the newer Timeline items buffered by polling at the top of the list.
+     */
+    public void showNewItems() {
+        delegate.showNewItems();
+    }
+
+    /**
+     * Returns the number of newer Timeline items buffered by polling.
+     */
+    public int getNewItemCount() {
+        return delegate.getPendingCount();
+    }
+
     @Override
     public int getCount() {
         return delegate.getCount();
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.format.DateUtils;
+
+import com.twitter.sdk.android.core.Callback;
+import com.twitter.sdk.android.core.Result;
+import com.twitter.sdk.android.core.Twitter;
+import com.twitter.sdk.android.core.TwitterApiErrorConstants;
+import com.twitter.sdk.android.core.TwitterApiException;
+import com.twitter.sdk.android.core.TwitterException;
+import com.twitter.sdk.android.core.TwitterRateLimit;
+import com.twitter.sdk.android.core.internal.ActivityLifecycleManager;
+import com.twitter.sdk.android.core.internal.CurrentTimeProvider;
+import com.twitter.sdk.android.core.internal.SystemCurrentTimeProvider;
+import com.twitter.sdk.android.core.models.Identifiable;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * TimelinePoller periodically polls a TimelineDelegate for newer items on an adaptive interval.
+ * The interval backs off when polls return no items and speeds up when they do. Polling pauses
+ * while the app is in the background and waits out exhausted rate limits.
+ * @param <T> the item type
+ */
+class TimelinePoller<T extends Identifiable> {
+    static final long MIN_INTERVAL_MILLIS = 30 * DateUtils.SECOND_IN_MILLIS;
+    static final long DEFAULT_INTERVAL_MILLIS = DateUtils.MINUTE_IN_MILLIS;
+    static final long MAX_INTERVAL_MILLIS = 15 * DateUtils.MINUTE_IN_MILLIS;
+    static final int BACKOFF_MULTIPLIER = 2;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    final TimelineDelegate<T> delegate;
+    final Handler handler;
+    final CurrentTimeProvider time;
+    final Runnable pollRunnable = this::poll;
+    NewItemsListener listener;
+    long intervalMillis = DEFAULT_INTERVAL_MILLIS;
+    // assume the Activity which starts polling is started, lifecycle events correct the count
+    int startedActivities = 1;
+    boolean polling;
+
+    TimelinePoller(TimelineDelegate<T> delegate) {
+        this(delegate, new Handler(Looper.getMainLooper()), new SystemCurrentTimeProvider());
+        monitorActivityLifecycle(Twitter.getInstance().getActivityLifecycleManager());
+    }
+
+    TimelinePoller(TimelineDelegate<T> delegate, Handler handler, CurrentTimeProvider time) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("TimelineDelegate must not be null");
+        }
+        this.delegate = delegate;
+        this.handler = handler;
+        this.time = time;
+    }
+
+    /**
+     * Hooks into the activity lifecycle to pause polling while the app is in the background. The
+     * registered callbacks only weakly reference this poller, since they cannot be unregistered.
+     */
+    void monitorActivityLifecycle(ActivityLifecycleManager activityLifecycleManager) {
+        activityLifecycleManager.registerCallbacks(new LifecycleCallbacks(this));
+    }
+
+    /**
+     * Starts polling at the default interval. Does nothing if polling was already started.
+     * @param listener notified with the buffered item count whenever new items are buffered.
+     */
+    void start(NewItemsListener listener) {
+        this.listener = listener;
+        if (!polling) {
+            polling = true;
+            intervalMillis = DEFAULT_INTERVAL_MILLIS;
+            schedule(intervalMillis);
+        }
+    }
+
+    /**
+     * Stops polling. Buffered items are kept until shown or refreshed.
+     */
+    void stop() {
+        polling = false;
+        handler.removeCallbacks(pollRunnable);
+    }
+
+    boolean isInForeground() {
+        return startedActivities > 0;
+    }
+
+    void onActivityStarted() {
+        startedActivities++;
+        if (startedActivities == 1 && polling) {
+            schedule(intervalMillis);
+        }
+    }
+
+    void onActivityStopped() {
+        startedActivities = Math.max(0, startedActivities - 1);
+        if (!isInForeground()) {
+            handler.removeCallbacks(pollRunnable);
+        }
+    }
+
+    void schedule(long delayMillis) {
+        handler.removeCallbacks(pollRunnable);
+        if (polling && isInForeground()) {
+            handler.postDelayed(pollRunnable, delayMillis);
+        }
+    }
+
+    void poll() {
+        if (polling && isInForeground()) {
+            delegate.poll(new PollCallback());
+        }
+    }
+
+    /**
+     * Halves the interval when items were received and doubles it otherwise, within the min and
+     * max bounds.
+     */
+    void adjustInterval(int receivedCount) {
+        if (receivedCount > 0) {
+            intervalMillis = Math.max(MIN_INTERVAL_MILLIS, intervalMillis / BACKOFF_MULTIPLIER);
+        } else {
+            intervalMillis = Math.min(MAX_INTERVAL_MILLIS, intervalMillis * BACKOFF_MULTIPLIER);
+        }
+    }
+
+    /**
+     * Returns the delay until the next poll, which is at least the time until the rate limit
+     * window resets if no requests remain in it.
+     */
+    long nextDelay(TwitterRateLimit rateLimit) {
+        if (rateLimit != null && rateLimit.getLimit() > 0 && rateLimit.getRemaining() == 0) {
+            final long untilReset = rateLimit.getReset() * DateUtils.SECOND_IN_MILLIS
+                    - time.getCurrentTimeMillis();
+            return Math.max(intervalMillis, untilReset);
+        }
+        return intervalMillis;
+    }
+
+    static boolean isRateLimited(TwitterException exception) {
+        if (exception instanceof TwitterApiException) {
+            final TwitterApiException apiException = (TwitterApiException) exception;
+            return apiException.getStatusCode() == HTTP_TOO_MANY_REQUESTS ||
+                    apiException.getErrorCode() == TwitterApiErrorConstants.RATE_LIMIT_EXCEEDED;
+        }
+        return false;
+    }
+
+    class PollCallback extends Callback<TimelineResult<T>> {
+
+        @Override
+        public void success(Result<TimelineResult<T>> result) {
+            final int receivedCount = result.data.items.size();
+            adjustInterval(receivedCount);
+            final TwitterRateLimit rateLimit = result.response == null ? null
+                    : TwitterApiException.readApiRateLimit(result.response);
+            schedule(nextDelay(rateLimit));
+
+            final int pendingCount = delegate.getPendingCount();
+            if (receivedCount > 0 && pendingCount > 0 && listener != null) {
+                listener.onNewItems(pendingCount);
+            }
+        }
+
+        @Override
+        public void failure(TwitterException exception) {
+            if (isRateLimited(exception)) {
+                intervalMillis = MAX_INTERVAL_MILLIS;
+                final TwitterRateLimit rateLimit =
+                        ((TwitterApiException) exception).getTwitterRateLimit();
+                schedule(nextDelay(rateLimit));
+            } else {
+                // network errors, requests in flight and max capacity all back off
+                adjustInterval(0);
+                schedule(intervalMillis);
+            }
+        }
+    }
+
+    static class LifecycleCallbacks extends ActivityLifecycleManager.Callbacks {
+        final WeakReference<TimelinePoller> pollerRef;
+
+        LifecycleCallbacks(TimelinePoller poller) {
+            this.pollerRef = new WeakReference<>(poller);
+        }
+
+        @Override
+        public void onActivityStarted(Activity activity) {
+            final TimelinePoller poller = pollerRef.get();
+            if (poller != null) {
+                poller.onActivityStarted();
+            }
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity) {
+            final TimelinePoller poller = pollerRef.get();
+            if (poller != null) {
+                poller.onActivityStopped();
+            }
+        }
+    }
+}
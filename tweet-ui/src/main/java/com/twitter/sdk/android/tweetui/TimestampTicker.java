@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.os.Handler;
+import android.os.SystemClock;
+import android.text.format.DateUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the relative timestamps of visible Tweet views current from a single main thread
+ * callback. Tweet views register while their window is visible, and on each tick they update
+ * their timestamp text only if it changed. Ticks are scheduled for the soonest timestamp change,
+ * at least once a minute, and stop while no view is registered. Must be used on the main thread.
+ */
+class TimestampTicker {
+    static final long MIN_TICK_INTERVAL = DateUtils.SECOND_IN_MILLIS;
+    static final long MAX_TICK_INTERVAL = DateUtils.MINUTE_IN_MILLIS;
+    private static final long NOT_SCHEDULED = Long.MAX_VALUE;
+
+    interface Listener {
+        /**
+         * Updates the relative timestamp for the current time.
+         * @param currentTimeMillis the current time
+         * @return the time at which the timestamp changes next, or {@link Long#MAX_VALUE}
+         */
+        long onTick(long currentTimeMillis);
+    }
+
+    final Handler handler;
+    final List<Listener> listeners = new ArrayList<>();
+    private final Runnable tick = this::tick;
+    // uptime of the scheduled tick
+    long scheduledTickUptime = NOT_SCHEDULED;
+
+    TimestampTicker(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Registers the listener, if it is not registered yet, and updates it for the current time,
+     * since its timestamp may have gone stale while it was not registered.
+     */
+    void register(Listener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+        final long now = System.currentTimeMillis();
+        scheduleTick(now, listener.onTick(now));
+    }
+
+    void unregister(Listener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty() && scheduledTickUptime != NOT_SCHEDULED) {
+            handler.removeCallbacks(tick);
+            scheduledTickUptime = NOT_SCHEDULED;
+        }
+    }
+
+    /**
+     * Makes sure a tick happens once the registered listeners' timestamps change by the given
+     * time, e.g. after a registered view was bound to another Tweet.
+     */
+    void scheduleTick(long currentTimeMillis, long changeTimeMillis) {
+        if (listeners.isEmpty()) return;
+
+        final long delay = Math.max(MIN_TICK_INTERVAL,
+                Math.min(MAX_TICK_INTERVAL, changeTimeMillis - currentTimeMillis));
+        final long tickUptime = SystemClock.uptimeMillis() + delay;
+        if (tickUptime >= scheduledTickUptime) return;
+
+        if (scheduledTickUptime != NOT_SCHEDULED) {
+            handler.removeCallbacks(tick);
+        }
+        handler.postDelayed(tick, delay);
+        scheduledTickUptime = tickUptime;
+    }
+
+    void tick() {
+        scheduledTickUptime = NOT_SCHEDULED;
+        final long now = System.currentTimeMillis();
+        long changeTime = Long.MAX_VALUE;
+        for (int i = 0; i < listeners.size(); i++) {
+            changeTime = Math.min(changeTime, listeners.get(i).onTick(now));
+        }
+        scheduleTick(now, changeTime);
+    }
+}
@@ -18,35 +18,128 @@
 package com.twitter.sdk.android.tweetui;
 
 import android.content.res.Resources;
+import android.support.v4.util.LongSparseArray;
 import android.support.v4.util.SparseArrayCompat;
 import android.text.format.DateUtils;
 
 import java.text.DateFormat;
-import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
+import java.util.TimeZone;
 
 // Cribbed from twitter-android-internal, renamed and formatted to our standards
-// methods here should only be accessed on the main thread
+// methods here are thread safe, the relative date format synchronizes its caches
 final class TweetDateUtils {
     // Sat Mar 14 02:34:20 +0000 2009
-    static final SimpleDateFormat DATE_TIME_RFC822
-            = new SimpleDateFormat("EEE MMM dd HH:mm:ss Z yyyy", Locale.ENGLISH);
+    private static final int API_TIME_LENGTH = 30;
+    private static final String[] DAY_NAMES =
+            {"Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat"};
+    private static final String[] MONTH_NAMES =
+            {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
     static final DateFormatter RELATIVE_DATE_FORMAT = new DateFormatter();
     static final long INVALID_DATE = -1;
 
     private TweetDateUtils() {}
 
+    /**
+     * Parses the created_at time of the API, in the "EEE MMM dd HH:mm:ss Z yyyy" format, without
+     * allocating. Unlike a lenient SimpleDateFormat, out of range fields are rejected rather than
+     * rolled over.
+     *
+     * @param apiTime the API time, e.g. "Sat Mar 14 02:34:20 +0000 2009"
+     * @return the epoch millis, or {@link #INVALID_DATE} if the time could not be parsed
+     */
     static long apiTimeToLong(String apiTime) {
-        if (apiTime == null) return INVALID_DATE;
+        if (apiTime == null || apiTime.length() != API_TIME_LENGTH) return INVALID_DATE;
 
-        try {
-            return DATE_TIME_RFC822.parse(apiTime).getTime();
-        } catch (ParseException e) {
+        if (apiTime.charAt(3) != ' ' || apiTime.charAt(7) != ' ' || apiTime.charAt(10) != ' '
+                || apiTime.charAt(13) != ':' || apiTime.charAt(16) != ':'
+                || apiTime.charAt(19) != ' ' || apiTime.charAt(25) != ' ') {
             return INVALID_DATE;
         }
+        if (indexOfName(DAY_NAMES, apiTime, 0) == -1) return INVALID_DATE;
+
+        final int month = indexOfName(MONTH_NAMES, apiTime, 4);
+        final int day = parseDigits(apiTime, 8, 2);
+        final int hour = parseDigits(apiTime, 11, 2);
+        final int minute = parseDigits(apiTime, 14, 2);
+        final int second = parseDigits(apiTime, 17, 2);
+        final char offsetSign = apiTime.charAt(20);
+        final int offsetHours = parseDigits(apiTime, 21, 2);
+        final int offsetMinutes = parseDigits(apiTime, 23, 2);
+        final int year = parseDigits(apiTime, 26, 4);
+        if (month == -1 || year == -1 || day < 1 || day > daysInMonth(year, month)
+                || hour == -1 || hour > 23 || minute == -1 || minute > 59
+                || second == -1 || second > 59 || (offsetSign != '+' && offsetSign != '-')
+                || offsetHours == -1 || offsetHours > 23
+                || offsetMinutes == -1 || offsetMinutes > 59) {
+            return INVALID_DATE;
+        }
+
+        final long days = daysSinceEpoch(year, month + 1, day);
+        final long offsetMillis = (offsetHours * 60L + offsetMinutes) * DateUtils.MINUTE_IN_MILLIS;
+        final long localMillis = days * DateUtils.DAY_IN_MILLIS + hour * DateUtils.HOUR_IN_MILLIS
+                + minute * DateUtils.MINUTE_IN_MILLIS + second * DateUtils.SECOND_IN_MILLIS;
+        return offsetSign == '+' ? localMillis - offsetMillis : localMillis + offsetMillis;
+    }
+
+    /**
+     * @return the index of the three letter name at the offset of the string, or -1
+     */
+    private static int indexOfName(String[] names, String str, int offset) {
+        for (int i = 0; i < names.length; i++) {
+            if (str.regionMatches(offset, names[i], 0, 3)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the value of the ASCII digits at the offset of the string, or -1 if a char is not
+     * an ASCII digit
+     */
+    private static int parseDigits(String str, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            final char ch = str.charAt(i);
+            if (ch < '0' || ch > '9') return -1;
+            value = value * 10 + ch - '0';
+        }
+        return value;
+    }
+
+    /**
+     * @param month the zero based month
+     */
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 1:
+                final boolean leapYear = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+                return leapYear ? 29 : 28;
+            case 3:
+            case 5:
+            case 8:
+            case 10:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * The days between the epoch and the date of the proleptic Gregorian calendar, from Howard
+     * Hinnant's days_from_civil.
+     *
+     * @param month the one based month
+     */
+    static long daysSinceEpoch(int year, int month, int day) {
+        final int y = month <= 2 ? year - 1 : year;
+        final int era = (y >= 0 ? y : y - 399) / 400;
+        final int yearOfEra = y - era * 400;
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
     }
 
     static boolean isValidTimestamp(String timestamp) {
@@ -61,9 +154,10 @@ final class TweetDateUtils {
     }
 
     /**
-     * This method is not thread safe. It has been modified from the original to not rely on global
-     * time state. If a timestamp is in the future we return it as an absolute date string. Within
-     * the same second we return 0s
+     * It has been modified from the original to not rely on global time state. If a timestamp is
+     * in the future we return it as an absolute date string. Within the same second we return 0s.
+     * Relative times are bucketed by second, minute, hour and day, and the string of each bucket
+     * is only formatted once.
      *
      * @param res resource
      * @param currentTimeMillis timestamp for offset
@@ -75,58 +169,141 @@ final class TweetDateUtils {
         if (diff >= 0) {
             if (diff < DateUtils.MINUTE_IN_MILLIS) { // Less than a minute ago
                 final int secs = (int) (diff / 1000);
-                return res.getQuantityString(R.plurals.tw__time_secs, secs, secs);
+                return RELATIVE_DATE_FORMAT.formatQuantityString(res, R.plurals.tw__time_secs,
+                        secs);
             } else if (diff < DateUtils.HOUR_IN_MILLIS) { // Less than an hour ago
                 final int mins = (int) (diff / DateUtils.MINUTE_IN_MILLIS);
-                return res.getQuantityString(R.plurals.tw__time_mins, mins, mins);
+                return RELATIVE_DATE_FORMAT.formatQuantityString(res, R.plurals.tw__time_mins,
+                        mins);
             } else if (diff < DateUtils.DAY_IN_MILLIS) { // Less than a day ago
                 final int hours = (int) (diff / DateUtils.HOUR_IN_MILLIS);
-                return res.getQuantityString(R.plurals.tw__time_hours, hours, hours);
+                return RELATIVE_DATE_FORMAT.formatQuantityString(res, R.plurals.tw__time_hours,
+                        hours);
+            } else if (RELATIVE_DATE_FORMAT.isSameYear(res, currentTimeMillis, timestamp)) {
+                // Same year
+                return RELATIVE_DATE_FORMAT.formatShortDateString(res, timestamp);
             } else {
-                final Calendar now = Calendar.getInstance();
-                now.setTimeInMillis(currentTimeMillis);
-                final Calendar c = Calendar.getInstance();
-                c.setTimeInMillis(timestamp);
-                final Date d = new Date(timestamp);
-
-                if (now.get(Calendar.YEAR) == c.get(Calendar.YEAR)) {
-                    // Same year
-                    return RELATIVE_DATE_FORMAT.formatShortDateString(res, d);
-                } else {
-                    // Outside of our year
-                    return RELATIVE_DATE_FORMAT.formatLongDateString(res, d);
-                }
+                // Outside of our year
+                return RELATIVE_DATE_FORMAT.formatLongDateString(res, timestamp);
             }
         }
-        return RELATIVE_DATE_FORMAT.formatLongDateString(res, new Date(timestamp));
+        return RELATIVE_DATE_FORMAT.formatLongDateString(res, timestamp);
+    }
+
+    /**
+     * @param currentTimeMillis timestamp for offset
+     * @param timestamp timestamp
+     * @return the time at which the relative time string of the timestamp changes next, or
+     * {@link Long#MAX_VALUE} if it only changes with the year
+     */
+    static long getNextRelativeTimeChange(long currentTimeMillis, long timestamp) {
+        final long diff = currentTimeMillis - timestamp;
+        if (diff < 0) {
+            // future timestamps are shown as dates until they are reached
+            return timestamp;
+        } else if (diff < DateUtils.MINUTE_IN_MILLIS) {
+            return currentTimeMillis + DateUtils.SECOND_IN_MILLIS
+                    - diff % DateUtils.SECOND_IN_MILLIS;
+        } else if (diff < DateUtils.HOUR_IN_MILLIS) {
+            return currentTimeMillis + DateUtils.MINUTE_IN_MILLIS
+                    - diff % DateUtils.MINUTE_IN_MILLIS;
+        } else if (diff < DateUtils.DAY_IN_MILLIS) {
+            return currentTimeMillis + DateUtils.HOUR_IN_MILLIS - diff % DateUtils.HOUR_IN_MILLIS;
+        }
+        return Long.MAX_VALUE;
     }
 
     static class DateFormatter {
+        // quantities of seconds, minutes and hours are all below 60
+        private static final int MAX_QUANTITY = 60;
+        // bounds the formatted dates cached per pattern, a timeline rarely spans a year
+        private static final int MAX_DATES = 366;
+
         private final SparseArrayCompat<SimpleDateFormat> dateFormatArray =
                 new SparseArrayCompat<>();
+        private final SparseArrayCompat<LongSparseArray<String>> dateStringArray =
+                new SparseArrayCompat<>();
+        private final SparseArrayCompat<String[]> quantityStringArray =
+                new SparseArrayCompat<>();
         private Locale currentLocale;
+        private TimeZone timeZone;
+        private Calendar calendar;
+
+        synchronized String formatLongDateString(Resources res, long timestamp) {
+            return formatDateString(res, R.string.tw__relative_date_format_long, timestamp);
+        }
 
-        synchronized String formatLongDateString(Resources res, Date date) {
-            return getDateFormat(res, R.string.tw__relative_date_format_long).format(date);
+        synchronized String formatShortDateString(Resources res, long timestamp) {
+            return formatDateString(res, R.string.tw__relative_date_format_short, timestamp);
         }
 
-        synchronized String formatShortDateString(Resources res, Date date) {
-            return getDateFormat(res, R.string.tw__relative_date_format_short).format(date);
+        synchronized String formatQuantityString(Resources res, int pluralsId, int quantity) {
+            checkLocale(res);
+            if (quantity < 0 || quantity >= MAX_QUANTITY) {
+                return res.getQuantityString(pluralsId, quantity, quantity);
+            }
+
+            String[] strings = quantityStringArray.get(pluralsId);
+            if (strings == null) {
+                strings = new String[MAX_QUANTITY];
+                quantityStringArray.put(pluralsId, strings);
+            }
+            if (strings[quantity] == null) {
+                strings[quantity] = res.getQuantityString(pluralsId, quantity, quantity);
+            }
+            return strings[quantity];
         }
 
-        private synchronized DateFormat getDateFormat(Resources res, int patternId) {
+        synchronized boolean isSameYear(Resources res, long firstTimestamp, long secondTimestamp) {
+            checkLocale(res);
+            calendar.setTimeInMillis(firstTimestamp);
+            final int firstYear = calendar.get(Calendar.YEAR);
+            calendar.setTimeInMillis(secondTimestamp);
+            return firstYear == calendar.get(Calendar.YEAR);
+        }
+
+        private String formatDateString(Resources res, int patternId, long timestamp) {
+            checkLocale(res);
 
+            LongSparseArray<String> strings = dateStringArray.get(patternId);
+            if (strings == null) {
+                strings = new LongSparseArray<>();
+                dateStringArray.put(patternId, strings);
+            }
+
+            // the date patterns do not go below days, so each local day formats the same
+            final long localTime = timestamp + timeZone.getOffset(timestamp);
+            long day = localTime / DateUtils.DAY_IN_MILLIS;
+            if (localTime % DateUtils.DAY_IN_MILLIS < 0) day--;
+
+            String string = strings.get(day);
+            if (string == null) {
+                if (strings.size() >= MAX_DATES) strings.clear();
+                string = getDateFormat(res, patternId).format(new Date(timestamp));
+                strings.put(day, string);
+            }
+            return string;
+        }
+
+        private void checkLocale(Resources res) {
             // Check if the locale changed, reference check for performance
             if (currentLocale == null || currentLocale != res.getConfiguration().locale) {
                 currentLocale = res.getConfiguration().locale;
+                timeZone = TimeZone.getDefault();
+                calendar = Calendar.getInstance(timeZone);
                 dateFormatArray.clear();
+                dateStringArray.clear();
+                quantityStringArray.clear();
             }
+        }
 
+        private DateFormat getDateFormat(Resources res, int patternId) {
             SimpleDateFormat format = dateFormatArray.get(patternId);
             if (format == null) {
                 // Create format if not cached
                 final String pattern = res.getString(patternId);
                 format = new SimpleDateFormat(pattern, Locale.getDefault());
+                format.setTimeZone(timeZone);
                 dateFormatArray.put(patternId, format);
             }
             return format;
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.models.HashtagEntity;
+import com.twitter.sdk.android.core.models.MentionEntity;
+import com.twitter.sdk.android.core.models.SymbolEntity;
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.models.UrlEntity;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalized features of a Tweet shared by all the rules of a RuleTimelineFilter. Each feature is
+ * computed at most once, when the first rule needs it.
+ */
+class TweetFeatures {
+    final Tweet tweet;
+    private final Locale locale;
+
+    private String text;
+    private String screenName;
+    private Set<String> hashtags;
+    private Set<String> symbols;
+    private Set<String> hosts;
+    private Set<String> mentions;
+
+    TweetFeatures(Tweet tweet, Locale locale) {
+        this.tweet = tweet;
+        this.locale = locale;
+    }
+
+    /**
+     * Returns the lower case Tweet text with whitespace runs collapsed to a single space.
+     */
+    String text() {
+        if (text == null) {
+            text = normalizeText(tweet.text, locale);
+        }
+        return text;
+    }
+
+    /**
+     * Returns the lower case screen name of the author, or an empty string if unknown.
+     */
+    String screenName() {
+        if (screenName == null) {
+            screenName = tweet.user == null || tweet.user.screenName == null
+                    ? "" : BasicTimelineFilter.normalizeHandle(tweet.user.screenName);
+        }
+        return screenName;
+    }
+
+    Set<String> hashtags() {
+        if (hashtags == null) {
+            if (tweet.entities == null || tweet.entities.hashtags.isEmpty()) {
+                hashtags = Collections.emptySet();
+            } else {
+                final List<HashtagEntity> entities = tweet.entities.hashtags;
+                hashtags = new HashSet<>(entities.size());
+                for (HashtagEntity entity : entities) {
+                    hashtags.add(entity.text.toLowerCase(locale));
+                }
+            }
+        }
+        return hashtags;
+    }
+
+    Set<String> symbols() {
+        if (symbols == null) {
+            if (tweet.entities == null || tweet.entities.symbols.isEmpty()) {
+                symbols = Collections.emptySet();
+            } else {
+                final List<SymbolEntity> entities = tweet.entities.symbols;
+                symbols = new HashSet<>(entities.size());
+                for (SymbolEntity entity : entities) {
+                    symbols.add(entity.text.toLowerCase(locale));
+                }
+            }
+        }
+        return symbols;
+    }
+
+    /**
+     * Returns the lower case hosts of the expanded urls.
+     */
+    Set<String> hosts() {
+        if (hosts == null) {
+            if (tweet.entities == null || tweet.entities.urls.isEmpty()) {
+                hosts = Collections.emptySet();
+            } else {
+                final List<UrlEntity> entities = tweet.entities.urls;
+                hosts = new HashSet<>(entities.size());
+                for (UrlEntity entity : entities) {
+                    hosts.add(BasicTimelineFilter.normalizeUrl(entity.expandedUrl));
+                }
+            }
+        }
+        return hosts;
+    }
+
+    /**
+     * Returns the lower case screen names of the mentioned users.
+     */
+    Set<String> mentions() {
+        if (mentions == null) {
+            if (tweet.entities == null || tweet.entities.userMentions.isEmpty()) {
+                mentions = Collections.emptySet();
+            } else {
+                final List<MentionEntity> entities = tweet.entities.userMentions;
+                mentions = new HashSet<>(entities.size());
+                for (MentionEntity entity : entities) {
+                    mentions.add(BasicTimelineFilter.normalizeHandle(entity.screenName));
+                }
+            }
+        }
+        return mentions;
+    }
+
+    static String normalizeText(String text, Locale locale) {
+        if (text == null) {
+            return "";
+        }
+        final StringBuilder normalized = new StringBuilder(text.length());
+        boolean whitespace = false;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                whitespace = true;
+            } else {
+                if (whitespace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                whitespace = false;
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(locale);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.content.res.Resources;
+
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.tweetui.internal.util.LongHashSet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prefetches the avatar and media images of the Tweets a timeline is about to show into the memory
+ * and disk caches of the image loader, in the variants and sizes the Tweet views load them at.
+ * When a row is bound, the images of the next rows in the scroll direction are queued, and queued
+ * images are dropped when the direction changes. Only a few images are fetched at a time, so
+ * prefetching does not hold up the images of bound rows.
+ *
+ * The image loads of the rows and the prefetches share a tag, so they can be paused while the
+ * timeline flings. Methods must be called on the main thread.
+ */
+class TweetImagePrefetcher {
+    // prefetches in flight at once
+    static final int MAX_IN_FLIGHT_COUNT = 2;
+
+    final TweetUi tweetUi;
+    final Resources resources;
+    final int distance;
+    // tag of the image loads of the rows and the prefetches
+    final Object tag = new Object();
+
+    // view computing the image requests, any of the timeline's Tweet views
+    AbstractTweetView sizingView;
+    int mediaWidth;
+    int lastPosition = -1;
+    boolean scrollingUp;
+    boolean paused;
+    // ids of the Tweets whose images were queued since the scroll direction last changed
+    LongHashSet queuedIds = new LongHashSet();
+    final ArrayDeque<ImageRequest> queue = new ArrayDeque<>();
+    int inFlightCount;
+    private boolean fetching;
+    private final ImageLoader.Callback fetchCallback = new ImageLoader.Callback() {
+        @Override
+        public void onSuccess() {
+            onFetched();
+        }
+
+        @Override
+        public void onError() {
+            onFetched();
+        }
+    };
+
+    /**
+     * @param tweetUi the TweetUi providing the image loader and the render models
+     * @param resources resources to create render models with
+     * @param distance the number of rows ahead of a bound row to prefetch images for
+     */
+    TweetImagePrefetcher(TweetUi tweetUi, Resources resources, int distance) {
+        this.tweetUi = tweetUi;
+        this.resources = resources;
+        this.distance = distance;
+    }
+
+    /**
+     * Sets the view which computes the image requests, unless one is set already.
+     */
+    void setSizingView(AbstractTweetView view) {
+        if (sizingView == null) {
+            sizingView = view;
+        }
+    }
+
+    /**
+     * Sets the width the Tweet media is laid out at. Media is only prefetched once it is known.
+     */
+    void setMediaWidth(int mediaWidth) {
+        this.mediaWidth = mediaWidth;
+    }
+
+    /**
+     * Queues the images of the rows ahead of the bound row in the scroll direction, which is
+     * derived from the positions of the bound rows.
+     * @param position the position of the bound row
+     * @param tweets the Tweets of the timeline
+     */
+    void onBind(int position, List<Tweet> tweets) {
+        if (lastPosition != -1 && position != lastPosition
+                && (position < lastPosition) != scrollingUp) {
+            scrollingUp = !scrollingUp;
+            // the images queued for the other direction are no longer about to be shown
+            queue.clear();
+            queuedIds = new LongHashSet();
+        }
+        lastPosition = position;
+        if (sizingView == null) return;
+
+        final List<ImageRequest> requests = new ArrayList<>();
+        final TweetRepository tweetRepository = tweetUi.getTweetRepository();
+        final int step = scrollingUp ? -1 : 1;
+        for (int i = 1; i <= distance; i++) {
+            final int index = position + i * step;
+            if (index < 0 || index >= tweets.size()) break;
+
+            final Tweet tweet = tweets.get(index);
+            if (tweet != null && queuedIds.add(tweet.id)) {
+                sizingView.getImageRequests(tweetRepository.getRenderModel(tweet, resources),
+                        mediaWidth, requests);
+            }
+        }
+        queue.addAll(requests);
+        fetch();
+    }
+
+    /**
+     * Pauses, or resumes, the image loads of the rows and the prefetches, e.g. while the timeline
+     * flings.
+     */
+    void setPaused(boolean paused) {
+        if (this.paused == paused) return;
+
+        this.paused = paused;
+        final ImageLoader imageLoader = tweetUi.getTweetImageLoader();
+        if (imageLoader != null) {
+            if (paused) {
+                imageLoader.pauseTag(tag);
+            } else {
+                imageLoader.resumeTag(tag);
+            }
+        }
+        fetch();
+    }
+
+    void fetch() {
+        // cached images complete their fetch synchronously, their callback must not recurse
+        if (fetching) return;
+
+        final ImageLoader imageLoader = tweetUi.getTweetImageLoader();
+        if (imageLoader == null) return;
+
+        fetching = true;
+        while (!paused && inFlightCount < MAX_IN_FLIGHT_COUNT && !queue.isEmpty()) {
+            inFlightCount++;
+            imageLoader.prefetch(queue.poll(), fetchCallback);
+        }
+        fetching = false;
+    }
+
+    void onFetched() {
+        inFlightCount--;
+        fetch();
+    }
+}
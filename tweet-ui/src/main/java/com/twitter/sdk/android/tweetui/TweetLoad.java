@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+/**
+ * A pending load of Tweets from the API. Cancelling the load ensures its callback is not called,
+ * and cancels the request once no other load is waiting for its response.
+ */
+public interface TweetLoad {
+    /**
+     * Cancels the load. Has no effect if the callback was already called.
+     */
+    void cancel();
+
+    /**
+     * @return true if the load was cancelled.
+     */
+    boolean isCancelled();
+}
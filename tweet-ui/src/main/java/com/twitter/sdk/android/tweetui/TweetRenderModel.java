@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.content.res.Resources;
+import android.net.Uri;
+
+import com.twitter.sdk.android.core.internal.UserUtils;
+import com.twitter.sdk.android.core.internal.VineCardUtils;
+import com.twitter.sdk.android.core.models.ImageValue;
+import com.twitter.sdk.android.core.models.MediaEntity;
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.tweetui.internal.TweetMediaUtils;
+
+import java.text.DateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The display values of a Tweet row, computed once per Tweet so Tweet views only copy them into
+ * their subviews when bound. Models can be created on any thread and are cached by
+ * TweetRepository. The values do not depend on the view style, since colors are applied by the
+ * views, and neither do the media aspect ratios, which each view derives from the media.
+ */
+final class TweetRenderModel {
+    private static final String EMPTY_STRING = AbstractTweetView.EMPTY_STRING;
+
+    /**
+     * The Tweet the model was created for. Models are only reused for the same Tweet instance, so
+     * an updated copy of a Tweet gets a new model.
+     */
+    final Tweet tweet;
+    final Tweet displayTweet;
+    // locale of the resources the strings were created with
+    final Locale locale;
+
+    final String name;
+    final CharSequence screenName;
+    final CharSequence text;
+    final String contentDescription;
+    final long createdAt;
+    final Uri permalinkUri;
+    final String profilePermalink;
+    // "Retweeted by" text, or null if the Tweet is not a retweet
+    final String retweetedBy;
+
+    // one of TweetViewType
+    final int viewType;
+    // inline photos, or the inline video, of the display Tweet
+    final List<MediaEntity> mediaEntities;
+    // preview image of the Vine card, or null if the Tweet has no playable Vine card
+    final ImageValue vineImage;
+
+    private TweetRenderModel(Tweet tweet, TweetRepository repository, Resources res) {
+        this.tweet = tweet;
+        displayTweet = TweetUtils.getDisplayTweet(tweet);
+        locale = res.getConfiguration().locale;
+
+        final boolean hasUser = displayTweet != null && displayTweet.user != null;
+        name = hasUser ? Utils.stringOrEmpty(displayTweet.user.name) : EMPTY_STRING;
+        screenName = hasUser ? UserUtils.formatScreenName(
+                Utils.stringOrEmpty(displayTweet.user.screenName)) : EMPTY_STRING;
+        profilePermalink = hasUser ? TweetUtils.getProfilePermalink(displayTweet.user.screenName)
+                : null;
+        text = Utils.charSeqOrEmpty(repository.linkifyTweetText(displayTweet));
+        createdAt = repository.getCreatedAt(displayTweet);
+        contentDescription = createContentDescription(repository, res);
+
+        permalinkUri = TweetUtils.isTweetResolvable(tweet)
+                ? TweetUtils.getPermalink(tweet.user.screenName, tweet.id) : null;
+        retweetedBy = tweet == null || tweet.retweetedStatus == null ? null
+                : res.getString(R.string.tw__retweeted_by_format, tweet.user.name);
+
+        viewType = TweetViewType.of(tweet);
+        if (viewType == TweetViewType.VIDEO && displayTweet.card != null
+                && VineCardUtils.isVine(displayTweet.card)) {
+            mediaEntities = Collections.emptyList();
+            vineImage = VineCardUtils.getImageValue(displayTweet.card);
+        } else if (viewType == TweetViewType.VIDEO) {
+            mediaEntities = Collections.singletonList(
+                    TweetMediaUtils.getVideoEntity(displayTweet));
+            vineImage = null;
+        } else if (viewType == TweetViewType.PHOTO || viewType == TweetViewType.MULTI_PHOTO) {
+            mediaEntities = TweetMediaUtils.getPhotoEntities(displayTweet);
+            vineImage = null;
+        } else {
+            mediaEntities = Collections.emptyList();
+            vineImage = null;
+        }
+    }
+
+    /**
+     * Creates the model of the Tweet. Safe to call from any thread.
+     * @param tweet the Tweet of the row, may be a retweet or null
+     * @param repository the repository caching the formatted and linkified text
+     * @param res resources to create the strings with
+     */
+    static TweetRenderModel create(Tweet tweet, TweetRepository repository, Resources res) {
+        return new TweetRenderModel(tweet, repository, res);
+    }
+
+    /**
+     * @return true if the model can be bound for the Tweet with the resources
+     */
+    boolean isValidFor(Tweet tweet, Resources res) {
+        return this.tweet == tweet && locale == res.getConfiguration().locale;
+    }
+
+    boolean hasMedia() {
+        return viewType != TweetViewType.TEXT && viewType != TweetViewType.QUOTE;
+    }
+
+    private String createContentDescription(TweetRepository repository, Resources res) {
+        if (!TweetUtils.isTweetResolvable(displayTweet)) {
+            return res.getString(R.string.tw__loading_tweet);
+        }
+
+        final FormattedTweetText formattedTweetText = repository.formatTweetText(displayTweet);
+        String tweetText = null;
+        if (formattedTweetText != null) tweetText = formattedTweetText.text;
+
+        String timestamp = null;
+        if (createdAt != TweetDateUtils.INVALID_DATE) {
+            timestamp = DateFormat.getDateInstance().format(new Date(createdAt));
+        }
+
+        return res.getString(R.string.tw__tweet_content_description,
+                Utils.stringOrEmpty(displayTweet.user.name), Utils.stringOrEmpty(tweetText),
+                Utils.stringOrEmpty(timestamp));
+    }
+}
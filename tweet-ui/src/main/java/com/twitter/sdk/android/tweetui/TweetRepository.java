@@ -17,8 +17,10 @@
 
 package com.twitter.sdk.android.tweetui;
 
+import android.content.res.Resources;
 import android.os.Handler;
 import android.support.v4.util.LruCache;
+import android.text.SpannedString;
 import android.text.TextUtils;
 
 import com.twitter.sdk.android.core.Callback;
@@ -29,10 +31,17 @@ import com.twitter.sdk.android.core.TwitterAuthException;
 import com.twitter.sdk.android.core.TwitterCore;
 import com.twitter.sdk.android.core.TwitterException;
 import com.twitter.sdk.android.core.TwitterSession;
+import com.twitter.sdk.android.core.internal.VineCardUtils;
 import com.twitter.sdk.android.core.models.Tweet;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
+import retrofit2.Call;
 
 /**
  * Encapsulates Tweet API access. Tweet loads are read through a thread safe LruCache.
@@ -40,6 +49,13 @@ import java.util.List;
 class TweetRepository {
     // Cache size units are in number of entries, an average Tweet is roughly 900 bytes in memory
     private static final int DEFAULT_CACHE_SIZE = 20;
+    // A created at timestamp is a boxed long, so far more of them are kept
+    private static final int TIMESTAMP_CACHE_SIZE = 200;
+    // Render models share the cached text, so a timeline's worth of them is kept
+    static final int RENDER_MODEL_CACHE_SIZE = 100;
+    // The API lookup endpoint returns at most 100 Tweets per request
+    static final int MAX_LOOKUP_IDS = 100;
+    private static final String TWEET_NOT_FOUND = "Tweet %d not found.";
 
     private final TwitterCore twitterCore;
     private final Handler mainHandler;
@@ -48,6 +64,13 @@ class TweetRepository {
     // leave this package accessible for testing
     final LruCache<Long, Tweet> tweetCache;
     final LruCache<Long, FormattedTweetText> formatCache;
+    final LruCache<Long, CharSequence> linkifyCache;
+    final LruCache<Long, Long> createdAtCache;
+    final LruCache<Long, TweetRenderModel> renderModelCache;
+    // Tweet loads waiting for a response by Tweet id, guarded by itself
+    final Map<Long, SharedTweetLoad> pendingLoads = new HashMap<>();
+    // batched loads waiting for the next flush, guarded by pendingLoads
+    final List<SharedTweetLoad> queuedLoads = new ArrayList<>();
 
     TweetRepository(Handler mainHandler, SessionManager<TwitterSession> userSessionManagers) {
         this(mainHandler, userSessionManagers, TwitterCore.getInstance());
@@ -61,6 +84,9 @@ class TweetRepository {
         this.userSessionManagers = userSessionManagers;
         tweetCache = new LruCache<>(DEFAULT_CACHE_SIZE);
         formatCache = new LruCache<>(DEFAULT_CACHE_SIZE);
+        linkifyCache = new LruCache<>(DEFAULT_CACHE_SIZE);
+        createdAtCache = new LruCache<>(TIMESTAMP_CACHE_SIZE);
+        renderModelCache = new LruCache<>(RENDER_MODEL_CACHE_SIZE);
     }
 
     /**
@@ -84,6 +110,75 @@ class TweetRepository {
         return formattedTweetText;
     }
 
+    /**
+     * This method will cache linkified tweet text. The spans of the text only hold entity indices,
+     * so the same text can be set on every view showing the Tweet.
+     *
+     * @param tweet the display Tweet whose text will be linkified
+     * @return      the linkified text suitable for display, can be null
+     */
+    CharSequence linkifyTweetText(final Tweet tweet) {
+        if (tweet == null) return null;
+
+        final CharSequence cached = linkifyCache.get(tweet.id);
+
+        if (cached != null) return cached;
+
+        final FormattedTweetText formattedTweetText = formatTweetText(tweet);
+        if (formattedTweetText == null) return null;
+
+        final boolean stripVineCard = tweet.card != null && VineCardUtils.isVine(tweet.card);
+        final boolean stripQuoteTweet = TweetUtils.showQuoteTweet(tweet);
+        final CharSequence linkified = TweetTextLinkifier.linkifyUrls(formattedTweetText,
+                stripQuoteTweet, stripVineCard);
+        if (TextUtils.isEmpty(linkified)) return linkified;
+
+        // shared text must not be modified, views set a copy
+        final CharSequence shared = new SpannedString(linkified);
+        linkifyCache.put(tweet.id, shared);
+        return shared;
+    }
+
+    /**
+     * This method will cache the parsed created at time of the Tweet, so rebinding a Tweet does
+     * not parse it again
+     *
+     * @param tweet the Tweet whose created at time will be parsed
+     * @return      the created at epoch millis, or {@link TweetDateUtils#INVALID_DATE}
+     */
+    long getCreatedAt(final Tweet tweet) {
+        if (tweet == null) return TweetDateUtils.INVALID_DATE;
+
+        final Long cached = createdAtCache.get(tweet.id);
+
+        if (cached != null) return cached;
+
+        final long createdAt = TweetDateUtils.apiTimeToLong(tweet.createdAt);
+        createdAtCache.put(tweet.id, createdAt);
+        return createdAt;
+    }
+
+    /**
+     * This method will cache the render model of the Tweet, so binding a Tweet only copies its
+     * display values into the views. A cached model is only returned for the same Tweet instance
+     * and locale it was created with.
+     *
+     * @param tweet the Tweet of the row, may be a retweet
+     * @param res   resources to create the strings of the model with
+     * @return      the render model of the Tweet
+     */
+    TweetRenderModel getRenderModel(final Tweet tweet, Resources res) {
+        if (tweet == null) return TweetRenderModel.create(null, this, res);
+
+        final TweetRenderModel cached = renderModelCache.get(tweet.id);
+
+        if (cached != null && cached.isValidFor(tweet, res)) return cached;
+
+        final TweetRenderModel model = TweetRenderModel.create(tweet, this, res);
+        renderModelCache.put(tweet.id, model);
+        return model;
+    }
+
     void updateCache(final Tweet tweet) {
         tweetCache.put(tweet.id, tweet);
     }
@@ -150,20 +245,76 @@ class TweetRepository {
     /**
      * Queues and loads a Tweet from the API statuses/show endpoint. Queue ensures a client with
      * at least guest auth is obtained before performing the request. Adds the the Tweet from the
-     * response to the cache and provides the Tweet to the callback success method.
+     * response to the cache and provides the Tweet to the callback success method. Loads of a
+     * Tweet which is already being loaded wait for the pending request instead of starting
+     * another one.
      * @param tweetId Tweet id
      * @param cb callback
+     * @return the load, cancelling it ensures the callback is not called
      */
-    void loadTweet(final long tweetId, final Callback<Tweet> cb) {
+    TweetLoad loadTweet(final long tweetId, final Callback<Tweet> cb) {
+        return loadTweet(tweetId, cb, false);
+    }
+
+    /**
+     * Loads a Tweet like {@link #loadTweet(long, Callback)}, but batches the request with the
+     * other Tweets loaded before the main thread handles its next message. The batched Tweets are
+     * loaded from the API lookup endpoint, in requests of at most {@link #MAX_LOOKUP_IDS} Tweets.
+     * Used by views which load their Tweet as they are inflated, so a layout embedding many
+     * Tweets loads them with few requests.
+     * @param tweetId Tweet id
+     * @param cb callback
+     * @return the load, cancelling it ensures the callback is not called
+     */
+    TweetLoad loadTweetBatched(final long tweetId, final Callback<Tweet> cb) {
+        return loadTweet(tweetId, cb, true);
+    }
+
+    private TweetLoad loadTweet(long tweetId, Callback<Tweet> cb, boolean batched) {
+        final LoadSubscription<Tweet> subscription = new LoadSubscription<>(cb);
         final Tweet cachedTweet = tweetCache.get(tweetId);
 
         if (cachedTweet != null) {
-            deliverTweet(cachedTweet, cb);
-            return;
+            deliverTweet(cachedTweet, subscription);
+            return subscription;
         }
 
-        twitterCore.getApiClient().getStatusesService()
-                .show(tweetId, null, null, null).enqueue(new SingleTweetCallback(cb));
+        synchronized (pendingLoads) {
+            SharedTweetLoad load = pendingLoads.get(tweetId);
+            if (load == null) {
+                load = new SharedTweetLoad(tweetId);
+                pendingLoads.put(tweetId, load);
+                if (!batched) {
+                    load.show();
+                } else {
+                    if (queuedLoads.isEmpty()) {
+                        mainHandler.post(this::flushQueuedLoads);
+                    }
+                    queuedLoads.add(load);
+                }
+            }
+            load.subscribe(subscription);
+        }
+        return subscription;
+    }
+
+    /**
+     * Requests the queued Tweets. A single Tweet is requested from the statuses/show endpoint,
+     * like unbatched loads.
+     */
+    void flushQueuedLoads() {
+        synchronized (pendingLoads) {
+            final int count = queuedLoads.size();
+            if (count == 1) {
+                queuedLoads.get(0).show();
+            } else {
+                for (int start = 0; start < count; start += MAX_LOOKUP_IDS) {
+                    new LookupBatch(queuedLoads.subList(start,
+                            Math.min(count, start + MAX_LOOKUP_IDS))).lookup();
+                }
+            }
+            queuedLoads.clear();
+        }
     }
 
     /**
@@ -172,11 +323,134 @@ class TweetRepository {
      * response and provides them to the callback success method.
      * @param tweetIds list of Tweet ids
      * @param cb callback
+     * @return the load, cancelling it cancels the request
      */
-    void loadTweets(final List<Long> tweetIds, final Callback<List<Tweet>> cb) {
+    TweetLoad loadTweets(final List<Long> tweetIds, final Callback<List<Tweet>> cb) {
         final String commaSepIds = TextUtils.join(",", tweetIds);
-        twitterCore.getApiClient().getStatusesService().lookup(commaSepIds, null, null, null)
-                .enqueue(new MultiTweetsCallback(tweetIds, cb));
+        final LoadSubscription<List<Tweet>> subscription = new LoadSubscription<>(cb);
+        subscription.call = twitterCore.getApiClient().getStatusesService()
+                .lookup(commaSepIds, null, null, null);
+        subscription.call.enqueue(new MultiTweetsCallback(tweetIds, subscription));
+        return subscription;
+    }
+
+    /**
+     * A caller's load, which passes the result to the caller's callback unless it was cancelled.
+     * Cancelling the load unsubscribes it from the shared load it waits for, or cancels its own
+     * call.
+     */
+    static class LoadSubscription<T> extends Callback<T> implements TweetLoad {
+        final Callback<T> cb;
+        SharedTweetLoad load;
+        Call<T> call;
+        volatile boolean cancelled;
+
+        LoadSubscription(Callback<T> cb) {
+            this.cb = cb;
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) return;
+
+            cancelled = true;
+            if (load != null) {
+                load.unsubscribe(this);
+            }
+            if (call != null) {
+                call.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void success(Result<T> result) {
+            if (!cancelled && cb != null) {
+                cb.success(result);
+            }
+        }
+
+        @Override
+        public void failure(TwitterException exception) {
+            if (!cancelled && cb != null) {
+                cb.failure(exception);
+            }
+        }
+    }
+
+    /**
+     * A pending load of a Tweet, which passes its result to every caller loading the Tweet. The
+     * statuses/show request of the load is cancelled once all callers cancelled their load. A
+     * batched load leaves its lookup request once all callers cancelled it.
+     */
+    class SharedTweetLoad extends Callback<Tweet> {
+        final long tweetId;
+        final List<LoadSubscription<Tweet>> subscriptions = new ArrayList<>();
+        // the statuses/show request, or the lookup request, once the load is requested
+        Call<Tweet> call;
+        LookupBatch batch;
+
+        SharedTweetLoad(long tweetId) {
+            this.tweetId = tweetId;
+        }
+
+        // Called holding the pendingLoads lock
+        void show() {
+            call = twitterCore.getApiClient().getStatusesService().show(tweetId, null, null, null);
+            call.enqueue(new SingleTweetCallback(this));
+        }
+
+        // Called holding the pendingLoads lock
+        void subscribe(LoadSubscription<Tweet> subscription) {
+            subscription.load = this;
+            subscriptions.add(subscription);
+        }
+
+        void unsubscribe(LoadSubscription<?> subscription) {
+            final Call<Tweet> showCall;
+            final LookupBatch lookupBatch;
+            synchronized (pendingLoads) {
+                if (!subscriptions.remove(subscription) || !subscriptions.isEmpty()) return;
+                pendingLoads.remove(tweetId);
+                queuedLoads.remove(this);
+                showCall = call;
+                lookupBatch = batch;
+            }
+            if (showCall != null) {
+                showCall.cancel();
+            } else if (lookupBatch != null) {
+                lookupBatch.remove(this);
+            }
+        }
+
+        @Override
+        public void success(Result<Tweet> result) {
+            for (LoadSubscription<Tweet> subscription : complete()) {
+                subscription.success(result);
+            }
+        }
+
+        @Override
+        public void failure(TwitterException exception) {
+            for (LoadSubscription<Tweet> subscription : complete()) {
+                subscription.failure(exception);
+            }
+        }
+
+        private List<LoadSubscription<Tweet>> complete() {
+            synchronized (pendingLoads) {
+                if (pendingLoads.get(tweetId) == this) {
+                    pendingLoads.remove(tweetId);
+                }
+                final List<LoadSubscription<Tweet>> completed = new ArrayList<>(subscriptions);
+                subscriptions.clear();
+                return completed;
+            }
+        }
     }
 
     /**
@@ -231,4 +505,69 @@ class TweetRepository {
             cb.failure(exception);
         }
     }
+
+    /**
+     * A statuses/lookup request for batched Tweet loads, which passes each Tweet of the response
+     * to the load of the Tweet. Loads of Tweets missing from the response fail. The request is
+     * cancelled once all of its loads were cancelled.
+     */
+    class LookupBatch extends Callback<List<Tweet>> {
+        final Map<Long, SharedTweetLoad> loads = new LinkedHashMap<>();
+        Call<List<Tweet>> call;
+
+        LookupBatch(List<SharedTweetLoad> batchLoads) {
+            for (SharedTweetLoad load : batchLoads) {
+                load.batch = this;
+                loads.put(load.tweetId, load);
+            }
+        }
+
+        // Called holding the pendingLoads lock
+        void lookup() {
+            final String commaSepIds = TextUtils.join(",", loads.keySet());
+            call = twitterCore.getApiClient().getStatusesService()
+                    .lookup(commaSepIds, null, null, null);
+            call.enqueue(this);
+        }
+
+        void remove(SharedTweetLoad load) {
+            synchronized (pendingLoads) {
+                if (loads.remove(load.tweetId) == null || !loads.isEmpty()) return;
+            }
+            call.cancel();
+        }
+
+        @Override
+        public void success(Result<List<Tweet>> result) {
+            final Map<Long, SharedTweetLoad> completed = complete();
+            if (result.data != null) {
+                for (Tweet tweet : result.data) {
+                    final SharedTweetLoad load = completed.remove(tweet.id);
+                    if (load == null) continue;
+
+                    updateCache(tweet);
+                    load.success(new Result<>(tweet, result.response));
+                }
+            }
+            for (SharedTweetLoad load : completed.values()) {
+                load.failure(new TwitterException(
+                        String.format(Locale.ENGLISH, TWEET_NOT_FOUND, load.tweetId)));
+            }
+        }
+
+        @Override
+        public void failure(TwitterException exception) {
+            for (SharedTweetLoad load : complete().values()) {
+                load.failure(exception);
+            }
+        }
+
+        private Map<Long, SharedTweetLoad> complete() {
+            synchronized (pendingLoads) {
+                final Map<Long, SharedTweetLoad> completed = new HashMap<>(loads);
+                loads.clear();
+                return completed;
+            }
+        }
+    }
 }
@@ -20,11 +20,9 @@ package com.twitter.sdk.android.tweetui;
 import android.text.SpannableStringBuilder;
 import android.text.Spanned;
 import android.text.TextUtils;
-import android.text.style.CharacterStyle;
-import android.view.View;
 
 import com.twitter.sdk.android.core.models.ModelUtils;
-import com.twitter.sdk.android.tweetui.internal.ClickableLinkSpan;
+import com.twitter.sdk.android.tweetui.internal.EntityLinkSpan;
 import com.twitter.sdk.android.tweetui.internal.TweetMediaUtils;
 
 import java.util.ArrayList;
@@ -45,18 +43,17 @@ final class TweetTextLinkifier {
      * strip off the last photo entity, quote Tweet, and Vine card urls in the text. The return
      * value can be set directly onto a text view.
      *
+     * Each entity is marked with an {@link EntityLinkSpan} holding its index in
+     * {@link #getEntities(FormattedTweetText)}. The spans hold no listener or colors, so the text
+     * can be shared by all views showing the Tweet.
+     *
      * @param tweetText             The formatted and adjusted tweet wrapper
-     * @param linkListener          A listener to handle link clicks
-     * @param linkColor             The link color
-     * @param linkHighlightColor    The link background color when pressed
      * @param stripQuoteTweet       If true we should strip the quote Tweet URL
      * @param stripVineCard         If true we should strip the Vine card URL
      * @return                      The Tweet text with displayUrls substituted in
      */
-    static CharSequence linkifyUrls(FormattedTweetText tweetText,
-                                    final LinkClickListener linkListener,
-                                    final int linkColor, final int linkHighlightColor,
-                                    boolean stripQuoteTweet, boolean stripVineCard) {
+    static CharSequence linkifyUrls(FormattedTweetText tweetText, boolean stripQuoteTweet,
+                                    boolean stripVineCard) {
         if (tweetText == null) return null;
 
         if (TextUtils.isEmpty(tweetText.text)) {
@@ -64,6 +61,20 @@ final class TweetTextLinkifier {
         }
 
         final SpannableStringBuilder spannable = new SpannableStringBuilder(tweetText.text);
+        final List<FormattedUrlEntity> combined = getEntities(tweetText);
+        final FormattedUrlEntity strippedEntity = getEntityToStrip(tweetText.text, combined,
+                stripQuoteTweet, stripVineCard);
+
+        addUrlEntities(spannable, combined, strippedEntity);
+
+        return trimEnd(spannable);
+    }
+
+    /**
+     * Returns the entities of the formatted Tweet text sorted by start index, the order the
+     * {@link EntityLinkSpan} indices refer to.
+     */
+    static List<FormattedUrlEntity> getEntities(FormattedTweetText tweetText) {
         final List<FormattedUrlEntity> urls = ModelUtils.getSafeList(tweetText.urlEntities);
         final List<FormattedMediaEntity> media = ModelUtils.getSafeList(tweetText.mediaEntities);
         final List<FormattedUrlEntity> hashtags = ModelUtils.getSafeList(tweetText.hashtagEntities);
@@ -73,15 +84,7 @@ final class TweetTextLinkifier {
          * We combine and sort the entities here so that we can correctly calculate the offsets
          * into the text.
          */
-        final List<FormattedUrlEntity> combined = mergeAndSortEntities(urls, media, hashtags,
-                mentions, symbols);
-        final FormattedUrlEntity strippedEntity = getEntityToStrip(tweetText.text, combined,
-                stripQuoteTweet, stripVineCard);
-
-        addUrlEntities(spannable, combined, strippedEntity, linkListener, linkColor,
-                linkHighlightColor);
-
-        return trimEnd(spannable);
+        return mergeAndSortEntities(urls, media, hashtags, mentions, symbols);
     }
 
     /**
@@ -132,22 +135,18 @@ final class TweetTextLinkifier {
      * @param spannable          The final formatted text that we are building
      * @param entities           The combined list of media and url entities
      * @param strippedEntity     The trailing entity that we should strip from the text
-     * @param linkListener       The link click listener to attach to the span
-     * @param linkColor          The link color
-     * @param linkHighlightColor The link background color when pressed
      */
     private static void addUrlEntities(final SpannableStringBuilder spannable,
             final List<FormattedUrlEntity> entities,
-            final FormattedUrlEntity strippedEntity,
-            final LinkClickListener linkListener,
-            final int linkColor, final int linkHighlightColor) {
+            final FormattedUrlEntity strippedEntity) {
         if (entities == null || entities.isEmpty()) return;
 
         int offset = 0;
         int len;
         int start;
         int end;
-        for (final FormattedUrlEntity url : entities) {
+        for (int i = 0; i < entities.size(); i++) {
+            final FormattedUrlEntity url = entities.get(i);
             start = url.start - offset;
             end = url.end - offset;
             if (start >= 0 && end <= spannable.length()) {
@@ -164,15 +163,8 @@ final class TweetTextLinkifier {
                     end -= len;
                     offset += len;
 
-                    final CharacterStyle span = new ClickableLinkSpan(linkHighlightColor,
-                            linkColor, false) {
-                        @Override
-                        public void onClick(View widget) {
-                            if (linkListener == null) return;
-                            linkListener.onUrlClicked(url.url);
-                        }
-                    };
-                    spannable.setSpan(span, start, end, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+                    spannable.setSpan(new EntityLinkSpan(i), start, end,
+                            Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
                 }
             }
         }
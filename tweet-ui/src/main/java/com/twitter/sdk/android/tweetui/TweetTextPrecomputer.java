@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.content.res.Resources;
+import android.database.DataSetObserver;
+import android.support.v4.util.LruCache;
+
+import com.twitter.sdk.android.core.models.Tweet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Creates the render models of Tweets on a worker thread as soon as the Tweets are loaded, so
+ * formatting and linkifying the text, and the other display values, are not computed when a Tweet
+ * is bound. Binding copies the precomputed values into the views. The text view still measures
+ * and lays out the text on the main thread. Methods must be called on the main thread.
+ */
+class TweetTextPrecomputer {
+    final TweetRepository tweetRepository;
+    final ExecutorService executorService;
+    final Resources resources;
+
+    // ids of the Tweets whose render models were created, or are being created. Bounded like the
+    // render model cache, so Tweets whose models were evicted are modeled again.
+    final LruCache<Long, Boolean> modeledIds =
+            new LruCache<>(TweetRepository.RENDER_MODEL_CACHE_SIZE);
+
+    TweetTextPrecomputer(TweetRepository tweetRepository, ExecutorService executorService,
+            Resources resources) {
+        this.tweetRepository = tweetRepository;
+        this.executorService = executorService;
+        this.resources = resources;
+    }
+
+    /**
+     * Prepares the Tweets of the timeline delegate as they are loaded.
+     */
+    void attach(final TimelineDelegate<Tweet> delegate) {
+        delegate.registerDataSetObserver(new DataSetObserver() {
+            @Override
+            public void onChanged() {
+                // read the items directly, getItem would load older items at the last position
+                precompute(delegate.itemList);
+            }
+        });
+        precompute(delegate.itemList);
+    }
+
+    /**
+     * Creates the render models of the given Tweets which have none yet.
+     */
+    void precompute(List<Tweet> tweets) {
+        final List<Tweet> models = new ArrayList<>();
+        for (Tweet tweet : tweets) {
+            if (tweet != null && modeledIds.put(tweet.id, Boolean.TRUE) == null) {
+                models.add(tweet);
+            }
+        }
+        if (models.isEmpty()) return;
+
+        executorService.submit(() -> {
+            for (Tweet tweet : models) {
+                tweetRepository.getRenderModel(tweet, resources);
+            }
+        });
+    }
+}
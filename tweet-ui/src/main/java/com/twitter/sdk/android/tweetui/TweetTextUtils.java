@@ -27,7 +27,6 @@ import com.twitter.sdk.android.core.models.Tweet;
 import com.twitter.sdk.android.core.models.UrlEntity;
 import com.twitter.sdk.android.tweetui.internal.util.HtmlEntities;
 
-import java.util.ArrayList;
 import java.util.List;
 
 final class TweetTextUtils {
@@ -107,8 +106,10 @@ final class TweetTextUtils {
     }
 
     /**
-     * Calls the html unescaper and then the method to fix the entity indices errors caused by
-     * emoji/supplementary characters.
+     * Unescapes html entities and converts the entity indices in a single pass over the text. The
+     * REST API indices count code points of the escaped text, while the formatted text is indexed
+     * by the chars of the unescaped text, where supplementary characters (Emoji being the most
+     * common example) take a pair of chars.
      *
      * @param formattedTweetText The formatted tweet text that is to be populated
      * @param tweet The source Tweet
@@ -116,116 +117,79 @@ final class TweetTextUtils {
     static void format(FormattedTweetText formattedTweetText, Tweet tweet) {
         if (TextUtils.isEmpty(tweet.text)) return;
 
-        final HtmlEntities.Unescaped u = HtmlEntities.HTML40.unescape(tweet.text);
-        final StringBuilder result = new StringBuilder(u.unescaped);
-
-        adjustIndicesForEscapedChars(formattedTweetText.urlEntities, u.indices);
-        adjustIndicesForEscapedChars(formattedTweetText.mediaEntities, u.indices);
-        adjustIndicesForEscapedChars(formattedTweetText.hashtagEntities, u.indices);
-        adjustIndicesForEscapedChars(formattedTweetText.mentionEntities, u.indices);
-        adjustIndicesForEscapedChars(formattedTweetText.symbolEntities, u.indices);
-        adjustIndicesForSupplementaryChars(result, formattedTweetText);
-        formattedTweetText.text = result.toString();
-    }
-
-    /**
-     * Since the unescaping of html causes for example &amp; to turn into & we need to adjust
-     * the entity indices after that by 4 characters. This loops through the entities and adjusts
-     * them as necessary.
-     *
-     * @param entities The entities that need to be adjusted
-     * @param indices The indices of where there were escaped html chars that we unescaped
-     */
-    static void adjustIndicesForEscapedChars(
-            List<? extends FormattedUrlEntity> entities,
-            List<int[]> indices) {
-        if (entities == null || indices == null || indices.isEmpty()) {
-            return;
-        }
-        final int size = indices.size();
-        int m = 0; // marker
-        int diff = 0; // accumulated difference
-        int inDiff; // end difference for escapes in range
-        int len; // escaped length
-        int start; // escaped start
-        int end; // escaped end
-        int i; // reusable index
-        int[] index;
-        // For each of the entities, update the start and end indices
-        // Note: tweet entities are sorted.
-
-        for (FormattedUrlEntity entity : entities) {
-            inDiff = 0;
-            // Go through the escaped entities' indices
-            for (i = m; i < size; i++) {
-                index = indices.get(i);
-                start = index[0];
-                end = index[1];
-                // len is actually (end - start + 1) - 1
-                len = end - start;
-                if (end < entity.start) {
-                    // bump position of the next marker
-                    diff += len;
-                    m++;
-                } else if (end < entity.end) {
-                    inDiff += len;
+        final String text = tweet.text;
+        final int length = text.length();
+        final StringBuilder result = new StringBuilder(length);
+        // offsets[i] is the index in result of the i-th code point of text, there are at most as
+        // many code points as chars
+        final int[] offsets = new int[length + 1];
+        int codePoints = 0;
+        // index of the next ';', searched again once passed, -1 if there is none
+        int semi = 0;
+        int i = 0;
+        while (i < length) {
+            final char ch = text.charAt(i);
+            if (ch == '&') {
+                if (semi != -1 && semi <= i) {
+                    semi = text.indexOf(';', i + 1);
+                }
+                final int entityValue =
+                        semi == -1 ? -1 : HtmlEntities.HTML40.entityValue(text, i + 1, semi);
+                if (entityValue != -1) {
+                    // every code point of the escape maps to the unescaped char
+                    final int escapedCodePoints = text.codePointCount(i, semi + 1);
+                    for (int c = 0; c < escapedCodePoints; c++) {
+                        offsets[codePoints++] = result.length();
+                    }
+                    result.append((char) entityValue);
+                    i = semi + 1;
+                    continue;
                 }
             }
-            // Once we've accumulated diffs, calc the offset
-            entity.start = entity.start  - (diff + inDiff);
-            entity.end = entity.end - (diff + inDiff);
-        }
-    }
 
-    /**
-     * Adjusts entity indices for supplementary characters (Emoji being the most common example) in
-     * UTF-8 (ones outside of U+0000 to U+FFFF range) are represented as a pair of char values, the
-     * first from the high-surrogates range, and the second from the low-surrogates range.
-     *
-     * @param content The content of the tweet
-     * @param formattedTweetText The formatted tweet text with entities that we need to adjust
-     */
-    static void adjustIndicesForSupplementaryChars(StringBuilder content,
-            FormattedTweetText formattedTweetText) {
-        final List<Integer> highSurrogateIndices = new ArrayList<>();
-        final int len = content.length() - 1;
-        for (int i = 0; i < len; ++i) {
-            if (Character.isHighSurrogate(content.charAt(i))
-                    && Character.isLowSurrogate(content.charAt(i + 1))) {
-                highSurrogateIndices.add(i);
+            offsets[codePoints++] = result.length();
+            if (Character.isHighSurrogate(ch) && i + 1 < length
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                result.append(ch).append(text.charAt(i + 1));
+                i += 2;
+            } else {
+                result.append(ch);
+                i++;
             }
         }
+        offsets[codePoints] = result.length();
 
-        adjustEntitiesWithOffsets(formattedTweetText.urlEntities, highSurrogateIndices);
-        adjustEntitiesWithOffsets(formattedTweetText.mediaEntities, highSurrogateIndices);
-        adjustEntitiesWithOffsets(formattedTweetText.hashtagEntities, highSurrogateIndices);
-        adjustEntitiesWithOffsets(formattedTweetText.mentionEntities, highSurrogateIndices);
-        adjustEntitiesWithOffsets(formattedTweetText.symbolEntities, highSurrogateIndices);
+        adjustIndices(formattedTweetText.urlEntities, offsets, codePoints);
+        adjustIndices(formattedTweetText.mediaEntities, offsets, codePoints);
+        adjustIndices(formattedTweetText.hashtagEntities, offsets, codePoints);
+        adjustIndices(formattedTweetText.mentionEntities, offsets, codePoints);
+        adjustIndices(formattedTweetText.symbolEntities, offsets, codePoints);
+        formattedTweetText.text = result.toString();
     }
 
     /**
-     * Shifts indices by 1 since the Twitter REST Api does not count them correctly for our language
-     * runtime.
+     * Maps the code point start and end indices of the entities to indices in the formatted text.
      *
      * @param entities The entities that need to be adjusted
-     * @param indices The indices in the string where there are supplementary chars
+     * @param offsets The formatted text index of each code point, followed by the text length
+     * @param codePoints The number of code points in the text
      */
-    static void adjustEntitiesWithOffsets(List<? extends FormattedUrlEntity> entities,
-            List<Integer> indices) {
-        if (entities == null || indices == null) return;
-        for (FormattedUrlEntity entity : entities) {
-            // find all indices <= start and update offsets by that much
-            final int start = entity.start;
-            int offset = 0;
-            for (Integer index : indices) {
-                if (index - offset <= start) {
-                    offset += 1;
-                } else {
-                    break;
-                }
-            }
-            entity.start = entity.start + offset;
-            entity.end = entity.end + offset;
+    static void adjustIndices(List<? extends FormattedUrlEntity> entities, int[] offsets,
+            int codePoints) {
+        for (int i = 0; i < entities.size(); i++) {
+            final FormattedUrlEntity entity = entities.get(i);
+            entity.start = offset(entity.start, offsets, codePoints);
+            entity.end = offset(entity.end, offsets, codePoints);
+        }
+    }
+
+    private static int offset(int index, int[] offsets, int codePoints) {
+        if (index < 0) {
+            return index;
+        } else if (index <= codePoints) {
+            return offsets[index];
         }
+        // out of range indices keep their distance to the end of the text
+        return offsets[codePoints] + index - codePoints;
     }
 }
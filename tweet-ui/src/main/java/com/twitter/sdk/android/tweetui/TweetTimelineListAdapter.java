@@ -20,11 +20,14 @@ package com.twitter.sdk.android.tweetui;
 import android.content.Context;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.AbsListView;
 
 import com.twitter.sdk.android.core.Callback;
 import com.twitter.sdk.android.core.Result;
+import com.twitter.sdk.android.core.Twitter;
 import com.twitter.sdk.android.core.TwitterException;
 import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.models.TweetBuilder;
 
 /**
  * TweetTimelineListAdapter is a ListAdapter which can provide Timeline Tweets to ListViews.
@@ -33,6 +36,10 @@ public class TweetTimelineListAdapter extends TimelineListAdapter<Tweet> {
     protected Callback<Tweet> actionCallback;
     protected final int styleResId;
     protected TweetUi tweetUi;
+    TweetTextPrecomputer textPrecomputer;
+    TweetViewPool viewPool;
+    TweetImagePrefetcher imagePrefetcher;
+    final BindMetrics bindMetrics = new BindMetrics();
 
     /**
      * Constructs a TweetTimelineListAdapter for the given Tweet Timeline.
@@ -57,6 +64,89 @@ public class TweetTimelineListAdapter extends TimelineListAdapter<Tweet> {
         this.tweetUi = tweetUi;
     }
 
+    /**
+     * Returns a snapshot of the Tweets seen and removed by the TimelineFilter, or null if no
+     * TimelineFilter was set.
+     */
+    public TimelineFilterStats getFilterStats() {
+        if (delegate instanceof FilterTimelineDelegate) {
+            return ((FilterTimelineDelegate) delegate).getFilterStats();
+        }
+        return null;
+    }
+
+    /**
+     * Stops refilling sparse filtered pages with older Tweets, for example when the user navigates
+     * away. Refills in progress deliver the Tweets loaded so far.
+     */
+    public void cancelRefill() {
+        if (delegate instanceof FilterTimelineDelegate) {
+            ((FilterTimelineDelegate) delegate).cancelRefill();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the Tweet rows created and bound so far, by the shape of the row.
+     * Rows are created with their first Tweet, so the bind counts only include convert views
+     * bound to another Tweet, and the creation times include binding the first Tweet.
+     */
+    public TimelineBindStats getBindStats() {
+        return bindMetrics.getStats();
+    }
+
+    /**
+     * Creates the render models of Timeline Tweets on a worker thread as they are loaded.
+     */
+    void setTextPrecomputer(TweetTextPrecomputer textPrecomputer) {
+        this.textPrecomputer = textPrecomputer;
+        textPrecomputer.attach(delegate);
+    }
+
+    /**
+     * Creates Tweet views while the main thread is idle, for the first rows.
+     */
+    void setViewPool(TweetViewPool viewPool) {
+        this.viewPool = viewPool;
+        viewPool.start();
+    }
+
+    /**
+     * Stops creating Tweet views while the main thread is idle and drops the views not shown yet,
+     * if a view pool size was set. Call when the ListView of the adapter is destroyed before all
+     * pooled views were used, e.g. from onDestroyView.
+     */
+    public void stopViewPool() {
+        if (viewPool != null) {
+            viewPool.stop();
+        }
+    }
+
+    /**
+     * Prefetches the images of the rows about to be shown.
+     */
+    void setImagePrefetcher(TweetImagePrefetcher imagePrefetcher) {
+        this.imagePrefetcher = imagePrefetcher;
+    }
+
+    /**
+     * Pauses the image loads of the timeline while the ListView flings, if image prefetching is
+     * enabled. Call from the {@link AbsListView.OnScrollListener} of the ListView, which the
+     * adapter cannot set without replacing the app's listener.
+     * @param scrollState the scroll state passed to
+     *                    {@link AbsListView.OnScrollListener#onScrollStateChanged}
+     */
+    public void onScrollStateChanged(int scrollState) {
+        if (imagePrefetcher != null) {
+            imagePrefetcher.setPaused(
+                    scrollState == AbsListView.OnScrollListener.SCROLL_STATE_FLING);
+        }
+    }
+
+    CompactTweetView createTweetView() {
+        final Tweet tweet = new TweetBuilder().build();
+        return new CompactTweetView(context, tweet, styleResId);
+    }
+
     /**
      * Returns a CompactTweetView by default. May be overridden to provide another view for the
      * Tweet item. If Tweet actions are enabled, be sure to call setOnActionCallback(actionCallback)
@@ -65,18 +155,50 @@ public class TweetTimelineListAdapter extends TimelineListAdapter<Tweet> {
      */
     @Override
     public View getView(int position, View convertView, ViewGroup parent) {
+        final long start = System.nanoTime();
         View rowView = convertView;
         final Tweet tweet = getItem(position);
+        final int viewType = TweetViewType.of(tweet);
         if (rowView == null) {
-            final BaseTweetView tv = new CompactTweetView(context, tweet, styleResId);
+            BaseTweetView tv = viewPool == null ? null : viewPool.acquire();
+            if (tv == null) {
+                tv = new CompactTweetView(context, tweet, styleResId);
+            } else {
+                tv.setTweet(tweet);
+            }
             tv.setOnActionCallback(actionCallback);
+            if (imagePrefetcher != null) {
+                tv.setImagePrefetcher(imagePrefetcher);
+            }
             rowView = tv;
+            bindMetrics.onCreate(viewType, System.nanoTime() - start);
         } else {
             ((BaseTweetView) rowView).setTweet(tweet);
+            bindMetrics.onBind(viewType, System.nanoTime() - start);
+        }
+        if (imagePrefetcher != null) {
+            // read the items directly, getItem would load older items at the last position
+            imagePrefetcher.onBind(position, delegate.itemList);
         }
         return rowView;
     }
 
+    /**
+     * Returns the shape of the Tweet row, e.g. text only, photo or quote Tweet, so convert views
+     * are only passed to getView for Tweets of the same shape. Subclasses returning views of their
+     * own from getView should override this and {@link #getViewTypeCount()} as well.
+     */
+    @Override
+    public int getItemViewType(int position) {
+        // read the item directly, getItem would load older items at the last position
+        return TweetViewType.of(delegate.itemList.get(position));
+    }
+
+    @Override
+    public int getViewTypeCount() {
+        return TweetViewType.COUNT;
+    }
+
     /*
      * On success, sets the updated Tweet in the TimelineDelegate to replace any old copies
      * of the same Tweet by id.
@@ -114,7 +236,12 @@ public class TweetTimelineListAdapter extends TimelineListAdapter<Tweet> {
         private Timeline<Tweet> timeline;
         private Callback<Tweet> actionCallback;
         private TimelineFilter timelineFilter;
+        private int refillTargetItemCount = FilterTimelineDelegate.DEFAULT_REFILL_TARGET_ITEM_COUNT;
+        private int refillPageBudget = FilterTimelineDelegate.DEFAULT_REFILL_PAGE_BUDGET;
         private int styleResId = R.style.tw__TweetLightStyle;
+        private boolean precomputeText;
+        private int viewPoolSize;
+        private int imagePrefetchDistance;
 
         /**
          * Constructs a Builder.
@@ -160,19 +287,91 @@ public class TweetTimelineListAdapter extends TimelineListAdapter<Tweet> {
             return this;
         }
 
+        /**
+         * Sets how pages thinned out by the TimelineFilter are refilled. While a page has fewer
+         * than targetItemCount Tweets, up to pageBudget older pages are loaded into it. Refilling
+         * stops early when few requests remain in the rate limit window.
+         * @param targetItemCount the number of Tweets to refill a page to
+         * @param pageBudget the maximum number of older pages to load per page, 0 to disable
+         */
+        public Builder setFilterRefill(int targetItemCount, int pageBudget) {
+            this.refillTargetItemCount = targetItemCount;
+            this.refillPageBudget = pageBudget;
+            return this;
+        }
+
+        /**
+         * Sets whether the display values of Tweets, including their formatted and linkified
+         * text, are computed on a worker thread as Tweets are loaded, to reduce the work done when
+         * a row is bound.
+         * @param precomputeText true to prepare Tweets ahead of binding
+         */
+        public Builder setPrecomputeText(boolean precomputeText) {
+            this.precomputeText = precomputeText;
+            return this;
+        }
+
+        /**
+         * Sets the number of Tweet views created while the main thread is idle, before the
+         * timeline is shown, so the first rows are not inflated while scrolling. Defaults to 0.
+         * The pool stops once its views are used up. Call
+         * {@link TweetTimelineListAdapter#stopViewPool()} if the ListView goes away before that.
+         * @param viewPoolSize the number of Tweet views to create ahead of time
+         * @throws IllegalArgumentException if viewPoolSize is negative
+         */
+        public Builder setViewPoolSize(int viewPoolSize) {
+            if (viewPoolSize < 0) {
+                throw new IllegalArgumentException("viewPoolSize must not be negative");
+            }
+            this.viewPoolSize = viewPoolSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of rows ahead of the shown rows whose avatar and media images are
+         * prefetched, in the direction the timeline is scrolled. To pause image loads while the
+         * timeline flings, pass the scroll state of the ListView to
+         * {@link TweetTimelineListAdapter#onScrollStateChanged(int)}. Defaults to 0, which
+         * disables prefetching.
+         * @param imagePrefetchDistance the number of rows to prefetch images for
+         * @throws IllegalArgumentException if imagePrefetchDistance is negative
+         */
+        public Builder setImagePrefetchDistance(int imagePrefetchDistance) {
+            if (imagePrefetchDistance < 0) {
+                throw new IllegalArgumentException("imagePrefetchDistance must not be negative");
+            }
+            this.imagePrefetchDistance = imagePrefetchDistance;
+            return this;
+        }
+
         /**
          * Builds a TweetTimelineListAdapter from Builder parameters.
          * @return a TweetTimelineListAdpater
          */
         public TweetTimelineListAdapter build() {
+            final TweetTimelineListAdapter adapter;
             if (timelineFilter == null) {
-                return new TweetTimelineListAdapter(context, timeline, styleResId, actionCallback);
+                adapter = new TweetTimelineListAdapter(context, timeline, styleResId,
+                        actionCallback);
             } else {
-                final FilterTimelineDelegate delegate =
-                        new FilterTimelineDelegate(timeline, timelineFilter);
-                return new TweetTimelineListAdapter(context, delegate, styleResId, actionCallback,
-                        TweetUi.getInstance());
+                final FilterTimelineDelegate delegate = new FilterTimelineDelegate(timeline,
+                        timelineFilter, refillTargetItemCount, refillPageBudget);
+                adapter = new TweetTimelineListAdapter(context, delegate, styleResId,
+                        actionCallback, TweetUi.getInstance());
+            }
+            if (precomputeText) {
+                adapter.setTextPrecomputer(new TweetTextPrecomputer(
+                        TweetUi.getInstance().getTweetRepository(),
+                        Twitter.getInstance().getExecutorService(), context.getResources()));
+            }
+            if (viewPoolSize > 0) {
+                adapter.setViewPool(new TweetViewPool(adapter::createTweetView, viewPoolSize));
+            }
+            if (imagePrefetchDistance > 0) {
+                adapter.setImagePrefetcher(new TweetImagePrefetcher(TweetUi.getInstance(),
+                        context.getResources(), imagePrefetchDistance));
             }
+            return adapter;
         }
     }
 }
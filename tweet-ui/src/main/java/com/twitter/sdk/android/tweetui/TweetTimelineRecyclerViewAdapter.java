@@ -24,16 +24,22 @@ import android.view.ViewGroup;
 
 import com.twitter.sdk.android.core.Callback;
 import com.twitter.sdk.android.core.Result;
+import com.twitter.sdk.android.core.Twitter;
 import com.twitter.sdk.android.core.TwitterException;
 import com.twitter.sdk.android.core.models.Tweet;
 import com.twitter.sdk.android.core.models.TweetBuilder;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * TweetTimelineRecyclerViewAdapter is a RecyclerView adapter which can provide Timeline Tweets to
  * RecyclerViews.
  */
 public class TweetTimelineRecyclerViewAdapter extends
         RecyclerView.Adapter<TweetTimelineRecyclerViewAdapter.TweetViewHolder> {
+    // payload of a row rebind which only updates the Tweet actions of the row
+    static final Object PAYLOAD_TWEET_ACTIONS = new Object();
 
     protected final Context context;
     protected final TimelineDelegate<Tweet> timelineDelegate;
@@ -41,6 +47,21 @@ public class TweetTimelineRecyclerViewAdapter extends
     protected final int styleResId;
     protected TweetUi tweetUi;
     private int previousCount;
+    // number of buffered items being prepended by showNewItems
+    private int prependCount;
+    TimelinePoller<Tweet> poller;
+    TweetTextPrecomputer textPrecomputer;
+    TweetViewPool viewPool;
+    TweetImagePrefetcher imagePrefetcher;
+    final BindMetrics bindMetrics = new BindMetrics();
+    // pauses image loads while the RecyclerView flings, added if images are prefetched
+    private final RecyclerView.OnScrollListener scrollListener =
+            new RecyclerView.OnScrollListener() {
+                @Override
+                public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+                    imagePrefetcher.setPaused(newState == RecyclerView.SCROLL_STATE_SETTLING);
+                }
+            };
 
     /**
      * Constructs a TweetTimelineRecyclerViewAdapter for a RecyclerView implementation of a timeline
@@ -61,7 +82,7 @@ public class TweetTimelineRecyclerViewAdapter extends
     TweetTimelineRecyclerViewAdapter(Context context, TimelineDelegate<Tweet> timelineDelegate,
                                      int styleResId, Callback<Tweet> cb, TweetUi tweetUi) {
         this(context, timelineDelegate, styleResId);
-        actionCallback = new ReplaceTweetCallback(timelineDelegate, cb);
+        actionCallback = new ReplaceTweetCallback(this, timelineDelegate, cb);
         this.tweetUi = tweetUi;
     }
 
@@ -94,6 +115,8 @@ public class TweetTimelineRecyclerViewAdapter extends
                 super.onChanged();
                 if (previousCount == 0) {
                     notifyDataSetChanged();
+                } else if (prependCount > 0) {
+                    notifyItemRangeInserted(0, prependCount);
                 } else {
                     notifyItemRangeInserted(previousCount,
                             TweetTimelineRecyclerViewAdapter.this.timelineDelegate.getCount()
@@ -117,19 +140,173 @@ public class TweetTimelineRecyclerViewAdapter extends
         previousCount = 0;
     }
 
+    /**
+     * Starts polling for newer Timeline Tweets on an adaptive interval. Newer Tweets are buffered
+     * instead of shifting the list until showNewItems is called.
+     * @param listener notified with the buffered Tweet count when newer Tweets are buffered.
+     */
+    public void startPolling(NewItemsListener listener) {
+        if (poller == null) {
+            poller = new TimelinePoller<>(timelineDelegate);
+        }
+        poller.start(listener);
+    }
+
+    /**
+     * Stops polling for newer Timeline Tweets.
+     */
+    public void stopPolling() {
+        if (poller != null) {
+            poller.stop();
+        }
+    }
+
+    /**
+     * Shows the newer Timeline Tweets buffered by polling at the top of the list.
+     */
+    public void showNewItems() {
+        prependCount = timelineDelegate.getPendingCount();
+        timelineDelegate.showNewItems();
+        prependCount = 0;
+    }
+
+    /**
+     * Returns the number of newer Timeline Tweets buffered by polling.
+     */
+    public int getNewItemCount() {
+        return timelineDelegate.getPendingCount();
+    }
+
+    /**
+     * Returns a snapshot of the Tweets seen and removed by the TimelineFilter, or null if no
+     * TimelineFilter was set.
+     */
+    public TimelineFilterStats getFilterStats() {
+        if (timelineDelegate instanceof FilterTimelineDelegate) {
+            return ((FilterTimelineDelegate) timelineDelegate).getFilterStats();
+        }
+        return null;
+    }
+
+    /**
+     * Stops refilling sparse filtered pages with older Tweets, for example when the user navigates
+     * away. Refills in progress deliver the Tweets loaded so far.
+     */
+    public void cancelRefill() {
+        if (timelineDelegate instanceof FilterTimelineDelegate) {
+            ((FilterTimelineDelegate) timelineDelegate).cancelRefill();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the Tweet rows created and bound so far, by the shape of the row.
+     * RecyclerView binds every view holder after creating it, so each created row also counts
+     * as a bind, and the bind counts include the creation count.
+     */
+    public TimelineBindStats getBindStats() {
+        return bindMetrics.getStats();
+    }
+
+    /**
+     * Creates the render models of Timeline Tweets on a worker thread as they are loaded.
+     */
+    void setTextPrecomputer(TweetTextPrecomputer textPrecomputer) {
+        this.textPrecomputer = textPrecomputer;
+        textPrecomputer.attach(timelineDelegate);
+    }
+
+    /**
+     * Creates Tweet views while the main thread is idle, for the first view holders.
+     */
+    void setViewPool(TweetViewPool viewPool) {
+        this.viewPool = viewPool;
+        viewPool.start();
+    }
+
+    /**
+     * Prefetches the images of the rows about to be shown, and pauses image loads while the
+     * RecyclerView flings.
+     */
+    void setImagePrefetcher(TweetImagePrefetcher imagePrefetcher) {
+        this.imagePrefetcher = imagePrefetcher;
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        if (imagePrefetcher != null) {
+            recyclerView.addOnScrollListener(scrollListener);
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        cancelRefill();
+        if (viewPool != null) {
+            viewPool.stop();
+        }
+        if (imagePrefetcher != null) {
+            recyclerView.removeOnScrollListener(scrollListener);
+            imagePrefetcher.setPaused(false);
+        }
+    }
+
+    /**
+     * Returns the shape of the Tweet row, e.g. text only, photo or quote Tweet, so rows are only
+     * recycled for Tweets of the same shape.
+     */
+    @Override
+    public int getItemViewType(int position) {
+        // read the item directly, getItem would load older items at the last position
+        return TweetViewType.of(timelineDelegate.itemList.get(position));
+    }
+
     @Override
     public TweetViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
-        final Tweet tweet = new TweetBuilder().build();
-        final CompactTweetView compactTweetView = new CompactTweetView(context, tweet, styleResId);
+        final long start = System.nanoTime();
+        CompactTweetView compactTweetView = viewPool == null ? null : viewPool.acquire();
+        if (compactTweetView == null) {
+            compactTweetView = createTweetView();
+        }
         compactTweetView.setOnActionCallback(actionCallback);
+        if (imagePrefetcher != null) {
+            compactTweetView.setImagePrefetcher(imagePrefetcher);
+        }
+        bindMetrics.onCreate(viewType, System.nanoTime() - start);
         return new TweetViewHolder(compactTweetView);
     }
 
+    CompactTweetView createTweetView() {
+        final Tweet tweet = new TweetBuilder().build();
+        return new CompactTweetView(context, tweet, styleResId);
+    }
+
     @Override
     public void onBindViewHolder(TweetViewHolder holder, int position) {
+        final long start = System.nanoTime();
         final Tweet tweet = timelineDelegate.getItem(position);
         final CompactTweetView compactTweetView = (CompactTweetView) holder.itemView;
         compactTweetView.setTweet(tweet);
+        bindMetrics.onBind(holder.getItemViewType(), System.nanoTime() - start);
+        if (imagePrefetcher != null) {
+            // read the items directly, getItem would load older items at the last position
+            imagePrefetcher.onBind(position, timelineDelegate.itemList);
+        }
+    }
+
+    /**
+     * Binds the row with the Tweet actions payload by only updating its Tweet actions, since the
+     * Tweet only changed its action state. Rows without payloads are bound again completely.
+     */
+    @Override
+    public void onBindViewHolder(TweetViewHolder holder, int position, List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        final CompactTweetView compactTweetView = (CompactTweetView) holder.itemView;
+        compactTweetView.setTweetActionState(timelineDelegate.itemList.get(position));
     }
 
     @Override
@@ -145,20 +322,39 @@ public class TweetTimelineRecyclerViewAdapter extends
 
     /*
      * On success, sets the updated Tweet in the TimelineDelegate to replace any old copies
-     * of the same Tweet by id.
+     * of the same Tweet by id, and rebinds their rows. Rows whose Tweet only changed its action
+     * state only update their Tweet actions.
      */
     static class ReplaceTweetCallback extends Callback<Tweet> {
+        RecyclerView.Adapter<?> adapter;
         TimelineDelegate<Tweet> delegate;
         Callback<Tweet> cb;
 
-        ReplaceTweetCallback(TimelineDelegate<Tweet> delegate, Callback<Tweet> cb) {
+        ReplaceTweetCallback(RecyclerView.Adapter<?> adapter, TimelineDelegate<Tweet> delegate,
+                Callback<Tweet> cb) {
+            this.adapter = adapter;
             this.delegate = delegate;
             this.cb = cb;
         }
 
         @Override
         public void success(Result<Tweet> result) {
-            delegate.setItemById(result.data);
+            final Tweet tweet = result.data;
+            // rows of the old copies and their payloads, compared before the copies are replaced
+            final List<Integer> positions = new ArrayList<>();
+            final List<Object> payloads = new ArrayList<>();
+            for (int i = 0; i < delegate.itemList.size(); i++) {
+                final Tweet oldTweet = delegate.itemList.get(i);
+                if (oldTweet.getId() == tweet.getId()) {
+                    positions.add(i);
+                    payloads.add(TweetUtils.hasSameContent(oldTweet, tweet)
+                            ? PAYLOAD_TWEET_ACTIONS : null);
+                }
+            }
+            delegate.setItemById(tweet);
+            for (int i = 0; i < positions.size(); i++) {
+                adapter.notifyItemChanged(positions.get(i), payloads.get(i));
+            }
             if (cb != null) {
                 cb.success(result);
             }
@@ -180,7 +376,12 @@ public class TweetTimelineRecyclerViewAdapter extends
         private Timeline<Tweet> timeline;
         private Callback<Tweet> actionCallback;
         private TimelineFilter timelineFilter;
+        private int refillTargetItemCount = FilterTimelineDelegate.DEFAULT_REFILL_TARGET_ITEM_COUNT;
+        private int refillPageBudget = FilterTimelineDelegate.DEFAULT_REFILL_PAGE_BUDGET;
         private int styleResId = R.style.tw__TweetLightStyle;
+        private boolean precomputeText;
+        private int viewPoolSize;
+        private int imagePrefetchDistance;
 
         /**
          * Constructs a Builder.
@@ -228,20 +429,90 @@ public class TweetTimelineRecyclerViewAdapter extends
             return this;
         }
 
+        /**
+         * Sets how pages thinned out by the TimelineFilter are refilled. While a page has fewer
+         * than targetItemCount Tweets, up to pageBudget older pages are loaded into it. Refilling
+         * stops early when few requests remain in the rate limit window.
+         * @param targetItemCount the number of Tweets to refill a page to
+         * @param pageBudget the maximum number of older pages to load per page, 0 to disable
+         */
+        public TweetTimelineRecyclerViewAdapter.Builder setFilterRefill(
+                int targetItemCount, int pageBudget) {
+            this.refillTargetItemCount = targetItemCount;
+            this.refillPageBudget = pageBudget;
+            return this;
+        }
+
+        /**
+         * Sets whether the display values of Tweets, including their formatted and linkified
+         * text, are computed on a worker thread as Tweets are loaded, to reduce the work done when
+         * a row is bound.
+         * @param precomputeText true to prepare Tweets ahead of binding
+         */
+        public TweetTimelineRecyclerViewAdapter.Builder setPrecomputeText(
+                boolean precomputeText) {
+            this.precomputeText = precomputeText;
+            return this;
+        }
+
+        /**
+         * Sets the number of Tweet views created while the main thread is idle, before the
+         * timeline is shown, so the first rows are not inflated while scrolling. Defaults to 0.
+         * @param viewPoolSize the number of Tweet views to create ahead of time
+         * @throws IllegalArgumentException if viewPoolSize is negative
+         */
+        public TweetTimelineRecyclerViewAdapter.Builder setViewPoolSize(int viewPoolSize) {
+            if (viewPoolSize < 0) {
+                throw new IllegalArgumentException("viewPoolSize must not be negative");
+            }
+            this.viewPoolSize = viewPoolSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of rows ahead of the shown rows whose avatar and media images are
+         * prefetched, in the direction the timeline is scrolled. Image loads are paused while the
+         * timeline flings. Defaults to 0, which disables prefetching.
+         * @param imagePrefetchDistance the number of rows to prefetch images for
+         * @throws IllegalArgumentException if imagePrefetchDistance is negative
+         */
+        public TweetTimelineRecyclerViewAdapter.Builder setImagePrefetchDistance(
+                int imagePrefetchDistance) {
+            if (imagePrefetchDistance < 0) {
+                throw new IllegalArgumentException("imagePrefetchDistance must not be negative");
+            }
+            this.imagePrefetchDistance = imagePrefetchDistance;
+            return this;
+        }
+
         /**
          * Builds a TweetTimelineRecyclerViewAdapter from Builder parameters.
          * @return a TweetTimelineListAdpater
          */
         public TweetTimelineRecyclerViewAdapter build() {
+            final TweetTimelineRecyclerViewAdapter adapter;
             if (timelineFilter == null) {
-                return new TweetTimelineRecyclerViewAdapter(context, timeline, styleResId,
+                adapter = new TweetTimelineRecyclerViewAdapter(context, timeline, styleResId,
                         actionCallback);
             } else {
                 final FilterTimelineDelegate delegate = new FilterTimelineDelegate(timeline,
-                        timelineFilter);
-                return new TweetTimelineRecyclerViewAdapter(context, delegate, styleResId,
+                        timelineFilter, refillTargetItemCount, refillPageBudget);
+                adapter = new TweetTimelineRecyclerViewAdapter(context, delegate, styleResId,
                         actionCallback, TweetUi.getInstance());
             }
+            if (precomputeText) {
+                adapter.setTextPrecomputer(new TweetTextPrecomputer(
+                        TweetUi.getInstance().getTweetRepository(),
+                        Twitter.getInstance().getExecutorService(), context.getResources()));
+            }
+            if (viewPoolSize > 0) {
+                adapter.setViewPool(new TweetViewPool(adapter::createTweetView, viewPoolSize));
+            }
+            if (imagePrefetchDistance > 0) {
+                adapter.setImagePrefetcher(new TweetImagePrefetcher(TweetUi.getInstance(),
+                        context.getResources(), imagePrefetchDistance));
+            }
+            return adapter;
         }
     }
 }
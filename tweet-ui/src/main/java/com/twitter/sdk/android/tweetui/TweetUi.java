@@ -18,7 +18,9 @@
 package com.twitter.sdk.android.tweetui;
 
 import android.annotation.SuppressLint;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.content.res.Configuration;
 import android.os.Handler;
 import android.os.Looper;
 
@@ -42,7 +44,9 @@ public class TweetUi {
     Context context;
 
     private TweetRepository tweetRepository;
-    private Picasso imageLoader;
+    private TimestampTicker timestampTicker;
+    private volatile ImageLoader imageLoader;
+    private volatile float imageSizeBias = 1.0f;
 
     public static TweetUi getInstance() {
         if (instance == null) {
@@ -63,7 +67,23 @@ public class TweetUi {
         guestSessionProvider = twitterCore.getGuestSessionProvider();
         tweetRepository = new TweetRepository(new Handler(Looper.getMainLooper()),
                 twitterCore.getSessionManager());
-        imageLoader = Picasso.with(Twitter.getInstance().getContext(getIdentifier()));
+        timestampTicker = new TimestampTicker(new Handler(Looper.getMainLooper()));
+        imageLoader = new PicassoImageLoader(Picasso.with(context));
+        context.registerComponentCallbacks(new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                imageLoader.trimMemory(level);
+            }
+
+            @Override
+            public void onConfigurationChanged(Configuration newConfig) {
+            }
+
+            @Override
+            public void onLowMemory() {
+                imageLoader.trimMemory(TRIM_MEMORY_COMPLETE);
+            }
+        });
     }
 
     public String getIdentifier() {
@@ -83,12 +103,57 @@ public class TweetUi {
         this.tweetRepository = tweetRepository;
     }
 
+    TimestampTicker getTimestampTicker() {
+        return timestampTicker;
+    }
+
+    /**
+     * @return the Picasso instance Tweet UI loads images with, or null if an image loader other
+     * than a {@link PicassoImageLoader} was set
+     * @deprecated use {@link #getTweetImageLoader()}, images may be loaded without Picasso
+     */
+    @Deprecated
     public Picasso getImageLoader() {
+        final ImageLoader loader = imageLoader;
+        return loader instanceof PicassoImageLoader ? ((PicassoImageLoader) loader).picasso : null;
+    }
+
+    /**
+     * @return the image loader of Tweet UI views and the photo gallery
+     */
+    public ImageLoader getTweetImageLoader() {
         return imageLoader;
     }
 
-    // Testing purposes only
-    void setImageLoader(Picasso imageLoader) {
+    /**
+     * Sets the image loader of Tweet UI views and the photo gallery, e.g. one backed by the image
+     * pipeline of the app so Tweet images share its memory budget. Defaults to a
+     * {@link PicassoImageLoader} backed by the Picasso singleton.
+     * @param imageLoader the image loader
+     * @throws IllegalArgumentException if imageLoader is null
+     */
+    public void setImageLoader(ImageLoader imageLoader) {
+        if (imageLoader == null) {
+            throw new IllegalArgumentException("ImageLoader must not be null");
+        }
         this.imageLoader = imageLoader;
     }
+
+    /**
+     * Scales the pixel size media and avatar images are chosen for. Tweet views load the smallest
+     * image variant covering their size times the bias, so a bias below 1, for example on slow or
+     * metered connections, loads smaller images which are scaled up. Defaults to 1.
+     * @param imageSizeBias the factor in (0, 1] image sizes are scaled by
+     * @throws IllegalArgumentException if the bias is not in (0, 1]
+     */
+    public void setImageSizeBias(float imageSizeBias) {
+        if (!(imageSizeBias > 0 && imageSizeBias <= 1)) {
+            throw new IllegalArgumentException("imageSizeBias must be in (0, 1]");
+        }
+        this.imageSizeBias = imageSizeBias;
+    }
+
+    public float getImageSizeBias() {
+        return imageSizeBias;
+    }
 }
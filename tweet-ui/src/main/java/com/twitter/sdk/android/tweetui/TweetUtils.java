@@ -48,9 +48,10 @@ public final class TweetUtils {
      * Loads a single Tweet by id.
      * @param tweetId Tweet id
      * @param cb callback
+     * @return the load, which can be cancelled if the Tweet is no longer needed
      */
-    public static void loadTweet(final long tweetId, final Callback<Tweet> cb) {
-        TweetUi.getInstance().getTweetRepository().loadTweet(tweetId,
+    public static TweetLoad loadTweet(final long tweetId, final Callback<Tweet> cb) {
+        return TweetUi.getInstance().getTweetRepository().loadTweet(tweetId,
                 new LoggingCallback<Tweet>(cb, Twitter.getLogger()) {
                     @Override
                     public void success(Result<Tweet> result) {
@@ -65,9 +66,11 @@ public final class TweetUtils {
      * Loads a List of Tweets by id. Returns Tweets in the order requested.
      * @param tweetIds List of Tweet ids
      * @param cb callback
+     * @return the load, which can be cancelled if the Tweets are no longer needed
      */
-    public static void loadTweets(final List<Long> tweetIds, final Callback<List<Tweet>> cb) {
-        TweetUi.getInstance().getTweetRepository().loadTweets(tweetIds,
+    public static TweetLoad loadTweets(final List<Long> tweetIds,
+            final Callback<List<Tweet>> cb) {
+        return TweetUi.getInstance().getTweetRepository().loadTweets(tweetIds,
                 new LoggingCallback<List<Tweet>>(cb, Twitter.getLogger()) {
                     @Override
                     public void success(Result<List<Tweet>> result) {
@@ -103,6 +106,38 @@ public final class TweetUtils {
         }
     }
 
+    /**
+     * Determines if an updated copy of a Tweet, such as the response of a Tweet action, shows the
+     * same content as the Tweet. The copy may still differ in its action state, whether the user
+     * liked or retweeted it and its like and retweet counts, so views showing the Tweet only
+     * need to update their Tweet actions.
+     * @param tweet the shown Tweet
+     * @param updated the updated copy of the Tweet
+     * @return true if both Tweets show the same text, author, media, retweet and quote
+     */
+    static boolean hasSameContent(Tweet tweet, Tweet updated) {
+        if (tweet == null || updated == null) return tweet == updated;
+
+        return tweet.id == updated.id
+                && TextUtils.equals(tweet.text, updated.text)
+                && TextUtils.equals(tweet.createdAt, updated.createdAt)
+                && tweet.quotedStatusId == updated.quotedStatusId
+                && (tweet.card == null) == (updated.card == null)
+                && hasSameAuthor(tweet, updated)
+                && hasSameContent(tweet.retweetedStatus, updated.retweetedStatus);
+    }
+
+    private static boolean hasSameAuthor(Tweet tweet, Tweet updated) {
+        if (tweet.user == null || updated.user == null) return tweet.user == updated.user;
+
+        return tweet.user.id == updated.user.id
+                && TextUtils.equals(tweet.user.name, updated.user.name)
+                && TextUtils.equals(tweet.user.screenName, updated.user.screenName)
+                && TextUtils.equals(tweet.user.profileImageUrlHttps,
+                        updated.user.profileImageUrlHttps)
+                && tweet.user.verified == updated.user.verified;
+    }
+
     static boolean showQuoteTweet(Tweet tweet) {
         return tweet.quotedStatus != null &&
                 tweet.card == null && (tweet.entities == null || tweet.entities.media == null
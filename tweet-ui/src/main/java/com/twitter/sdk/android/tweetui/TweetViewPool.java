@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+
+import java.util.ArrayDeque;
+
+/**
+ * Creates Tweet views while the main thread is idle, before the timeline is shown, so the first
+ * rows of a new timeline are not inflated and styled while it is being scrolled. One view is
+ * created per idle callback to keep each callback short. Methods must be called on the main
+ * thread.
+ */
+class TweetViewPool implements MessageQueue.IdleHandler {
+    final Factory factory;
+    final int size;
+    // created views not handed out yet
+    final ArrayDeque<CompactTweetView> views;
+    int createdCount;
+    boolean started;
+
+    /**
+     * @param factory creates the views of the pool
+     * @param size the number of views to create ahead of time
+     * @throws IllegalArgumentException if size is negative
+     */
+    TweetViewPool(Factory factory, int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative");
+        }
+        this.factory = factory;
+        this.size = size;
+        views = new ArrayDeque<>(size);
+    }
+
+    /**
+     * Starts creating views whenever the main thread is idle, until the pool is full.
+     */
+    void start() {
+        if (started || createdCount >= size) return;
+
+        started = true;
+        Looper.myQueue().addIdleHandler(this);
+    }
+
+    /**
+     * Stops creating views and drops the views not handed out yet.
+     */
+    void stop() {
+        if (started) {
+            started = false;
+            Looper.myQueue().removeIdleHandler(this);
+        }
+        views.clear();
+    }
+
+    /**
+     * Hands out a view created ahead of time. Once none is left the pool stops, since rows are
+     * then created as they are shown and views created ahead would no longer be used.
+     * @return a view created ahead of time, or null if none is left
+     */
+    CompactTweetView acquire() {
+        final CompactTweetView view = views.poll();
+        if (view == null) {
+            stop();
+        }
+        return view;
+    }
+
+    @Override
+    public boolean queueIdle() {
+        if (createdCount < size) {
+            views.add(factory.create());
+            createdCount++;
+        }
+        // keep the idle handler until the pool is full
+        started = createdCount < size;
+        return started;
+    }
+
+    interface Factory {
+        CompactTweetView create();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Color;
+import android.util.SparseArray;
+
+import java.util.WeakHashMap;
+
+/**
+ * The colors and drawables of a Tweet view style, resolved from the style attributes. Styles
+ * passed by resource id are resolved once per theme and configuration and shared by the views
+ * created with them, so creating a Tweet view does not resolve and derive its colors again.
+ * Methods must be called on the main thread.
+ */
+final class TweetViewStyle {
+    // resolved styles by style resource id, per theme of the views' context
+    private static final WeakHashMap<Resources.Theme, SparseArray<TweetViewStyle>> CACHE =
+            new WeakHashMap<>();
+
+    // configuration the style was resolved with
+    final Configuration configuration;
+
+    final int containerBgColor;
+    final int primaryTextColor;
+    final int secondaryTextColor;
+    final int actionColor;
+    final int actionHighlightColor;
+    final int mediaBgColor;
+    final boolean tweetActionsEnabled;
+    final int photoErrorResId;
+    final int birdLogoResId;
+    final int retweetIconResId;
+
+    private TweetViewStyle(TypedArray a, Resources res) {
+        configuration = new Configuration(res.getConfiguration());
+
+        // Styled via attributes
+        containerBgColor = a.getColor(R.styleable.tw__TweetView_tw__container_bg_color,
+                res.getColor(R.color.tw__tweet_light_container_bg_color));
+        primaryTextColor = a.getColor(R.styleable.tw__TweetView_tw__primary_text_color,
+                res.getColor(R.color.tw__tweet_light_primary_text_color));
+        actionColor = a.getColor(
+                R.styleable.tw__TweetView_tw__action_color,
+                res.getColor(R.color.tw__tweet_action_color));
+        actionHighlightColor = a.getColor(
+                R.styleable.tw__TweetView_tw__action_highlight_color,
+                res.getColor(R.color.tw__tweet_action_light_highlight_color));
+        tweetActionsEnabled =
+                a.getBoolean(R.styleable.tw__TweetView_tw__tweet_actions_enabled, false);
+
+        // Calculated colors
+        final boolean isLightBg = ColorUtils.isLightColor(containerBgColor);
+
+        if (isLightBg) {
+            photoErrorResId = R.drawable.tw__ic_tweet_photo_error_light;
+            birdLogoResId = R.drawable.tw__ic_logo_blue;
+            retweetIconResId = R.drawable.tw__ic_retweet_light;
+        } else {
+            photoErrorResId = R.drawable.tw__ic_tweet_photo_error_dark;
+            birdLogoResId = R.drawable.tw__ic_logo_white;
+            retweetIconResId = R.drawable.tw__ic_retweet_dark;
+        }
+
+        // offset from white when background is light
+        secondaryTextColor = ColorUtils.calculateOpacityTransform(
+                isLightBg ? AbstractTweetView.SECONDARY_TEXT_COLOR_LIGHT_OPACITY
+                        : AbstractTweetView.SECONDARY_TEXT_COLOR_DARK_OPACITY,
+                isLightBg ? Color.WHITE : Color.BLACK,
+                primaryTextColor
+        );
+
+        // offset from black when background is light
+        mediaBgColor = ColorUtils.calculateOpacityTransform(
+                isLightBg ? AbstractTweetView.MEDIA_BG_LIGHT_OPACITY
+                        : AbstractTweetView.MEDIA_BG_DARK_OPACITY,
+                isLightBg ? Color.BLACK : Color.WHITE,
+                containerBgColor
+        );
+    }
+
+    /**
+     * Resolves the style from the attributes of a Tweet view, for example those of an XML tag.
+     * @param a the style attribute values of the Tweet view
+     * @param res the resources of the Tweet view
+     */
+    static TweetViewStyle from(TypedArray a, Resources res) {
+        return new TweetViewStyle(a, res);
+    }
+
+    /**
+     * Returns the style for the style resource id, resolving it in the theme of the context only
+     * if it was not resolved for the theme and the current configuration yet.
+     * @param context the context of the Tweet view
+     * @param styleResId resource id of the Tweet view style
+     */
+    static TweetViewStyle get(Context context, int styleResId) {
+        final Resources.Theme theme = context.getTheme();
+        SparseArray<TweetViewStyle> styles = CACHE.get(theme);
+        if (styles == null) {
+            styles = new SparseArray<>();
+            CACHE.put(theme, styles);
+        }
+
+        final Resources res = context.getResources();
+        final TweetViewStyle cached = styles.get(styleResId);
+        if (cached != null && cached.configuration.diff(res.getConfiguration()) == 0) {
+            return cached;
+        }
+
+        final TypedArray a = theme.obtainStyledAttributes(styleResId, R.styleable.tw__TweetView);
+        try {
+            final TweetViewStyle style = from(a, res);
+            styles.put(styleResId, style);
+            return style;
+        } finally {
+            a.recycle();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.text.TextUtils;
+
+import com.twitter.sdk.android.core.internal.VineCardUtils;
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.tweetui.internal.TweetMediaUtils;
+
+/**
+ * The shapes of Tweet rows in timelines. Rows of one shape show the same subviews, so a recycled
+ * row bound to another Tweet of its shape keeps its layout instead of toggling subviews.
+ */
+final class TweetViewType {
+    static final int TEXT = 0;
+    static final int PHOTO = 1;
+    static final int MULTI_PHOTO = 2;
+    static final int VIDEO = 3;
+    static final int QUOTE = 4;
+    static final int COUNT = 5;
+
+    private TweetViewType() {}
+
+    /**
+     * Returns the shape of the row showing the Tweet, deciding media the way
+     * {@link AbstractTweetView#setTweetMedia(TweetRenderModel)} does.
+     * @param tweet the Tweet of the row, may be a retweet or null
+     */
+    static int of(Tweet tweet) {
+        if (tweet == null) return TEXT;
+
+        final Tweet displayTweet = TweetUtils.getDisplayTweet(tweet);
+        if (displayTweet.card != null && VineCardUtils.isVine(displayTweet.card)) {
+            if (VineCardUtils.getImageValue(displayTweet.card) != null
+                    && !TextUtils.isEmpty(VineCardUtils.getStreamUrl(displayTweet.card))) {
+                return VIDEO;
+            }
+        } else if (TweetMediaUtils.hasSupportedVideo(displayTweet)) {
+            return VIDEO;
+        } else if (TweetMediaUtils.hasPhoto(displayTweet)) {
+            return TweetMediaUtils.getPhotoEntities(displayTweet).size() > 1 ? MULTI_PHOTO : PHOTO;
+        }
+
+        return TweetUtils.showQuoteTweet(tweet) ? QUOTE : TEXT;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal;
+
+import android.text.TextPaint;
+import android.text.style.ClickableSpan;
+import android.view.View;
+
+/**
+ * An immutable span marking the text of a Tweet entity. The span only holds the index of the
+ * entity, so text linkified with it can be shared by any number of views. Clicks are dispatched
+ * by the {@link SpanClickHandler} enabled on the view showing the text, which also highlights the
+ * pressed span. The link is drawn in the link text color of the view.
+ */
+public final class EntityLinkSpan extends ClickableSpan {
+    public final int entityIndex;
+
+    public EntityLinkSpan(int entityIndex) {
+        this.entityIndex = entityIndex;
+    }
+
+    @Override
+    public void onClick(View widget) {
+        final SpanClickHandler handler = SpanClickHandler.getHandler(widget);
+        if (handler != null) {
+            handler.dispatchEntityClick(entityIndex);
+        }
+    }
+
+    @Override
+    public void updateDrawState(TextPaint ds) {
+        ds.setColor(ds.linkColor);
+    }
+}
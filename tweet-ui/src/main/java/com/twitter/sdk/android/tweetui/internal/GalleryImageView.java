@@ -25,10 +25,9 @@ import android.view.View;
 import android.widget.FrameLayout;
 import android.widget.ProgressBar;
 
-import com.squareup.picasso.Picasso;
-import com.squareup.picasso.Target;
+import com.twitter.sdk.android.tweetui.ImageLoader;
 
-public class GalleryImageView extends FrameLayout implements Target {
+public class GalleryImageView extends FrameLayout implements ImageLoader.Target {
     final MultiTouchImageView imageView;
     final ProgressBar progressBar;
 
@@ -60,18 +59,18 @@ public class GalleryImageView extends FrameLayout implements Target {
     }
 
     @Override
-    public void onBitmapLoaded(Bitmap bitmap, Picasso.LoadedFrom from) {
+    public void onImageLoaded(Bitmap bitmap) {
         imageView.setImageBitmap(bitmap);
         progressBar.setVisibility(View.GONE);
     }
 
     @Override
-    public void onBitmapFailed(Drawable errorDrawable) {
+    public void onImageFailed(Drawable errorDrawable) {
 
     }
 
     @Override
-    public void onPrepareLoad(Drawable placeHolderDrawable) {
+    public void onPrepareLoad(Drawable placeholder) {
         imageView.setImageResource(android.R.color.transparent);
         progressBar.setVisibility(View.VISIBLE);
     }
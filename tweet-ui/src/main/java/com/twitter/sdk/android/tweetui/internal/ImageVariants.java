@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal;
+
+import com.twitter.sdk.android.core.internal.UserUtils;
+import com.twitter.sdk.android.core.models.MediaEntity;
+
+/**
+ * Chooses the smallest media and avatar image variants which are large enough for the pixel size
+ * they are shown at, so images are not downloaded and decoded at a larger size than needed.
+ */
+public final class ImageVariants {
+    static final String THUMB = ":thumb";
+    static final String SMALL = ":small";
+    static final String MEDIUM = ":medium";
+    static final String LARGE = ":large";
+    static final String RESIZE_CROP = "crop";
+
+    // bounding boxes of the media variants, used when a media entity has no sizes
+    static final int THUMB_SIZE = 150;
+    static final int SMALL_SIZE = 680;
+    static final int MEDIUM_SIZE = 1200;
+    static final int LARGE_SIZE = 2048;
+
+    // cropped variants are only used for targets with about the same aspect ratio
+    private static final double MAX_CROP_ASPECT_RATIO_CHANGE = 0.1;
+
+    // widths of the avatar variants, from smallest to largest
+    private static final int MINI_AVATAR_SIZE = 24;
+    private static final int NORMAL_AVATAR_SIZE = 48;
+    private static final int BIGGER_AVATAR_SIZE = 73;
+
+    private ImageVariants() {
+    }
+
+    /**
+     * Returns the URL of the smallest media variant which covers the target size when scaled to
+     * center crop it, or of the largest variant if none does. A size bias below 1 lets smaller
+     * variants be scaled up, for example to save bandwidth on slow connections.
+     *
+     * @param mediaEntity the photo, or video preview, to show
+     * @param targetWidth the width in pixels the image is shown at
+     * @param targetHeight the height in pixels the image is shown at
+     * @param sizeBias the factor the target size is scaled by, in (0, 1]
+     * @return the URL of the media variant
+     */
+    public static String getMediaUrl(MediaEntity mediaEntity, int targetWidth, int targetHeight,
+            float sizeBias) {
+        final int width = (int) Math.ceil(targetWidth * sizeBias);
+        final int height = (int) Math.ceil(targetHeight * sizeBias);
+        final MediaEntity.Sizes sizes = mediaEntity.sizes;
+
+        final String variant;
+        if (sizes == null) {
+            variant = getVariant(Math.max(width, height));
+        } else if (covers(sizes.thumb, width, height)) {
+            variant = THUMB;
+        } else if (covers(sizes.small, width, height)) {
+            variant = SMALL;
+        } else if (covers(sizes.medium, width, height) || sizes.large == null) {
+            variant = MEDIUM;
+        } else {
+            variant = LARGE;
+        }
+        return mediaEntity.mediaUrlHttps + variant;
+    }
+
+    private static String getVariant(int targetSize) {
+        if (targetSize <= THUMB_SIZE) {
+            return THUMB;
+        } else if (targetSize <= SMALL_SIZE) {
+            return SMALL;
+        } else if (targetSize <= MEDIUM_SIZE) {
+            return MEDIUM;
+        }
+        return LARGE;
+    }
+
+    static boolean covers(MediaEntity.Size size, int width, int height) {
+        if (size == null || size.w == 0 || size.h == 0 || size.w < width || size.h < height) {
+            return false;
+        }
+        if (RESIZE_CROP.equals(size.resize) && height > 0) {
+            // a cropped variant shows less of the image than the target would
+            final double aspectRatioChange =
+                    Math.abs((double) size.w / size.h - (double) width / height)
+                            / ((double) size.w / size.h);
+            return aspectRatioChange <= MAX_CROP_ASPECT_RATIO_CHANGE;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the smallest avatar variant at least as large as the target size. Original avatars
+     * can be arbitrarily large, so the reasonably small variant is the largest one chosen.
+     *
+     * @param targetSize the width in pixels the avatar is shown at
+     * @param sizeBias the factor the target size is scaled by, in (0, 1]
+     * @return the avatar variant
+     */
+    public static UserUtils.AvatarSize getAvatarSize(int targetSize, float sizeBias) {
+        final int size = (int) Math.ceil(targetSize * sizeBias);
+        if (size <= MINI_AVATAR_SIZE) {
+            return UserUtils.AvatarSize.MINI;
+        } else if (size <= NORMAL_AVATAR_SIZE) {
+            return UserUtils.AvatarSize.NORMAL;
+        } else if (size <= BIGGER_AVATAR_SIZE) {
+            return UserUtils.AvatarSize.BIGGER;
+        }
+        return UserUtils.AvatarSize.REASONABLY_SMALL;
+    }
+}
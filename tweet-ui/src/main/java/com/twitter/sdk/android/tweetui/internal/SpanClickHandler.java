@@ -18,15 +18,20 @@
 package com.twitter.sdk.android.tweetui.internal;
 
 import android.text.Layout;
+import android.text.Spannable;
 import android.text.Spanned;
+import android.text.style.BackgroundColorSpan;
 import android.view.MotionEvent;
 import android.view.View;
 import android.widget.TextView;
 
+import com.twitter.sdk.android.tweetui.R;
+
 /**
  * A helper class that enables support for clicks on spans in a the text of a
  * {@link android.widget.TextView} or a {@link android.text.Layout}. The text in the layout must
- * be of type Spanned, and the spans need to implement {@link HighlightedClickableSpan}.
+ * be of type Spanned, and the spans need to implement {@link HighlightedClickableSpan}, or be
+ * {@link EntityLinkSpan}s whose clicks are dispatched to an {@link OnEntityClickListener}.
  */
 public class SpanClickHandler {
     private final View view;
@@ -36,8 +41,55 @@ public class SpanClickHandler {
 
     private HighlightedClickableSpan highlightedClickableSpan;
 
+    private OnEntityClickListener entityClickListener;
+    private int highlightColor;
+    // the pressed EntityLinkSpan and the span highlighting it in the text of the view
+    private EntityLinkSpan selectedEntitySpan;
+    private BackgroundColorSpan entityHighlightSpan;
+    private Spannable entityHighlightText;
+
+    /**
+     * Receives the clicks on the {@link EntityLinkSpan}s of a text view.
+     */
+    public interface OnEntityClickListener {
+        /**
+         * Called when the span of an entity is clicked.
+         * @param entityIndex the index the span was created with
+         */
+        void onEntityClick(int entityIndex);
+    }
+
     public static void enableClicksOnSpans(TextView textView) {
         final SpanClickHandler helper = new SpanClickHandler(textView, null);
+        setOnTouchListener(textView, helper);
+    }
+
+    /**
+     * Dispatches clicks on the {@link EntityLinkSpan}s of the text view to the listener. The
+     * handler is enabled once per text view and handles any text set afterwards. The text may be
+     * shared with other views, a pressed span is highlighted in a {@link Spannable} copy of the
+     * text which is only made once a span is pressed.
+     * @return the handler, to update its highlight color
+     */
+    public static SpanClickHandler enableClicksOnEntities(TextView textView,
+            OnEntityClickListener listener) {
+        final SpanClickHandler helper = new SpanClickHandler(textView, null);
+        helper.entityClickListener = listener;
+        textView.setTag(R.id.tw__span_click_handler, helper);
+        setOnTouchListener(textView, helper);
+        return helper;
+    }
+
+    /**
+     * Returns the handler enabled on the view by
+     * {@link #enableClicksOnEntities(TextView, OnEntityClickListener)}, or null.
+     */
+    static SpanClickHandler getHandler(View view) {
+        final Object tag = view.getTag(R.id.tw__span_click_handler);
+        return tag instanceof SpanClickHandler ? (SpanClickHandler) tag : null;
+    }
+
+    private static void setOnTouchListener(TextView textView, final SpanClickHandler helper) {
         textView.setOnTouchListener((view, event) -> {
             final TextView textView1 = (TextView) view;
             final Layout layout = textView1.getLayout();
@@ -59,6 +111,19 @@ public class SpanClickHandler {
         this.layout = layout;
     }
 
+    /**
+     * Sets the background color of pressed {@link EntityLinkSpan}s.
+     */
+    public void setHighlightColor(int highlightColor) {
+        this.highlightColor = highlightColor;
+    }
+
+    void dispatchEntityClick(int entityIndex) {
+        if (entityClickListener != null) {
+            entityClickListener.onEntityClick(entityIndex);
+        }
+    }
+
     /**
      * Takes a motion event from the processing view and check for clicks on
      * any of the clickable spans in the layout.
@@ -73,6 +138,10 @@ public class SpanClickHandler {
         }
 
         final int action = (event.getAction() & MotionEvent.ACTION_MASK);
+        if (action == MotionEvent.ACTION_CANCEL) {
+            deselectSpan();
+            return false;
+        }
         final int x = (int) (event.getX() - left);
         final int y = (int) (event.getY() - top);
 
@@ -96,6 +165,12 @@ public class SpanClickHandler {
                 selectSpan(span[0]);
                 return true;
             }
+            final EntityLinkSpan[] entitySpan = spannedText.getSpans(offset, offset,
+                    EntityLinkSpan.class);
+            if (entitySpan.length > 0) {
+                selectEntitySpan(spannedText, entitySpan[0]);
+                return true;
+            }
         } else if (action == MotionEvent.ACTION_UP) {
             final HighlightedClickableSpan selectedSpan = highlightedClickableSpan;
             if (selectedSpan != null) {
@@ -103,6 +178,12 @@ public class SpanClickHandler {
                 deselectSpan();
                 return true;
             }
+            final EntityLinkSpan selectedEntity = selectedEntitySpan;
+            if (selectedEntity != null) {
+                deselectSpan();
+                dispatchEntityClick(selectedEntity.entityIndex);
+                return true;
+            }
         }
         return false;
     }
@@ -116,6 +197,30 @@ public class SpanClickHandler {
         invalidate();
     }
 
+    /**
+     * Selects the given entity span and highlights it. The span is shared, so the highlight is a
+     * separate span set on the text of this view. Text which can not be modified is replaced by
+     * a spannable copy holding the same spans first.
+     */
+    private void selectEntitySpan(Spanned text, EntityLinkSpan span) {
+        selectedEntitySpan = span;
+        if (!(text instanceof Spannable) && view instanceof TextView) {
+            final TextView textView = (TextView) view;
+            textView.setText(text, TextView.BufferType.SPANNABLE);
+            text = (Spanned) textView.getText();
+            if (textView.getLayout() != null) {
+                layout = textView.getLayout();
+            }
+        }
+        if (text instanceof Spannable) {
+            entityHighlightSpan = new BackgroundColorSpan(highlightColor);
+            entityHighlightText = (Spannable) text;
+            entityHighlightText.setSpan(entityHighlightSpan, text.getSpanStart(span),
+                    text.getSpanEnd(span), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+            invalidate();
+        }
+    }
+
     /**
      * Deselects the currently selected link, if there is one.
      */
@@ -126,6 +231,13 @@ public class SpanClickHandler {
             highlightedClickableSpan = null;
             invalidate();
         }
+        selectedEntitySpan = null;
+        if (entityHighlightSpan != null) {
+            entityHighlightText.removeSpan(entityHighlightSpan);
+            entityHighlightSpan = null;
+            entityHighlightText = null;
+            invalidate();
+        }
     }
 
     private void invalidate() {
@@ -17,20 +17,23 @@
 
 package com.twitter.sdk.android.tweetui.internal;
 
+import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.Intent;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Outline;
 import android.graphics.Path;
+import android.graphics.Rect;
 import android.graphics.RectF;
 import android.os.Build;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewOutlineProvider;
 import android.widget.ImageView;
 
-import com.squareup.picasso.Picasso;
 import com.twitter.sdk.android.core.IntentUtils;
 import com.twitter.sdk.android.core.internal.VineCardUtils;
 import com.twitter.sdk.android.core.models.Card;
@@ -39,6 +42,8 @@ import com.twitter.sdk.android.core.models.MediaEntity;
 import com.twitter.sdk.android.core.models.Tweet;
 import com.twitter.sdk.android.core.models.VideoInfo;
 import com.twitter.sdk.android.tweetui.GalleryActivity;
+import com.twitter.sdk.android.tweetui.ImageLoader;
+import com.twitter.sdk.android.tweetui.ImageRequest;
 import com.twitter.sdk.android.tweetui.PlayerActivity;
 import com.twitter.sdk.android.tweetui.R;
 import com.twitter.sdk.android.tweetui.TweetMediaClickListener;
@@ -51,21 +56,31 @@ import java.util.List;
 public class TweetMediaView extends ViewGroup implements View.OnClickListener {
 
     static final int MAX_IMAGE_VIEW_COUNT = 4;
-    static final String SIZED_IMAGE_SMALL = ":small";
 
     private final OverlayImageView[] imageViews = new OverlayImageView[MAX_IMAGE_VIEW_COUNT];
+    // media image requests loaded into the image views, made for the laid out size of the views
+    final ImageRequest[] imageRequests = new ImageRequest[MAX_IMAGE_VIEW_COUNT];
+    // preview image of the Vine card, or null
+    String vineImageUrl;
     private List<MediaEntity> mediaEntities = Collections.emptyList();
     private final Path path = new Path();
     private final RectF rect = new RectF();
+    private final Rect imageBounds = new Rect();
     private final int mediaDividerSize;
     private int imageCount;
     final float [] radii = new float[8];
+    // radius and outsets of the rounded rect outline drawing the radii, see computeOutline
+    float outlineRadius;
+    final Rect outlineOutsets = new Rect();
+    boolean clipsToOutline;
     int mediaBgColor = Color.BLACK;
     int photoErrorResId;
     final DependencyProvider dependencyProvider;
     boolean internalRoundedCornersEnabled;
     TweetMediaClickListener tweetMediaClickListener;
     Tweet tweet;
+    // tag of the image loads, or null
+    Object imageLoadTag;
 
     public TweetMediaView(Context context) {
         this(context, null);
@@ -82,6 +97,9 @@ public class TweetMediaView extends ViewGroup implements View.OnClickListener {
         mediaDividerSize = getResources().getDimensionPixelSize
                 (R.dimen.tw__media_view_divider_size);
         photoErrorResId = R.drawable.tw__ic_tweet_photo_error_dark;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            setOutlineProvider(new RoundedCornersOutlineProvider());
+        }
     }
 
     public void setRoundedCornersRadii(int topLeft, int topRight, int bottomRight, int bottomLeft) {
@@ -93,10 +111,64 @@ public class TweetMediaView extends ViewGroup implements View.OnClickListener {
         radii[5] = bottomRight;
         radii[6] = bottomLeft;
         radii[7] = bottomLeft;
+        outlineRadius = computeOutline(radii, outlineOutsets);
+        updateRoundedCorners();
 
         requestLayout();
     }
 
+    /**
+     * Computes the rounded rect outline which rounds the corners of the view to the radii. Corners
+     * which are not rounded are pushed out of the view by extending the outline past its sides.
+     * @param radii the corner radii, as passed to {@link Path#addRoundRect(RectF, float[],
+     *              Path.Direction)}
+     * @param outsets set to how far the outline extends past each side of the view
+     * @return the radius of the outline, 0 if no corner is rounded or -1 if the corners are not
+     * rounded to a single radius or cannot all be pushed out
+     */
+    static float computeOutline(float[] radii, Rect outsets) {
+        outsets.setEmpty();
+        float radius = 0;
+        for (int i = 0; i < radii.length; i += 2) {
+            if (radii[i] != radii[i + 1]) return -1;
+            if (radii[i] == 0) continue;
+            if (radius != 0 && radii[i] != radius) return -1;
+            radius = radii[i];
+        }
+        if (radius == 0) return 0;
+
+        final boolean topLeft = radii[0] != 0;
+        final boolean topRight = radii[2] != 0;
+        final boolean bottomRight = radii[4] != 0;
+        final boolean bottomLeft = radii[6] != 0;
+        final int outset = (int) Math.ceil(radius);
+        outsets.set(topLeft || bottomLeft ? 0 : outset, topLeft || topRight ? 0 : outset,
+                topRight || bottomRight ? 0 : outset, bottomLeft || bottomRight ? 0 : outset);
+
+        // each square corner needs one of its sides pushed out
+        if (!topLeft && outsets.left == 0 && outsets.top == 0
+                || !topRight && outsets.right == 0 && outsets.top == 0
+                || !bottomRight && outsets.right == 0 && outsets.bottom == 0
+                || !bottomLeft && outsets.left == 0 && outsets.bottom == 0) {
+            outsets.setEmpty();
+            return -1;
+        }
+        return radius;
+    }
+
+    /**
+     * Rounds the corners of photos by clipping to the outline where the platform supports it,
+     * which unlike path clipping is anti-aliased and done by the render thread. Other radii are
+     * clipped with the path in dispatchDraw.
+     */
+    void updateRoundedCorners() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            clipsToOutline = internalRoundedCornersEnabled && outlineRadius > 0;
+            setClipToOutline(clipsToOutline);
+            invalidateOutline();
+        }
+    }
+
     public void setMediaBgColor(int mediaBgColor) {
         this.mediaBgColor = mediaBgColor;
     }
@@ -109,6 +181,15 @@ public class TweetMediaView extends ViewGroup implements View.OnClickListener {
         this.photoErrorResId = photoErrorResId;
     }
 
+    /**
+     * Sets the tag of the image loads of the view, so they can be paused together with other
+     * image loads.
+     * @param imageLoadTag the tag passed to the image loader, or null
+     */
+    public void setImageLoadTag(Object imageLoadTag) {
+        this.imageLoadTag = imageLoadTag;
+    }
+
     @Override
     protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
         if (imageCount > 0) {
@@ -139,7 +220,7 @@ public class TweetMediaView extends ViewGroup implements View.OnClickListener {
 
     @Override
     protected void dispatchDraw(Canvas canvas) {
-        if (internalRoundedCornersEnabled &&
+        if (internalRoundedCornersEnabled && !clipsToOutline && outlineRadius != 0 &&
                 Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
             final int saveState = canvas.save();
             canvas.clipPath(path);
@@ -222,6 +303,7 @@ public class TweetMediaView extends ViewGroup implements View.OnClickListener {
         initializeImageViews(mediaEntities);
 
         internalRoundedCornersEnabled = TweetMediaUtils.isPhotoType(mediaEntities.get(0));
+        updateRoundedCorners();
 
         requestLayout();
     }
@@ -238,6 +320,7 @@ public class TweetMediaView extends ViewGroup implements View.OnClickListener {
         initializeImageViews(tweet.card);
 
         internalRoundedCornersEnabled = false;
+        updateRoundedCorners();
 
         requestLayout();
     }
@@ -279,31 +362,46 @@ public class TweetMediaView extends ViewGroup implements View.OnClickListener {
     }
 
     void layoutImages() {
-        final int width = getMeasuredWidth();
-        final int height = getMeasuredHeight();
+        for (int index = 0; index < imageCount; index++) {
+            getImageBounds(index, imageCount, getMeasuredWidth(), getMeasuredHeight(),
+                    imageBounds);
+            layoutImage(index, imageBounds.left, imageBounds.top, imageBounds.right,
+                    imageBounds.bottom);
+        }
+        setMediaImages();
+    }
+
+    /**
+     * Computes where the image at the index is laid out, when count images are laid out in a
+     * view of the given size.
+     */
+    void getImageBounds(int index, int count, int width, int height, Rect bounds) {
         final int halfWidth = (width - mediaDividerSize) / 2;
         final int halfHeight = (height - mediaDividerSize) / 2;
         final int middle = halfWidth + mediaDividerSize;
-        switch (imageCount) {
+        final int bottomTop = halfHeight + mediaDividerSize;
+        switch (count) {
             case 1:
-                layoutImage(0, 0, 0, width, height);
+                bounds.set(0, 0, width, height);
                 break;
             case 2:
-                layoutImage(0, 0, 0, halfWidth, height);
-                layoutImage(1, halfWidth + mediaDividerSize, 0, width, height);
+                bounds.set(index == 0 ? 0 : middle, 0, index == 0 ? halfWidth : width, height);
                 break;
             case 3:
-                layoutImage(0, 0, 0, halfWidth, height);
-                layoutImage(1, middle, 0, width, halfHeight);
-                layoutImage(2, middle, halfHeight + mediaDividerSize, width, height);
+                if (index == 0) {
+                    bounds.set(0, 0, halfWidth, height);
+                } else {
+                    bounds.set(middle, index == 1 ? 0 : bottomTop, width,
+                            index == 1 ? halfHeight : height);
+                }
                 break;
             case 4:
-                layoutImage(0, 0, 0, halfWidth, halfHeight);
-                layoutImage(2, 0, halfHeight + mediaDividerSize, halfWidth, height);
-                layoutImage(1, middle, 0, width, halfHeight);
-                layoutImage(3, middle, halfHeight + mediaDividerSize, width, height);
+                // images are numbered left to right, then top to bottom
+                bounds.set(index % 2 == 0 ? 0 : middle, index < 2 ? 0 : bottomTop,
+                        index % 2 == 0 ? halfWidth : width, index < 2 ? halfHeight : height);
                 break;
             default:
+                bounds.setEmpty();
                 break;
         }
     }
@@ -319,11 +417,17 @@ public class TweetMediaView extends ViewGroup implements View.OnClickListener {
     }
 
     void clearImageViews() {
+        final ImageLoader imageLoader = dependencyProvider.getImageLoader();
         for (int index = 0; index < imageCount; index++) {
             final ImageView imageView = imageViews[index];
             if (imageView != null) {
                 imageView.setVisibility(GONE);
+                // images of the previous media must not be delivered to the reused image views
+                if (imageLoader != null) {
+                    imageLoader.cancel(imageView);
+                }
             }
+            imageRequests[index] = null;
         }
         imageCount = 0;
     }
@@ -336,7 +440,7 @@ public class TweetMediaView extends ViewGroup implements View.OnClickListener {
 
             final MediaEntity mediaEntity = mediaEntities.get(index);
             setAltText(imageView, mediaEntity.altText);
-            setMediaImage(imageView, getSizedImagePath(mediaEntity));
+            // the image is loaded once the image view is laid out and its size is known
             setOverlayImage(imageView, TweetMediaUtils.isVideoType(mediaEntity));
         }
     }
@@ -348,7 +452,7 @@ public class TweetMediaView extends ViewGroup implements View.OnClickListener {
 
         final ImageValue imageValue = VineCardUtils.getImageValue(card);
         setAltText(imageView, imageValue.alt);
-        setMediaImage(imageView, imageValue.url);
+        vineImageUrl = imageValue.url;
         setOverlayImage(imageView, true);
     }
 
@@ -373,11 +477,31 @@ public class TweetMediaView extends ViewGroup implements View.OnClickListener {
     }
 
 
-    String getSizedImagePath(MediaEntity mediaEntity) {
-        if (imageCount > 1) {
-           return mediaEntity.mediaUrlHttps + SIZED_IMAGE_SMALL;
+    /**
+     * Loads the media images in the variant sized for the laid out image views, unless they are
+     * already loaded in that variant and size. Images of views which have no size yet are loaded
+     * once the views are laid out again.
+     */
+    void setMediaImages() {
+        for (int index = 0; index < imageCount; index++) {
+            final ImageView imageView = imageViews[index];
+            final int width = imageView.getWidth();
+            final int height = imageView.getHeight();
+            if (width == 0 || height == 0) continue;
+
+            final String imagePath = mediaEntities.isEmpty() ? vineImageUrl
+                    : getSizedImagePath(mediaEntities.get(index), width, height);
+            final ImageRequest request = createImageRequest(imagePath, width, height);
+            if (!request.equals(imageRequests[index])) {
+                imageRequests[index] = request;
+                setMediaImage(imageView, request);
+            }
         }
-        return mediaEntity.mediaUrlHttps;   // defaults to :medium
+    }
+
+    String getSizedImagePath(MediaEntity mediaEntity, int width, int height) {
+        return ImageVariants.getMediaUrl(mediaEntity, width, height,
+                dependencyProvider.getImageSizeBias());
     }
 
     void setAltText(ImageView imageView, String description) {
@@ -397,26 +521,53 @@ public class TweetMediaView extends ViewGroup implements View.OnClickListener {
         }
     }
 
-    void setMediaImage(ImageView imageView, String imagePath) {
-        final Picasso imageLoader = dependencyProvider.getImageLoader();
+    ImageRequest createImageRequest(String imagePath, int width, int height) {
+        return new ImageRequest.Builder(imagePath)
+                .resize(width, height)
+                .error(photoErrorResId)
+                .tag(imageLoadTag)
+                .build();
+    }
+
+    void setMediaImage(ImageView imageView, ImageRequest request) {
+        final ImageLoader imageLoader = dependencyProvider.getImageLoader();
         if (imageLoader == null) return;
 
-        imageLoader.load(imagePath)
-                .fit()
-                .centerCrop()
-                .error(photoErrorResId)
-                .into(imageView, new PicassoCallback(imageView));
+        imageLoader.load(request, imageView, new ImageLoadCallback(imageView));
+    }
+
+    /**
+     * Adds requests for the media images to requests, for the variants and sizes the view loads
+     * when showing the media at the given size. Fetching the requests puts the images in the
+     * caches the view loads them from.
+     * @param mediaEntities the photos, or video, of the Tweet
+     * @param width the width the media is shown at
+     * @param height the height the media is shown at
+     * @param requests the list to add the requests to
+     */
+    public void getImageRequests(List<MediaEntity> mediaEntities, int width, int height,
+            List<ImageRequest> requests) {
+        final int count = Math.min(MAX_IMAGE_VIEW_COUNT, mediaEntities.size());
+        final Rect bounds = new Rect();
+        for (int index = 0; index < count; index++) {
+            getImageBounds(index, count, width, height, bounds);
+            if (bounds.isEmpty()) continue;
+
+            final String imagePath = getSizedImagePath(mediaEntities.get(index), bounds.width(),
+                    bounds.height());
+            requests.add(createImageRequest(imagePath, bounds.width(), bounds.height()));
+        }
     }
 
     /**
-     * Picasso Callback which clears the ImageView's background onSuccess. This is done to reduce
-     * overdraw. A weak reference is used to avoid leaking the Activity context because the Callback
-     * will be strongly referenced by Picasso.
+     * ImageLoader Callback which clears the ImageView's background onSuccess. This is done to
+     * reduce overdraw. A weak reference is used to avoid leaking the Activity context because the
+     * Callback will be strongly referenced by the image loader.
      */
-    static class PicassoCallback implements com.squareup.picasso.Callback {
+    static class ImageLoadCallback implements ImageLoader.Callback {
         final WeakReference<ImageView> imageViewWeakReference;
 
-        PicassoCallback(ImageView imageView) {
+        ImageLoadCallback(ImageView imageView) {
             imageViewWeakReference = new WeakReference<>(imageView);
         }
 
@@ -432,6 +583,24 @@ public class TweetMediaView extends ViewGroup implements View.OnClickListener {
         public void onError() { /* intentionally blank */ }
     }
 
+    /**
+     * Outlines the view with the rounded rect computed by computeOutline. The outline follows the
+     * size of the view, the platform rebuilds it when the view is resized.
+     */
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    class RoundedCornersOutlineProvider extends ViewOutlineProvider {
+        @Override
+        public void getOutline(View view, Outline outline) {
+            if (outlineRadius > 0) {
+                outline.setRoundRect(-outlineOutsets.left, -outlineOutsets.top,
+                        view.getWidth() + outlineOutsets.right,
+                        view.getHeight() + outlineOutsets.bottom, outlineRadius);
+            } else {
+                outline.setRect(0, 0, view.getWidth(), view.getHeight());
+            }
+        }
+    }
+
     static class Size {
         static final Size EMPTY = new Size();
         final int width;
@@ -458,8 +627,12 @@ public class TweetMediaView extends ViewGroup implements View.OnClickListener {
         /**
          * Can be null if run before TweetUi#doInBackground completes
          */
-        Picasso getImageLoader() {
-            return TweetUi.getInstance().getImageLoader();
+        ImageLoader getImageLoader() {
+            return TweetUi.getInstance().getTweetImageLoader();
+        }
+
+        float getImageSizeBias() {
+            return TweetUi.getInstance().getImageSizeBias();
         }
     }
 }
@@ -17,8 +17,7 @@
 package com.twitter.sdk.android.tweetui.internal.util;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * <p>
@@ -874,7 +873,7 @@ public class HtmlEntities {
     };
 
     // package scoped for testing
-    final EntityMap map = new HtmlEntities.LookupEntityMap();
+    final EntityMap map = new HtmlEntities.TrieEntityMap();
 
     /*
      * static { XML = new Entities(); XML.addEntities(BASIC_ARRAY);
@@ -901,57 +900,163 @@ public class HtmlEntities {
         String name(int value);
 
         int value(String name);
+
+        int value(String str, int start, int end);
     }
 
-    static class PrimitiveEntityMap implements EntityMap {
-        @SuppressWarnings("unchecked")
-        private final Map mapNameToValue = new HashMap();
+    /**
+     * Entity map that looks names up in a trie, so a name can be matched in place inside a larger
+     * string. Entities are only collected by {@link #add(String, int)}, the trie is built on the
+     * first lookup and rebuilt if entities are added afterwards.
+     */
+    static class TrieEntityMap implements EntityMap {
+        private String[] names = new String[16];
+        private int[] values = new int[16];
+        private int size;
 
-        private final IntHashMap mapValueToName = new IntHashMap();
+        private volatile Trie trie;
+        private IntHashMap mapValueToName;
 
-        @SuppressWarnings("unchecked")
-        public void add(String name, int value) {
-            mapNameToValue.put(name, value);
-            mapValueToName.put(value, name);
+        public synchronized void add(String name, int value) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            names[size] = name;
+            values[size] = value;
+            size++;
+            trie = null;
+            mapValueToName = null;
         }
 
-        public String name(int value) {
+        public synchronized String name(int value) {
+            if (mapValueToName == null) {
+                mapValueToName = new IntHashMap(size);
+                for (int i = 0; i < size; i++) {
+                    mapValueToName.put(values[i], names[i]);
+                }
+            }
             return (String) mapValueToName.get(value);
         }
 
         public int value(String name) {
-            final Object value = mapNameToValue.get(name);
-            if (value == null) {
-                return -1;
+            return value(name, 0, name.length());
+        }
+
+        public int value(String str, int start, int end) {
+            Trie current = trie;
+            if (current == null) {
+                current = buildTrie();
             }
-            return ((Integer) value).intValue();
+            return current.value(str, start, end);
+        }
+
+        private synchronized Trie buildTrie() {
+            if (trie == null) {
+                trie = new Trie(names, values, size);
+            }
+            return trie;
         }
-    }
 
-    static class LookupEntityMap extends PrimitiveEntityMap {
-        private static final int LOOKUP_TABLE_SIZE = 256;
+        /**
+         * Immutable trie laid out in flat arrays. The edges leaving node n are
+         * edgeLabels[edgeOffsets[n]] to edgeLabels[edgeOffsets[n + 1] - 1], sorted by label.
+         */
+        static final class Trie {
+            private final int[] nodeValues;
+            private final int[] edgeOffsets;
+            private final char[] edgeLabels;
+            private final int[] edgeTargets;
 
-        private String[] lookupTable;
+            Trie(String[] names, int[] values, int size) {
+                // sort by name, keeping insertion order for duplicates so the last one wins
+                final Integer[] order = new Integer[size];
+                int chars = 0;
+                for (int i = 0; i < size; i++) {
+                    order[i] = i;
+                    chars += names[i].length();
+                }
+                Arrays.sort(order, (a, b) -> {
+                    final int result = names[a].compareTo(names[b]);
+                    return result != 0 ? result : a - b;
+                });
+
+                // every char adds at most one node and one edge
+                final int[] nodeValues = new int[chars + 1];
+                final int[] edgeOffsets = new int[chars + 2];
+                final char[] edgeLabels = new char[chars];
+                final int[] edgeTargets = new int[chars];
+                // the range of sorted names below each node, filled in when the node is created
+                final int[] rangeStarts = new int[chars + 1];
+                final int[] rangeEnds = new int[chars + 1];
+                rangeEnds[0] = size;
+                final int[] depths = new int[chars + 1];
+
+                // breadth first, so the edges of each node are contiguous
+                int nodes = 1;
+                int edges = 0;
+                for (int node = 0; node < nodes; node++) {
+                    nodeValues[node] = -1;
+                    edgeOffsets[node] = edges;
+                    final int depth = depths[node];
+                    int i = rangeStarts[node];
+                    final int end = rangeEnds[node];
+                    while (i < end) {
+                        final String name = names[order[i]];
+                        if (name.length() == depth) {
+                            nodeValues[node] = values[order[i]];
+                            i++;
+                            continue;
+                        }
+                        final char label = name.charAt(depth);
+                        final int child = nodes++;
+                        rangeStarts[child] = i;
+                        depths[child] = depth + 1;
+                        while (i < end && names[order[i]].length() > depth
+                                && names[order[i]].charAt(depth) == label) {
+                            i++;
+                        }
+                        rangeEnds[child] = i;
+                        edgeLabels[edges] = label;
+                        edgeTargets[edges] = child;
+                        edges++;
+                    }
+                }
+                edgeOffsets[nodes] = edges;
 
-        @Override
-        public String name(int value) {
-            if (value < LOOKUP_TABLE_SIZE) {
-                return lookupTable()[value];
+                this.nodeValues = Arrays.copyOf(nodeValues, nodes);
+                this.edgeOffsets = Arrays.copyOf(edgeOffsets, nodes + 1);
+                this.edgeLabels = Arrays.copyOf(edgeLabels, edges);
+                this.edgeTargets = Arrays.copyOf(edgeTargets, edges);
             }
-            return super.name(value);
-        }
 
-        private String[] lookupTable() {
-            if (lookupTable == null) {
-                createLookupTable();
+            int value(String str, int start, int end) {
+                int node = 0;
+                for (int i = start; i < end; i++) {
+                    final int edge = edge(node, str.charAt(i));
+                    if (edge < 0) {
+                        return -1;
+                    }
+                    node = edgeTargets[edge];
+                }
+                return nodeValues[node];
             }
-            return lookupTable;
-        }
 
-        private void createLookupTable() {
-            lookupTable = new String[LOOKUP_TABLE_SIZE];
-            for (int i = 0; i < LOOKUP_TABLE_SIZE; ++i) {
-                lookupTable[i] = super.name(i);
+            private int edge(int node, char label) {
+                int low = edgeOffsets[node];
+                int high = edgeOffsets[node + 1] - 1;
+                while (low <= high) {
+                    final int mid = (low + high) >>> 1;
+                    final char midLabel = edgeLabels[mid];
+                    if (midLabel < label) {
+                        low = mid + 1;
+                    } else if (midLabel > label) {
+                        high = mid - 1;
+                    } else {
+                        return mid;
+                    }
+                }
+                return -1;
             }
         }
     }
@@ -985,6 +1090,56 @@ public class HtmlEntities {
         return map.value(name);
     }
 
+    /**
+     * Returns the value of the named or numeric entity between start and end of str, without the
+     * surrounding &amp; and ;, or -1 if it is not an entity.
+     */
+    public int entityValue(String str, int start, int end) {
+        if (start >= end) {
+            return -1;
+        }
+        if (str.charAt(start) == '#' && end - start > 1) {
+            final char charAt1 = str.charAt(start + 1);
+            if (charAt1 == 'x' || charAt1 == 'X') {
+                return parseInt(str, start + 2, end, 16);
+            }
+            return parseInt(str, start + 1, end, 10);
+        }
+        return map.value(str, start, end);
+    }
+
+    /**
+     * Parses the digits between start and end of str the same way {@link Integer#parseInt(String,
+     * int)} would, without creating a substring. Returns -1 where parseInt would throw.
+     */
+    static int parseInt(String str, int start, int end, int radix) {
+        if (start >= end) {
+            return -1;
+        }
+        boolean negative = false;
+        int i = start;
+        final char first = str.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == end) {
+                return -1;
+            }
+        }
+        final long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long result = 0;
+        for (; i < end; i++) {
+            final int digit = Character.digit(str.charAt(i), radix);
+            if (digit < 0) {
+                return -1;
+            }
+            result = result * radix + digit;
+            if (result > limit) {
+                return -1;
+            }
+        }
+        return (int) (negative ? -result : result);
+    }
+
     /**
      * <p>
      * Unescapes the entities in a <code>String</code>.
@@ -1011,26 +1166,7 @@ public class HtmlEntities {
                     continue;
                 }
                 final String entityName = str.substring(i + 1, semi);
-                final int entityNameLength = entityName.length();
-                int entityValue = -1;
-                if (entityNameLength > 0) {
-                    if (entityName.charAt(0) == '#' && entityNameLength > 1) {
-                        final char charAt1 = entityName.charAt(1);
-                        try {
-                            if (charAt1 == 'x' || charAt1 == 'X') {
-                                if (entityNameLength > 2) {
-                                    entityValue = Integer.valueOf(entityName.substring(2), 16)
-                                            .intValue();
-                                }
-                            } else {
-                                entityValue = Integer.parseInt(entityName.substring(1));
-                            }
-                        } catch (Exception ignore) {
-                        }
-                    } else {
-                        entityValue = this.entityValue(entityName);
-                    }
-                }
+                final int entityValue = entityValue(str, i + 1, semi);
                 if (entityValue == -1) {
                     buf.append('&');
                     final int amp = entityName.indexOf('&');
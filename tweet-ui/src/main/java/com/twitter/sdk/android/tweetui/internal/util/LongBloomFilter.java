@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal.util;
+
+/**
+ * A Bloom filter of primitive longs. mightContain never returns false for an added key, and
+ * returns true for other keys with about the false positive rate given at construction. Its bit
+ * array is much smaller than a hash set of the same keys, so it stays in cache for large sets.
+ */
+public class LongBloomFilter {
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedSize the number of keys which will be added.
+     * @param falsePositiveRate the false positive rate at the expected size, between 0 and 1.
+     */
+    public LongBloomFilter(int expectedSize, double falsePositiveRate) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Illegal false positive rate: "
+                    + falsePositiveRate);
+        }
+        final int size = Math.max(expectedSize, 1);
+        final double ln2 = Math.log(2);
+        final long optimalBits =
+                (long) Math.ceil(-size * Math.log(falsePositiveRate) / (ln2 * ln2));
+        final int words = (int) Math.max(1, (optimalBits + 63) / 64);
+        bits = new long[words];
+        bitCount = words * 64L;
+        hashCount = Math.max(1, (int) Math.round((double) bitCount / size * ln2));
+    }
+
+    public void put(long key) {
+        final long hash1 = LongHashSet.mix(key);
+        final long hash2 = LongHashSet.mix(hash1) | 1L;
+        long combined = hash1;
+        for (int i = 0; i < hashCount; i++) {
+            final long bit = (combined & Long.MAX_VALUE) % bitCount;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+            combined += hash2;
+        }
+    }
+
+    public boolean mightContain(long key) {
+        final long hash1 = LongHashSet.mix(key);
+        final long hash2 = LongHashSet.mix(hash1) | 1L;
+        long combined = hash1;
+        for (int i = 0; i < hashCount; i++) {
+            final long bit = (combined & Long.MAX_VALUE) % bitCount;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+            combined += hash2;
+        }
+        return true;
+    }
+}
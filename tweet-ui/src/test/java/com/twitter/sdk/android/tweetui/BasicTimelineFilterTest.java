@@ -38,6 +38,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -197,6 +198,67 @@ public class BasicTimelineFilterTest {
         assertTrue(basicTimelineFilter.containsMatchingScreenName("EricFrohnhoefer"));
     }
 
+    @Test
+    public void testContainsMatchingUserId_withNoMatch() {
+        final BasicTimelineFilter filter = userIdFilter(Arrays.asList(11L, 12L));
+        final Tweet tweet = new TweetBuilder().setUser(new UserBuilder().setId(13L).build())
+                .build();
+
+        assertFalse(filter.containsMatchingUserId(tweet));
+    }
+
+    @Test
+    public void testContainsMatchingUserId_withAuthorMatch() {
+        final BasicTimelineFilter filter = userIdFilter(Arrays.asList(11L, 12L));
+        final Tweet tweet = new TweetBuilder().setUser(new UserBuilder().setId(12L).build())
+                .build();
+
+        assertTrue(filter.containsMatchingUserId(tweet));
+        assertTrue(filter.shouldFilterTweet(tweet));
+    }
+
+    @Test
+    public void testContainsMatchingUserId_withMentionMatch() {
+        final BasicTimelineFilter filter = userIdFilter(Arrays.asList(11L, 12L));
+        final MentionEntity entity = new MentionEntity(11L, "11", "Foo Bar", "FooBar", 0, 0);
+        final TweetEntities entities =
+                new TweetEntities(null, Collections.singletonList(entity), null, null, null);
+        final Tweet tweet = new TweetBuilder().setEntities(entities).build();
+
+        assertTrue(filter.containsMatchingUserId(tweet));
+    }
+
+    @Test
+    public void testContainsMatchingUserId_withRetweetedAndQuotedAuthorMatch() {
+        final BasicTimelineFilter filter = userIdFilter(Arrays.asList(11L, 12L));
+        final Tweet original = new TweetBuilder().setUser(new UserBuilder().setId(11L).build())
+                .build();
+
+        assertTrue(filter.containsMatchingUserId(
+                new TweetBuilder().setRetweetedStatus(original).build()));
+        assertTrue(filter.containsMatchingUserId(
+                new TweetBuilder().setQuotedStatus(original).build()));
+    }
+
+    @Test
+    public void testContainsMatchingUserId_withBloomFilter() {
+        final List<Long> userIds = new ArrayList<>();
+        for (long id = 1; id <= BasicTimelineFilter.BLOOM_FILTER_MIN_USER_IDS; id++) {
+            userIds.add(id * 3);
+        }
+        final BasicTimelineFilter filter = userIdFilter(userIds);
+
+        for (long id = 1; id <= BasicTimelineFilter.BLOOM_FILTER_MIN_USER_IDS; id++) {
+            assertTrue(filter.isFilteredUserId(id * 3));
+            assertFalse(filter.isFilteredUserId(id * 3 + 1));
+        }
+        assertEquals(userIds.size(), filter.totalFilters());
+    }
+
+    static BasicTimelineFilter userIdFilter(List<Long> userIds) {
+        return new BasicTimelineFilter(new FilterValues(null, null, null, null, userIds));
+    }
+
     @Test
     public void testNormalizeHandle() {
         String twitterHandle = "@twitter";
@@ -274,4 +336,18 @@ public class BasicTimelineFilterTest {
         final String normalizedUrl = BasicTimelineFilter.normalizeUrl(url);
         assertEquals(url, normalizedUrl);
     }
+
+    @Test
+    public void testIgnoreCaseComparator_comparesOnEachThread() throws Exception {
+        final BasicTimelineFilter.IgnoreCaseComparator comparator =
+                new BasicTimelineFilter.IgnoreCaseComparator(Locale.US);
+        final int[] result = new int[1];
+        final Thread thread = new Thread(() -> result[0] = comparator.compare("TWTR", "twtr"));
+        thread.start();
+        thread.join();
+
+        assertEquals(0, result[0]);
+        assertEquals(0, comparator.compare("twtr", "TWTR"));
+        assertTrue(comparator.compare("twtr", "twitter") > 0);
+    }
 }
@@ -37,6 +37,7 @@ import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.eq;
@@ -206,6 +207,25 @@ public class CollectionTimelineTest {
         assertTrue(tweets.isEmpty());
     }
 
+    @Test
+    public void testMapTweetToUsers_resolvedUsersAreNotCopied() {
+        // Tweets hold the same User instances as the user map, as when resolved while parsing
+        assertSame(TEST_TWEET_1, CollectionTimeline.mapTweetToUsers(TEST_TWEET_1, testUserMap));
+        assertSame(TEST_TWEET_QUOTE,
+                CollectionTimeline.mapTweetToUsers(TEST_TWEET_QUOTE, testUserMap));
+    }
+
+    @Test
+    public void testMapTweetToUsers_trimmedUsersAreResolved() {
+        final User trimmedUser = new UserBuilder().setId(TEST_USER_2.id).build();
+        final Tweet trimmedQuote = new TweetBuilder().setId(8585L).setUser(trimmedUser).build();
+        final Tweet trimmedTweet = new TweetBuilder().setId(858909L).setUser(trimmedUser)
+                .setQuotedStatus(trimmedQuote).build();
+        final Tweet tweet = CollectionTimeline.mapTweetToUsers(trimmedTweet, testUserMap);
+        assertSame(TEST_USER_2, tweet.user);
+        assertSame(TEST_USER_2, tweet.quotedStatus.user);
+    }
+
     @Test
     public void testGetTimelineCursor() {
         final TwitterCollection.Content contents
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.models.TweetBuilder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class FilterPipelineTest {
+    private static final int LARGE_PAGE_SIZE = 4 * FilterPipeline.CHUNK_SIZE + 3;
+
+    private ExecutorService executorService;
+    private BasicTimelineFilter basicTimelineFilter;
+
+    @Before
+    public void setUp() throws Exception {
+        executorService = Executors.newFixedThreadPool(2);
+        final FilterValues filterValues = new FilterValues(Arrays.asList("dummy"), null, null,
+                null);
+        basicTimelineFilter = new BasicTimelineFilter(filterValues);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testFilter_keepsOrder() {
+        final FilterPipeline pipeline = new FilterPipeline(basicTimelineFilter, executorService);
+        final List<Tweet> tweets = createTweets(1, 10);
+        final List<Tweet> filtered = pipeline.filter(tweets);
+        assertEquals(expectedTweets(tweets), filtered);
+    }
+
+    @Test
+    public void testFilter_largePageMatchesSequentialFilter() {
+        final FilterPipeline pipeline = new FilterPipeline(basicTimelineFilter, executorService);
+        final List<Tweet> tweets = createTweets(1, LARGE_PAGE_SIZE);
+        assertEquals(basicTimelineFilter.filter(tweets), pipeline.filter(tweets));
+    }
+
+    @Test
+    public void testFilter_cachesVerdicts() {
+        final CountingFilter countingFilter = new CountingFilter(basicTimelineFilter);
+        final FilterPipeline pipeline = new FilterPipeline(countingFilter, executorService);
+        final List<Tweet> tweets = createTweets(1, 10);
+        pipeline.filter(tweets);
+        assertEquals(tweets.size(), countingFilter.evaluated);
+
+        // a refresh with 5 new Tweets only evaluates the new Tweets
+        final List<Tweet> refreshed = createTweets(6, 15);
+        final List<Tweet> filtered = pipeline.filter(refreshed);
+        assertEquals(tweets.size() + 5, countingFilter.evaluated);
+        assertEquals(expectedTweets(refreshed), filtered);
+    }
+
+    @Test
+    public void testFilter_developerFilterIsNotChunked() {
+        final CountingFilter countingFilter = new CountingFilter(basicTimelineFilter);
+        final FilterPipeline pipeline = new FilterPipeline(countingFilter, executorService);
+        pipeline.filter(createTweets(1, LARGE_PAGE_SIZE));
+        assertEquals(1, countingFilter.calls);
+    }
+
+    @Test
+    public void testGetStats() {
+        final FilterPipeline pipeline = new FilterPipeline(basicTimelineFilter, executorService);
+        pipeline.filter(createTweets(1, 10));
+        pipeline.filter(createTweets(1, 10));
+        final TimelineFilterStats stats = pipeline.getStats();
+        assertEquals(20, stats.tweetCount);
+        // every third Tweet contains the muted keyword
+        assertEquals(6, stats.tweetsFiltered);
+        assertEquals(1, stats.totalFilters);
+        assertEquals(10, stats.cacheHits);
+    }
+
+    @Test
+    public void testIsThreadSafe() {
+        assertTrue(FilterPipeline.isThreadSafe(basicTimelineFilter));
+        assertFalse(FilterPipeline.isThreadSafe(new CountingFilter(basicTimelineFilter)));
+    }
+
+    /**
+     * Creates Tweets with ids from first to last, every third Tweet contains a muted keyword.
+     */
+    private static List<Tweet> createTweets(int first, int last) {
+        final List<Tweet> tweets = new ArrayList<>();
+        for (int id = first; id <= last; id++) {
+            final String text = id % 3 == 0 ? "some dummy text" : "some other text";
+            tweets.add(new TweetBuilder().setId(id).setText(text).build());
+        }
+        return tweets;
+    }
+
+    private static List<Tweet> expectedTweets(List<Tweet> tweets) {
+        final List<Tweet> expected = new ArrayList<>();
+        for (Tweet tweet : tweets) {
+            if (tweet.id % 3 != 0) {
+                expected.add(tweet);
+            }
+        }
+        return expected;
+    }
+
+    static class CountingFilter implements TimelineFilter {
+        final TimelineFilter delegate;
+        int calls;
+        int evaluated;
+
+        CountingFilter(TimelineFilter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public List<Tweet> filter(List<Tweet> tweets) {
+            calls++;
+            evaluated += tweets.size();
+            return delegate.filter(tweets);
+        }
+
+        @Override
+        public int totalFilters() {
+            return delegate.totalFilters();
+        }
+    }
+}
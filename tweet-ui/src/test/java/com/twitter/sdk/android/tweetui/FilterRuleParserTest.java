@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+public class FilterRuleParserTest {
+
+    @Test
+    public void testParse_withWord() {
+        final FilterRule rule = parse("Spoiler");
+
+        assertTrue(rule instanceof FilterRule.TextRule);
+        assertEquals("spoiler", ((FilterRule.TextRule) rule).text);
+    }
+
+    @Test
+    public void testParse_withOperators() {
+        assertTrue(parse("from:@HBO") instanceof FilterRule.AuthorRule);
+        assertEquals("hbo", ((FilterRule.AuthorRule) parse("from:@HBO")).screenName);
+        assertEquals("hbo", ((FilterRule.MentionRule) parse("＠HBO")).screenName);
+        assertEquals("tbt", ((FilterRule.HashtagRule) parse("#TBT")).hashtag);
+        assertEquals("twtr", ((FilterRule.SymbolRule) parse("$TWTR")).symbol);
+        assertEquals("beevil.net", ((FilterRule.HostRule) parse("url:BeEvil.net")).host);
+    }
+
+    @Test
+    public void testParse_withImplicitAnd() {
+        final FilterRule rule = parse("a -b");
+
+        assertTrue(rule instanceof FilterRule.AndRule);
+        assertEquals(2, ((FilterRule.AndRule) rule).rules.length);
+    }
+
+    @Test
+    public void testParse_ordersCheapestFirst() {
+        final FilterRule.OrRule rule = (FilterRule.OrRule) parse("/x/ OR word OR #tag");
+
+        assertTrue(rule.rules[0] instanceof FilterRule.HashtagRule);
+        assertTrue(rule.rules[1] instanceof FilterRule.TextRule);
+        assertTrue(rule.rules[2] instanceof FilterRule.RegexRule);
+    }
+
+    @Test
+    public void testParse_withEscapedDelimiters() {
+        assertEquals("a\"b", ((FilterRule.TextRule) parse("\"a\\\"b\"")).text);
+        assertEquals("a/b", ((FilterRule.RegexRule) parse("/a\\/b/")).pattern.pattern());
+    }
+
+    @Test
+    public void testParse_withLowerCaseOperatorWords() {
+        final FilterRule rule = parse("not or and");
+
+        assertTrue(rule instanceof FilterRule.AndRule);
+        assertEquals(3, ((FilterRule.AndRule) rule).rules.length);
+    }
+
+    @Test
+    public void testParse_withMalformedRules() {
+        final String[] malformed = {"", "  ", "(a", "a)", "\"a", "\"\"", "/a", "/(/", "from:",
+                "a OR", "NOT", "#"};
+        for (String rule : malformed) {
+            try {
+                parse(rule);
+                fail("expected failure for " + rule);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    static FilterRule parse(String rule) {
+        return new FilterRuleParser(rule, Locale.US).parse();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.Result;
+
+import org.junit.Test;
+
+import okhttp3.Headers;
+import retrofit2.Response;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FilterTimelineDelegateTest {
+
+    @Test
+    public void testHasRemainingRequests_withoutResponse() {
+        assertTrue(FilterTimelineDelegate.hasRemainingRequests(new Result<>(null, null)));
+    }
+
+    @Test
+    public void testHasRemainingRequests_withoutRateLimit() {
+        assertTrue(FilterTimelineDelegate.hasRemainingRequests(result(Headers.of())));
+    }
+
+    @Test
+    public void testHasRemainingRequests_aboveReserve() {
+        final Headers headers = Headers.of("x-rate-limit-limit", "180",
+                "x-rate-limit-remaining", "3");
+        assertTrue(FilterTimelineDelegate.hasRemainingRequests(result(headers)));
+    }
+
+    @Test
+    public void testHasRemainingRequests_withinReserve() {
+        final Headers headers = Headers.of("x-rate-limit-limit", "180",
+                "x-rate-limit-remaining", "2");
+        assertFalse(FilterTimelineDelegate.hasRemainingRequests(result(headers)));
+    }
+
+    static Result<Object> result(Headers headers) {
+        return new Result<>(null, Response.success(null, headers));
+    }
+}
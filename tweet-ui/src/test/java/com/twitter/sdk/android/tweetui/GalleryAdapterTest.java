@@ -38,6 +38,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.verify;
 
 @RunWith(RobolectricTestRunner.class)
@@ -50,13 +52,15 @@ public class GalleryAdapterTest {
     View view;
     @Mock
     ViewGroup container;
+    @Mock
+    ImageLoader imageLoader;
     GalleryAdapter subject;
 
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
 
-        subject = new GalleryAdapter(RuntimeEnvironment.application, callback);
+        subject = new GalleryAdapter(RuntimeEnvironment.application, callback, imageLoader);
     }
 
     @Test
@@ -87,6 +91,7 @@ public class GalleryAdapterTest {
 
         assertNotNull(result);
         verify(container).addView(result);
+        verify(imageLoader).load(any(ImageRequest.class), eq(result));
     }
 
     @Test
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.twitter.sdk.android.tweetui;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ImageRequestTest {
+    private static final String URL = "https://pbs.twimg.com/media/image.jpg:small";
+
+    @Test
+    public void testEquals() {
+        final Object tag = new Object();
+        assertEquals(new ImageRequest.Builder(URL).resize(300, 200).tag(tag).build(),
+                new ImageRequest.Builder(URL).resize(300, 200).tag(tag).build());
+        assertEquals(new ImageRequest.Builder(null).build(),
+                new ImageRequest.Builder(null).build());
+        assertEquals(new ImageRequest.Builder(URL).build().hashCode(),
+                new ImageRequest.Builder(URL).build().hashCode());
+
+        assertNotEquals(new ImageRequest.Builder(URL).resize(300, 200).build(),
+                new ImageRequest.Builder(URL).resize(301, 200).build());
+        assertNotEquals(new ImageRequest.Builder(URL).build(),
+                new ImageRequest.Builder(URL).tag(new Object()).build());
+        assertNotEquals(new ImageRequest.Builder(URL).build(),
+                new ImageRequest.Builder(null).build());
+    }
+
+    @Test
+    public void testIsResized() {
+        assertTrue(new ImageRequest.Builder(URL).resize(1, 1).build().isResized());
+        assertFalse(new ImageRequest.Builder(URL).build().isResized());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testResize_invalidSize() {
+        new ImageRequest.Builder(URL).resize(0, 200);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.text.BreakIterator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class KeywordMatcherTest {
+    static final List<String> KEYWORDS = Arrays.asList("dummy", "darn", "foobar", "Café",
+            "naïve", "he", "she", "hers", "don't", "über", "東京", "C", "x");
+    static final List<String> TEXTS = Arrays.asList(
+            "Lorem Ipsum is simply dummy text of the printing and typesetting industry.",
+            "Lorem ipsum dolor sit amet, consectetur adipiscing elit.",
+            "DUMMY", "dummyish", "undummy", "dumm", "Darn!", "darned", "#foobar", "@foobar",
+            "http://foobar.com/darn", "foobar.", "(foobar)", "meet me at the cafe",
+            "meet me at the CAFÉ", "meet me at the café later", "cafes", "naive", "NAÏVE",
+            "ushers", "she sells", "he", "hershey", "hers", "Don't", "dont", "don't!", "ÜBER",
+            "uber alles", "Überall", "我在東京", "東京", "C++", "C#", "ABC", "x-ray", "x", "xx",
+            "", " ", "😀 dummy 😀", "😀dummy😀", "dummy\ndarn", "ﬁ", "fi");
+
+    @Test
+    public void testMatches_withNoKeywords() {
+        final KeywordMatcher matcher =
+                new KeywordMatcher(Collections.<String>emptyList(), Locale.US);
+
+        assertFalse(matcher.matches("dummy"));
+        assertEquals(0, matcher.size());
+    }
+
+    @Test
+    public void testMatches_withNullText() {
+        final KeywordMatcher matcher = new KeywordMatcher(KEYWORDS, Locale.US);
+
+        assertFalse(matcher.matches(null));
+    }
+
+    @Test
+    public void testMatches_ignoresCaseAndDiacritics() {
+        final KeywordMatcher matcher = new KeywordMatcher(Arrays.asList("café"), Locale.US);
+
+        assertTrue(matcher.matches("CAFE"));
+        assertTrue(matcher.matches("Café"));
+        assertTrue(matcher.matches("café au lait"));
+        assertFalse(matcher.matches("cafeteria"));
+    }
+
+    @Test
+    public void testMatches_withOverlappingKeywords() {
+        final KeywordMatcher matcher =
+                new KeywordMatcher(Arrays.asList("he", "she", "his", "hers"), Locale.US);
+
+        assertTrue(matcher.matches("ushers and she"));
+        assertTrue(matcher.matches("is it hers"));
+        assertFalse(matcher.matches("ushers"));
+    }
+
+    @Test
+    public void testMatches_withPhrase() {
+        final KeywordMatcher matcher = new KeywordMatcher(Arrays.asList("new york"), Locale.US);
+
+        // keywords match single words, phrases span several
+        assertFalse(matcher.matches("new york"));
+        assertFalse(matcher.matches("New York"));
+    }
+
+    @Test
+    public void testMatches_withTurkishLocale() {
+        final Locale turkish = new Locale("tr", "TR");
+        final KeywordMatcher matcher = new KeywordMatcher(Arrays.asList("istanbul"), turkish);
+
+        assertTrue(matcher.matches("İSTANBUL"));
+        assertFalse(matcher.matches("ISTANBUL"));
+    }
+
+    @Test
+    public void testSize_countsFoldedDuplicatesOnce() {
+        final KeywordMatcher matcher =
+                new KeywordMatcher(Arrays.asList("Dummy", "dummy", "DÜMMY", ""), Locale.US);
+
+        assertEquals(1, matcher.size());
+    }
+
+    @Test
+    public void testMatches_agreesWithWordLookup() {
+        for (Locale locale : Arrays.asList(Locale.US, Locale.GERMANY, Locale.JAPAN)) {
+            final KeywordMatcher matcher = new KeywordMatcher(KEYWORDS, locale);
+            for (String text : TEXTS) {
+                assertEquals(locale + " " + text,
+                        containsWord(KEYWORDS, locale, text), matcher.matches(text));
+            }
+        }
+    }
+
+    @Test
+    public void testMatches_reusesSourcesAcrossTexts() {
+        final KeywordMatcher matcher = new KeywordMatcher(KEYWORDS, Locale.US);
+        final StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            longText.append("Lorem ipsum ");
+        }
+
+        assertTrue(matcher.matches(longText + "naïve"));
+        assertFalse(matcher.matches(longText.toString()));
+        assertTrue(matcher.matches("CAFÉ"));
+        assertFalse(matcher.matches("cafes"));
+    }
+
+    @Test
+    public void testFoldCodePoint_cachesFolds() {
+        final KeywordMatcher matcher = new KeywordMatcher(KEYWORDS, Locale.US);
+
+        assertEquals("e", matcher.foldCodePoint('É'));
+        assertSame(matcher.foldCodePoint('É'), matcher.foldCodePoint('É'));
+        assertEquals("", matcher.foldCodePoint('\u0301'));
+        assertEquals("😀", matcher.foldCodePoint("😀".codePointAt(0)));
+    }
+
+    /**
+     * Word by word lookup the matcher replaced, kept as the reference semantics.
+     */
+    static boolean containsWord(List<String> keywords, Locale locale, String text) {
+        final Set<String> keywordSet =
+                new TreeSet<>(new BasicTimelineFilter.IgnoreCaseComparator(locale));
+        keywordSet.addAll(keywords);
+
+        final BreakIterator wordIterator = BreakIterator.getWordInstance(locale);
+        wordIterator.setText(text);
+        int start = wordIterator.first();
+        for (int end = wordIterator.next();
+             end != BreakIterator.DONE;
+             start = end, end = wordIterator.next()) {
+            if (keywordSet.contains(text.substring(start, end))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.Callback;
+import com.twitter.sdk.android.core.Result;
+import com.twitter.sdk.android.core.TwitterException;
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.models.TweetBuilder;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class MergedTimelineTest {
+    private static final int PAGE_SIZE = 2;
+    private static final int MAX_ITEMS_PER_REQUEST = 3;
+    private static final TwitterException TEST_TWITTER_EXCEPTION =
+            new TwitterException("Some exception");
+
+    @Test
+    public void testBuilder_noTimelines() {
+        try {
+            new MergedTimeline.Builder().build();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("must add at least one timeline", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testNext_mergesNewerThanEverySourcePage() {
+        final MergedTimeline timeline = new MergedTimeline(Arrays.asList(
+                new FakeTweetTimeline(10, 8, 6, 4),
+                new FakeTweetTimeline(9, 5, 3)), MAX_ITEMS_PER_REQUEST);
+        // pages are [10, 8] and [9, 5], Tweets older than 8 could be missing from the first source
+        assertEquals(Arrays.asList(10L, 9L, 8L), ids(loadNext(timeline, null)));
+    }
+
+    @Test
+    public void testNext_withSinceIdPagesSourcesBehind() {
+        final FakeTweetTimeline first = new FakeTweetTimeline(10, 8, 6, 4);
+        final FakeTweetTimeline second = new FakeTweetTimeline(9, 5, 3);
+        final MergedTimeline timeline =
+                new MergedTimeline(Arrays.asList(first, second), MAX_ITEMS_PER_REQUEST);
+        // pages are [10, 8] and [9, 5], the first source is paged once to [6, 4] so Tweets 6 and 5
+        // are not cut off, merging stops once the second source drains
+        assertEquals(Arrays.asList(10L, 9L, 8L, 6L, 5L), ids(loadNext(timeline, 3L)));
+        assertEquals(1, first.previousCount);
+        assertEquals(0, second.previousCount);
+    }
+
+    @Test
+    public void testNext_withSinceIdPagesDenseSourceOnce() {
+        final FakeTweetTimeline dense = new FakeTweetTimeline(20, 19, 18, 17, 16, 15, 14, 13, 12);
+        final FakeTweetTimeline sparse = new FakeTweetTimeline(21, 11, 2);
+        final MergedTimeline timeline =
+                new MergedTimeline(Arrays.asList(dense, sparse), MAX_ITEMS_PER_REQUEST);
+        // the dense source would need four more pages to reach Tweet 11, it is paged once and the
+        // Tweets newer than its oldest loaded Tweet are returned
+        assertEquals(Arrays.asList(21L, 20L, 19L, 18L, 17L), ids(loadNext(timeline, 1L)));
+        assertEquals(1, dense.previousCount);
+        assertEquals(0, sparse.previousCount);
+
+        // the next request continues from the newest returned Tweet
+        assertTrue(ids(loadNext(timeline, 21L)).isEmpty());
+    }
+
+    @Test
+    public void testCompareIds() {
+        assertTrue(MergedTimeline.compareIds(1L, Long.MAX_VALUE) < 0);
+        assertEquals(0, MergedTimeline.compareIds(5L, 5L));
+        assertTrue(MergedTimeline.compareIds(Long.MAX_VALUE, 1L) > 0);
+    }
+
+    @Test
+    public void testNext_removesDuplicates() {
+        final MergedTimeline timeline = new MergedTimeline(Arrays.asList(
+                new FakeTweetTimeline(10, 8),
+                new FakeTweetTimeline(10, 8)), MAX_ITEMS_PER_REQUEST);
+        assertEquals(Arrays.asList(10L, 8L), ids(loadNext(timeline, null)));
+    }
+
+    @Test
+    public void testPrevious_continuesAfterNext() {
+        final FakeTweetTimeline first = new FakeTweetTimeline(10, 8, 6, 4);
+        final FakeTweetTimeline second = new FakeTweetTimeline(9, 5, 3);
+        final MergedTimeline timeline =
+                new MergedTimeline(Arrays.asList(first, second), MAX_ITEMS_PER_REQUEST);
+        final List<Long> all = new ArrayList<>(ids(loadNext(timeline, null)));
+        Long position = all.get(all.size() - 1);
+        List<Tweet> page;
+        while (!(page = loadPrevious(timeline, position)).isEmpty()) {
+            all.addAll(ids(page));
+            position = page.get(page.size() - 1).id;
+        }
+        assertEquals(Arrays.asList(10L, 9L, 8L, 6L, 5L, 4L, 3L), all);
+        // leftovers from next are reused instead of reloaded
+        assertEquals(2, first.previousCount);
+        assertEquals(2, second.previousCount);
+    }
+
+    @Test
+    public void testPrevious_resetsForUnknownPosition() {
+        final MergedTimeline timeline = new MergedTimeline(Arrays.asList(
+                new FakeTweetTimeline(10, 8, 6, 4),
+                new FakeTweetTimeline(9, 5, 3)), MAX_ITEMS_PER_REQUEST);
+        // pages are [4] and [5, 3], Tweet 3 waits until the first source loads its next page
+        assertEquals(Arrays.asList(5L, 4L), ids(loadPrevious(timeline, 6L)));
+    }
+
+    @Test
+    public void testPrevious_failureKeepsLoadedSources() {
+        final FakeTweetTimeline first = new FakeTweetTimeline(10, 8, 6, 4);
+        final FakeTweetTimeline second = new FakeTweetTimeline(9, 5, 3);
+        second.fail = true;
+        final MergedTimeline timeline =
+                new MergedTimeline(Arrays.asList(first, second), MAX_ITEMS_PER_REQUEST);
+        final Callback<TimelineResult<Tweet>> mockCallback = mock(Callback.class);
+        timeline.previous(null, mockCallback);
+        verify(mockCallback).failure(TEST_TWITTER_EXCEPTION);
+
+        second.fail = false;
+        assertEquals(Arrays.asList(10L, 9L, 8L), ids(loadPrevious(timeline, null)));
+        assertEquals(1, first.previousCount);
+        assertEquals(2, second.previousCount);
+    }
+
+    @Test
+    public void testMerge_stopsAtDrainedSource() {
+        final MergedTimeline.Source first = new MergedTimeline.Source(null, null);
+        first.buffer.addAll(tweets(10, 8));
+        final MergedTimeline.Source second = new MergedTimeline.Source(null, null);
+        second.buffer.addAll(tweets(9, 5));
+        final List<Tweet> merged =
+                MergedTimeline.merge(Arrays.asList(first, second), Integer.MAX_VALUE, null);
+        assertEquals(Arrays.asList(10L, 9L, 8L), ids(merged));
+        // the remaining Tweet stays buffered for the next merge
+        assertEquals(5L, second.buffer.peekFirst().id);
+    }
+
+    @Test
+    public void testMerge_exhaustedSourceDoesNotStop() {
+        final MergedTimeline.Source first = new MergedTimeline.Source(null, null);
+        first.buffer.addAll(tweets(10, 8));
+        first.exhausted = true;
+        final MergedTimeline.Source second = new MergedTimeline.Source(null, null);
+        second.buffer.addAll(tweets(9, 5));
+        second.exhausted = true;
+        final List<Tweet> merged =
+                MergedTimeline.merge(Arrays.asList(first, second), Integer.MAX_VALUE, null);
+        assertEquals(Arrays.asList(10L, 9L, 8L, 5L), ids(merged));
+        assertTrue(second.buffer.isEmpty());
+    }
+
+    @Test
+    public void testMerge_respectsLimitAndMaxId() {
+        final MergedTimeline.Source source = new MergedTimeline.Source(null, null);
+        source.buffer.addAll(tweets(10, 9, 8, 7));
+        source.exhausted = true;
+        final List<Tweet> merged = MergedTimeline.merge(Arrays.asList(source), PAGE_SIZE, 10L);
+        assertEquals(Arrays.asList(9L, 8L), ids(merged));
+    }
+
+    private static List<Tweet> loadNext(MergedTimeline timeline, Long sinceId) {
+        final List<Tweet> received = new ArrayList<>();
+        timeline.next(sinceId, new CollectingCallback(received));
+        return received;
+    }
+
+    private static List<Tweet> loadPrevious(MergedTimeline timeline, Long maxId) {
+        final List<Tweet> received = new ArrayList<>();
+        timeline.previous(maxId, new CollectingCallback(received));
+        return received;
+    }
+
+    private static List<Tweet> tweets(long... ids) {
+        final List<Tweet> tweets = new ArrayList<>();
+        for (long id : ids) {
+            tweets.add(new TweetBuilder().setId(id).build());
+        }
+        return tweets;
+    }
+
+    private static List<Long> ids(List<Tweet> tweets) {
+        final List<Long> ids = new ArrayList<>();
+        for (Tweet tweet : tweets) {
+            ids.add(tweet.id);
+        }
+        return ids;
+    }
+
+    static class CollectingCallback extends Callback<TimelineResult<Tweet>> {
+        final List<Tweet> received;
+
+        CollectingCallback(List<Tweet> received) {
+            this.received = received;
+        }
+
+        @Override
+        public void success(Result<TimelineResult<Tweet>> result) {
+            received.addAll(result.data.items);
+        }
+
+        @Override
+        public void failure(TwitterException exception) {
+            fail("Expected MergedTimeline to succeed.");
+        }
+    }
+
+    /**
+     * Timeline which synchronously pages through a fixed set of Tweet ids, newest first.
+     */
+    static class FakeTweetTimeline implements Timeline<Tweet> {
+        final List<Tweet> tweets;
+        int previousCount;
+        boolean fail;
+
+        FakeTweetTimeline(long... ids) {
+            tweets = tweets(ids);
+        }
+
+        @Override
+        public void next(Long sinceId, Callback<TimelineResult<Tweet>> cb) {
+            final List<Tweet> page = new ArrayList<>();
+            for (Tweet tweet : tweets) {
+                if (page.size() < PAGE_SIZE && (sinceId == null || tweet.id > sinceId)) {
+                    page.add(tweet);
+                }
+            }
+            respond(page, cb);
+        }
+
+        @Override
+        public void previous(Long maxId, Callback<TimelineResult<Tweet>> cb) {
+            previousCount++;
+            final List<Tweet> page = new ArrayList<>();
+            for (Tweet tweet : tweets) {
+                if (page.size() < PAGE_SIZE && (maxId == null || tweet.id < maxId)) {
+                    page.add(tweet);
+                }
+            }
+            respond(page, cb);
+        }
+
+        void respond(List<Tweet> page, Callback<TimelineResult<Tweet>> cb) {
+            if (fail) {
+                cb.failure(TEST_TWITTER_EXCEPTION);
+            } else {
+                cb.success(new Result<>(new TimelineResult<>(new TimelineCursor(page), page),
+                        null));
+            }
+        }
+    }
+}
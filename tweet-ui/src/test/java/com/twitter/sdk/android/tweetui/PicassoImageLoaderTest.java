@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.twitter.sdk.android.tweetui;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.widget.ImageView;
+
+import com.squareup.picasso.Cache;
+import com.squareup.picasso.Picasso;
+import com.squareup.picasso.RequestCreator;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricTestRunner.class)
+public class PicassoImageLoaderTest {
+    private static final String URL = "https://pbs.twimg.com/media/image.jpg:small";
+
+    private Picasso mockPicasso;
+    private RequestCreator mockRequestCreator;
+    private Cache mockCache;
+    private PicassoImageLoader imageLoader;
+
+    @Before
+    public void setUp() throws Exception {
+        mockPicasso = mock(Picasso.class);
+        mockRequestCreator = mock(RequestCreator.class);
+        when(mockPicasso.load(URL)).thenReturn(mockRequestCreator);
+        when(mockPicasso.load((String) isNull())).thenReturn(mockRequestCreator);
+        when(mockRequestCreator.resize(anyInt(), anyInt())).thenReturn(mockRequestCreator);
+        when(mockRequestCreator.centerCrop()).thenReturn(mockRequestCreator);
+        when(mockRequestCreator.placeholder(any(Drawable.class))).thenReturn(mockRequestCreator);
+        when(mockRequestCreator.error(anyInt())).thenReturn(mockRequestCreator);
+        when(mockRequestCreator.tag(any())).thenReturn(mockRequestCreator);
+        mockCache = mock(Cache.class);
+        imageLoader = new PicassoImageLoader(mockPicasso, mockCache);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_nullPicasso() {
+        new PicassoImageLoader(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreate_invalidMemoryBudget() {
+        PicassoImageLoader.create(RuntimeEnvironment.application, 0);
+    }
+
+    @Test
+    public void testLoad_appliesRequest() {
+        final Drawable placeholder = new ColorDrawable();
+        final Object tag = new Object();
+        final ImageView imageView = mock(ImageView.class);
+        imageLoader.load(new ImageRequest.Builder(URL).resize(300, 200).placeholder(placeholder)
+                .error(R.drawable.tw__ic_tweet_photo_error_dark).tag(tag).build(), imageView,
+                null);
+
+        verify(mockRequestCreator).resize(300, 200);
+        verify(mockRequestCreator).centerCrop();
+        verify(mockRequestCreator).placeholder(placeholder);
+        verify(mockRequestCreator).error(R.drawable.tw__ic_tweet_photo_error_dark);
+        verify(mockRequestCreator).tag(tag);
+        verify(mockRequestCreator).into(imageView, null);
+    }
+
+    @Test
+    public void testLoad_withoutOptions() {
+        final ImageView imageView = mock(ImageView.class);
+        imageLoader.load(new ImageRequest.Builder(URL).build(), imageView, null);
+
+        verify(mockRequestCreator, never()).resize(anyInt(), anyInt());
+        verify(mockRequestCreator, never()).tag(any());
+        verify(mockRequestCreator).into(imageView, null);
+    }
+
+    @Test
+    public void testLoad_reusesTargetAdapter() {
+        final ImageLoader.Target target = mock(ImageLoader.Target.class);
+        imageLoader.load(new ImageRequest.Builder(URL).build(), target);
+        final PicassoImageLoader.PicassoTarget picassoTarget = imageLoader.targets.get(target);
+        verify(mockRequestCreator).into(picassoTarget);
+
+        imageLoader.load(new ImageRequest.Builder(URL).build(), target);
+        assertEquals(1, imageLoader.targets.size());
+        assertSame(picassoTarget, imageLoader.targets.get(target));
+    }
+
+    @Test
+    public void testPrefetch_withoutUrl() {
+        final ImageLoader.Callback callback = mock(ImageLoader.Callback.class);
+        imageLoader.prefetch(new ImageRequest.Builder(null).build(), callback);
+
+        verify(callback).onError();
+        verifyZeroInteractions(mockPicasso);
+    }
+
+    @Test
+    public void testPrefetch() {
+        imageLoader.prefetch(new ImageRequest.Builder(URL).build(), null);
+        verify(mockRequestCreator).fetch(null);
+    }
+
+    @Test
+    public void testTrimMemory() {
+        imageLoader.trimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+        verify(mockCache, never()).clear();
+
+        imageLoader.trimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+        verify(mockCache).clear();
+    }
+
+    @Test
+    public void testTrimMemory_appOwnedCache() {
+        final PicassoImageLoader imageLoader = new PicassoImageLoader(mockPicasso);
+        assertNull(imageLoader.memoryCache);
+        imageLoader.trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+    }
+}
@@ -17,19 +17,29 @@
 
 package com.twitter.sdk.android.tweetui;
 
+import android.support.v7.widget.RecyclerView;
+import android.view.ViewGroup;
+
 import com.twitter.sdk.android.core.Callback;
 import com.twitter.sdk.android.core.Result;
 import com.twitter.sdk.android.core.TwitterException;
 import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.models.TweetBuilder;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 @RunWith(RobolectricTestRunner.class)
 public class ReplaceTweetCallbackTest {
@@ -87,4 +97,63 @@ public class ReplaceTweetCallbackTest {
             fail("Should have handled null callback");
         }
     }
+
+    @Test
+    public void testRecyclerViewSuccess_sameContentNotifiesActionsPayload() {
+        final Tweet liked = new TweetBuilder().copy(TestFixtures.TEST_TWEET).setFavorited(true)
+                .build();
+        final RecyclerView.AdapterDataObserver mockObserver =
+                mock(RecyclerView.AdapterDataObserver.class);
+        final TweetTimelineRecyclerViewAdapter.ReplaceTweetCallback replaceCallback =
+                createRecyclerViewCallback(mockObserver, TestFixtures.TEST_TWEET);
+
+        replaceCallback.success(new Result<>(liked, null));
+        verify(mockTimelineDelegate).setItemById(liked);
+        verify(mockObserver).onItemRangeChanged(1, 1,
+                TweetTimelineRecyclerViewAdapter.PAYLOAD_TWEET_ACTIONS);
+        verifyNoMoreInteractions(mockObserver);
+    }
+
+    @Test
+    public void testRecyclerViewSuccess_newContentNotifiesFullRebind() {
+        final Tweet edited = new TweetBuilder().copy(TestFixtures.TEST_TWEET).setText("edited")
+                .build();
+        final RecyclerView.AdapterDataObserver mockObserver =
+                mock(RecyclerView.AdapterDataObserver.class);
+        final TweetTimelineRecyclerViewAdapter.ReplaceTweetCallback replaceCallback =
+                createRecyclerViewCallback(mockObserver, TestFixtures.TEST_TWEET);
+
+        replaceCallback.success(new Result<>(edited, null));
+        verify(mockObserver).onItemRangeChanged(eq(1), eq(1), isNull());
+        verifyNoMoreInteractions(mockObserver);
+    }
+
+    private TweetTimelineRecyclerViewAdapter.ReplaceTweetCallback createRecyclerViewCallback(
+            RecyclerView.AdapterDataObserver observer, Tweet tweet) {
+        final List<Tweet> items = new ArrayList<>();
+        items.add(new TweetBuilder().setId(tweet.id + 1).build());
+        items.add(tweet);
+        mockTimelineDelegate.itemList = items;
+
+        final RecyclerView.Adapter<RecyclerView.ViewHolder> adapter =
+                new RecyclerView.Adapter<RecyclerView.ViewHolder>() {
+                    @Override
+                    public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent,
+                            int viewType) {
+                        return null;
+                    }
+
+                    @Override
+                    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+                    }
+
+                    @Override
+                    public int getItemCount() {
+                        return items.size();
+                    }
+                };
+        adapter.registerAdapterDataObserver(observer);
+        return new TweetTimelineRecyclerViewAdapter.ReplaceTweetCallback(adapter,
+                mockTimelineDelegate, null);
+    }
 }
@@ -21,6 +21,7 @@ import com.twitter.sdk.android.core.Callback;
 import com.twitter.sdk.android.core.Result;
 import com.twitter.sdk.android.core.TwitterException;
 import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.models.TweetBuilder;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -28,8 +29,11 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(RobolectricTestRunner.class)
 public class ResetTweetCallbackTest {
@@ -70,6 +74,18 @@ public class ResetTweetCallbackTest {
         verify(mockTweetView).setTweet(TestFixtures.TEST_TWEET);
     }
 
+    @Test
+    public void testSuccess_sameContentSetsActionState() {
+        final Tweet liked = new TweetBuilder().copy(TestFixtures.TEST_TWEET).setFavorited(true)
+                .setFavoriteCount(1).build();
+        when(mockTweetView.getTweet()).thenReturn(TestFixtures.TEST_TWEET);
+        final ResetTweetCallback resetCallback = new ResetTweetCallback(mockTweetView,
+                mockTweetRepository, null);
+        resetCallback.success(new Result<>(liked, null));
+        verify(mockTweetView).setTweetActionState(liked);
+        verify(mockTweetView, never()).setTweet(any(Tweet.class));
+    }
+
     @Test
     public void testFailure() {
         final Callback<Tweet> developerCallback = mock(Callback.class);
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.models.HashtagEntity;
+import com.twitter.sdk.android.core.models.MentionEntity;
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.models.TweetBuilder;
+import com.twitter.sdk.android.core.models.TweetEntities;
+import com.twitter.sdk.android.core.models.UrlEntity;
+import com.twitter.sdk.android.core.models.User;
+import com.twitter.sdk.android.core.models.UserBuilder;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class RuleTimelineFilterTest {
+    static final User HBO = new UserBuilder().setScreenName("HBO").build();
+    static final User FAN = new UserBuilder().setScreenName("fan").build();
+
+    @Test
+    public void testFilter() {
+        final RuleTimelineFilter filter = build("spoiler -from:hbo");
+        final Tweet spoiler = tweet("Big SPOILER ahead", FAN);
+        final Tweet official = tweet("spoiler: it was great", HBO);
+        final Tweet other = tweet("no spoilers here", FAN);
+
+        final List<Tweet> filtered = filter.filter(Arrays.asList(spoiler, official, other));
+
+        assertEquals(2, filtered.size());
+        assertSame(official, filtered.get(0));
+        assertSame(other, filtered.get(1));
+    }
+
+    @Test
+    public void testTotalFilters() {
+        final RuleTimelineFilter filter = new RuleTimelineFilter.Builder()
+                .addRule("a OR b")
+                .addRule("c")
+                .build();
+
+        assertEquals(2, filter.totalFilters());
+    }
+
+    @Test
+    public void testShouldFilterTweet_withPhrase() {
+        final RuleTimelineFilter filter = build("\"season  finale\"");
+
+        assertTrue(filter.shouldFilterTweet(tweet("The Season\nFinale tonight", FAN)));
+        assertFalse(filter.shouldFilterTweet(tweet("season two finale", FAN)));
+        assertFalse(filter.shouldFilterTweet(tweet("season finales", FAN)));
+    }
+
+    @Test
+    public void testShouldFilterTweet_withRegex() {
+        final RuleTimelineFilter filter = build("/\\bs\\d+e\\d+\\b/i");
+
+        assertTrue(filter.shouldFilterTweet(tweet("watching S01E05 now", FAN)));
+        assertFalse(filter.shouldFilterTweet(tweet("watching season one", FAN)));
+    }
+
+    @Test
+    public void testShouldFilterTweet_withOrAndGroups() {
+        final RuleTimelineFilter filter = build("(cats OR dogs) AND NOT (from:fan OR @hbo)");
+
+        assertTrue(filter.shouldFilterTweet(tweet("dogs are great", HBO)));
+        assertFalse(filter.shouldFilterTweet(tweet("dogs are great", FAN)));
+        assertFalse(filter.shouldFilterTweet(tweet("birds are great", HBO)));
+
+        final TweetEntities mentionsHbo = new TweetEntities(null,
+                Collections.singletonList(new MentionEntity(1L, "1", "HBO", "HBO", 0, 4)),
+                null, null, null);
+        assertFalse(filter.shouldFilterTweet(tweet("@HBO cats", HBO, mentionsHbo)));
+    }
+
+    @Test
+    public void testShouldFilterTweet_withEntities() {
+        final RuleTimelineFilter filter = build("#Spoilers OR url:beevil.net");
+        final TweetEntities hashtag = new TweetEntities(null, null, null,
+                Collections.singletonList(new HashtagEntity("spoilers", 0, 9)), null);
+        final TweetEntities url = new TweetEntities(Collections.singletonList(
+                new UrlEntity("t.co", "https://BEEVIL.net/x", "beevil.net/x", 0, 4)),
+                null, null, null, null);
+
+        assertTrue(filter.shouldFilterTweet(tweet("#spoilers", FAN, hashtag)));
+        assertTrue(filter.shouldFilterTweet(tweet("t.co", FAN, url)));
+        assertFalse(filter.shouldFilterTweet(tweet("#spoilers", FAN)));
+    }
+
+    @Test
+    public void testShouldFilterTweet_withNullTextAndUser() {
+        final RuleTimelineFilter filter = build("spoiler OR /x/ OR from:hbo");
+
+        assertFalse(filter.shouldFilterTweet(new TweetBuilder().build()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuild_withMalformedRule() {
+        build("(spoiler");
+    }
+
+    static RuleTimelineFilter build(String rule) {
+        return new RuleTimelineFilter.Builder().addRule(rule).locale(Locale.US).build();
+    }
+
+    static Tweet tweet(String text, User user) {
+        return tweet(text, user, null);
+    }
+
+    static Tweet tweet(String text, User user, TweetEntities entities) {
+        return new TweetBuilder().setText(text).setUser(user).setEntities(entities).build();
+    }
+}
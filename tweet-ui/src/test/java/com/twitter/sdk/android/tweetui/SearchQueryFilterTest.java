@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class SearchQueryFilterTest {
+    private static final String TEST_QUERY = "twitterflock -filter:retweets";
+    private static final List<String> EMPTY = Collections.emptyList();
+
+    @Test
+    public void testCreate_withKeywords() {
+        final SearchQueryFilter queryFilter = SearchQueryFilter.create(TEST_QUERY,
+                new FilterValues(Arrays.asList("darn", "OR", "two words", "don't", "ümlaut"),
+                        null, null, null));
+
+        assertEquals(" -darn -ümlaut", queryFilter.operators);
+        assertEquals(Arrays.asList("OR", "two words", "don't"),
+                queryFilter.clientFilterValues.keywords);
+    }
+
+    @Test
+    public void testCreate_withHashtags() {
+        final SearchQueryFilter queryFilter = SearchQueryFilter.create(TEST_QUERY,
+                new FilterValues(null, Arrays.asList("#cookies", "$TWTR", "bad tag"), null, null));
+
+        assertEquals(" -#cookies -#TWTR", queryFilter.operators);
+        // symbols are matched on the client
+        assertEquals(Arrays.asList("#cookies", "$TWTR", "bad tag"),
+                queryFilter.clientFilterValues.hashtags);
+    }
+
+    @Test
+    public void testCreate_withHandles() {
+        final SearchQueryFilter queryFilter = SearchQueryFilter.create(TEST_QUERY,
+                new FilterValues(null, null, Arrays.asList("@BenWard", "not a handle"), null));
+
+        assertEquals(" -from:benward -@benward", queryFilter.operators);
+        assertEquals(Collections.singletonList("not a handle"),
+                queryFilter.clientFilterValues.handles);
+    }
+
+    @Test
+    public void testCreate_withUrls() {
+        final SearchQueryFilter queryFilter = SearchQueryFilter.create(TEST_QUERY,
+                new FilterValues(null, null, null, Arrays.asList("BeEvil.net", "localhost")));
+
+        assertEquals(" -url:beevil.net", queryFilter.operators);
+        assertEquals(Collections.singletonList("localhost"), queryFilter.clientFilterValues.urls);
+    }
+
+    @Test
+    public void testCreate_withinMaxQueryLength() {
+        final List<String> keywords = Collections.nCopies(100, "keyword");
+        final SearchQueryFilter queryFilter =
+                SearchQueryFilter.create(TEST_QUERY, new FilterValues(keywords, null, null, null));
+
+        final int length = SearchQueryFilter.encodedLength(TEST_QUERY + queryFilter.operators);
+        assertTrue(length <= SearchQueryFilter.MAX_QUERY_LENGTH);
+        assertTrue(length > SearchQueryFilter.MAX_QUERY_LENGTH - " -keyword".length());
+        final int pushed = queryFilter.operators.length() / " -keyword".length();
+        assertEquals(100 - pushed, queryFilter.clientFilterValues.keywords.size());
+    }
+
+    @Test
+    public void testCreate_countsEncodedLength() {
+        // each ü is sent as %C3%BC, so far fewer of these keywords fit than their length suggests
+        final List<String> keywords = Collections.nCopies(100, "üüüüüü");
+        final SearchQueryFilter queryFilter =
+                SearchQueryFilter.create(TEST_QUERY, new FilterValues(keywords, null, null, null));
+
+        final int length = SearchQueryFilter.encodedLength(TEST_QUERY + queryFilter.operators);
+        assertTrue(length <= SearchQueryFilter.MAX_QUERY_LENGTH);
+        assertTrue(TEST_QUERY.length() + queryFilter.operators.length()
+                < SearchQueryFilter.MAX_QUERY_LENGTH / 2);
+        final int pushed = queryFilter.operators.length() / " -üüüüüü".length();
+        assertEquals(100 - pushed, queryFilter.clientFilterValues.keywords.size());
+    }
+
+    @Test
+    public void testEncodedLength() {
+        assertEquals("twitterflock".length(), SearchQueryFilter.encodedLength("twitterflock"));
+        assertEquals("+-from%3Abenward".length(),
+                SearchQueryFilter.encodedLength(" -from:benward"));
+        assertEquals("%C3%BC".length(), SearchQueryFilter.encodedLength("ü"));
+    }
+
+    @Test
+    public void testCreate_withEmptyValues() {
+        final SearchQueryFilter queryFilter =
+                SearchQueryFilter.create(TEST_QUERY, new FilterValues(EMPTY, EMPTY, EMPTY, EMPTY));
+
+        assertEquals("", queryFilter.operators);
+        assertTrue(queryFilter.clientFilterValues.keywords.isEmpty());
+    }
+}
@@ -26,7 +26,9 @@ import com.twitter.sdk.android.core.services.params.Geocode;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.GregorianCalendar;
 
@@ -226,4 +228,27 @@ public class SearchTimelineTest {
                 .build();
         assertEquals(TEST_ITEMS_PER_REQUEST, timeline.maxItemsPerRequest);
     }
+
+    @Test
+    public void testBuilder_filterValues() {
+        final FilterValues filterValues = new FilterValues(Arrays.asList("darn", "two words"),
+                null, Collections.singletonList("benward"), null);
+        final SearchTimeline timeline = new SearchTimeline.Builder(twitterCore)
+                .query(TEST_QUERY)
+                .filterValues(filterValues)
+                .build();
+        assertEquals(TEST_QUERY + SearchTimeline.FILTER_RETWEETS
+                + " -darn -from:benward -@benward", timeline.query);
+        assertEquals(Collections.singletonList("two words"),
+                timeline.getClientFilterValues().keywords);
+        assertTrue(timeline.getClientFilterValues().handles.isEmpty());
+    }
+
+    @Test
+    public void testBuilder_withoutFilterValues() {
+        final SearchTimeline timeline = new SearchTimeline.Builder(twitterCore)
+                .query(TEST_QUERY)
+                .build();
+        assertNull(timeline.getClientFilterValues());
+    }
 }
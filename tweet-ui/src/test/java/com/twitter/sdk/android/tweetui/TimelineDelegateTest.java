@@ -645,6 +645,72 @@ public class TimelineDelegateTest {
         verify(mockObservable, times(1)).notifyInvalidated();
     }
 
+    @Test
+    public void testPoll_buffersItems() {
+        final Timeline<TestItem> fakeTimeline = new FakeItemTimeline(NUM_ITEMS, ANY_POSITION,
+                ANY_POSITION);
+        delegate = new TimelineDelegate<>(fakeTimeline, mockObservable, testItems);
+        delegate.poll(null);
+        // assert shown items are unchanged and received items are buffered
+        assertEquals(testItems.size(), delegate.getCount());
+        assertEquals(NUM_ITEMS, delegate.getPendingCount());
+        assertEquals(ANY_POSITION, delegate.timelineStateHolder.positionForNext());
+        verifyZeroInteractions(mockObservable);
+    }
+
+    @Test
+    public void testPoll_showsItemsWhenEmpty() {
+        final Timeline<TestItem> fakeTimeline = new FakeItemTimeline(NUM_ITEMS, ANY_POSITION,
+                ANY_POSITION);
+        delegate = new TimelineDelegate<>(fakeTimeline, mockObservable, null);
+        delegate.poll(null);
+        assertEquals(NUM_ITEMS, delegate.getCount());
+        assertEquals(ZERO_ITEMS, delegate.getPendingCount());
+        verify(mockObservable).notifyChanged();
+    }
+
+    @Test
+    public void testShowNewItems_prependsBufferedItems() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.pendingItems.addAll(testExtraItems);
+        delegate.showNewItems();
+        assertEquals(TOTAL_ITEMS, delegate.getCount());
+        assertEquals(ZERO_ITEMS, delegate.getPendingCount());
+        assertEquals(TEST_ITEM_4, delegate.getItem(0));
+        assertEquals(TEST_ITEM_1, delegate.itemList.get(TOTAL_ITEMS - 1));
+        verify(mockObservable).notifyChanged();
+    }
+
+    @Test
+    public void testShowNewItems_noBufferedItems() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.showNewItems();
+        assertEquals(testItems.size(), delegate.getCount());
+        verifyZeroInteractions(mockObservable);
+    }
+
+    @Test
+    public void testNextCallback_includesBufferedItems() {
+        delegate = new TimelineDelegate<>(mockTimeline, mockObservable, testItems);
+        delegate.pendingItems.add(TEST_ITEM_3);
+        final List<TestItem> receivedItems = new ArrayList<>();
+        receivedItems.add(TEST_ITEM_4);
+        final TimelineDelegate.NextCallback cb = delegate.new NextCallback(null,
+                delegate.timelineStateHolder);
+        cb.success(new Result<>(new TimelineResult<>(TEST_TIMELINE_CURSOR, receivedItems), null));
+        assertEquals(TOTAL_ITEMS, delegate.getCount());
+        assertEquals(ZERO_ITEMS, delegate.getPendingCount());
+        assertEquals(TEST_ITEM_4, delegate.getItem(0));
+        assertEquals(TEST_ITEM_3, delegate.getItem(1));
+    }
+
+    @Test
+    public void testWithinMaxCapacity_countsBufferedItems() {
+        delegate = new TimelineDelegate<>(mockTimeline);
+        TestItem.populateList(delegate.pendingItems, TimelineDelegate.CAPACITY);
+        assertFalse(delegate.withinMaxCapacity());
+    }
+
     /**
      * Timeline which loads numItems TestItems on each next/previous call. Use zero for numItems
      * to simulate reaching the end of a finite timeline.
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.os.Handler;
+
+import com.twitter.sdk.android.core.Result;
+import com.twitter.sdk.android.core.TwitterException;
+import com.twitter.sdk.android.core.internal.ActivityLifecycleManager;
+import com.twitter.sdk.android.core.internal.CurrentTimeProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricTestRunner.class)
+public class TimelinePollerTest {
+    private static final TimelineCursor TEST_TIMELINE_CURSOR = new TimelineCursor(1000L, 1001L);
+    private static final int PENDING_COUNT = 2;
+
+    private TimelineDelegate<TestItem> mockDelegate;
+    private Handler mockHandler;
+    private NewItemsListener mockListener;
+    private TimelinePoller<TestItem> poller;
+
+    @Before
+    public void setUp() throws Exception {
+        mockDelegate = mock(TimelineDelegate.class);
+        mockHandler = mock(Handler.class);
+        mockListener = mock(NewItemsListener.class);
+        poller = new TimelinePoller<>(mockDelegate, mockHandler, mock(CurrentTimeProvider.class));
+    }
+
+    @Test
+    public void testConstructor_nullDelegate() {
+        try {
+            new TimelinePoller<>(null, mockHandler, mock(CurrentTimeProvider.class));
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("TimelineDelegate must not be null", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMonitorActivityLifecycle() {
+        final ActivityLifecycleManager mockLifecycleManager = mock(ActivityLifecycleManager.class);
+        poller.monitorActivityLifecycle(mockLifecycleManager);
+        verify(mockLifecycleManager)
+                .registerCallbacks(any(TimelinePoller.LifecycleCallbacks.class));
+    }
+
+    @Test
+    public void testStart_schedulesPoll() {
+        poller.start(mockListener);
+        assertTrue(poller.polling);
+        assertEquals(TimelinePoller.DEFAULT_INTERVAL_MILLIS, poller.intervalMillis);
+        verify(mockHandler)
+                .postDelayed(poller.pollRunnable, TimelinePoller.DEFAULT_INTERVAL_MILLIS);
+    }
+
+    @Test
+    public void testStop_removesScheduledPoll() {
+        poller.start(mockListener);
+        poller.stop();
+        assertFalse(poller.polling);
+        verify(mockHandler, atLeastOnce()).removeCallbacks(poller.pollRunnable);
+    }
+
+    @Test
+    public void testPoll_callsDelegate() {
+        poller.start(mockListener);
+        poller.poll();
+        verify(mockDelegate).poll(any(TimelinePoller.PollCallback.class));
+    }
+
+    @Test
+    public void testPoll_notPolling() {
+        poller.poll();
+        verify(mockDelegate, never()).poll(any(TimelinePoller.PollCallback.class));
+    }
+
+    @Test
+    public void testPoll_inBackground() {
+        poller.start(mockListener);
+        poller.onActivityStopped();
+        assertFalse(poller.isInForeground());
+        poller.poll();
+        verify(mockDelegate, never()).poll(any(TimelinePoller.PollCallback.class));
+    }
+
+    @Test
+    public void testOnActivityStarted_reschedulesPoll() {
+        poller.start(mockListener);
+        poller.onActivityStopped();
+        poller.onActivityStarted();
+        assertTrue(poller.isInForeground());
+        verify(mockHandler, times(2))
+                .postDelayed(poller.pollRunnable, TimelinePoller.DEFAULT_INTERVAL_MILLIS);
+    }
+
+    @Test
+    public void testAdjustInterval_backsOffWhenEmpty() {
+        poller.adjustInterval(0);
+        assertEquals(TimelinePoller.DEFAULT_INTERVAL_MILLIS * TimelinePoller.BACKOFF_MULTIPLIER,
+                poller.intervalMillis);
+        for (int i = 0; i < 10; i++) {
+            poller.adjustInterval(0);
+        }
+        assertEquals(TimelinePoller.MAX_INTERVAL_MILLIS, poller.intervalMillis);
+    }
+
+    @Test
+    public void testAdjustInterval_speedsUpWhenActive() {
+        for (int i = 0; i < 10; i++) {
+            poller.adjustInterval(1);
+        }
+        assertEquals(TimelinePoller.MIN_INTERVAL_MILLIS, poller.intervalMillis);
+    }
+
+    @Test
+    public void testPollCallback_successNotifiesListener() {
+        when(mockDelegate.getPendingCount()).thenReturn(PENDING_COUNT);
+        poller.start(mockListener);
+        poller.new PollCallback().success(new Result<>(createResult(1), null));
+        verify(mockListener).onNewItems(PENDING_COUNT);
+        assertEquals(TimelinePoller.DEFAULT_INTERVAL_MILLIS / TimelinePoller.BACKOFF_MULTIPLIER,
+                poller.intervalMillis);
+    }
+
+    @Test
+    public void testPollCallback_emptySuccessDoesNotNotifyListener() {
+        poller.start(mockListener);
+        poller.new PollCallback().success(new Result<>(createResult(0), null));
+        verify(mockListener, never()).onNewItems(anyInt());
+        verify(mockHandler).postDelayed(eq(poller.pollRunnable),
+                eq(TimelinePoller.DEFAULT_INTERVAL_MILLIS * TimelinePoller.BACKOFF_MULTIPLIER));
+    }
+
+    @Test
+    public void testPollCallback_failureBacksOff() {
+        poller.start(mockListener);
+        poller.new PollCallback().failure(new TwitterException("Request already in flight"));
+        assertEquals(TimelinePoller.DEFAULT_INTERVAL_MILLIS * TimelinePoller.BACKOFF_MULTIPLIER,
+                poller.intervalMillis);
+    }
+
+    @Test
+    public void testIsRateLimited() {
+        assertFalse(TimelinePoller.isRateLimited(new TwitterException("Some exception")));
+    }
+
+    private static TimelineResult<TestItem> createResult(int count) {
+        final List<TestItem> items = new ArrayList<>();
+        TestItem.populateList(items, count);
+        return new TimelineResult<>(TEST_TIMELINE_CURSOR, items);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.os.Handler;
+import android.text.format.DateUtils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricTestRunner.class)
+public class TimestampTickerTest {
+    private Handler mockHandler;
+    private TimestampTicker ticker;
+
+    @Before
+    public void setUp() throws Exception {
+        mockHandler = mock(Handler.class);
+        ticker = new TimestampTicker(mockHandler);
+    }
+
+    @Test
+    public void testRegister_updatesListenerAndSchedulesTick() {
+        final TimestampTicker.Listener listener = createListener(DateUtils.MINUTE_IN_MILLIS / 2);
+        ticker.register(listener);
+
+        verify(listener).onTick(anyLong());
+        verify(mockHandler).postDelayed(any(Runnable.class), eq(DateUtils.MINUTE_IN_MILLIS / 2));
+        assertEquals(1, ticker.listeners.size());
+    }
+
+    @Test
+    public void testRegister_twice() {
+        final TimestampTicker.Listener listener = createListener(DateUtils.MINUTE_IN_MILLIS);
+        ticker.register(listener);
+        ticker.register(listener);
+
+        assertEquals(1, ticker.listeners.size());
+        verify(mockHandler).postDelayed(any(Runnable.class), anyLong());
+    }
+
+    @Test
+    public void testScheduleTick_clampsDelay() {
+        ticker.register(createListener(Long.MAX_VALUE));
+        verify(mockHandler).postDelayed(any(Runnable.class),
+                eq(TimestampTicker.MAX_TICK_INTERVAL));
+
+        final long now = System.currentTimeMillis();
+        ticker.scheduleTick(now, now);
+        verify(mockHandler).postDelayed(any(Runnable.class),
+                eq(TimestampTicker.MIN_TICK_INTERVAL));
+    }
+
+    @Test
+    public void testScheduleTick_keepsSoonerTick() {
+        ticker.register(createListener(DateUtils.SECOND_IN_MILLIS * 5));
+        final long now = System.currentTimeMillis();
+        ticker.scheduleTick(now, now + DateUtils.SECOND_IN_MILLIS * 30);
+
+        verify(mockHandler).postDelayed(any(Runnable.class), anyLong());
+        verify(mockHandler, never()).removeCallbacks(any(Runnable.class));
+    }
+
+    @Test
+    public void testScheduleTick_withoutListeners() {
+        final long now = System.currentTimeMillis();
+        ticker.scheduleTick(now, now + DateUtils.SECOND_IN_MILLIS);
+
+        verify(mockHandler, never()).postDelayed(any(Runnable.class), anyLong());
+    }
+
+    @Test
+    public void testTick_updatesAllListeners() {
+        final TimestampTicker.Listener first = createListener(DateUtils.MINUTE_IN_MILLIS);
+        final TimestampTicker.Listener second = createListener(DateUtils.SECOND_IN_MILLIS * 10);
+        ticker.register(first);
+        ticker.register(second);
+
+        ticker.tick();
+        verify(first, times(2)).onTick(anyLong());
+        verify(second, times(2)).onTick(anyLong());
+        assertTrue(ticker.scheduledTickUptime != Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testUnregister_lastListenerStopsTicks() {
+        final TimestampTicker.Listener first = createListener(DateUtils.MINUTE_IN_MILLIS);
+        final TimestampTicker.Listener second = createListener(DateUtils.MINUTE_IN_MILLIS);
+        ticker.register(first);
+        ticker.register(second);
+
+        ticker.unregister(first);
+        verify(mockHandler, never()).removeCallbacks(any(Runnable.class));
+
+        ticker.unregister(second);
+        verify(mockHandler).removeCallbacks(any(Runnable.class));
+        assertEquals(Long.MAX_VALUE, ticker.scheduledTickUptime);
+    }
+
+    /**
+     * @return a listener whose timestamp changes the given delay after each tick
+     */
+    private static TimestampTicker.Listener createListener(long changeDelay) {
+        final TimestampTicker.Listener listener = mock(TimestampTicker.Listener.class);
+        when(listener.onTick(anyLong())).thenAnswer(invocation -> {
+            final long now = invocation.getArgument(0);
+            return changeDelay == Long.MAX_VALUE ? Long.MAX_VALUE : now + changeDelay;
+        });
+        return listener;
+    }
+}
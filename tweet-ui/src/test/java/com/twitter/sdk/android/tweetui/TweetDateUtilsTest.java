@@ -27,9 +27,14 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.Random;
 import java.util.TimeZone;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 @RunWith(RobolectricTestRunner.class)
 public class TweetDateUtilsTest {
@@ -49,7 +54,6 @@ public class TweetDateUtilsTest {
         // was in order to not interfere with other tests
         realDefaultTimeZone = TimeZone.getDefault();
         TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
-        TweetDateUtils.DATE_TIME_RFC822.setTimeZone(TimeZone.getDefault());
     }
 
     @After
@@ -81,6 +85,84 @@ public class TweetDateUtilsTest {
                 TweetDateUtils.apiTimeToLong("11111"));
     }
 
+    @Test
+    public void testApiTimeToLong_withOffset() {
+        assertEquals(JACKS_FIRST_TWEET_IN_MILLIS,
+                TweetDateUtils.apiTimeToLong("Tue Mar 21 15:20:14 -0530 2006"));
+        assertEquals(JACKS_FIRST_TWEET_IN_MILLIS,
+                TweetDateUtils.apiTimeToLong("Wed Mar 22 05:50:14 +0900 2006"));
+    }
+
+    @Test
+    public void testApiTimeToLong_outOfRangeFields() {
+        assertEquals(TweetDateUtils.INVALID_DATE,
+                TweetDateUtils.apiTimeToLong("Tue Foo 21 20:50:14 +0000 2006"));
+        assertEquals(TweetDateUtils.INVALID_DATE,
+                TweetDateUtils.apiTimeToLong("Tue Feb 30 20:50:14 +0000 2006"));
+        assertEquals(TweetDateUtils.INVALID_DATE,
+                TweetDateUtils.apiTimeToLong("Tue Mar 21 24:50:14 +0000 2006"));
+        assertEquals(TweetDateUtils.INVALID_DATE,
+                TweetDateUtils.apiTimeToLong("Tue Mar 21 20:50:14 *0000 2006"));
+        assertEquals(TweetDateUtils.INVALID_DATE,
+                TweetDateUtils.apiTimeToLong("Tue Mar 21 20:50:14 +0000 2006 "));
+        assertEquals(TweetDateUtils.INVALID_DATE,
+                TweetDateUtils.apiTimeToLong("Tue Mar 21 20:5x:14 +0000 2006"));
+    }
+
+    @Test
+    public void testApiTimeToLong_agreesWithSimpleDateFormat() throws ParseException {
+        final SimpleDateFormat format =
+                new SimpleDateFormat("EEE MMM dd HH:mm:ss Z yyyy", Locale.ENGLISH);
+        final String[] zones = {"UTC", "America/Los_Angeles", "Asia/Kolkata", "Pacific/Chatham"};
+        final Random random = new Random(39);
+        for (int i = 0; i < 2000; i++) {
+            // between 1970 and 2100, in whole seconds
+            final long time = (random.nextLong() & Long.MAX_VALUE) % 4102444800L * 1000;
+            format.setTimeZone(TimeZone.getTimeZone(zones[i % zones.length]));
+            final String apiTime = format.format(time);
+
+            assertEquals(apiTime, format.parse(apiTime).getTime(),
+                    TweetDateUtils.apiTimeToLong(apiTime));
+        }
+    }
+
+    @Test
+    public void testDaysSinceEpoch() {
+        assertEquals(0, TweetDateUtils.daysSinceEpoch(1970, 1, 1));
+        assertEquals(-1, TweetDateUtils.daysSinceEpoch(1969, 12, 31));
+        assertEquals(11016, TweetDateUtils.daysSinceEpoch(2000, 2, 29));
+        assertEquals(-719528, TweetDateUtils.daysSinceEpoch(0, 1, 1));
+    }
+
+    @Test
+    public void testGetNextRelativeTimeChange() {
+        assertEquals(NOW_IN_MILLIS + 200, TweetDateUtils.getNextRelativeTimeChange(
+                NOW_IN_MILLIS, NOW_IN_MILLIS - DateUtils.SECOND_IN_MILLIS * 10 - 800));
+        assertEquals(NOW_IN_MILLIS + DateUtils.SECOND_IN_MILLIS * 20,
+                TweetDateUtils.getNextRelativeTimeChange(NOW_IN_MILLIS,
+                        NOW_IN_MILLIS - DateUtils.MINUTE_IN_MILLIS * 2 - 40000));
+        assertEquals(NOW_IN_MILLIS + DateUtils.MINUTE_IN_MILLIS * 55,
+                TweetDateUtils.getNextRelativeTimeChange(NOW_IN_MILLIS,
+                        NOW_IN_MILLIS - DateUtils.HOUR_IN_MILLIS * 2 - 300000));
+        assertEquals(Long.MAX_VALUE, TweetDateUtils.getNextRelativeTimeChange(NOW_IN_MILLIS,
+                NOW_IN_MILLIS - DateUtils.DAY_IN_MILLIS * 2));
+        assertEquals(NOW_IN_MILLIS + 5000,
+                TweetDateUtils.getNextRelativeTimeChange(NOW_IN_MILLIS, NOW_IN_MILLIS + 5000));
+    }
+
+    @Test
+    public void testGetRelativeTimeString_reusesBucketStrings() {
+        final long twoMinutesAgo = NOW_IN_MILLIS - DateUtils.MINUTE_IN_MILLIS * 2;
+        assertSame(TweetDateUtils.getRelativeTimeString(resources, NOW_IN_MILLIS, twoMinutesAgo),
+                TweetDateUtils.getRelativeTimeString(resources, NOW_IN_MILLIS,
+                        twoMinutesAgo - DateUtils.SECOND_IN_MILLIS * 30));
+
+        final long twoDaysAgo = NOW_IN_MILLIS - DateUtils.DAY_IN_MILLIS * 2;
+        assertSame(TweetDateUtils.getRelativeTimeString(resources, NOW_IN_MILLIS, twoDaysAgo),
+                TweetDateUtils.getRelativeTimeString(resources, NOW_IN_MILLIS,
+                        twoDaysAgo + DateUtils.SECOND_IN_MILLIS));
+    }
+
     @Test
     public void testGetRelativeTimeString_now() {
         assertEquals("0s",
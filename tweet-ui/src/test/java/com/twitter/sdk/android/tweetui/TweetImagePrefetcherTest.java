@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.os.Handler;
+
+import com.twitter.sdk.android.core.SessionManager;
+import com.twitter.sdk.android.core.TwitterCore;
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.models.TweetBuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricTestRunner.class)
+public class TweetImagePrefetcherTest {
+    private static final int DISTANCE = 3;
+    private static final int MEDIA_WIDTH = 480;
+
+    private ImageLoader mockImageLoader;
+    private ImageRequest request;
+    private AbstractTweetView mockSizingView;
+    private TweetImagePrefetcher prefetcher;
+    private List<Tweet> tweets;
+    // ids of the Tweets image requests were created for
+    private List<Long> requestedIds;
+
+    @Before
+    public void setUp() throws Exception {
+        mockImageLoader = mock(ImageLoader.class);
+        request = new ImageRequest.Builder(TestFixtures.TEST_PROFILE_IMAGE_URL).build();
+
+        final TweetUi mockTweetUi = mock(TweetUi.class);
+        when(mockTweetUi.getTweetImageLoader()).thenReturn(mockImageLoader);
+        when(mockTweetUi.getTweetRepository()).thenReturn(new TweetRepository(
+                mock(Handler.class), mock(SessionManager.class), mock(TwitterCore.class)));
+
+        requestedIds = new ArrayList<>();
+        mockSizingView = mock(AbstractTweetView.class);
+        doAnswer(invocation -> {
+            final TweetRenderModel model = (TweetRenderModel) invocation.getArguments()[0];
+            requestedIds.add(model.tweet.id);
+            ((List<ImageRequest>) invocation.getArguments()[2]).add(request);
+            return null;
+        }).when(mockSizingView).getImageRequests(any(TweetRenderModel.class), anyInt(),
+                anyList());
+
+        prefetcher = new TweetImagePrefetcher(mockTweetUi,
+                RuntimeEnvironment.application.getResources(), DISTANCE);
+        prefetcher.setSizingView(mockSizingView);
+        prefetcher.setMediaWidth(MEDIA_WIDTH);
+        tweets = createTweets(10);
+    }
+
+    @Test
+    public void testSetSizingView_keepsFirstView() {
+        prefetcher.setSizingView(mock(AbstractTweetView.class));
+        assertEquals(mockSizingView, prefetcher.sizingView);
+    }
+
+    @Test
+    public void testOnBind_queuesRowsBelow() {
+        prefetcher.onBind(0, tweets);
+        assertEquals(Arrays.asList(1L, 2L, 3L), requestedIds);
+        verify(mockSizingView, times(DISTANCE)).getImageRequests(any(TweetRenderModel.class),
+                anyInt(), anyList());
+
+        prefetcher.onBind(1, tweets);
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L), requestedIds);
+    }
+
+    @Test
+    public void testOnBind_stopsAtLastRow() {
+        prefetcher.onBind(8, tweets);
+        assertEquals(Arrays.asList(9L), requestedIds);
+    }
+
+    @Test
+    public void testOnBind_directionChangeDropsQueue() {
+        prefetcher.onBind(4, tweets);
+        assertEquals(DISTANCE - TweetImagePrefetcher.MAX_IN_FLIGHT_COUNT,
+                prefetcher.queue.size());
+
+        prefetcher.onBind(3, tweets);
+        assertTrue(prefetcher.scrollingUp);
+        assertEquals(Arrays.asList(5L, 6L, 7L, 2L, 1L, 0L), requestedIds);
+        assertEquals(DISTANCE, prefetcher.queue.size());
+    }
+
+    @Test
+    public void testOnBind_withoutSizingView() {
+        final TweetImagePrefetcher prefetcher = new TweetImagePrefetcher(mock(TweetUi.class),
+                RuntimeEnvironment.application.getResources(), DISTANCE);
+        prefetcher.onBind(0, tweets);
+        assertEquals(0, prefetcher.queue.size());
+    }
+
+    @Test
+    public void testFetch_limitsRequestsInFlight() {
+        prefetcher.onBind(0, tweets);
+        verify(mockImageLoader, times(TweetImagePrefetcher.MAX_IN_FLIGHT_COUNT))
+                .prefetch(eq(request), any(ImageLoader.Callback.class));
+        assertEquals(TweetImagePrefetcher.MAX_IN_FLIGHT_COUNT, prefetcher.inFlightCount);
+
+        prefetcher.onFetched();
+        verify(mockImageLoader, times(DISTANCE))
+                .prefetch(eq(request), any(ImageLoader.Callback.class));
+        assertEquals(0, prefetcher.queue.size());
+    }
+
+    @Test
+    public void testSetPaused() {
+        prefetcher.setPaused(true);
+        verify(mockImageLoader).pauseTag(prefetcher.tag);
+        prefetcher.onBind(0, tweets);
+        verify(mockImageLoader, never()).prefetch(any(ImageRequest.class),
+                any(ImageLoader.Callback.class));
+
+        prefetcher.setPaused(false);
+        verify(mockImageLoader).resumeTag(prefetcher.tag);
+        verify(mockImageLoader, times(TweetImagePrefetcher.MAX_IN_FLIGHT_COUNT))
+                .prefetch(eq(request), any(ImageLoader.Callback.class));
+    }
+
+    private static List<Tweet> createTweets(int count) {
+        final List<Tweet> tweets = new ArrayList<>();
+        for (long id = 0; id < count; id++) {
+            tweets.add(new TweetBuilder().setId(id).setText("Tweet " + id).build());
+        }
+        return tweets;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.content.res.Resources;
+import android.os.Handler;
+
+import com.twitter.sdk.android.core.SessionManager;
+import com.twitter.sdk.android.core.TwitterCore;
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.models.TweetBuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(RobolectricTestRunner.class)
+public class TweetRenderModelTest {
+    private Resources resources;
+    private TweetRepository tweetRepository;
+
+    @Before
+    public void setUp() throws Exception {
+        resources = RuntimeEnvironment.application.getResources();
+        tweetRepository = new TweetRepository(mock(Handler.class), mock(SessionManager.class),
+                mock(TwitterCore.class));
+    }
+
+    @Test
+    public void testCreate_textTweet() {
+        final TweetRenderModel model =
+                TweetRenderModel.create(TestFixtures.TEST_TWEET, tweetRepository, resources);
+
+        assertSame(TestFixtures.TEST_TWEET, model.displayTweet);
+        assertEquals(TestFixtures.TEST_NAME, model.name);
+        assertEquals(TestFixtures.TEST_FORMATTED_SCREEN_NAME, model.screenName.toString());
+        assertEquals(TestFixtures.TEST_STATUS, model.text.toString());
+        assertEquals(TestFixtures.TEST_PERMALINK_ONE, model.permalinkUri.toString());
+        assertEquals(tweetRepository.getCreatedAt(TestFixtures.TEST_TWEET), model.createdAt);
+        assertTrue(model.contentDescription.startsWith(
+                TestFixtures.TEST_NAME + ". " + TestFixtures.TEST_STATUS));
+        assertNull(model.retweetedBy);
+        assertEquals(TweetViewType.TEXT, model.viewType);
+        assertTrue(model.mediaEntities.isEmpty());
+        assertFalse(model.hasMedia());
+    }
+
+    @Test
+    public void testCreate_photoTweet() {
+        final TweetRenderModel model = TweetRenderModel.create(
+                TestFixtures.TEST_MULTIPLE_PHOTO_TWEET, tweetRepository, resources);
+
+        assertEquals(TweetViewType.MULTI_PHOTO, model.viewType);
+        assertEquals(4, model.mediaEntities.size());
+        assertNull(model.vineImage);
+        assertTrue(model.hasMedia());
+    }
+
+    @Test
+    public void testCreate_vineTweet() {
+        final Tweet tweet = TestFixtures.createTweetWithVineCard(6L, TestFixtures.TEST_USER,
+                TestFixtures.TEST_STATUS, TestFixtures.sampleValidVineCard());
+        final TweetRenderModel model = TweetRenderModel.create(tweet, tweetRepository, resources);
+
+        assertEquals(TweetViewType.VIDEO, model.viewType);
+        assertTrue(model.mediaEntities.isEmpty());
+        assertNotNull(model.vineImage);
+    }
+
+    @Test
+    public void testCreate_retweet() {
+        final TweetRenderModel model =
+                TweetRenderModel.create(TestFixtures.TEST_RETWEET, tweetRepository, resources);
+
+        assertSame(TestFixtures.TEST_TWEET, model.displayTweet);
+        assertEquals(TestFixtures.TEST_NAME, model.name);
+        assertEquals("Retweeted by " + TestFixtures.TEST_RETWEETER_NAME, model.retweetedBy);
+    }
+
+    @Test
+    public void testCreate_nullTweet() {
+        final TweetRenderModel model = TweetRenderModel.create(null, tweetRepository, resources);
+
+        assertEquals("", model.name);
+        assertEquals("", model.text.toString());
+        assertNull(model.profilePermalink);
+        assertNull(model.permalinkUri);
+        assertEquals(resources.getString(R.string.tw__loading_tweet), model.contentDescription);
+        assertEquals(TweetDateUtils.INVALID_DATE, model.createdAt);
+    }
+
+    @Test
+    public void testIsValidFor() {
+        final TweetRenderModel model =
+                TweetRenderModel.create(TestFixtures.TEST_TWEET, tweetRepository, resources);
+
+        assertTrue(model.isValidFor(TestFixtures.TEST_TWEET, resources));
+        assertFalse(model.isValidFor(TestFixtures.TEST_TWEET_LINK, resources));
+    }
+
+    @Test
+    public void testGetRenderModel_cachesPerTweetInstance() {
+        final Tweet tweet = new TweetBuilder().copy(TestFixtures.TEST_TWEET).build();
+        final TweetRenderModel model = tweetRepository.getRenderModel(tweet, resources);
+        assertSame(model, tweetRepository.getRenderModel(tweet, resources));
+
+        final Tweet updated = new TweetBuilder().copy(tweet).setFavorited(true).build();
+        final TweetRenderModel updatedModel = tweetRepository.getRenderModel(updated, resources);
+        assertNotSame(model, updatedModel);
+        assertSame(updated, updatedModel.tweet);
+        assertSame(updatedModel, tweetRepository.renderModelCache.get(tweet.id));
+    }
+}
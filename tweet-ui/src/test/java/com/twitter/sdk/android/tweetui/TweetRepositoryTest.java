@@ -25,22 +25,33 @@ import com.twitter.sdk.android.core.SessionManager;
 import com.twitter.sdk.android.core.TwitterApiClient;
 import com.twitter.sdk.android.core.TwitterAuthException;
 import com.twitter.sdk.android.core.TwitterCore;
+import com.twitter.sdk.android.core.TwitterException;
 import com.twitter.sdk.android.core.TwitterSession;
 import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.models.TweetBuilder;
 import com.twitter.sdk.android.core.services.FavoriteService;
 import com.twitter.sdk.android.core.services.StatusesService;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.robolectric.RobolectricTestRunner;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import retrofit2.Call;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -110,6 +121,165 @@ public class TweetRepositoryTest {
         verify(mockStatusesService).lookup(anyId.toString(), null, null, null);
     }
 
+    @Test
+    public void testLoadTweet_sharesPendingRequest() {
+        final Call<Tweet> mockCall = mock(Call.class);
+        when(mockStatusesService.show(anyId, null, null, null)).thenReturn(mockCall);
+        final Callback<Tweet> cb1 = mock(Callback.class);
+        final Callback<Tweet> cb2 = mock(Callback.class);
+        tweetRepository.loadTweet(anyId, cb1);
+        tweetRepository.loadTweet(anyId, cb2);
+
+        verify(mockStatusesService).show(anyId, null, null, null);
+        final ArgumentCaptor<Callback<Tweet>> captor = ArgumentCaptor.forClass(Callback.class);
+        verify(mockCall).enqueue(captor.capture());
+
+        final Tweet tweet = new TweetBuilder().setId(anyId).build();
+        captor.getValue().success(new Result<>(tweet, null));
+        verify(cb1).success(any(Result.class));
+        verify(cb2).success(any(Result.class));
+        assertTrue(tweetRepository.pendingLoads.isEmpty());
+        assertEquals(tweet, tweetRepository.tweetCache.get(anyId));
+    }
+
+    @Test
+    public void testLoadTweet_cancelSkipsCallback() {
+        final Call<Tweet> mockCall = mock(Call.class);
+        when(mockStatusesService.show(anyId, null, null, null)).thenReturn(mockCall);
+        final Callback<Tweet> cb1 = mock(Callback.class);
+        final Callback<Tweet> cb2 = mock(Callback.class);
+        final TweetLoad load = tweetRepository.loadTweet(anyId, cb1);
+        tweetRepository.loadTweet(anyId, cb2);
+        final ArgumentCaptor<Callback<Tweet>> captor = ArgumentCaptor.forClass(Callback.class);
+        verify(mockCall).enqueue(captor.capture());
+
+        load.cancel();
+        assertTrue(load.isCancelled());
+        verify(mockCall, never()).cancel();
+
+        captor.getValue().success(new Result<>(new TweetBuilder().setId(anyId).build(), null));
+        verify(cb1, never()).success(any(Result.class));
+        verify(cb2).success(any(Result.class));
+    }
+
+    @Test
+    public void testLoadTweet_cancelLastLoadCancelsCall() {
+        final Call<Tweet> mockCall = mock(Call.class);
+        when(mockStatusesService.show(anyId, null, null, null)).thenReturn(mockCall);
+        final TweetLoad load1 = tweetRepository.loadTweet(anyId, mock(Callback.class));
+        final TweetLoad load2 = tweetRepository.loadTweet(anyId, mock(Callback.class));
+
+        load1.cancel();
+        load2.cancel();
+        verify(mockCall).cancel();
+        assertTrue(tweetRepository.pendingLoads.isEmpty());
+
+        tweetRepository.loadTweet(anyId, mock(Callback.class));
+        verify(mockStatusesService, times(2)).show(anyId, null, null, null);
+    }
+
+    @Test
+    public void testLoadTweet_cancelCachedTweet() {
+        tweetRepository.updateCache(new TweetBuilder().setId(anyId).build());
+        final Callback<Tweet> cb = mock(Callback.class);
+        final TweetLoad load = tweetRepository.loadTweet(anyId, cb);
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockHandler).post(captor.capture());
+        assertFalse(load.isCancelled());
+
+        load.cancel();
+        captor.getValue().run();
+        verify(cb, never()).success(any(Result.class));
+        verify(mockStatusesService, never()).show(anyId, null, null, null);
+    }
+
+    @Test
+    public void testLoadTweets_cancelCancelsCall() {
+        final Call<List<Tweet>> mockCall = mock(Call.class);
+        when(mockStatusesService.lookup(anyId.toString(), null, null, null)).thenReturn(mockCall);
+        final TweetLoad load = tweetRepository.loadTweets(Collections.singletonList(anyId),
+                mock(Callback.class));
+
+        load.cancel();
+        verify(mockCall).cancel();
+    }
+
+    @Test
+    public void testLoadTweetBatched_looksUpQueuedTweets() {
+        final Call<List<Tweet>> mockCall = mock(Call.class);
+        when(mockStatusesService.lookup("1,2", null, null, null)).thenReturn(mockCall);
+        final Callback<Tweet> cb1 = mock(Callback.class);
+        final Callback<Tweet> cb2 = mock(Callback.class);
+        tweetRepository.loadTweetBatched(1L, cb1);
+        tweetRepository.loadTweetBatched(2L, cb2);
+        tweetRepository.loadTweetBatched(2L, cb2);
+
+        final ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockHandler).post(runnableCaptor.capture());
+        runnableCaptor.getValue().run();
+        assertTrue(tweetRepository.queuedLoads.isEmpty());
+
+        final ArgumentCaptor<Callback<List<Tweet>>> captor =
+                ArgumentCaptor.forClass(Callback.class);
+        verify(mockCall).enqueue(captor.capture());
+        final List<Tweet> tweets = new ArrayList<>();
+        tweets.add(new TweetBuilder().setId(2L).build());
+        captor.getValue().success(new Result<>(tweets, null));
+
+        verify(cb1).failure(any(TwitterException.class));
+        verify(cb2, times(2)).success(any(Result.class));
+        assertEquals(tweets.get(0), tweetRepository.tweetCache.get(2L));
+        assertTrue(tweetRepository.pendingLoads.isEmpty());
+    }
+
+    @Test
+    public void testLoadTweetBatched_singleTweetUsesShow() {
+        tweetRepository.loadTweetBatched(anyId, mock(Callback.class));
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockHandler).post(captor.capture());
+        verify(mockStatusesService, never()).show(anyId, null, null, null);
+
+        captor.getValue().run();
+        verify(mockStatusesService).show(anyId, null, null, null);
+    }
+
+    @Test
+    public void testLoadTweetBatched_splitsLookups() {
+        final int count = TweetRepository.MAX_LOOKUP_IDS + 1;
+        for (long id = 1; id <= count; id++) {
+            tweetRepository.loadTweetBatched(id, mock(Callback.class));
+        }
+        tweetRepository.flushQueuedLoads();
+
+        verify(mockStatusesService, times(2)).lookup(any(String.class), any(), any(), any());
+        verify(mockStatusesService).lookup(String.valueOf(count), null, null, null);
+    }
+
+    @Test
+    public void testLoadTweetBatched_cancelBeforeFlush() {
+        final TweetLoad load = tweetRepository.loadTweetBatched(1L, mock(Callback.class));
+        tweetRepository.loadTweetBatched(2L, mock(Callback.class));
+        load.cancel();
+        tweetRepository.flushQueuedLoads();
+
+        verify(mockStatusesService).show(2L, null, null, null);
+        verify(mockStatusesService, never()).lookup(any(String.class), any(), any(), any());
+    }
+
+    @Test
+    public void testLoadTweetBatched_cancelAllCancelsLookup() {
+        final Call<List<Tweet>> mockCall = mock(Call.class);
+        when(mockStatusesService.lookup("1,2", null, null, null)).thenReturn(mockCall);
+        final TweetLoad load1 = tweetRepository.loadTweetBatched(1L, mock(Callback.class));
+        final TweetLoad load2 = tweetRepository.loadTweetBatched(2L, mock(Callback.class));
+        tweetRepository.flushQueuedLoads();
+
+        load1.cancel();
+        verify(mockCall, never()).cancel();
+        load2.cancel();
+        verify(mockCall).cancel();
+    }
+
     @Test
     public void testGetUserSession_withActiveUserSession() {
         final Callback<TwitterSession> cb = mock(Callback.class);
@@ -135,4 +305,20 @@ public class TweetRepositoryTest {
         callback.success(new Result<>(mock(Tweet.class), null));
         verify(mockRepo, times(1)).updateCache(any(Tweet.class));
     }
+
+    @Test
+    public void testGetCreatedAt_cachesParsedTime() {
+        final Tweet tweet = new TweetBuilder().setId(anyId)
+                .setCreatedAt("Tue Mar 21 20:50:14 +0000 2006").build();
+        assertNull(tweetRepository.createdAtCache.get(anyId));
+
+        assertEquals(1142974214000L, tweetRepository.getCreatedAt(tweet));
+        assertEquals(Long.valueOf(1142974214000L), tweetRepository.createdAtCache.get(anyId));
+        assertEquals(1142974214000L, tweetRepository.getCreatedAt(tweet));
+    }
+
+    @Test
+    public void testGetCreatedAt_withoutTweet() {
+        assertEquals(TweetDateUtils.INVALID_DATE, tweetRepository.getCreatedAt(null));
+    }
 }
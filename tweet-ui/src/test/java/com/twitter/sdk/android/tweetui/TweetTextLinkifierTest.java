@@ -25,6 +25,7 @@ import com.twitter.sdk.android.core.models.MediaEntity;
 import com.twitter.sdk.android.core.models.MentionEntity;
 import com.twitter.sdk.android.core.models.SymbolEntity;
 import com.twitter.sdk.android.core.models.UrlEntity;
+import com.twitter.sdk.android.tweetui.internal.EntityLinkSpan;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -40,7 +41,6 @@ import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
-import static org.mockito.Mockito.mock;
 
 @RunWith(RobolectricTestRunner.class)
 public class TweetTextLinkifierTest {
@@ -50,7 +50,7 @@ public class TweetTextLinkifierTest {
     @Test
     public void testLinkifyUrls_nullFormattedTweetText() {
         try {
-            TweetTextLinkifier.linkifyUrls(null, null, 0, 0, true, true);
+            TweetTextLinkifier.linkifyUrls(null, true, true);
         } catch (Exception e) {
             fail("threw unexpected exception");
         }
@@ -59,7 +59,7 @@ public class TweetTextLinkifierTest {
     @Test
     public void testLinkifyUrls_newFormattedTweetText() {
         try {
-            TweetTextLinkifier.linkifyUrls(new FormattedTweetText(), null, 0, 0, true, true);
+            TweetTextLinkifier.linkifyUrls(new FormattedTweetText(), true, true);
         } catch (Exception e) {
             fail("threw unexpected exception");
         }
@@ -78,7 +78,7 @@ public class TweetTextLinkifierTest {
         formattedText.urlEntities.add(FormattedUrlEntity.createFormattedUrlEntity(urlEntity));
 
         final CharSequence linkifiedText
-                = TweetTextLinkifier.linkifyUrls(formattedText, null, 0, 0, true, true);
+                = TweetTextLinkifier.linkifyUrls(formattedText, true, true);
         final String displayUrlFromEntity =
                 linkifiedText.subSequence(urlEntity.getStart(), urlEntity.getEnd()).toString();
         assertEquals(urlEntity.displayUrl, displayUrlFromEntity);
@@ -93,18 +93,16 @@ public class TweetTextLinkifierTest {
         formattedText.urlEntities.add(FormattedUrlEntity.createFormattedUrlEntity(urlEntity));
 
         final CharSequence linkifiedText
-                = TweetTextLinkifier.linkifyUrls(formattedText, null, 0, 0, true, true);
+                = TweetTextLinkifier.linkifyUrls(formattedText, true, true);
         assertEquals("", linkifiedText.toString());
     }
 
     @Test
-    public void testLinkifyUrls_linkClickListener() {
+    public void testLinkifyUrls_entityLinkSpan() {
         final String url = "http://t.co/foo";
         final String displayUrl = "dev.twitter.com";
         final String fullText = BASE_TEXT + " " + "http://t.co/foo";
 
-        final LinkClickListener mockClickListener = mock(LinkClickListener.class);
-
         final UrlEntity urlEntity =
                 EntityFactory.newUrlEntity(fullText, url, displayUrl);
         final FormattedTweetText formattedText = new FormattedTweetText();
@@ -112,12 +110,41 @@ public class TweetTextLinkifierTest {
         formattedText.urlEntities.add(FormattedUrlEntity.createFormattedUrlEntity(urlEntity));
 
         final SpannableStringBuilder linkifiedText = (SpannableStringBuilder)
-                TweetTextLinkifier.linkifyUrls(formattedText, mockClickListener, 0, 0, true,
-                        true);
+                TweetTextLinkifier.linkifyUrls(formattedText, true, true);
         final ClickableSpan[] clickables =
                 linkifiedText.getSpans(urlEntity.getStart(), urlEntity.getEnd(),
                         ClickableSpan.class);
         assertEquals(1, clickables.length);
+        assertEquals(0, ((EntityLinkSpan) clickables[0]).entityIndex);
+    }
+
+    @Test
+    public void testLinkifyUrls_entityIndicesFollowSortedEntities() {
+        final String mention = "TwitterDev";
+        final String url = "http://t.co/foo";
+        final String fullText = "@" + mention + " " + url;
+        final MentionEntity mentionEntity =
+                TestFixtures.newMentionEntity(mention, 0, mention.length() + 1);
+        final UrlEntity urlEntity = EntityFactory.newUrlEntity(fullText, url, "dev.twitter.com");
+
+        final FormattedTweetText formattedText = new FormattedTweetText();
+        formattedText.text = fullText;
+        formattedText.urlEntities.add(FormattedUrlEntity.createFormattedUrlEntity(urlEntity));
+        formattedText.mentionEntities.add(FormattedUrlEntity.createFormattedUrlEntity(
+                mentionEntity));
+
+        final SpannableStringBuilder linkifiedText = (SpannableStringBuilder)
+                TweetTextLinkifier.linkifyUrls(formattedText, true, true);
+        final EntityLinkSpan[] spans =
+                linkifiedText.getSpans(0, linkifiedText.length(), EntityLinkSpan.class);
+        assertEquals(2, spans.length);
+
+        final List<FormattedUrlEntity> entities = TweetTextLinkifier.getEntities(formattedText);
+        for (EntityLinkSpan span : spans) {
+            final FormattedUrlEntity entity = entities.get(span.entityIndex);
+            assertEquals(entity.displayUrl, linkifiedText.subSequence(
+                    linkifiedText.getSpanStart(span), linkifiedText.getSpanEnd(span)).toString());
+        }
     }
 
     @Test
@@ -133,19 +160,17 @@ public class TweetTextLinkifierTest {
                 hashtagEntity));
 
         final CharSequence linkifiedText
-                = TweetTextLinkifier.linkifyUrls(formattedText, null, 0, 0, true, true);
+                = TweetTextLinkifier.linkifyUrls(formattedText, true, true);
         final String displayUrlFromEntity = linkifiedText.subSequence(hashtagEntity.getStart(),
                         hashtagEntity.getEnd()).toString();
         assertEquals(fullHashtag, displayUrlFromEntity);
     }
 
     @Test
-    public void testLinkifyHashtags_linkClickListener() {
+    public void testLinkifyHashtags_entityLinkSpan() {
         final String hashtag = "TwitterForGood";
         final String fullText = BASE_TEXT + " #" + hashtag;
 
-        final LinkClickListener mockClickListener = mock(LinkClickListener.class);
-
         final HashtagEntity hashtagEntity = EntityFactory.newHashtagEntity(fullText, hashtag);
         final FormattedTweetText formattedText = new FormattedTweetText();
         formattedText.text = fullText;
@@ -153,12 +178,12 @@ public class TweetTextLinkifierTest {
                 hashtagEntity));
 
         final SpannableStringBuilder linkifiedText = (SpannableStringBuilder)
-                TweetTextLinkifier.linkifyUrls(formattedText, mockClickListener, 0, 0, true,
-                        true);
+                TweetTextLinkifier.linkifyUrls(formattedText, true, true);
         final ClickableSpan[] clickables =
                 linkifiedText.getSpans(hashtagEntity.getStart(), hashtagEntity.getEnd(),
                         ClickableSpan.class);
         assertEquals(1, clickables.length);
+        assertEquals(0, ((EntityLinkSpan) clickables[0]).entityIndex);
     }
 
     @Test
@@ -174,19 +199,17 @@ public class TweetTextLinkifierTest {
                 mentionEntity));
 
         final CharSequence linkifiedText
-                = TweetTextLinkifier.linkifyUrls(formattedText, null, 0, 0, true, true);
+                = TweetTextLinkifier.linkifyUrls(formattedText, true, true);
         final String displayUrlFromEntity = linkifiedText.subSequence(mentionEntity.getStart(),
                 mentionEntity.getEnd()).toString();
         assertEquals(fullMention, displayUrlFromEntity);
     }
 
     @Test
-    public void testLinkifyMentions_linkClickListener() {
+    public void testLinkifyMentions_entityLinkSpan() {
         final String mention = "TwitterDev";
         final String fullText = BASE_TEXT + " @" + mention;
 
-        final LinkClickListener mockClickListener = mock(LinkClickListener.class);
-
         final MentionEntity mentionEntity = EntityFactory.newMentionEntity(fullText, mention);
         final FormattedTweetText formattedText = new FormattedTweetText();
         formattedText.text = fullText;
@@ -194,12 +217,12 @@ public class TweetTextLinkifierTest {
                 mentionEntity));
 
         final SpannableStringBuilder linkifiedText = (SpannableStringBuilder)
-                TweetTextLinkifier.linkifyUrls(formattedText, mockClickListener, 0, 0, true,
-                        true);
+                TweetTextLinkifier.linkifyUrls(formattedText, true, true);
         final ClickableSpan[] clickables =
                 linkifiedText.getSpans(mentionEntity.getStart(), mentionEntity.getEnd(),
                         ClickableSpan.class);
         assertEquals(1, clickables.length);
+        assertEquals(0, ((EntityLinkSpan) clickables[0]).entityIndex);
     }
 
     @Test
@@ -215,19 +238,17 @@ public class TweetTextLinkifierTest {
                 symbolEntity));
 
         final CharSequence linkifiedText
-                = TweetTextLinkifier.linkifyUrls(formattedText, null, 0, 0, true, true);
+                = TweetTextLinkifier.linkifyUrls(formattedText, true, true);
         final String displayUrlFromEntity = linkifiedText.subSequence(symbolEntity.getStart(),
                 symbolEntity.getEnd()).toString();
         assertEquals(fullSymbol, displayUrlFromEntity);
     }
 
     @Test
-    public void testLinkifySymbols_linkClickListener() {
+    public void testLinkifySymbols_entityLinkSpan() {
         final String symbol = "TWTR";
         final String fullText = BASE_TEXT + " $" + symbol;
 
-        final LinkClickListener mockClickListener = mock(LinkClickListener.class);
-
         final SymbolEntity symbolEntity = EntityFactory.newSymbolEntity(fullText, symbol);
         final FormattedTweetText formattedText = new FormattedTweetText();
         formattedText.text = fullText;
@@ -235,12 +256,12 @@ public class TweetTextLinkifierTest {
                 symbolEntity));
 
         final SpannableStringBuilder linkifiedText = (SpannableStringBuilder)
-                TweetTextLinkifier.linkifyUrls(formattedText, mockClickListener, 0, 0, true,
-                        true);
+                TweetTextLinkifier.linkifyUrls(formattedText, true, true);
         final ClickableSpan[] clickables =
                 linkifiedText.getSpans(symbolEntity.getStart(), symbolEntity.getEnd(),
                         ClickableSpan.class);
         assertEquals(1, clickables.length);
+        assertEquals(0, ((EntityLinkSpan) clickables[0]).entityIndex);
     }
 
     @Test
@@ -248,7 +269,7 @@ public class TweetTextLinkifierTest {
         final FormattedTweetText formattedText = setupPicTwitterEntities();
         final FormattedMediaEntity lastPhotoUrl = formattedText.mediaEntities.get(0);
         final CharSequence linkifiedText
-                = TweetTextLinkifier.linkifyUrls(formattedText, null, 0, 0, true, true);
+                = TweetTextLinkifier.linkifyUrls(formattedText, true, true);
 
         // make sure we are stripping out a photo entity since it is the only media entity
         // that we can render inline
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.os.Handler;
+
+import com.twitter.sdk.android.core.SessionManager;
+import com.twitter.sdk.android.core.TwitterCore;
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.models.TweetBuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@RunWith(RobolectricTestRunner.class)
+public class TweetTextPrecomputerTest {
+    private ExecutorService mockExecutorService;
+    private TweetRepository tweetRepository;
+    private TweetTextPrecomputer precomputer;
+
+    @Before
+    public void setUp() throws Exception {
+        mockExecutorService = mock(ExecutorService.class);
+        tweetRepository = new TweetRepository(mock(Handler.class), mock(SessionManager.class),
+                mock(TwitterCore.class));
+        precomputer = new TweetTextPrecomputer(tweetRepository, mockExecutorService,
+                RuntimeEnvironment.application.getResources());
+    }
+
+    @Test
+    public void testPrecompute_createsRenderModels() {
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        final List<Tweet> tweets = createTweets(1, 2);
+        precomputer.precompute(tweets);
+        verify(mockExecutorService).submit(captor.capture());
+
+        captor.getValue().run();
+        assertSame(tweets.get(0), tweetRepository.renderModelCache.get(1L).tweet);
+        assertSame(tweets.get(1), tweetRepository.renderModelCache.get(2L).tweet);
+        assertNotNull(tweetRepository.linkifyCache.get(1L));
+    }
+
+    @Test
+    public void testPrecompute_skipsModeledTweets() {
+        precomputer.precompute(createTweets(1, 3));
+        precomputer.precompute(createTweets(1, 3));
+        verify(mockExecutorService).submit(any(Runnable.class));
+
+        precomputer.precompute(createTweets(2, 5));
+        verify(mockExecutorService, times(2)).submit(any(Runnable.class));
+        assertEquals(5, precomputer.modeledIds.size());
+    }
+
+    @Test
+    public void testPrecompute_evictedTweetsArePrecomputedAgain() {
+        precomputer.precompute(createTweets(1, TweetRepository.RENDER_MODEL_CACHE_SIZE + 1));
+        assertEquals(TweetRepository.RENDER_MODEL_CACHE_SIZE, precomputer.modeledIds.size());
+
+        precomputer.precompute(createTweets(1, 1));
+        verify(mockExecutorService, times(2)).submit(any(Runnable.class));
+    }
+
+    @Test
+    public void testPrecompute_withoutTweets() {
+        precomputer.precompute(new ArrayList<>());
+        verifyZeroInteractions(mockExecutorService);
+    }
+
+    private static List<Tweet> createTweets(int firstId, int lastId) {
+        final List<Tweet> tweets = new ArrayList<>();
+        for (long id = firstId; id <= lastId; id++) {
+            tweets.add(new TweetBuilder().setId(id).setText("Tweet " + id).build());
+        }
+        return tweets;
+    }
+}
@@ -20,11 +20,16 @@ package com.twitter.sdk.android.tweetui;
 import com.twitter.sdk.android.core.models.Tweet;
 import com.twitter.sdk.android.core.models.TweetBuilder;
 import com.twitter.sdk.android.core.models.UrlEntity;
+import com.twitter.sdk.android.tweetui.internal.util.HtmlEntities;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 
 @RunWith(RobolectricTestRunner.class)
@@ -112,6 +117,185 @@ public class TweetTextUtilsTest {
         assertEquals(47, formattedTweetText.urlEntities.get(0).end);
     }
 
+    @Test
+    public void testFormat_entitiesCoverTheirText() {
+        final Random random = new Random(42);
+        for (int run = 0; run < 500; run++) {
+            final GeneratedTweet generated = generateTweet(random, true);
+            final FormattedTweetText formattedTweetText = generated.formattedTweetText();
+            TweetTextUtils.format(formattedTweetText, generated.tweet());
+
+            final List<FormattedUrlEntity> entities = allEntities(formattedTweetText);
+            for (int i = 0; i < entities.size(); i++) {
+                final FormattedUrlEntity entity = entities.get(i);
+                assertEquals(generated.text, generated.words.get(i),
+                        formattedTweetText.text.substring(entity.start, entity.end));
+            }
+        }
+    }
+
+    @Test
+    public void testFormat_agreesWithSeparatePasses() {
+        final Random random = new Random(7);
+        for (int run = 0; run < 500; run++) {
+            // the separate passes mixed char and code point indices, so compare without emoji
+            final GeneratedTweet generated = generateTweet(random, false);
+            final FormattedTweetText formattedTweetText = generated.formattedTweetText();
+            final FormattedTweetText expected = generated.formattedTweetText();
+            TweetTextUtils.format(formattedTweetText, generated.tweet());
+            formatWithSeparatePasses(expected, generated.text);
+
+            assertEquals(expected.text, formattedTweetText.text);
+            final List<FormattedUrlEntity> entities = allEntities(formattedTweetText);
+            final List<FormattedUrlEntity> expectedEntities = allEntities(expected);
+            for (int i = 0; i < entities.size(); i++) {
+                assertEquals(generated.text, expectedEntities.get(i).start,
+                        entities.get(i).start);
+                assertEquals(generated.text, expectedEntities.get(i).end, entities.get(i).end);
+            }
+        }
+    }
+
+    @Test
+    public void testFormat_withEmojiInsideEntity() {
+        final FormattedTweetText formattedTweetText = new FormattedTweetText();
+        // #a\ud83d\ude00b, where the hashtag spans four code points
+        formattedTweetText.hashtagEntities.add(new FormattedUrlEntity(2, 6, "", "", ""));
+
+        final Tweet tweet = new TweetBuilder().setText("\ud83d\udc93 #a\ud83d\ude00b").build();
+        TweetTextUtils.format(formattedTweetText, tweet);
+
+        assertEquals(3, formattedTweetText.hashtagEntities.get(0).start);
+        assertEquals(8, formattedTweetText.hashtagEntities.get(0).end);
+    }
+
+    static final String[] ESCAPES = {"&amp;", "&lt;", "&gt;", "&quot;", "&#39;", "&#x22;"};
+    static final String[] UNESCAPED = {"&", "<", ">", "\"", "'", "\""};
+    static final String[] EMOJI = {"\ud83d\ude00", "\ud83d\udc69\ud83c\udffd", "\u2764"};
+
+    /**
+     * Generates escaped texts of words, escapes, emoji and stray ampersands, with entities on
+     * some of the words.
+     */
+    static GeneratedTweet generateTweet(Random random, boolean withEmoji) {
+        final StringBuilder text = new StringBuilder();
+        final List<int[]> indices = new ArrayList<>();
+        final List<String> words = new ArrayList<>();
+        final int tokens = 1 + random.nextInt(30);
+        for (int t = 0; t < tokens; t++) {
+            if (t > 0) {
+                text.append(' ');
+            }
+            final int kind = random.nextInt(withEmoji ? 5 : 4);
+            if (kind == 0) {
+                text.append(ESCAPES[random.nextInt(ESCAPES.length)]);
+            } else if (kind == 1) {
+                text.append(random.nextBoolean() ? "&" : ";");
+            } else if (kind == 4) {
+                text.append(EMOJI[random.nextInt(EMOJI.length)]);
+            } else {
+                final StringBuilder word = new StringBuilder();
+                final int length = 1 + random.nextInt(8);
+                for (int c = 0; c < length; c++) {
+                    word.append((char) ('a' + random.nextInt(26)));
+                }
+                if (random.nextBoolean()) {
+                    final int start = text.codePointCount(0, text.length());
+                    indices.add(new int[] {start, start + length});
+                    words.add(word.toString());
+                }
+                text.append(word);
+            }
+        }
+        return new GeneratedTweet(text.toString(), indices, words);
+    }
+
+    static List<FormattedUrlEntity> allEntities(FormattedTweetText formattedTweetText) {
+        final List<FormattedUrlEntity> entities = new ArrayList<>();
+        final int size = formattedTweetText.urlEntities.size();
+        for (int i = 0; i < size; i++) {
+            entities.add(formattedTweetText.urlEntities.get(i));
+            entities.add(formattedTweetText.mediaEntities.get(i));
+            entities.add(formattedTweetText.hashtagEntities.get(i));
+            entities.add(formattedTweetText.mentionEntities.get(i));
+            entities.add(formattedTweetText.symbolEntities.get(i));
+        }
+        return entities;
+    }
+
+    static class GeneratedTweet {
+        final String text;
+        final List<int[]> indices;
+        final List<String> words;
+
+        GeneratedTweet(String text, List<int[]> indices, List<String> words) {
+            this.text = text;
+            this.indices = indices;
+            // every entity list holds an entity for each word
+            this.words = new ArrayList<>();
+            for (String word : words) {
+                for (int i = 0; i < 5; i++) {
+                    this.words.add(word);
+                }
+            }
+        }
+
+        Tweet tweet() {
+            return new TweetBuilder().setText(text).build();
+        }
+
+        FormattedTweetText formattedTweetText() {
+            final FormattedTweetText formattedTweetText = new FormattedTweetText();
+            for (int[] index : indices) {
+                formattedTweetText.urlEntities.add(entity(index));
+                formattedTweetText.mediaEntities.add(new FormattedMediaEntity(
+                        TestFixtures.newMediaEntity(index[0], index[1], "photo")));
+                formattedTweetText.hashtagEntities.add(entity(index));
+                formattedTweetText.mentionEntities.add(entity(index));
+                formattedTweetText.symbolEntities.add(entity(index));
+            }
+            return formattedTweetText;
+        }
+
+        static FormattedUrlEntity entity(int[] index) {
+            return new FormattedUrlEntity(index[0], index[1], "", "", "");
+        }
+    }
+
+    /**
+     * The html unescaping and index adjustments TweetTextUtils.format made in separate passes.
+     */
+    static void formatWithSeparatePasses(FormattedTweetText formattedTweetText, String text) {
+        final HtmlEntities.Unescaped u = HtmlEntities.HTML40.unescape(text);
+        adjustIndicesForEscapedChars(formattedTweetText.urlEntities, u.indices);
+        adjustIndicesForEscapedChars(formattedTweetText.mediaEntities, u.indices);
+        adjustIndicesForEscapedChars(formattedTweetText.hashtagEntities, u.indices);
+        adjustIndicesForEscapedChars(formattedTweetText.mentionEntities, u.indices);
+        adjustIndicesForEscapedChars(formattedTweetText.symbolEntities, u.indices);
+        formattedTweetText.text = u.unescaped;
+    }
+
+    static void adjustIndicesForEscapedChars(List<? extends FormattedUrlEntity> entities,
+            List<int[]> indices) {
+        int m = 0;
+        int diff = 0;
+        for (FormattedUrlEntity entity : entities) {
+            int inDiff = 0;
+            for (int i = m; i < indices.size(); i++) {
+                final int[] index = indices.get(i);
+                final int len = index[1] - index[0];
+                if (index[1] < entity.start) {
+                    diff += len;
+                    m++;
+                } else if (index[1] < entity.end) {
+                    inDiff += len;
+                }
+            }
+            entity.start = entity.start - (diff + inDiff);
+            entity.end = entity.end - (diff + inDiff);
+        }
+    }
+
     private Tweet setupTweetToBeFormatted() {
         return new TweetBuilder().setText(ESCAPED_TWEET_TEXT).build();
     }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricTestRunner.class)
+public class TweetViewPoolTest {
+    private static final int SIZE = 2;
+
+    private TweetViewPool.Factory mockFactory;
+    private CompactTweetView mockView;
+    private TweetViewPool viewPool;
+
+    @Before
+    public void setUp() throws Exception {
+        mockFactory = mock(TweetViewPool.Factory.class);
+        mockView = mock(CompactTweetView.class);
+        when(mockFactory.create()).thenReturn(mockView);
+        viewPool = new TweetViewPool(mockFactory, SIZE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_negativeSize() {
+        new TweetViewPool(mockFactory, -1);
+    }
+
+    @Test
+    public void testQueueIdle_createsOneViewPerCallback() {
+        viewPool.start();
+        assertTrue(viewPool.queueIdle());
+        verify(mockFactory).create();
+
+        assertFalse(viewPool.queueIdle());
+        verify(mockFactory, times(SIZE)).create();
+        assertFalse(viewPool.started);
+        assertEquals(SIZE, viewPool.views.size());
+    }
+
+    @Test
+    public void testAcquire() {
+        assertNull(viewPool.acquire());
+
+        viewPool.queueIdle();
+        assertSame(mockView, viewPool.acquire());
+        assertNull(viewPool.acquire());
+    }
+
+    @Test
+    public void testAcquire_stopsEmptyPool() {
+        viewPool.start();
+        viewPool.queueIdle();
+        assertSame(mockView, viewPool.acquire());
+        assertTrue(viewPool.started);
+
+        assertNull(viewPool.acquire());
+        assertFalse(viewPool.started);
+    }
+
+    @Test
+    public void testStart_fullPoolIsNotStarted() {
+        viewPool.queueIdle();
+        viewPool.queueIdle();
+        viewPool.acquire();
+
+        viewPool.start();
+        assertFalse(viewPool.started);
+    }
+
+    @Test
+    public void testStop_dropsViews() {
+        viewPool.start();
+        viewPool.queueIdle();
+        viewPool.stop();
+
+        assertFalse(viewPool.started);
+        assertNull(viewPool.acquire());
+    }
+}
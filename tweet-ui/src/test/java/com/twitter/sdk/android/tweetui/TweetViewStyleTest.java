@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import android.content.Context;
+import android.graphics.Color;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class TweetViewStyleTest {
+
+    @Test
+    public void testGet_cachesPerStyle() {
+        final Context context = RuntimeEnvironment.application;
+        final TweetViewStyle light = TweetViewStyle.get(context, R.style.tw__TweetLightStyle);
+        final TweetViewStyle dark = TweetViewStyle.get(context, R.style.tw__TweetDarkStyle);
+
+        assertSame(light, TweetViewStyle.get(context, R.style.tw__TweetLightStyle));
+        assertSame(dark, TweetViewStyle.get(context, R.style.tw__TweetDarkStyle));
+        assertNotSame(light, dark);
+    }
+
+    @Test
+    public void testGet_derivesColors() {
+        final Context context = RuntimeEnvironment.application;
+        final TweetViewStyle light = TweetViewStyle.get(context, R.style.tw__TweetLightStyle);
+        final TweetViewStyle dark = TweetViewStyle.get(context, R.style.tw__TweetDarkStyle);
+
+        assertEquals(context.getResources().getColor(R.color.tw__tweet_dark_container_bg_color),
+                dark.containerBgColor);
+        assertEquals(R.drawable.tw__ic_logo_blue, light.birdLogoResId);
+        assertEquals(R.drawable.tw__ic_logo_white, dark.birdLogoResId);
+        assertEquals(ColorUtils.calculateOpacityTransform(
+                AbstractTweetView.SECONDARY_TEXT_COLOR_DARK_OPACITY, Color.BLACK,
+                dark.primaryTextColor), dark.secondaryTextColor);
+    }
+
+    @Test
+    public void testGet_actionsStyle() {
+        final Context context = RuntimeEnvironment.application;
+        assertFalse(TweetViewStyle.get(context, R.style.tw__TweetLightStyle).tweetActionsEnabled);
+        assertTrue(TweetViewStyle.get(context, R.style.tw__TweetLightWithActionsStyle)
+                .tweetActionsEnabled);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui;
+
+import com.twitter.sdk.android.core.models.MediaEntity;
+import com.twitter.sdk.android.core.models.Tweet;
+import com.twitter.sdk.android.core.models.TweetBuilder;
+import com.twitter.sdk.android.core.models.TweetEntities;
+import com.twitter.sdk.android.core.models.VideoInfo;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+public class TweetViewTypeTest {
+
+    @Test
+    public void testOf_nullTweet() {
+        assertEquals(TweetViewType.TEXT, TweetViewType.of(null));
+    }
+
+    @Test
+    public void testOf_textTweet() {
+        assertEquals(TweetViewType.TEXT, TweetViewType.of(TestFixtures.TEST_TWEET));
+    }
+
+    @Test
+    public void testOf_photoTweet() {
+        assertEquals(TweetViewType.PHOTO, TweetViewType.of(TestFixtures.TEST_PHOTO_TWEET));
+    }
+
+    @Test
+    public void testOf_multiplePhotoTweet() {
+        assertEquals(TweetViewType.MULTI_PHOTO,
+                TweetViewType.of(TestFixtures.TEST_MULTIPLE_PHOTO_TWEET));
+    }
+
+    @Test
+    public void testOf_retweetUsesRetweetedStatus() {
+        final Tweet retweet = TestFixtures.createRetweet(5L, TestFixtures.TEST_RETWEETER,
+                TestFixtures.TEST_PHOTO_TWEET);
+        assertEquals(TweetViewType.PHOTO, TweetViewType.of(retweet));
+    }
+
+    @Test
+    public void testOf_videoTweet() {
+        final VideoInfo.Variant variant = new VideoInfo.Variant(0, "video/mp4", null);
+        final MediaEntity entity = TestFixtures.createEntityWithVideo(
+                TestFixtures.createVideoInfoWithVariant(variant));
+        final TweetEntities entities = new TweetEntities(null, null,
+                Collections.singletonList(entity), null, null);
+        final Tweet tweet = new TweetBuilder().setExtendedEntities(entities).build();
+
+        assertEquals(TweetViewType.VIDEO, TweetViewType.of(tweet));
+    }
+
+    @Test
+    public void testOf_vineTweet() {
+        final Tweet validVine = TestFixtures.createTweetWithVineCard(6L, TestFixtures.TEST_USER,
+                TestFixtures.TEST_STATUS, TestFixtures.sampleValidVineCard());
+        assertEquals(TweetViewType.VIDEO, TweetViewType.of(validVine));
+
+        final Tweet invalidVine = TestFixtures.createTweetWithVineCard(7L, TestFixtures.TEST_USER,
+                TestFixtures.TEST_STATUS, TestFixtures.sampleInvalidVineCard());
+        assertEquals(TweetViewType.TEXT, TweetViewType.of(invalidVine));
+    }
+
+    @Test
+    public void testOf_quoteTweet() {
+        final Tweet tweet = new TweetBuilder().setId(8L)
+                .setQuotedStatus(TestFixtures.TEST_TWEET).build();
+        assertEquals(TweetViewType.QUOTE, TweetViewType.of(tweet));
+    }
+
+    @Test
+    public void testBindMetrics_countsPerViewType() {
+        final BindMetrics bindMetrics = new BindMetrics();
+        bindMetrics.onCreate(TweetViewType.PHOTO, 100);
+        bindMetrics.onBind(TweetViewType.PHOTO, 20);
+        bindMetrics.onBind(TweetViewType.PHOTO, 30);
+        bindMetrics.onBind(TweetViewType.QUOTE, 40);
+        bindMetrics.onBind(TweetViewType.COUNT, 50);
+
+        final TimelineBindStats stats = bindMetrics.getStats();
+        assertEquals(1, stats.photo.createCount);
+        assertEquals(100, stats.photo.createNanos);
+        assertEquals(2, stats.photo.bindCount);
+        assertEquals(50, stats.photo.bindNanos);
+        assertEquals(1, stats.quote.bindCount);
+        assertEquals(0, stats.text.bindCount);
+    }
+}
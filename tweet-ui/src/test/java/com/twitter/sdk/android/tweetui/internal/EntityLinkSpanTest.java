@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal;
+
+import android.graphics.Color;
+import android.text.Layout;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.SpannedString;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.style.BackgroundColorSpan;
+import android.view.MotionEvent;
+import android.widget.TextView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@RunWith(RobolectricTestRunner.class)
+public class EntityLinkSpanTest {
+    private static final int LINK_COLOR = Color.BLUE;
+
+    @Test
+    public void testUpdateDrawState_usesLinkColor() {
+        final TextPaint textPaint = new TextPaint();
+        textPaint.linkColor = LINK_COLOR;
+
+        new EntityLinkSpan(0).updateDrawState(textPaint);
+
+        assertEquals(LINK_COLOR, textPaint.getColor());
+        assertEquals(0, textPaint.bgColor);
+        assertFalse(textPaint.isUnderlineText());
+    }
+
+    @Test
+    public void testOnClick_dispatchesEntityIndex() {
+        final TextView textView = new TextView(RuntimeEnvironment.application);
+        final SpanClickHandler.OnEntityClickListener listener =
+                mock(SpanClickHandler.OnEntityClickListener.class);
+        SpanClickHandler.enableClicksOnEntities(textView, listener);
+
+        new EntityLinkSpan(3).onClick(textView);
+
+        verify(listener).onEntityClick(3);
+    }
+
+    @Test
+    public void testOnClick_withoutHandler() {
+        final TextView textView = new TextView(RuntimeEnvironment.application);
+        final SpanClickHandler.OnEntityClickListener listener =
+                mock(SpanClickHandler.OnEntityClickListener.class);
+        SpanClickHandler.enableClicksOnEntities(textView, listener);
+
+        new EntityLinkSpan(3).onClick(new TextView(RuntimeEnvironment.application));
+
+        verifyZeroInteractions(listener);
+    }
+
+    @Test
+    public void testPress_highlightsCopyOfSharedText() {
+        final SpannableString linkified = new SpannableString("hello world");
+        linkified.setSpan(new EntityLinkSpan(0), 0, 5, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        final SpannedString shared = new SpannedString(linkified);
+        final TextView textView = new TextView(RuntimeEnvironment.application);
+        textView.setText(shared);
+        final Layout layout = new StaticLayout(shared, new TextPaint(), 1000,
+                Layout.Alignment.ALIGN_NORMAL, 1.0f, 0.0f, true);
+        final SpanClickHandler handler = new SpanClickHandler(textView, layout);
+
+        handler.handleTouchEvent(MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, 1, 1, 0));
+        assertEquals(0, shared.getSpans(0, shared.length(), BackgroundColorSpan.class).length);
+        final Spanned pressed = (Spanned) textView.getText();
+        assertTrue(pressed != shared);
+        assertEquals(1, pressed.getSpans(0, pressed.length(), BackgroundColorSpan.class).length);
+
+        handler.handleTouchEvent(MotionEvent.obtain(0, 0, MotionEvent.ACTION_CANCEL, 1, 1, 0));
+        assertEquals(0, pressed.getSpans(0, pressed.length(), BackgroundColorSpan.class).length);
+    }
+}
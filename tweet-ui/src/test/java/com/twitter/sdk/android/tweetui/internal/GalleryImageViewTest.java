@@ -86,18 +86,18 @@ public class GalleryImageViewTest {
     }
 
     @Test
-    public void testOnBitmapLoaded() {
-        subject.onBitmapLoaded(bitmap, null);
+    public void testOnImageLoaded() {
+        subject.onImageLoaded(bitmap);
 
         verify(subject.imageView).setImageBitmap(bitmap);
         verify(subject.progressBar).setVisibility(View.GONE);
     }
 
     @Test
-    public void testOnBitmapFailed() {
+    public void testOnImageFailed() {
         reset(subject.imageView, subject.progressBar);
 
-        subject.onBitmapFailed(drawable);
+        subject.onImageFailed(drawable);
 
         verifyZeroInteractions(subject.imageView, subject.progressBar);
     }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal;
+
+import com.twitter.sdk.android.core.internal.UserUtils;
+import com.twitter.sdk.android.core.models.MediaEntity;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ImageVariantsTest {
+    private static final String MEDIA_URL = "https://pbs.twimg.com/media/image.jpg";
+    // sizes of a 2048x1536 photo
+    private static final MediaEntity.Sizes SIZES = new MediaEntity.Sizes(
+            new MediaEntity.Size(150, 150, "crop"),
+            new MediaEntity.Size(680, 510, "fit"),
+            new MediaEntity.Size(1200, 900, "fit"),
+            new MediaEntity.Size(2048, 1536, "fit"));
+
+    @Test
+    public void testGetMediaUrl_smallestCoveringVariant() {
+        final MediaEntity entity = createEntity(SIZES);
+        assertEquals(MEDIA_URL + ImageVariants.THUMB,
+                ImageVariants.getMediaUrl(entity, 150, 150, 1.0f));
+        assertEquals(MEDIA_URL + ImageVariants.SMALL,
+                ImageVariants.getMediaUrl(entity, 600, 375, 1.0f));
+        assertEquals(MEDIA_URL + ImageVariants.MEDIUM,
+                ImageVariants.getMediaUrl(entity, 1080, 675, 1.0f));
+        assertEquals(MEDIA_URL + ImageVariants.LARGE,
+                ImageVariants.getMediaUrl(entity, 1440, 900, 1.0f));
+        assertEquals(MEDIA_URL + ImageVariants.LARGE,
+                ImageVariants.getMediaUrl(entity, 4096, 2048, 1.0f));
+    }
+
+    @Test
+    public void testGetMediaUrl_cropOnlyForSimilarAspectRatio() {
+        final MediaEntity entity = createEntity(SIZES);
+        assertEquals(MEDIA_URL + ImageVariants.SMALL,
+                ImageVariants.getMediaUrl(entity, 150, 80, 1.0f));
+    }
+
+    @Test
+    public void testGetMediaUrl_withSizeBias() {
+        final MediaEntity entity = createEntity(SIZES);
+        assertEquals(MEDIA_URL + ImageVariants.SMALL,
+                ImageVariants.getMediaUrl(entity, 1080, 675, 0.5f));
+    }
+
+    @Test
+    public void testGetMediaUrl_withoutSizes() {
+        final MediaEntity entity = createEntity(null);
+        assertEquals(MEDIA_URL + ImageVariants.THUMB,
+                ImageVariants.getMediaUrl(entity, 100, 150, 1.0f));
+        assertEquals(MEDIA_URL + ImageVariants.SMALL,
+                ImageVariants.getMediaUrl(entity, 680, 300, 1.0f));
+        assertEquals(MEDIA_URL + ImageVariants.MEDIUM,
+                ImageVariants.getMediaUrl(entity, 1080, 675, 1.0f));
+        assertEquals(MEDIA_URL + ImageVariants.LARGE,
+                ImageVariants.getMediaUrl(entity, 1440, 900, 1.0f));
+    }
+
+    @Test
+    public void testGetMediaUrl_withMissingLargeSize() {
+        final MediaEntity entity = createEntity(new MediaEntity.Sizes(null, null,
+                new MediaEntity.Size(1200, 900, "fit"), null));
+        assertEquals(MEDIA_URL + ImageVariants.MEDIUM,
+                ImageVariants.getMediaUrl(entity, 150, 150, 1.0f));
+        assertEquals(MEDIA_URL + ImageVariants.MEDIUM,
+                ImageVariants.getMediaUrl(entity, 1440, 900, 1.0f));
+    }
+
+    @Test
+    public void testCovers() {
+        final MediaEntity.Size fit = new MediaEntity.Size(680, 510, "fit");
+        assertTrue(ImageVariants.covers(fit, 680, 510));
+        assertFalse(ImageVariants.covers(fit, 681, 400));
+        assertFalse(ImageVariants.covers(null, 1, 1));
+        assertFalse(ImageVariants.covers(new MediaEntity.Size(0, 0, "fit"), 0, 0));
+    }
+
+    @Test
+    public void testGetAvatarSize() {
+        assertEquals(UserUtils.AvatarSize.MINI, ImageVariants.getAvatarSize(24, 1.0f));
+        assertEquals(UserUtils.AvatarSize.NORMAL, ImageVariants.getAvatarSize(36, 1.0f));
+        assertEquals(UserUtils.AvatarSize.BIGGER, ImageVariants.getAvatarSize(72, 1.0f));
+        assertEquals(UserUtils.AvatarSize.REASONABLY_SMALL,
+                ImageVariants.getAvatarSize(108, 1.0f));
+        assertEquals(UserUtils.AvatarSize.REASONABLY_SMALL,
+                ImageVariants.getAvatarSize(400, 1.0f));
+    }
+
+    @Test
+    public void testGetAvatarSize_withSizeBias() {
+        assertEquals(UserUtils.AvatarSize.BIGGER, ImageVariants.getAvatarSize(108, 0.5f));
+    }
+
+    private static MediaEntity createEntity(MediaEntity.Sizes sizes) {
+        return new MediaEntity(null, null, null, 0, 0, 0L, null, null, MEDIA_URL, sizes, 0L,
+                null, "photo", null, "");
+    }
+}
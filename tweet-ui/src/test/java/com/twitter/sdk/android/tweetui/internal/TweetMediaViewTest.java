@@ -18,6 +18,7 @@
 package com.twitter.sdk.android.tweetui.internal;
 
 import android.graphics.Color;
+import android.graphics.Rect;
 import android.graphics.drawable.Drawable;
 import android.view.View;
 import android.widget.ImageView;
@@ -40,8 +41,10 @@ import java.util.List;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.mock;
@@ -145,6 +148,67 @@ public class TweetMediaViewTest {
         assertArrayEquals(new float[]{1, 1, 2, 2, 3, 3, 4, 4}, tweetMediaView.radii, 0);
     }
 
+    @Test
+    public void testSetRoundedCornersRadii_photosClipToOutline() {
+        tweetMediaView.setRoundedCornersRadii(8, 8, 8, 8);
+        assertFalse(tweetMediaView.getClipToOutline());
+
+        final List<MediaEntity> mediaEntities = TestFixtures.createMultipleMediaEntitiesWithPhoto
+                (TweetMediaView.MAX_IMAGE_VIEW_COUNT, 100, 100);
+        tweetMediaView.setTweetMediaEntities(TestFixtures.TEST_TWEET, mediaEntities);
+        assertTrue(tweetMediaView.getClipToOutline());
+
+        tweetMediaView.setRoundedCornersRadii(1, 2, 3, 4);
+        assertFalse(tweetMediaView.getClipToOutline());
+    }
+
+    @Test
+    public void testComputeOutline() {
+        final Rect outsets = new Rect();
+        assertEquals(0, TweetMediaView.computeOutline(radii(0, 0, 0, 0), outsets), 0);
+        assertEquals(8, TweetMediaView.computeOutline(radii(8, 8, 8, 8), outsets), 0);
+        assertEquals(new Rect(0, 0, 0, 0), outsets);
+    }
+
+    @Test
+    public void testComputeOutline_pushesOutSquareCorners() {
+        final Rect outsets = new Rect();
+        assertEquals(8, TweetMediaView.computeOutline(radii(0, 0, 8, 8), outsets), 0);
+        assertEquals(new Rect(0, 8, 0, 0), outsets);
+        assertEquals(8, TweetMediaView.computeOutline(radii(8, 0, 0, 8), outsets), 0);
+        assertEquals(new Rect(0, 0, 8, 0), outsets);
+        assertEquals(8, TweetMediaView.computeOutline(radii(8, 0, 0, 0), outsets), 0);
+        assertEquals(new Rect(0, 0, 8, 8), outsets);
+    }
+
+    @Test
+    public void testComputeOutline_withUnsupportedRadii() {
+        final Rect outsets = new Rect();
+        assertEquals(-1, TweetMediaView.computeOutline(radii(1, 2, 3, 4), outsets), 0);
+        assertEquals(-1, TweetMediaView.computeOutline(radii(8, 8, 8, 0), outsets), 0);
+        assertEquals(-1, TweetMediaView.computeOutline(radii(8, 0, 8, 0), outsets), 0);
+        assertEquals(new Rect(0, 0, 0, 0), outsets);
+    }
+
+    @Test
+    public void testGetImageBounds() {
+        final int divider = RuntimeEnvironment.application.getResources()
+                .getDimensionPixelSize(R.dimen.tw__media_view_divider_size);
+        final int half = (100 - divider) / 2;
+        final Rect bounds = new Rect();
+
+        tweetMediaView.getImageBounds(0, 1, 100, 100, bounds);
+        assertEquals(new Rect(0, 0, 100, 100), bounds);
+        tweetMediaView.getImageBounds(1, 2, 100, 100, bounds);
+        assertEquals(new Rect(half + divider, 0, 100, 100), bounds);
+        tweetMediaView.getImageBounds(0, 3, 100, 100, bounds);
+        assertEquals(new Rect(0, 0, half, 100), bounds);
+        tweetMediaView.getImageBounds(2, 3, 100, 100, bounds);
+        assertEquals(new Rect(half + divider, half + divider, 100, 100), bounds);
+        tweetMediaView.getImageBounds(2, 4, 100, 100, bounds);
+        assertEquals(new Rect(0, half + divider, half, 100), bounds);
+    }
+
     @Test
     public void testSetAltText_withEmptyString() {
         final OverlayImageView imageView = mock(OverlayImageView.class);
@@ -188,4 +252,9 @@ public class TweetMediaViewTest {
             assertEquals(View.GONE, imageView.getVisibility());
         }
     }
+
+    private static float[] radii(int topLeft, int topRight, int bottomRight, int bottomLeft) {
+        return new float[]{topLeft, topLeft, topRight, topRight, bottomRight, bottomRight,
+                bottomLeft, bottomLeft};
+    }
 }
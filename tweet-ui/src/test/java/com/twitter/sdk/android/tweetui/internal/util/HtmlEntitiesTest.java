@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HtmlEntitiesTest {
+    private static final String[] FRAGMENTS = {
+            "&", ";", "#", "x", "X", "-", "+", "a", "amp", "lt", "gt", "quot", "nbsp", "euro",
+            "sup2", "frac14", "there4", "Alpha", "alpha", "ampx", "am", "0", "9", "34", "65535",
+            "2147483647", "2147483648", "-1", "-2147483648", "ff", "FF", "g", "\u0663", " ",
+            "\ud83d\udc93"
+    };
+
+    @Test
+    public void testEntityValue_allHtml40Entities() {
+        assertEntityValues(HtmlEntities.ISO8859_1_ARRAY);
+        assertEntityValues(HtmlEntities.HTML40_ARRAY);
+        assertEquals(38, HtmlEntities.HTML40.entityValue("amp"));
+    }
+
+    @Test
+    public void testEntityValue_withUnknownNames() {
+        assertEquals(-1, HtmlEntities.HTML40.entityValue(""));
+        assertEquals(-1, HtmlEntities.HTML40.entityValue("am"));
+        assertEquals(-1, HtmlEntities.HTML40.entityValue("ampx"));
+        assertEquals(-1, HtmlEntities.HTML40.entityValue("AMP"));
+    }
+
+    @Test
+    public void testEntityValue_inPlace() {
+        final String str = "a &amp; b &#x22; c &#34; d &foo;";
+
+        assertEquals('&', HtmlEntities.HTML40.entityValue(str, 3, 6));
+        assertEquals('"', HtmlEntities.HTML40.entityValue(str, 11, 15));
+        assertEquals('"', HtmlEntities.HTML40.entityValue(str, 20, 23));
+        assertEquals(-1, HtmlEntities.HTML40.entityValue(str, 28, 31));
+        assertEquals(-1, HtmlEntities.HTML40.entityValue(str, 3, 3));
+    }
+
+    @Test
+    public void testParseInt_agreesWithInteger() {
+        final String[] inputs = {
+                "0", "7", "42", "+42", "-42", "-", "+", "", "4a", "a4", "2147483647",
+                "2147483648", "-2147483648", "-2147483649", "99999999999", "\u0663\u0664", "ff",
+                "FF", "7fffffff", "80000000", "-80000000", "-80000001", "x1"
+        };
+        for (String input : inputs) {
+            assertEquals(input, parseInt(input, 10),
+                    HtmlEntities.parseInt(input, 0, input.length(), 10));
+            assertEquals(input, parseInt(input, 16),
+                    HtmlEntities.parseInt(input, 0, input.length(), 16));
+        }
+    }
+
+    @Test
+    public void testUnescape_withoutEscapes() {
+        final String str = "Nothing to see here";
+        final HtmlEntities.Unescaped unescaped = HtmlEntities.HTML40.unescape(str);
+
+        assertEquals(str, unescaped.unescaped);
+        assertTrue(unescaped.indices.isEmpty());
+    }
+
+    @Test
+    public void testUnescape_recordsIndices() {
+        final HtmlEntities.Unescaped unescaped =
+                HtmlEntities.HTML40.unescape("&lt;b&gt; &foo; &&amp;");
+
+        assertEquals("<b> &foo; &&", unescaped.unescaped);
+        assertEquals(3, unescaped.indices.size());
+        assertArrayEquals(new int[] { 0, 3 }, unescaped.indices.get(0));
+        assertArrayEquals(new int[] { 5, 8 }, unescaped.indices.get(1));
+        assertArrayEquals(new int[] { 17, 21 }, unescaped.indices.get(2));
+    }
+
+    @Test
+    public void testUnescape_agreesWithMapLookup() {
+        final ReferenceEntities reference = new ReferenceEntities();
+        final Random random = new Random(36);
+        for (int run = 0; run < 5000; run++) {
+            final StringBuilder str = new StringBuilder();
+            final int fragments = random.nextInt(12);
+            for (int i = 0; i < fragments; i++) {
+                str.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            final String input = str.toString();
+
+            final HtmlEntities.Unescaped expected = reference.unescape(input);
+            final HtmlEntities.Unescaped actual = HtmlEntities.HTML40.unescape(input);
+            assertEquals(input, expected.unescaped, actual.unescaped);
+            assertEquals(input, expected.indices.size(), actual.indices.size());
+            for (int i = 0; i < expected.indices.size(); i++) {
+                assertArrayEquals(input, expected.indices.get(i), actual.indices.get(i));
+            }
+        }
+    }
+
+    private static void assertEntityValues(String[][] entities) {
+        for (String[] entity : entities) {
+            final int value = Integer.parseInt(entity[1]);
+            assertEquals(entity[0], value, HtmlEntities.HTML40.entityValue(entity[0]));
+
+            final String escaped = "x&" + entity[0] + ";";
+            assertEquals(entity[0], value,
+                    HtmlEntities.HTML40.entityValue(escaped, 2, escaped.length() - 1));
+        }
+    }
+
+    private static int parseInt(String str, int radix) {
+        try {
+            return Integer.parseInt(str, radix);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * The HashMap and substring based unescape HtmlEntities used before the trie.
+     */
+    static class ReferenceEntities {
+        private final Map<String, Integer> entities = new HashMap<>();
+
+        ReferenceEntities() {
+            add(HtmlEntities.ISO8859_1_ARRAY);
+            add(HtmlEntities.HTML40_ARRAY);
+            entities.put("quot", 34);
+            entities.put("amp", 38);
+            entities.put("lt", 60);
+            entities.put("gt", 62);
+        }
+
+        private void add(String[][] array) {
+            for (String[] entity : array) {
+                entities.put(entity[0], Integer.parseInt(entity[1]));
+            }
+        }
+
+        int entityValue(String entityName) {
+            final int entityNameLength = entityName.length();
+            int entityValue = -1;
+            if (entityNameLength > 0) {
+                if (entityName.charAt(0) == '#' && entityNameLength > 1) {
+                    final char charAt1 = entityName.charAt(1);
+                    try {
+                        if (charAt1 == 'x' || charAt1 == 'X') {
+                            if (entityNameLength > 2) {
+                                entityValue = Integer.valueOf(entityName.substring(2), 16);
+                            }
+                        } else {
+                            entityValue = Integer.parseInt(entityName.substring(1));
+                        }
+                    } catch (Exception ignore) {
+                    }
+                } else {
+                    final Integer value = entities.get(entityName);
+                    entityValue = value == null ? -1 : value;
+                }
+            }
+            return entityValue;
+        }
+
+        HtmlEntities.Unescaped unescape(String str) {
+            final int length = str.length();
+            final StringBuilder buf = new StringBuilder(length);
+            final ArrayList<int[]> indices = new ArrayList<>();
+            for (int i = 0; i < length; ++i) {
+                final char ch = str.charAt(i);
+                if (ch == '&') {
+                    final int semi = str.indexOf(';', i + 1);
+                    if (semi == -1) {
+                        buf.append(ch);
+                        continue;
+                    }
+                    final String entityName = str.substring(i + 1, semi);
+                    final int entityValue = entityValue(entityName);
+                    if (entityValue == -1) {
+                        buf.append('&');
+                        if (entityName.indexOf('&') == -1) {
+                            buf.append(entityName);
+                            buf.append(';');
+                            i = semi;
+                        }
+                    } else {
+                        buf.append((char) entityValue);
+                        indices.add(new int[] { i, semi });
+                        i = semi;
+                    }
+                } else {
+                    buf.append(ch);
+                }
+            }
+            return new HtmlEntities.Unescaped(buf.toString(), indices);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2017 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.tweetui.internal.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+public class LongBloomFilterTest {
+
+    @Test
+    public void testMightContain_withAddedKeys() {
+        final LongBloomFilter filter = new LongBloomFilter(1000, 0.01);
+        for (long key = 0; key < 1000; key++) {
+            filter.put(key * 7919);
+        }
+
+        for (long key = 0; key < 1000; key++) {
+            assertTrue(filter.mightContain(key * 7919));
+        }
+    }
+
+    @Test
+    public void testMightContain_falsePositiveRate() {
+        final LongBloomFilter filter = new LongBloomFilter(10000, 0.01);
+        for (long key = 1; key <= 10000; key++) {
+            filter.put(key);
+        }
+
+        int falsePositives = 0;
+        for (long key = 10001; key <= 110000; key++) {
+            if (filter.mightContain(key)) {
+                falsePositives++;
+            }
+        }
+        // within twice the configured rate
+        assertTrue("false positives " + falsePositives, falsePositives < 2000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_withInvalidRate() {
+        new LongBloomFilter(10, 1.0);
+    }
+}
@@ -23,6 +23,7 @@ import com.twitter.sdk.android.core.internal.TwitterApi;
 import com.twitter.sdk.android.core.internal.network.OkHttpClientHelper;
 import com.twitter.sdk.android.core.models.BindingValues;
 import com.twitter.sdk.android.core.models.BindingValuesAdapter;
+import com.twitter.sdk.android.core.models.CollectionContentAdapter;
 import com.twitter.sdk.android.core.models.SafeListAdapter;
 import com.twitter.sdk.android.core.models.SafeMapAdapter;
 import com.twitter.sdk.android.core.services.AccountService;
@@ -112,6 +113,7 @@ public class TwitterApiClient {
                 .registerTypeAdapterFactory(new SafeListAdapter())
                 .registerTypeAdapterFactory(new SafeMapAdapter())
                 .registerTypeAdapter(BindingValues.class, new BindingValuesAdapter())
+                .registerTypeAdapterFactory(new CollectionContentAdapter())
                 .create();
     }
 
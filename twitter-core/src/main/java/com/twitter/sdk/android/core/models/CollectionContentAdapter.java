@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.core.models;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resolves the user-trimmed Tweets of a {@link TwitterCollection.Content} to the full Users of
+ * the collection once both are parsed. Each Tweet is built once with its full User while parsing,
+ * so it does not need to be rebuilt every time the collection is read. Every Tweet by the same
+ * author references the same User instance. Only collection contents are handled, Users parsed
+ * anywhere else are left alone.
+ */
+public class CollectionContentAdapter implements TypeAdapterFactory {
+    private static final String TWEETS_KEY = "tweets";
+    private static final String USERS_KEY = "users";
+    private static final TypeToken<Map<Long, Tweet>> TWEET_MAP_TYPE =
+            new TypeToken<Map<Long, Tweet>>() {};
+    private static final TypeToken<Map<Long, User>> USER_MAP_TYPE =
+            new TypeToken<Map<Long, User>>() {};
+
+    @Override
+    public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> tokenType) {
+        if (tokenType.getRawType() == TwitterCollection.Content.class) {
+            return (TypeAdapter<T>) new ContentAdapter(gson).nullSafe();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the Tweet with the full Users in place of the trimmed Users of the Tweet and its
+     * quoted Tweet. The Tweet is only built anew if one of its Users was replaced, Users missing
+     * from the map stay trimmed.
+     */
+    static Tweet resolveUsers(Tweet tweet, Map<Long, User> users) {
+        if (tweet == null) return null;
+
+        final User fullUser = tweet.user == null ? null : users.get(tweet.user.id);
+        final User user = fullUser == null ? tweet.user : fullUser;
+        final Tweet quotedStatus = resolveUsers(tweet.quotedStatus, users);
+        if (user == tweet.user && quotedStatus == tweet.quotedStatus) {
+            return tweet;
+        }
+        return new TweetBuilder().copy(tweet).setUser(user).setQuotedStatus(quotedStatus).build();
+    }
+
+    static class ContentAdapter extends TypeAdapter<TwitterCollection.Content> {
+        final TypeAdapter<Map<Long, Tweet>> tweetMapAdapter;
+        final TypeAdapter<Map<Long, User>> userMapAdapter;
+
+        ContentAdapter(Gson gson) {
+            tweetMapAdapter = gson.getAdapter(TWEET_MAP_TYPE);
+            userMapAdapter = gson.getAdapter(USER_MAP_TYPE);
+        }
+
+        @Override
+        public void write(JsonWriter out, TwitterCollection.Content value) throws IOException {
+            out.beginObject();
+            out.name(TWEETS_KEY);
+            tweetMapAdapter.write(out, value.tweetMap);
+            out.name(USERS_KEY);
+            userMapAdapter.write(out, value.userMap);
+            out.endObject();
+        }
+
+        @Override
+        public TwitterCollection.Content read(JsonReader in) throws IOException {
+            Map<Long, Tweet> tweets = null;
+            Map<Long, User> users = null;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                final String name = in.nextName();
+                if (TWEETS_KEY.equals(name)) {
+                    tweets = tweetMapAdapter.read(in);
+                } else if (USERS_KEY.equals(name)) {
+                    users = userMapAdapter.read(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+
+            if (tweets != null && users != null) {
+                final Map<Long, Tweet> resolved = new LinkedHashMap<>(tweets.size() * 4 / 3 + 1);
+                for (Map.Entry<Long, Tweet> entry : tweets.entrySet()) {
+                    resolved.put(entry.getKey(), resolveUsers(entry.getValue(), users));
+                }
+                tweets = resolved;
+            }
+            return new TwitterCollection.Content(tweets, users);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2015 Twitter, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.twitter.sdk.android.core.models;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.twitter.sdk.android.core.TestResources;
+import com.twitter.sdk.android.core.internal.CommonUtils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+public class CollectionContentAdapterTest {
+    private static final Long TEST_USER_ID = 76348185L;
+    private static final String TEST_USER_SCREEN_NAME = "Interior";
+    private static final int EXPECTED_NUM_TWEETS = 3;
+    private static final String TEST_JSON_USERS_FIRST = "{\"users\": {\"11\": {\"id\": 11, "
+            + "\"screen_name\": \"jack\"}}, \"tweets\": {\"22\": {\"id\": 22, "
+            + "\"user\": {\"id\": 11}}}}";
+    private static final String TEST_JSON_UNKNOWN_USER = "{\"tweets\": {\"22\": {\"id\": 22, "
+            + "\"user\": {\"id\": 33}}}, \"users\": {}}";
+
+    @Rule
+    public final TestResources testResources = new TestResources();
+
+    private Gson gson;
+
+    @Before
+    public void setUp() throws Exception {
+        gson = new GsonBuilder()
+                .registerTypeAdapterFactory(new SafeListAdapter())
+                .registerTypeAdapterFactory(new SafeMapAdapter())
+                .registerTypeAdapterFactory(new CollectionContentAdapter())
+                .create();
+    }
+
+    @Test
+    public void testDeserialization_resolvesUsers() throws IOException {
+        JsonReader reader = null;
+        try {
+            reader = new JsonReader(new InputStreamReader(testResources
+                    .getAsStream("model_twitter_collection.json")));
+            final TwitterCollection twitterCollection
+                    = gson.fromJson(reader, TwitterCollection.class);
+
+            final User user = twitterCollection.contents.userMap.get(TEST_USER_ID);
+            assertEquals(TEST_USER_SCREEN_NAME, user.screenName);
+            assertEquals(EXPECTED_NUM_TWEETS, twitterCollection.contents.tweetMap.size());
+            for (Tweet tweet : twitterCollection.contents.tweetMap.values()) {
+                // every Tweet shares the full User instead of a trimmed copy
+                assertSame(user, tweet.user);
+            }
+        } finally {
+            CommonUtils.closeQuietly(reader);
+        }
+    }
+
+    @Test
+    public void testDeserialization_usersBeforeTweets() {
+        final TwitterCollection.Content content =
+                gson.fromJson(TEST_JSON_USERS_FIRST, TwitterCollection.Content.class);
+        final Tweet tweet = content.tweetMap.get(22L);
+        assertSame(content.userMap.get(11L), tweet.user);
+        assertEquals("jack", tweet.user.screenName);
+    }
+
+    @Test
+    public void testDeserialization_unknownUserStaysTrimmed() {
+        final TwitterCollection.Content content =
+                gson.fromJson(TEST_JSON_UNKNOWN_USER, TwitterCollection.Content.class);
+        final Tweet tweet = content.tweetMap.get(22L);
+        assertEquals(33L, tweet.user.id);
+        assertNull(tweet.user.screenName);
+    }
+
+    @Test
+    public void testDeserialization_userOutsideOfCollection() {
+        final User user = gson.fromJson("{\"id\": 11, \"screen_name\": \"jack\"}", User.class);
+        assertEquals(11L, user.id);
+        assertEquals("jack", user.screenName);
+    }
+
+    @Test
+    public void testCreate_onlyHandlesCollectionContent() {
+        final CollectionContentAdapter factory = new CollectionContentAdapter();
+        assertNull(factory.create(gson, TypeToken.get(User.class)));
+        assertNull(factory.create(gson, TypeToken.get(Tweet.class)));
+    }
+
+    @Test
+    public void testResolveUsers_quotedTweet() {
+        final User fullUser = new UserBuilder().setId(11L).setScreenName("jack").build();
+        final User trimmedUser = new UserBuilder().setId(11L).build();
+        final Tweet quoted = new TweetBuilder().setId(21L).setUser(trimmedUser).build();
+        final Tweet tweet = new TweetBuilder().setId(22L).setUser(trimmedUser)
+                .setQuotedStatus(quoted).build();
+        final Map<Long, User> users = Collections.singletonMap(11L, fullUser);
+        final Tweet resolved = CollectionContentAdapter.resolveUsers(tweet, users);
+        assertSame(fullUser, resolved.user);
+        assertSame(fullUser, resolved.quotedStatus.user);
+        // the parsed Tweets are left as they are
+        assertSame(trimmedUser, tweet.user);
+        assertSame(trimmedUser, quoted.user);
+    }
+
+    @Test
+    public void testResolveUsers_resolvedTweetIsNotCopied() {
+        final User fullUser = new UserBuilder().setId(11L).setScreenName("jack").build();
+        final Tweet tweet = new TweetBuilder().setId(22L).setUser(fullUser).build();
+        final Map<Long, User> users = Collections.singletonMap(11L, fullUser);
+        assertSame(tweet, CollectionContentAdapter.resolveUsers(tweet, users));
+    }
+
+    @Test
+    public void testDeserialization_nullContent() {
+        final TwitterCollection twitterCollection =
+                gson.fromJson("{\"objects\": null}", TwitterCollection.class);
+        assertNull(twitterCollection.contents);
+    }
+
+    @Test
+    public void testSerialization_nullContent() {
+        final TwitterCollection twitterCollection = new TwitterCollection(null, null);
+        assertEquals("{}", gson.toJson(twitterCollection));
+        assertEquals("null", gson.toJson(null, TwitterCollection.Content.class));
+    }
+}